@@ -0,0 +1,77 @@
+package Eventos;
+
+/**
+ * Cambio de estado de un asiento o de los cupos de una localidad, publicado en el
+ * {@link CanalCambios} del evento.
+ * En localidades numeradas cada cambio indica el nuevo estado de un asiento.
+ * En localidades no numeradas el asiento es -1 y la cantidad es el cambio neto de cupos en
+ * ese estado (negativa si salieron de él).
+ */
+public final class CambioAsiento {
+
+	public static final String LIBRE = "Libre";
+	public static final String RETENIDO = "Retenido";
+	public static final String VENDIDO = "Vendido";
+
+	// Atributos
+	private final long secuencia;
+	private final Localidad localidad;
+	private final int asiento;
+	private final String estado;
+	private final int cantidad;
+
+	// Ctor
+
+	/**
+	 * Crea un cambio.
+	 *
+	 * @param secuencia Posición del cambio en el canal.
+	 * @param localidad Localidad afectada.
+	 * @param asiento Número de asiento, o -1 para cupos generales.
+	 * @param estado Nuevo estado: {@link #LIBRE}, {@link #RETENIDO} o {@link #VENDIDO}.
+	 * @param cantidad 1 para asientos; cambio neto de cupos para localidades no numeradas.
+	 */
+	CambioAsiento(long secuencia, Localidad localidad, int asiento, String estado, int cantidad) {
+		this.secuencia = secuencia;
+		this.localidad = localidad;
+		this.asiento = asiento;
+		this.estado = estado;
+		this.cantidad = cantidad;
+	}
+
+	// Getters
+
+	public long getSecuencia() {
+		return secuencia;
+	}
+
+	public Localidad getLocalidad() {
+		return localidad;
+	}
+
+	public int getAsiento() {
+		return asiento;
+	}
+
+	public String getEstado() {
+		return estado;
+	}
+
+	public int getCantidad() {
+		return cantidad;
+	}
+
+	/**
+	 * Indica si el cambio corresponde a cupos de una localidad no numerada.
+	 *
+	 * @return {@code true} si no se refiere a un asiento específico.
+	 */
+	public boolean esDeCupos() {
+		return asiento < 0;
+	}
+
+	@Override
+	public String toString() {
+		return localidad.getNombre() + (esDeCupos() ? " cupos " + cantidad : " asiento " + asiento) + " -> " + estado;
+	}
+}
@@ -0,0 +1,199 @@
+package Eventos;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Canal de cambios de asientos de un evento.
+ * Los cambios se escriben en un arreglo circular con un contador atómico: publicar cuesta O(1),
+ * no toma candados y no depende de cuántos suscriptores haya. Cada {@link SuscripcionCambios}
+ * lleva su propio cursor y lee a su ritmo; si se atrasa más de una vuelta del arreglo, se le
+ * indica que debe resincronizarse leyendo la disponibilidad completa.
+ * Los suscriptores que esperan cambios (long-poll) se despiertan desde un hilo aparte, nunca
+ * desde el hilo del comprador.
+ * Como las suscripciones se quedan con el último estado de cada asiento, quien cambia un asiento
+ * lo hace y lo publica dentro de {@link #candadoAsiento(Localidad, int)}: así la secuencia de
+ * los cambios de un mismo asiento sigue el orden en que ocurrieron.
+ */
+public class CanalCambios {
+
+	private static final int CAPACIDAD_POR_DEFECTO = 1 << 14;
+	private static final int CANDADOS = 64;
+	private static final ExecutorService NOTIFICADOR = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "aviso-cambios-asientos");
+		t.setDaemon(true);
+		return t;
+	});
+
+	// Atributos
+	private final AtomicReferenceArray<CambioAsiento> anillo;
+	private final int mascara;
+	private final AtomicLong siguiente;
+	private final AtomicInteger suscriptores;
+	private final AtomicInteger esperando;
+	private final AtomicBoolean avisoPendiente;
+	private final Object senal;
+	private final Object[] candados;
+
+	// Ctor
+
+	/**
+	 * Crea un canal con la capacidad por defecto.
+	 *
+	 * @post El canal queda vacío y sin suscriptores.
+	 */
+	public CanalCambios() {
+		this(CAPACIDAD_POR_DEFECTO);
+	}
+
+	/**
+	 * Crea un canal.
+	 *
+	 * @param capacidad Cambios que se conservan para suscriptores atrasados; se redondea a potencia de dos.
+	 * @pre capacidad > 0.
+	 * @post El canal queda vacío y sin suscriptores.
+	 */
+	public CanalCambios(int capacidad) {
+		if (capacidad <= 0) {
+			throw new IllegalArgumentException("La capacidad del canal debe ser positiva.");
+		}
+		int n = Integer.highestOneBit(capacidad);
+		if (n < capacidad) {
+			n <<= 1;
+		}
+		this.anillo = new AtomicReferenceArray<CambioAsiento>(n);
+		this.mascara = n - 1;
+		this.siguiente = new AtomicLong(0);
+		this.suscriptores = new AtomicInteger(0);
+		this.esperando = new AtomicInteger(0);
+		this.avisoPendiente = new AtomicBoolean(false);
+		this.senal = new Object();
+		this.candados = new Object[CANDADOS];
+		for (int i = 0; i < CANDADOS; i++) {
+			candados[i] = new Object();
+		}
+	}
+
+	// Getters
+
+	public int getSuscriptores() {
+		return suscriptores.get();
+	}
+
+	/**
+	 * Obtiene la secuencia que tendrá el próximo cambio publicado.
+	 *
+	 * @return Número de cambios publicados hasta ahora.
+	 */
+	public long getSecuencia() {
+		return siguiente.get();
+	}
+
+	public int getCapacidad() {
+		return mascara + 1;
+	}
+
+	/**
+	 * Indica si el canal está registrando cambios, es decir, si tiene suscriptores.
+	 *
+	 * @return {@code true} si hay al menos una suscripción activa.
+	 */
+	public boolean isRegistrando() {
+		return suscriptores.get() > 0;
+	}
+
+	/**
+	 * Obtiene el candado que ordena los cambios de un asiento. Quien cambia el asiento y
+	 * publica el cambio mientras lo tiene recibe una secuencia en el mismo orden en que
+	 * ocurrieron los cambios, aunque vengan de hilos distintos.
+	 *
+	 * @param localidad Localidad del asiento.
+	 * @param asiento Número de asiento.
+	 * @return Candado compartido por una franja de asientos.
+	 */
+	Object candadoAsiento(Localidad localidad, int asiento) {
+		int h = (int) localidad.getOrdenReserva() * 31 + asiento;
+		return candados[(h ^ (h >>> 16)) & (CANDADOS - 1)];
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Crea una suscripción que recibe los cambios publicados desde este momento.
+	 *
+	 * @param filtro Localidad cuyos cambios interesan, o {@code null} para todo el evento.
+	 * @return Suscripción activa.
+	 * @post El canal empieza a registrar cambios (si no había suscriptores, no lo hacía).
+	 */
+	public SuscripcionCambios suscribir(Localidad filtro) {
+		suscriptores.incrementAndGet();
+		return new SuscripcionCambios(this, filtro, siguiente.get());
+	}
+
+	/**
+	 * Publica un cambio. Si no hay suscriptores no hace nada.
+	 * Un cambio de asiento se publica con el candado del asiento tomado, en la misma sección
+	 * crítica en que se aplicó; los cambios de cupos son netos y su orden no importa.
+	 *
+	 * @param localidad Localidad afectada.
+	 * @param asiento Número de asiento, o -1 para cupos generales.
+	 * @param estado Nuevo estado.
+	 * @param cantidad 1 para asientos; cambio neto de cupos para localidades no numeradas.
+	 * @post El cambio queda disponible para todas las suscripciones activas.
+	 */
+	public void publicar(Localidad localidad, int asiento, String estado, int cantidad) {
+		if (suscriptores.get() == 0) {
+			return;
+		}
+		long secuencia = siguiente.getAndIncrement();
+		anillo.set((int) (secuencia & mascara), new CambioAsiento(secuencia, localidad, asiento, estado, cantidad));
+		if (esperando.get() > 0 && avisoPendiente.compareAndSet(false, true)) {
+			NOTIFICADOR.execute(this::avisar);
+		}
+	}
+
+	// Uso interno de las suscripciones
+
+	/**
+	 * Lee el cambio con una secuencia dada.
+	 *
+	 * @return El cambio; {@code null} si aún no se ha escrito; un cambio con otra secuencia si ya fue sobrescrito.
+	 */
+	CambioAsiento leer(long secuencia) {
+		return anillo.get((int) (secuencia & mascara));
+	}
+
+	void cancelarSuscripcion() {
+		suscriptores.decrementAndGet();
+	}
+
+	/**
+	 * Espera hasta que haya cambios a partir de una secuencia o se agote el tiempo.
+	 */
+	void esperar(long desde, long milisegundos) throws InterruptedException {
+		long limite = System.currentTimeMillis() + milisegundos;
+		synchronized (senal) {
+			esperando.incrementAndGet();
+			try {
+				long restante = milisegundos;
+				while (siguiente.get() <= desde && restante > 0) {
+					senal.wait(restante);
+					restante = limite - System.currentTimeMillis();
+				}
+			} finally {
+				esperando.decrementAndGet();
+			}
+		}
+	}
+
+	private void avisar() {
+		avisoPendiente.set(false);
+		synchronized (senal) {
+			senal.notifyAll();
+		}
+	}
+}
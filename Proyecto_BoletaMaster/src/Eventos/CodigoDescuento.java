@@ -0,0 +1,316 @@
+package Eventos;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Tiquetes.Dinero;
+
+/**
+ * Código de descuento que un cliente escribe al pagar. El descuento es un porcentaje o un
+ * monto fijo y su alcance es un evento, una localidad, un tipo de evento o un tipo de producto
+ * ({@link Cotizador#INDIVIDUAL}, {@link Cotizador#MULTIPLE}, {@link Cotizador#PASE_TEMPORADA}
+ * o {@link Cotizador#DELUXE}).
+ * La regla se compila al crear el código: el porcentaje queda como fracción, el monto fijo en
+ * centavos y el alcance como un número, así que evaluarla no reserva memoria. Los canjes se
+ * cuentan con una operación atómica que respeta el máximo de usos aunque varios clientes
+ * paguen a la vez. Los códigos se registran en el {@link MotorDescuentos}.
+ * El texto del código solo admite letras, dígitos, '-' y '_', así que se puede guardar tal cual
+ * en los archivos de compras.
+ */
+public final class CodigoDescuento {
+
+	public static final String PORCENTAJE = "Porcentaje";
+	public static final String FIJO = "Fijo";
+
+	public static final String ALCANCE_EVENTO = "Evento";
+	public static final String ALCANCE_LOCALIDAD = "Localidad";
+	public static final String ALCANCE_TIPO_EVENTO = "TipoEvento";
+	public static final String ALCANCE_TIPO_PRODUCTO = "TipoProducto";
+
+	static final int EVENTO = 0;
+	static final int LOCALIDAD = 1;
+	static final int TIPO_EVENTO = 2;
+	static final int TIPO_PRODUCTO = 3;
+
+	// Atributos
+	private final String codigo;
+	private final String tipo;
+	private final double valor;
+	private final int alcance;
+	private final Evento evento;
+	private final Localidad localidad;
+	private final String tipoEvento;
+	private final String tipoProducto;
+	private final int usosMaximos;
+	private final AtomicInteger usos;
+
+	// Regla compilada
+	private final double fraccion;
+	private final long montoFijo;
+
+	// Ctor
+
+	private CodigoDescuento(String codigo, String tipo, double valor, int alcance, Evento evento, Localidad localidad,
+			String tipoEvento, String tipoProducto, int usosMaximos) throws IllegalArgumentException {
+		if (codigo == null || codigo.isBlank()) {
+			throw new IllegalArgumentException("El código de descuento no puede estar vacío.");
+		}
+		if (PORCENTAJE.equals(tipo)) {
+			if (valor <= 0 || valor > 100) {
+				throw new IllegalArgumentException("El porcentaje de descuento debe estar entre 0 y 100.");
+			}
+		} else if (FIJO.equals(tipo)) {
+			if (valor <= 0) {
+				throw new IllegalArgumentException("El monto del descuento debe ser positivo.");
+			}
+		} else {
+			throw new IllegalArgumentException("Tipo de descuento inválido: " + tipo + ".");
+		}
+		if (usosMaximos < 0) {
+			throw new IllegalArgumentException("El máximo de usos no puede ser negativo.");
+		}
+		this.codigo = normalizar(codigo);
+		for (int i = 0; i < this.codigo.length(); i++) {
+			char ch = this.codigo.charAt(i);
+			if (!Character.isLetterOrDigit(ch) && ch != '-' && ch != '_') {
+				throw new IllegalArgumentException("El código de descuento solo admite letras, dígitos, '-' y '_'.");
+			}
+		}
+		this.tipo = tipo;
+		this.valor = valor;
+		this.alcance = alcance;
+		this.evento = evento;
+		this.localidad = localidad;
+		this.tipoEvento = tipoEvento;
+		this.tipoProducto = tipoProducto;
+		this.usosMaximos = usosMaximos;
+		this.usos = new AtomicInteger();
+		this.fraccion = PORCENTAJE.equals(tipo) ? valor / 100.0 : 0.0;
+		this.montoFijo = FIJO.equals(tipo) ? Dinero.deValor(valor) : 0;
+	}
+
+	/**
+	 * Crea un código válido en todas las localidades de un evento.
+	 *
+	 * @param codigo Texto del código: letras, dígitos, '-' y '_'; no distingue mayúsculas.
+	 * @param tipo {@link #PORCENTAJE} o {@link #FIJO}.
+	 * @param valor Porcentaje (0–100) o monto fijo por compra.
+	 * @param evento Evento del código.
+	 * @param usosMaximos Canjes permitidos; 0 para no limitar.
+	 * @return Código compilado.
+	 * @throws IllegalArgumentException si algún dato es inválido.
+	 */
+	public static CodigoDescuento paraEvento(String codigo, String tipo, double valor, Evento evento, int usosMaximos)
+			throws IllegalArgumentException {
+		if (evento == null) {
+			throw new IllegalArgumentException("Evento inválido.");
+		}
+		return new CodigoDescuento(codigo, tipo, valor, EVENTO, evento, null, null, null, usosMaximos);
+	}
+
+	/**
+	 * Crea un código válido solo en una localidad.
+	 *
+	 * @param codigo Texto del código: letras, dígitos, '-' y '_'; no distingue mayúsculas.
+	 * @param tipo {@link #PORCENTAJE} o {@link #FIJO}.
+	 * @param valor Porcentaje (0–100) o monto fijo por compra.
+	 * @param localidad Localidad del código; debe pertenecer a un evento.
+	 * @param usosMaximos Canjes permitidos; 0 para no limitar.
+	 * @return Código compilado.
+	 * @throws IllegalArgumentException si algún dato es inválido.
+	 */
+	public static CodigoDescuento paraLocalidad(String codigo, String tipo, double valor, Localidad localidad,
+			int usosMaximos) throws IllegalArgumentException {
+		if (localidad == null || localidad.getEvento() == null) {
+			throw new IllegalArgumentException("Localidad inválida.");
+		}
+		return new CodigoDescuento(codigo, tipo, valor, LOCALIDAD, localidad.getEvento(), localidad, null, null,
+				usosMaximos);
+	}
+
+	/**
+	 * Crea un código válido en todos los eventos de un tipo.
+	 *
+	 * @param codigo Texto del código: letras, dígitos, '-' y '_'; no distingue mayúsculas.
+	 * @param tipo {@link #PORCENTAJE} o {@link #FIJO}.
+	 * @param valor Porcentaje (0–100) o monto fijo por compra.
+	 * @param tipoEvento Tipo de evento, por ejemplo "Concierto".
+	 * @param usosMaximos Canjes permitidos; 0 para no limitar.
+	 * @return Código compilado.
+	 * @throws IllegalArgumentException si algún dato es inválido.
+	 */
+	public static CodigoDescuento paraTipoEvento(String codigo, String tipo, double valor, String tipoEvento,
+			int usosMaximos) throws IllegalArgumentException {
+		if (tipoEvento == null || tipoEvento.isBlank()) {
+			throw new IllegalArgumentException("Tipo de evento inválido.");
+		}
+		return new CodigoDescuento(codigo, tipo, valor, TIPO_EVENTO, null, null, tipoEvento, null, usosMaximos);
+	}
+
+	/**
+	 * Crea un código válido para un tipo de producto en cualquier evento.
+	 *
+	 * @param codigo Texto del código: letras, dígitos, '-' y '_'; no distingue mayúsculas.
+	 * @param tipo {@link #PORCENTAJE} o {@link #FIJO}.
+	 * @param valor Porcentaje (0–100) o monto fijo por compra.
+	 * @param tipoProducto Tipo de producto del {@link Cotizador}.
+	 * @param usosMaximos Canjes permitidos; 0 para no limitar.
+	 * @return Código compilado.
+	 * @throws IllegalArgumentException si algún dato es inválido.
+	 */
+	public static CodigoDescuento paraTipoProducto(String codigo, String tipo, double valor, String tipoProducto,
+			int usosMaximos) throws IllegalArgumentException {
+		Cotizador.indiceTipo(tipoProducto);
+		return new CodigoDescuento(codigo, tipo, valor, TIPO_PRODUCTO, null, null, null, tipoProducto, usosMaximos);
+	}
+
+	// Getters
+
+	public String getCodigo() {
+		return codigo;
+	}
+
+	public String getTipo() {
+		return tipo;
+	}
+
+	public double getValor() {
+		return valor;
+	}
+
+	/**
+	 * Obtiene el alcance del código.
+	 *
+	 * @return {@link #ALCANCE_EVENTO}, {@link #ALCANCE_LOCALIDAD}, {@link #ALCANCE_TIPO_EVENTO}
+	 *         o {@link #ALCANCE_TIPO_PRODUCTO}.
+	 */
+	public String getAlcance() {
+		switch (alcance) {
+		case EVENTO:
+			return ALCANCE_EVENTO;
+		case LOCALIDAD:
+			return ALCANCE_LOCALIDAD;
+		case TIPO_EVENTO:
+			return ALCANCE_TIPO_EVENTO;
+		default:
+			return ALCANCE_TIPO_PRODUCTO;
+		}
+	}
+
+	public Evento getEvento() {
+		return evento;
+	}
+
+	public Localidad getLocalidad() {
+		return localidad;
+	}
+
+	public String getTipoEvento() {
+		return tipoEvento;
+	}
+
+	public String getTipoProducto() {
+		return tipoProducto;
+	}
+
+	public int getUsosMaximos() {
+		return usosMaximos;
+	}
+
+	public int getUsos() {
+		return usos.get();
+	}
+
+	/**
+	 * Indica si al código le quedan canjes.
+	 *
+	 * @return {@code true} si no tiene máximo o no lo ha alcanzado.
+	 */
+	public boolean tieneUsosDisponibles() {
+		return usosMaximos == 0 || usos.get() < usosMaximos;
+	}
+
+	int getAlcanceCompilado() {
+		return alcance;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Indica si el código aplica a un producto.
+	 *
+	 * @param evento Evento del producto.
+	 * @param localidad Localidad del producto.
+	 * @param tipoProducto Tipo de producto del {@link Cotizador}.
+	 * @return {@code true} si el producto está dentro del alcance.
+	 */
+	public boolean aplica(Evento evento, Localidad localidad, String tipoProducto) {
+		switch (alcance) {
+		case EVENTO:
+			return this.evento == evento;
+		case LOCALIDAD:
+			return this.localidad == localidad;
+		case TIPO_EVENTO:
+			return evento != null && this.tipoEvento.equals(evento.getTipoEvento());
+		default:
+			return this.tipoProducto.equals(tipoProducto);
+		}
+	}
+
+	/**
+	 * Calcula el descuento sobre el subtotal de los productos a los que aplica el código.
+	 * Un porcentaje se aplica al subtotal; un monto fijo se descuenta una vez por compra sin
+	 * pasar del subtotal.
+	 *
+	 * @param subtotalCentavos Precio de los productos dentro del alcance, sin cargos, en centavos.
+	 * @return Descuento en centavos, entre 0 y el subtotal.
+	 */
+	public long calcularDescuentoCentavos(long subtotalCentavos) {
+		if (subtotalCentavos <= 0) {
+			return 0;
+		}
+		long descuento = montoFijo > 0 ? montoFijo : Dinero.aplicarTasa(subtotalCentavos, fraccion);
+		return Math.min(descuento, subtotalCentavos);
+	}
+
+	/**
+	 * Registra un canje si quedan usos.
+	 *
+	 * @return {@code true} si se registró; {@code false} si el código ya llegó a su máximo.
+	 * @post Los usos nunca superan el máximo, aunque se canjee desde varios hilos.
+	 */
+	public boolean canjear() {
+		if (usosMaximos == 0) {
+			usos.incrementAndGet();
+			return true;
+		}
+		while (true) {
+			int actuales = usos.get();
+			if (actuales >= usosMaximos) {
+				return false;
+			}
+			if (usos.compareAndSet(actuales, actuales + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Devuelve un canje, por ejemplo cuando la compra que lo usó no se completa.
+	 *
+	 * @post Los usos bajan en uno, sin quedar negativos.
+	 */
+	public void devolverCanje() {
+		usos.getAndUpdate(u -> u > 0 ? u - 1 : 0);
+	}
+
+	/**
+	 * Normaliza el texto de un código para buscarlo.
+	 *
+	 * @param codigo Texto escrito por el cliente.
+	 * @return Código sin espacios alrededor y en mayúsculas; el mismo objeto si ya lo estaba.
+	 */
+	static String normalizar(String codigo) {
+		return codigo.strip().toUpperCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,123 @@
+package Eventos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Desglose inmutable del precio de un producto (tiquete individual o paquete por unidad) en una
+ * localidad y un instante, calculado por el {@link Cotizador}.
+ * Guarda las versiones de precios, ofertas y tarifas con que se calculó y el intervalo de
+ * tiempo en que las ofertas activas no cambian, para saber cuándo puede reutilizarse.
+ */
+public final class Cotizacion {
+
+	// Atributos
+	private final Localidad localidad;
+	private final String tipo;
+	private final double precioBase;
+	private final double porcentajeDescuento;
+	private final double precio;
+	private final double cargoServicio;
+	private final double cuotaEmision;
+	private final long versionPrecio;
+	private final long versionOfertas;
+	private final long versionTarifas;
+	private final LocalDateTime desde;
+	private final LocalDateTime hasta;
+
+	// Ctor
+
+	Cotizacion(Localidad localidad, String tipo, double precioBase, double porcentajeDescuento, double precio,
+			double cargoServicio, double cuotaEmision, long versionPrecio, long versionOfertas, long versionTarifas,
+			LocalDateTime desde, LocalDateTime hasta) {
+		this.localidad = localidad;
+		this.tipo = tipo;
+		this.precioBase = precioBase;
+		this.porcentajeDescuento = porcentajeDescuento;
+		this.precio = precio;
+		this.cargoServicio = cargoServicio;
+		this.cuotaEmision = cuotaEmision;
+		this.versionPrecio = versionPrecio;
+		this.versionOfertas = versionOfertas;
+		this.versionTarifas = versionTarifas;
+		this.desde = desde;
+		this.hasta = hasta;
+	}
+
+	// Getters
+
+	public Localidad getLocalidad() {
+		return localidad;
+	}
+
+	public String getTipo() {
+		return tipo;
+	}
+
+	/**
+	 * Obtiene el precio unitario antes de descuentos.
+	 *
+	 * @return Precio de lista de la localidad para el tipo de producto.
+	 */
+	public double getPrecioBase() {
+		return precioBase;
+	}
+
+	/**
+	 * Obtiene el descuento aplicado: el mayor de las ofertas activas de la localidad.
+	 *
+	 * @return Porcentaje entre 0 y 100.
+	 */
+	public double getPorcentajeDescuento() {
+		return porcentajeDescuento;
+	}
+
+	public double getDescuento() {
+		return precioBase - precio;
+	}
+
+	/**
+	 * Obtiene el precio unitario con descuento, sin cargos.
+	 *
+	 * @return Precio con descuento.
+	 */
+	public double getPrecio() {
+		return precio;
+	}
+
+	public double getCargoServicio() {
+		return cargoServicio;
+	}
+
+	public double getCuotaEmision() {
+		return cuotaEmision;
+	}
+
+	/**
+	 * Obtiene el total a pagar por unidad.
+	 *
+	 * @return Precio con descuento más cargo de servicio y cuota de emisión.
+	 */
+	public double getTotal() {
+		return precio + cargoServicio + cuotaEmision;
+	}
+
+	/**
+	 * Obtiene el instante hasta el cual las ofertas aplicadas no cambian (exclusivo).
+	 *
+	 * @return Próximo cambio de ofertas, o {@code null} si no hay más.
+	 */
+	public LocalDateTime getValidaHasta() {
+		return hasta;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Indica si la cotización sigue siendo correcta para un instante y unas versiones dadas.
+	 */
+	boolean vigente(LocalDateTime fecha, long versionPrecio, long versionOfertas, long versionTarifas) {
+		return this.versionPrecio == versionPrecio && this.versionOfertas == versionOfertas
+				&& this.versionTarifas == versionTarifas && !fecha.isBefore(desde)
+				&& (hasta == null || fecha.isBefore(hasta));
+	}
+}
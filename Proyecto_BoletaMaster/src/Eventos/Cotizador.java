@@ -0,0 +1,180 @@
+package Eventos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import Tiquetes.Dinero;
+import Usuarios.TarifasServicio;
+
+/**
+ * Motor de cotización de precios. Dado un evento, una localidad, un tipo de producto y un
+ * instante, calcula el precio unitario con el mayor descuento de las ofertas activas de la
+ * localidad, el cargo de servicio según el tipo de evento y la cuota de emisión del
+ * administrador, tomados de la versión de {@link TarifasServicio} del evento
+ * ({@link Evento#getTarifas()}) y calculados en centavos igual que al cobrar. Los precios de lista se leen de un solo
+ * {@link PreciosLocalidad}, de modo que una cotización nunca mezcla precios de antes y
+ * después de un ajuste (manual o dinámico).
+ * Las cotizaciones se guardan en la localidad (una por tipo de producto) y se reutilizan
+ * mientras no cambien el precio de la localidad ({@link Localidad#getVersionPrecio()}), las
+ * ofertas del evento ({@link Evento#getVersionOfertas()}) ni la versión de tarifas del evento,
+ * que solo avanza con el {@link RepreciadorTarifas}, y mientras el instante no cruce el próximo
+ * inicio o fin de una oferta. Así un catálogo o un carrito pueden cotizar miles de productos
+ * sin recalcular. Cotizar no modifica la localidad: el precio dinámico se evalúa en las
+ * ventas y el {@link HistorialPrecios} se alimenta de los cambios de precio.
+ */
+public class Cotizador {
+
+	public static final String INDIVIDUAL = "Individual";
+	public static final String MULTIPLE = "Multiple";
+	public static final String PASE_TEMPORADA = "PaseTemporada";
+	public static final String DELUXE = "Deluxe";
+
+	static final int TIPOS = 4;
+
+	private static final Cotizador INSTANCIA = new Cotizador();
+
+	// Atributos
+	private final LongAdder aciertos;
+	private final LongAdder calculos;
+
+	// Ctor
+
+	private Cotizador() {
+		this.aciertos = new LongAdder();
+		this.calculos = new LongAdder();
+	}
+
+	/**
+	 * Obtiene el cotizador de la aplicación.
+	 *
+	 * @return Instancia única.
+	 */
+	public static Cotizador getInstance() {
+		return INSTANCIA;
+	}
+
+	// Getters
+
+	/**
+	 * Obtiene cuántas cotizaciones se resolvieron con un resultado guardado.
+	 *
+	 * @return Cotizaciones reutilizadas.
+	 */
+	public long getAciertos() {
+		return aciertos.sum();
+	}
+
+	/**
+	 * Obtiene cuántas cotizaciones se calcularon.
+	 *
+	 * @return Cotizaciones calculadas.
+	 */
+	public long getCalculos() {
+		return calculos.sum();
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Cotiza un producto en la localidad de su propio evento.
+	 *
+	 * @param localidad Localidad del producto.
+	 * @param tipo Tipo de producto: {@link #INDIVIDUAL}, {@link #MULTIPLE}, {@link #PASE_TEMPORADA} o {@link #DELUXE}.
+	 * @param fecha Instante de la compra.
+	 * @return Desglose del precio por unidad.
+	 * @throws IllegalArgumentException si la localidad no tiene evento o el tipo no existe.
+	 */
+	public Cotizacion cotizar(Localidad localidad, String tipo, LocalDateTime fecha) throws IllegalArgumentException {
+		if (localidad == null) {
+			throw new IllegalArgumentException("Localidad inválida.");
+		}
+		return cotizar(localidad.getEvento(), localidad, tipo, fecha);
+	}
+
+	/**
+	 * Cotiza un producto.
+	 *
+	 * @param evento Evento cuyas ofertas y tarifas aplican.
+	 * @param localidad Localidad del producto.
+	 * @param tipo Tipo de producto: {@link #INDIVIDUAL}, {@link #MULTIPLE}, {@link #PASE_TEMPORADA} o {@link #DELUXE}.
+	 * @param fecha Instante de la compra.
+	 * @return Desglose del precio por unidad.
+	 * @throws IllegalArgumentException si evento, localidad, fecha o tipo no son válidos.
+	 * @pre evento y localidad definidos.
+	 * @post Si la cotización se calculó, queda guardada en la localidad.
+	 */
+	public Cotizacion cotizar(Evento evento, Localidad localidad, String tipo, LocalDateTime fecha) throws IllegalArgumentException {
+		if (evento == null || localidad == null || fecha == null) {
+			throw new IllegalArgumentException("Evento, localidad o fecha inválidos.");
+		}
+		int indice = indiceTipo(tipo);
+		PreciosLocalidad precios = localidad.getPrecios();
+		long versionPrecio = precios.getVersion();
+		long versionOfertas = evento.getVersionOfertas();
+		TarifasServicio tarifas = evento.getTarifas();
+		long versionTarifas = tarifas.getVersion();
+
+		AtomicReferenceArray<Cotizacion> guardadas = localidad.getCotizaciones();
+		Cotizacion c = guardadas.get(indice);
+		if (c != null && evento == localidad.getEvento() && c.vigente(fecha, versionPrecio, versionOfertas, versionTarifas)) {
+			aciertos.increment();
+			return c;
+		}
+
+		calculos.increment();
+		double precioBase = precioLista(precios, indice);
+		double porcentaje = 0.0;
+		IndiceOfertas indiceOfertas = evento.getIndiceOfertas();
+		List<Oferta> activas = indiceOfertas.activas(fecha, localidad);
+		Oferta mejor = null;
+		for (Oferta o : activas) {
+			if (mejor == null || o.getPorcentajeDescuento() > mejor.getPorcentajeDescuento()) {
+				mejor = o;
+			}
+		}
+		double precio = precioBase;
+		if (mejor != null) {
+			porcentaje = mejor.getPorcentajeDescuento();
+			precio = mejor.aplicarDescuento(precioBase);
+		}
+		long cargo = tarifas.calcularCargoCentavos(evento.getTipoEvento(), Dinero.deValor(precio));
+		c = new Cotizacion(localidad, tipo, precioBase, porcentaje, precio,
+				Dinero.aValor(cargo), Dinero.aValor(tarifas.getCuotaEmisionCentavos()), versionPrecio, versionOfertas,
+				versionTarifas, fecha, indiceOfertas.siguienteCambio(fecha, localidad));
+		if (evento == localidad.getEvento()) {
+			guardadas.set(indice, c);
+		}
+		return c;
+	}
+
+	private static double precioLista(PreciosLocalidad precios, int indice) {
+		switch (indice) {
+		case 0:
+			return precios.getPrecioBase();
+		case 1:
+			return precios.getPrecioPaquete();
+		case 2:
+			return precios.getPrecioPaseTemporada();
+		default:
+			return precios.getPrecioDeluxe();
+		}
+	}
+
+	static int indiceTipo(String tipo) throws IllegalArgumentException {
+		if (INDIVIDUAL.equals(tipo)) {
+			return 0;
+		}
+		if (MULTIPLE.equals(tipo)) {
+			return 1;
+		}
+		if (PASE_TEMPORADA.equals(tipo)) {
+			return 2;
+		}
+		if (DELUXE.equals(tipo)) {
+			return 3;
+		}
+		throw new IllegalArgumentException("Tipo de producto inválido: " + tipo + ".");
+	}
+}
@@ -0,0 +1,258 @@
+package Eventos;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asignador de cupos para localidades no numeradas.
+ * Los cupos libres se reparten entre una reserva global y varias franjas locales;
+ * cada hilo toma cupos de su franja y, cuando se le acaban, trae un lote desde la
+ * reserva global o toma cupos sobrantes de otras franjas. Así los compradores
+ * simultáneos casi nunca compiten por el mismo contador y, como cada cupo existe
+ * en un solo lugar a la vez, nunca se venden más cupos que la capacidad.
+ * Si la capacidad baja por debajo de lo vendido, la reserva global queda en negativo y los
+ * cupos devueltos pagan esa deuda antes de volver a venderse.
+ */
+public class CupoGeneral {
+
+	private static final int LOTE_MAXIMO = 64;
+	private static final int SEPARACION = 16; // 16 enteros = 64 bytes, una línea de caché por franja
+	private static final int MAXIMO_FRANJAS = 64;
+
+	// Atributos
+	private final AtomicInteger global;
+	private final AtomicIntegerArray franjas;
+	private final int numeroFranjas;
+	private final AtomicInteger vendidos;
+	private final AtomicLong trasladosIniciados;
+	private final AtomicLong trasladosTerminados;
+	private int capacidad;
+
+	// Ctor
+
+	/**
+	 * Crea un asignador con todos sus cupos libres en la reserva global.
+	 *
+	 * @param capacidad Número total de cupos.
+	 * @pre capacidad >= 0.
+	 * @post Hay exactamente capacidad cupos disponibles y ninguno vendido.
+	 */
+	public CupoGeneral(int capacidad) {
+		if (capacidad < 0) {
+			throw new IllegalArgumentException("La capacidad no puede ser negativa.");
+		}
+		int procesadores = Runtime.getRuntime().availableProcessors();
+		int n = Integer.highestOneBit(Math.max(1, procesadores - 1)) << 1;
+		this.numeroFranjas = Math.min(n, MAXIMO_FRANJAS);
+		this.franjas = new AtomicIntegerArray(numeroFranjas * SEPARACION);
+		this.global = new AtomicInteger(capacidad);
+		this.vendidos = new AtomicInteger();
+		this.trasladosIniciados = new AtomicLong();
+		this.trasladosTerminados = new AtomicLong();
+		this.capacidad = capacidad;
+	}
+
+	// Getters
+
+	/**
+	 * Obtiene la capacidad total del asignador.
+	 *
+	 * @return Número total de cupos.
+	 */
+	public synchronized int getCapacidad() {
+		return capacidad;
+	}
+
+	/**
+	 * Obtiene el número de cupos vendidos.
+	 *
+	 * @return Cupos tomados y no devueltos.
+	 */
+	public int getVendidos() {
+		return vendidos.get();
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Intenta tomar un cupo.
+	 *
+	 * Si la búsqueda falla mientras otro hilo está moviendo un lote entre la reserva global
+	 * y una franja, se repite para no rechazar una compra cuando aún quedan cupos.
+	 *
+	 * @return {@code true} si se obtuvo un cupo; {@code false} si no quedan cupos.
+	 * @post Si retorna {@code true}, hay un cupo menos disponible y uno más vendido.
+	 */
+	public boolean tomar() {
+		int propia = franjaActual();
+		while (true) {
+			long terminadosAntes = trasladosTerminados.get();
+			if (tomarDeFranja(propia) || tomarDeGlobal(propia) || tomarDeOtrasFranjas(propia)) {
+				vendidos.incrementAndGet();
+				return true;
+			}
+			long terminados = trasladosTerminados.get();
+			if (terminados == terminadosAntes && trasladosIniciados.get() == terminados) {
+				return false;
+			}
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * Devuelve un cupo tomado previamente.
+	 * El conteo de vendidos se revisa y se descuenta en un solo CAS, así dos cancelaciones
+	 * simultáneas del último cupo no crean un cupo que nunca se vendió.
+	 *
+	 * @pre Hay al menos un cupo vendido.
+	 * @post El cupo vuelve a estar disponible, o paga la deuda de una reducción de capacidad;
+	 *       si la franja acumula demasiados, el excedente regresa a la reserva global para que
+	 *       otros hilos lo encuentren.
+	 */
+	public void devolver() throws IllegalStateException {
+		int actual;
+		do {
+			actual = vendidos.get();
+			if (actual <= 0) {
+				throw new IllegalStateException("No hay reservas que cancelar.");
+			}
+		} while (!vendidos.compareAndSet(actual, actual - 1));
+		// Se cuenta como traslado para que setCapacidad espere a que el cupo llegue a su franja.
+		trasladosIniciados.incrementAndGet();
+		try {
+			int deuda;
+			while ((deuda = global.get()) < 0) {
+				if (global.compareAndSet(deuda, deuda + 1)) {
+					return;
+				}
+			}
+			int indice = franjaActual() * SEPARACION;
+			int enFranja = franjas.incrementAndGet(indice);
+			if (enFranja > 2 * LOTE_MAXIMO && franjas.compareAndSet(indice, enFranja, LOTE_MAXIMO)) {
+				global.addAndGet(enFranja - LOTE_MAXIMO);
+			}
+		} finally {
+			trasladosTerminados.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Indica si quedan cupos disponibles en alguna parte del asignador.
+	 *
+	 * @return {@code true} si hay al menos un cupo libre.
+	 * @post No modifica el estado del asignador.
+	 */
+	public boolean hayDisponibles() {
+		return contarDisponibles() > 0;
+	}
+
+	/**
+	 * Cuenta los cupos disponibles sumando la reserva global y las franjas.
+	 *
+	 * @return Número de cupos libres (aproximado si hay operaciones en curso).
+	 * @post No modifica el estado del asignador.
+	 */
+	public int contarDisponibles() {
+		int total = global.get();
+		for (int i = 0; i < numeroFranjas; i++) {
+			total += franjas.get(i * SEPARACION);
+		}
+		return Math.max(total, 0);
+	}
+
+	/**
+	 * Cambia la capacidad total. La diferencia se suma o se retira de la reserva global, y
+	 * luego los cupos de las franjas se recogen en ella hasta que no quede ningún lote en
+	 * camino: un lote que salió de la reserva antes de la reducción se recoge al llegar a su
+	 * franja, así que una reducción no deja cupos sueltos que permitan sobrevender.
+	 *
+	 * @param nuevaCapacidad Nueva capacidad total.
+	 * @pre nuevaCapacidad >= 0.
+	 * @post Los cupos disponibles aumentan o disminuyen en la diferencia de capacidad; si
+	 *       quedan menos que los vendidos, los cupos devueltos pagan primero la diferencia.
+	 */
+	public synchronized void setCapacidad(int nuevaCapacidad) {
+		if (nuevaCapacidad < 0) {
+			throw new IllegalArgumentException("La capacidad no puede ser negativa.");
+		}
+		global.addAndGet(nuevaCapacidad - capacidad);
+		capacidad = nuevaCapacidad;
+		while (true) {
+			long terminados = trasladosTerminados.get();
+			recogerFranjas();
+			if (trasladosIniciados.get() == terminados && trasladosTerminados.get() == terminados) {
+				recogerFranjas();
+				return;
+			}
+			Thread.onSpinWait();
+		}
+	}
+
+	private void recogerFranjas() {
+		int recogidos = 0;
+		for (int i = 0; i < numeroFranjas; i++) {
+			recogidos += franjas.getAndSet(i * SEPARACION, 0);
+		}
+		global.addAndGet(recogidos);
+	}
+
+	private boolean tomarDeFranja(int franja) {
+		int indice = franja * SEPARACION;
+		int actual;
+		do {
+			actual = franjas.get(indice);
+			if (actual <= 0) {
+				return false;
+			}
+		} while (!franjas.compareAndSet(indice, actual, actual - 1));
+		return true;
+	}
+
+	/**
+	 * Trae un lote desde la reserva global: uno se usa de inmediato y el resto queda en la franja.
+	 * El lote se achica cuando quedan pocos cupos para no dejarlos repartidos entre franjas.
+	 */
+	private boolean tomarDeGlobal(int franja) {
+		int actual;
+		int lote;
+		do {
+			actual = global.get();
+			if (actual <= 0) {
+				return false;
+			}
+			lote = Math.max(1, Math.min(LOTE_MAXIMO, actual / (numeroFranjas * 4)));
+			if (lote > 1) {
+				trasladosIniciados.incrementAndGet();
+			}
+			if (global.compareAndSet(actual, actual - lote)) {
+				break;
+			}
+			if (lote > 1) {
+				trasladosTerminados.incrementAndGet();
+			}
+		} while (true);
+		if (lote > 1) {
+			franjas.addAndGet(franja * SEPARACION, lote - 1);
+			trasladosTerminados.incrementAndGet();
+		}
+		return true;
+	}
+
+	/**
+	 * Rebalanceo: cuando la reserva global se agota, busca cupos sobrantes en otras franjas.
+	 */
+	private boolean tomarDeOtrasFranjas(int propia) {
+		for (int paso = 1; paso < numeroFranjas; paso++) {
+			if (tomarDeFranja((propia + paso) & (numeroFranjas - 1))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int franjaActual() {
+		long id = Thread.currentThread().threadId();
+		return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & (numeroFranjas - 1);
+	}
+}
@@ -0,0 +1,166 @@
+package Eventos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fotografía inmutable de la disponibilidad de un evento, pensada para la navegación del
+ * catálogo. Se construye una vez a partir de las localidades y se publica en el {@link Evento};
+ * los lectores la consultan sin tocar los contadores que modifican los compradores.
+ * La versión crece con cada publicación, así que un cliente puede preguntar si algo cambió
+ * comparando la versión que ya tiene.
+ */
+public final class DisponibilidadEvento {
+
+	/**
+	 * Disponibilidad de una localidad en el momento de la fotografía.
+	 */
+	public static final class ResumenLocalidad {
+		private final String nombre;
+		private final boolean numerada;
+		private final int capacidad;
+		private final int vendidos;
+		private final int retenidos;
+		private final double precioBase;
+
+		ResumenLocalidad(Localidad localidad) {
+			this.nombre = localidad.getNombre();
+			this.numerada = localidad.isNumerada();
+			this.capacidad = localidad.getCapacidad();
+			this.vendidos = localidad.getTiquetesVendidos();
+			this.retenidos = localidad.getAsientosRetenidos();
+			this.precioBase = localidad.getPrecioBase();
+		}
+
+		public String getNombre() {
+			return nombre;
+		}
+
+		public boolean isNumerada() {
+			return numerada;
+		}
+
+		public int getCapacidad() {
+			return capacidad;
+		}
+
+		public int getVendidos() {
+			return vendidos;
+		}
+
+		public int getRetenidos() {
+			return retenidos;
+		}
+
+		public double getPrecioBase() {
+			return precioBase;
+		}
+
+		/**
+		 * Obtiene los lugares que se pueden comprar: ni vendidos ni retenidos.
+		 *
+		 * @return Lugares disponibles (nunca negativo).
+		 */
+		public int getDisponibles() {
+			return Math.max(0, capacidad - vendidos - retenidos);
+		}
+
+		/**
+		 * Indica si quedan lugares para comprar.
+		 *
+		 * @return {@code true} si hay al menos un lugar disponible.
+		 */
+		public boolean hayDisponibilidad() {
+			return getDisponibles() > 0;
+		}
+
+		/**
+		 * Calcula el porcentaje de ocupación, igual que {@link Localidad#calcularOcupacion()}.
+		 *
+		 * @return Porcentaje de lugares vendidos sobre la capacidad.
+		 */
+		public double getOcupacion() {
+			if (capacidad == 0) {
+				return 0;
+			}
+			return (vendidos * 100.0) / capacidad;
+		}
+	}
+
+	// Atributos
+	private final long version;
+	private final long versionFuente;
+	private final long generadaEn;
+	private final List<ResumenLocalidad> localidades;
+
+	// Ctor
+
+	/**
+	 * Toma la fotografía de las localidades de un evento.
+	 *
+	 * @param version Número de publicación.
+	 * @param versionFuente Suma de versiones de las localidades leída antes de la fotografía.
+	 * @param localidades Localidades del evento.
+	 * @param generadaEn Instante de la fotografía en milisegundos.
+	 * @post La fotografía no vuelve a cambiar.
+	 */
+	DisponibilidadEvento(long version, long versionFuente, List<Localidad> localidades, long generadaEn) {
+		List<ResumenLocalidad> resumenes = new ArrayList<ResumenLocalidad>(localidades.size());
+		for (Localidad l : localidades) {
+			resumenes.add(new ResumenLocalidad(l));
+		}
+		this.version = version;
+		this.versionFuente = versionFuente;
+		this.generadaEn = generadaEn;
+		this.localidades = Collections.unmodifiableList(resumenes);
+	}
+
+	// Getters
+
+	public long getVersion() {
+		return version;
+	}
+
+	public long getGeneradaEn() {
+		return generadaEn;
+	}
+
+	public List<ResumenLocalidad> getLocalidades() {
+		return localidades;
+	}
+
+	long getVersionFuente() {
+		return versionFuente;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Busca el resumen de una localidad por nombre.
+	 *
+	 * @param nombre Nombre de la localidad.
+	 * @return Resumen de la localidad, o {@code null} si no existe.
+	 */
+	public ResumenLocalidad buscarLocalidad(String nombre) {
+		for (ResumenLocalidad r : localidades) {
+			if (r.getNombre().equalsIgnoreCase(nombre)) {
+				return r;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Cuenta los lugares disponibles en todo el evento.
+	 *
+	 * @return Suma de los lugares disponibles de todas las localidades.
+	 */
+	public int contarDisponibles() {
+		int total = 0;
+		for (ResumenLocalidad r : localidades) {
+			total += r.getDisponibles();
+		}
+		return total;
+	}
+}
@@ -0,0 +1,258 @@
+package Eventos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Disposición física de una localidad numerada: sus secciones y filas, en orden de preferencia
+ * (la primera fila de la lista es la mejor ubicada).
+ * Mantiene un árbol de segmentos con la longitud de los tramos libres, de modo que encontrar
+ * el mejor bloque de N asientos contiguos en una misma fila cuesta O(log n) en lugar de
+ * recorrer todos los asientos. Entre una fila y la siguiente hay una posición siempre
+ * ocupada, así que un bloque nunca cruza de fila.
+ * Cada disposición lleva el estado de una sola localidad; la localidad la mantiene al día
+ * con cada reserva, liberación y retención.
+ */
+public class DisposicionAsientos {
+
+	// Atributos
+	private final List<FilaAsientos> filas;
+	private final int[] inicioFila;
+	private final int[] filasPorAsiento;
+	private final int totalAsientos;
+	private final int hojas;
+	private final int[] prefijo;
+	private final int[] sufijo;
+	private final int[] maximo;
+
+	// Ctor
+
+	/**
+	 * Crea una disposición con todos sus asientos libres.
+	 *
+	 * @param filas Filas de la localidad, de la mejor a la peor ubicada.
+	 * @pre filas no vacía; ningún número de asiento se repite entre filas.
+	 * @post El índice queda con todos los asientos de las filas libres.
+	 */
+	public DisposicionAsientos(List<FilaAsientos> filas) {
+		if (filas == null || filas.isEmpty()) {
+			throw new IllegalArgumentException("La disposición debe tener al menos una fila.");
+		}
+		this.filas = Collections.unmodifiableList(new ArrayList<FilaAsientos>(filas));
+		this.inicioFila = new int[filas.size()];
+
+		Integer[] orden = new Integer[filas.size()];
+		int posiciones = 0;
+		int asientos = 0;
+		for (int i = 0; i < filas.size(); i++) {
+			orden[i] = i;
+			inicioFila[i] = posiciones;
+			posiciones += filas.get(i).getCantidad() + 1;
+			asientos += filas.get(i).getCantidad();
+		}
+		Arrays.sort(orden, (a, b) -> Integer.compare(filas.get(a).getPrimerAsiento(), filas.get(b).getPrimerAsiento()));
+		this.filasPorAsiento = new int[orden.length];
+		for (int i = 0; i < orden.length; i++) {
+			filasPorAsiento[i] = orden[i];
+			if (i > 0 && filas.get(orden[i - 1]).getUltimoAsiento() >= filas.get(orden[i]).getPrimerAsiento()) {
+				throw new IllegalArgumentException("Las filas no pueden compartir números de asiento.");
+			}
+		}
+		this.totalAsientos = asientos;
+
+		int n = 1;
+		while (n < posiciones) {
+			n <<= 1;
+		}
+		this.hojas = n;
+		this.prefijo = new int[2 * n];
+		this.sufijo = new int[2 * n];
+		this.maximo = new int[2 * n];
+		for (int i = 0; i < filas.size(); i++) {
+			for (int p = inicioFila[i]; p < inicioFila[i] + filas.get(i).getCantidad(); p++) {
+				prefijo[n + p] = 1;
+				sufijo[n + p] = 1;
+				maximo[n + p] = 1;
+			}
+		}
+		for (int nodo = n - 1; nodo >= 1; nodo--) {
+			combinar(nodo, n >> (32 - Integer.numberOfLeadingZeros(nodo)));
+		}
+	}
+
+	/**
+	 * Crea una disposición de una sola sección con filas del mismo tamaño, numeradas desde 1.
+	 * Los asientos se numeran de forma consecutiva fila por fila desde el asiento 1.
+	 *
+	 * @param seccion Nombre de la sección.
+	 * @param numeroFilas Cantidad de filas.
+	 * @param asientosPorFila Asientos en cada fila.
+	 * @return Disposición con todos los asientos libres.
+	 * @pre numeroFilas > 0; asientosPorFila > 0.
+	 */
+	public static DisposicionAsientos uniforme(String seccion, int numeroFilas, int asientosPorFila) {
+		List<FilaAsientos> filas = new ArrayList<FilaAsientos>();
+		for (int f = 0; f < numeroFilas; f++) {
+			filas.add(new FilaAsientos(seccion, f + 1, f * asientosPorFila + 1, asientosPorFila));
+		}
+		return new DisposicionAsientos(filas);
+	}
+
+	// Getters
+
+	/**
+	 * Obtiene las filas de la disposición en orden de preferencia.
+	 *
+	 * @return Lista no modificable de filas.
+	 */
+	public List<FilaAsientos> getFilas() {
+		return filas;
+	}
+
+	public int getTotalAsientos() {
+		return totalAsientos;
+	}
+
+	/**
+	 * Obtiene el número de asiento más alto de la disposición.
+	 *
+	 * @return Mayor número de asiento de todas las filas.
+	 */
+	public int getUltimoAsiento() {
+		return filas.get(filasPorAsiento[filasPorAsiento.length - 1]).getUltimoAsiento();
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Busca la fila a la que pertenece un asiento.
+	 *
+	 * @param asiento Número de asiento.
+	 * @return Fila que contiene el asiento, o {@code null} si está fuera de la disposición.
+	 */
+	public FilaAsientos ubicar(int asiento) {
+		int i = indiceFila(asiento);
+		return i < 0 ? null : filas.get(i);
+	}
+
+	/**
+	 * Obtiene la longitud del mayor tramo libre en una misma fila.
+	 *
+	 * @return Máximo número de asientos contiguos libres.
+	 */
+	public synchronized int mayorBloqueLibre() {
+		return maximo[1];
+	}
+
+	/**
+	 * Busca el mejor bloque de asientos contiguos libres: el primero, en orden de preferencia
+	 * de las filas, que tenga la cantidad pedida.
+	 *
+	 * @param cantidad Número de asientos contiguos buscados.
+	 * @return Números de asiento del bloque, o un arreglo vacío si ninguna fila lo tiene.
+	 * @pre cantidad > 0.
+	 * @post No modifica el estado de la disposición.
+	 */
+	public synchronized int[] buscarContiguos(int cantidad) {
+		if (cantidad <= 0) {
+			throw new IllegalArgumentException("La cantidad de asientos debe ser positiva.");
+		}
+		int posicion = buscar(1, 0, hojas, cantidad);
+		if (posicion < 0) {
+			return new int[0];
+		}
+		int fila = filaDePosicion(posicion);
+		int primero = filas.get(fila).getPrimerAsiento() + (posicion - inicioFila[fila]);
+		int[] bloque = new int[cantidad];
+		for (int i = 0; i < cantidad; i++) {
+			bloque[i] = primero + i;
+		}
+		return bloque;
+	}
+
+	/**
+	 * Copia al índice el estado de un asiento según el mapa de ocupación.
+	 * Se lee el mapa dentro del candado, así que aunque dos hilos cambien el mismo asiento,
+	 * el último en sincronizar deja el índice igual al mapa.
+	 */
+	synchronized void sincronizar(int asiento, MapaAsientos mapa) {
+		marcar(asiento, mapa.estaOcupado(asiento));
+	}
+
+	/**
+	 * Marca un asiento como libre u ocupado; los asientos fuera de la disposición se ignoran.
+	 */
+	synchronized void marcar(int asiento, boolean ocupado) {
+		int fila = indiceFila(asiento);
+		if (fila < 0) {
+			return;
+		}
+		int nodo = hojas + inicioFila[fila] + (asiento - filas.get(fila).getPrimerAsiento());
+		int valor = ocupado ? 0 : 1;
+		if (maximo[nodo] == valor) {
+			return;
+		}
+		prefijo[nodo] = valor;
+		sufijo[nodo] = valor;
+		maximo[nodo] = valor;
+		int mitad = 1;
+		for (nodo >>= 1; nodo >= 1; nodo >>= 1, mitad <<= 1) {
+			combinar(nodo, mitad);
+		}
+	}
+
+	// Árbol de segmentos
+
+	private void combinar(int nodo, int mitad) {
+		int izq = 2 * nodo;
+		int der = izq + 1;
+		prefijo[nodo] = prefijo[izq] == mitad ? mitad + prefijo[der] : prefijo[izq];
+		sufijo[nodo] = sufijo[der] == mitad ? mitad + sufijo[izq] : sufijo[der];
+		maximo[nodo] = Math.max(Math.max(maximo[izq], maximo[der]), sufijo[izq] + prefijo[der]);
+	}
+
+	/**
+	 * Retorna la posición donde empieza el primer tramo libre de longitud >= cantidad, o -1.
+	 */
+	private int buscar(int nodo, int inicio, int largo, int cantidad) {
+		if (maximo[nodo] < cantidad) {
+			return -1;
+		}
+		if (largo == 1) {
+			return inicio;
+		}
+		int mitad = largo / 2;
+		int izq = 2 * nodo;
+		if (maximo[izq] >= cantidad) {
+			return buscar(izq, inicio, mitad, cantidad);
+		}
+		if (sufijo[izq] + prefijo[izq + 1] >= cantidad) {
+			return inicio + mitad - sufijo[izq];
+		}
+		return buscar(izq + 1, inicio + mitad, mitad, cantidad);
+	}
+
+	private int filaDePosicion(int posicion) {
+		int i = Arrays.binarySearch(inicioFila, posicion);
+		return i >= 0 ? i : -i - 2;
+	}
+
+	private int indiceFila(int asiento) {
+		int bajo = 0;
+		int alto = filasPorAsiento.length - 1;
+		while (bajo <= alto) {
+			int medio = (bajo + alto) >>> 1;
+			FilaAsientos f = filas.get(filasPorAsiento[medio]);
+			if (asiento < f.getPrimerAsiento()) {
+				alto = medio - 1;
+			} else if (asiento > f.getUltimoAsiento()) {
+				bajo = medio + 1;
+			} else {
+				return filasPorAsiento[medio];
+			}
+		}
+		return -1;
+	}
+}
@@ -1,12 +1,25 @@
 package Eventos;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import Tiquetes.Dinero;
 import Usuarios.*;
 
 /**
  * Representa un evento disponible en la plataforma BoletaMaster.
  * Cada evento pertenece a un organizador, tiene un venue asignado,
  * y cuenta con un conjunto de localidades, ofertas y un estado de ventas.
+ * Para la navegación del catálogo publica una {@link DisponibilidadEvento} inmutable que
+ * se reconstruye solo cuando alguna localidad cambió, y un {@link CanalCambios} al que se
+ * pueden suscribir quienes necesitan los cambios de asientos a medida que ocurren.
+ * Para aperturas de venta con mucha demanda puede tener una {@link SalaEspera} que decide
+ * qué clientes pueden comprar.
+ * Las ofertas se consultan a través de un {@link IndiceOfertas} por intervalo de vigencia que
+ * se reconstruye cuando cambian.
+ * El evento referencia la versión de {@link TarifasServicio} con la que se cotizó su
+ * inventario; un {@link RepreciadorTarifas} la lleva a versiones más nuevas.
  */
 public class Evento{
 	// Atributos 
@@ -18,10 +31,19 @@ public class Evento{
     private Organizador organizador;
 	private String tipoEvento;
 	private Administrador admin;
-	private double cuotaEvento;
 	
     private List<Localidad> localidades;
     private List<Oferta> ofertas;
+    private final AtomicReference<DisponibilidadEvento> disponibilidad = new AtomicReference<DisponibilidadEvento>();
+    private final AtomicBoolean publicandoDisponibilidad = new AtomicBoolean(false);
+    private final Object candadoDisponibilidad = new Object();
+    private final CanalCambios canalCambios = new CanalCambios();
+    private final LimiteCompras limiteCompras = new LimiteCompras(0);
+    private volatile SalaEspera salaEspera;
+    private final AtomicLong versionOfertas = new AtomicLong(0);
+    private final AtomicLong versionInventario = new AtomicLong(0);
+    private final AtomicReference<IndiceOfertas> indiceOfertas = new AtomicReference<IndiceOfertas>();
+    private final AtomicReference<TarifasServicio> tarifas;
 	
 	// Ctor
 
@@ -47,7 +69,7 @@ public class Evento{
         this.localidades = new ArrayList<>();
         this.ofertas = new ArrayList<>();
         this.admin = admin;
-        this.cuotaEvento = admin.getCargoServicioParaEvento(tipoEvento);
+        this.tarifas = new AtomicReference<TarifasServicio>(admin.getTarifas());
 	}
 
 	// Getters y Setters
@@ -131,9 +153,75 @@ public class Evento{
     	return ofertas; 
     	}
 	
+    /**
+     * Obtiene el porcentaje de cargo de servicio del evento según sus tarifas.
+     * @return Porcentaje como fracción.
+     */
     public double getCuotaEvento() { 
-    	return cuotaEvento; 
+    	return tarifas.get().getCargoServicio(tipoEvento); 
     	}
+
+    /**
+     * Obtiene la versión de tarifas con la que se cotizó el inventario del evento.
+     * @return Tarifas del evento.
+     */
+    public TarifasServicio getTarifas() {
+        return tarifas.get();
+    }
+
+    /**
+     * Lleva el evento a una versión de tarifas más nueva.
+     * @param nuevas Tarifas publicadas por el administrador del evento.
+     * @return {@code true} si el evento cambió de versión; {@code false} si ya estaba en esa
+     *         versión o en una posterior.
+     * @post La versión del evento nunca retrocede.
+     */
+    public boolean aplicarTarifas(TarifasServicio nuevas) {
+        while (true) {
+            TarifasServicio actual = tarifas.get();
+            if (nuevas.getVersion() <= actual.getVersion()) {
+                return false;
+            }
+            if (tarifas.compareAndSet(actual, nuevas)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Obtiene el límite de tiquetes por cliente del evento.
+     * @return Límite del evento (0 tiquetes = sin límite).
+     */
+    public LimiteCompras getLimiteCompras() {
+        return limiteCompras;
+    }
+
+    /**
+     * Fija cuántos tiquetes puede tener cada cliente en este evento.
+     * @param maximo Tiquetes máximos por cliente; 0 para no limitar.
+     * @pre maximo >= 0; se configura antes de abrir ventas.
+     * @post Las retenciones y compras siguientes respetan el límite.
+     */
+    public void setLimitePorCliente(int maximo) {
+        limiteCompras.setMaximoPorCliente(maximo);
+    }
+
+    /**
+     * Obtiene la sala de espera del evento.
+     * @return Sala de espera, o {@code null} si las compras no pasan por una.
+     */
+    public SalaEspera getSalaEspera() {
+        return salaEspera;
+    }
+
+    /**
+     * Pone (o quita) una sala de espera delante de las compras del evento.
+     * @param salaEspera Sala de espera; {@code null} para comprar sin turno.
+     * @post Las precompras del evento exigen que el cliente haya sido admitido en la sala.
+     */
+    public void setSalaEspera(SalaEspera salaEspera) {
+        this.salaEspera = salaEspera;
+    }
     
     
   
@@ -195,6 +283,7 @@ public class Evento{
     public Localidad crearLocalidad(String nombre, boolean numerada, int capacidad, double precioBase, double precioBasePaquetesxUnidad, double precioPaseTemporadaxUnidad, double precioPaseDeluxexUnidad) {
         Localidad nueva = new Localidad(nombre, numerada, capacidad, precioBase, this,  precioBasePaquetesxUnidad,  precioPaseTemporadaxUnidad,  precioPaseDeluxexUnidad);
         localidades.add(nueva);
+        registrarCambioInventario();
         return nueva;
     }
     
@@ -225,7 +314,10 @@ public class Evento{
     public Oferta crearOferta(double porcentajeDescuento,
                               LocalDateTime fechaInicio, LocalDateTime fechaFin, Localidad localidad) {
         Oferta nueva = new Oferta(porcentajeDescuento, fechaInicio, fechaFin, localidad);
-        ofertas.add(nueva);
+        synchronized (ofertas) {
+            ofertas.add(nueva);
+        }
+        versionOfertas.incrementAndGet();
         return nueva;
     }
     
@@ -236,11 +328,67 @@ public class Evento{
      * @return Lista de ofertas activas.
      */
     public List<Oferta> obtenerOfertasActivas(LocalDateTime fecha) {
-        List<Oferta> activas = new ArrayList<>();
-        for (Oferta o : ofertas) {
-            if (o.estaActiva(fecha)) activas.add(o);
+        return new ArrayList<>(getIndiceOfertas().activas(fecha));
+    }
+
+    /**
+     * Obtiene las ofertas activas de una localidad para una fecha dada.
+     * @param fecha Fecha de referencia.
+     * @param localidad Localidad de interés.
+     * @return Lista inmodificable de ofertas activas de la localidad.
+     */
+    public List<Oferta> obtenerOfertasActivas(LocalDateTime fecha, Localidad localidad) {
+        return getIndiceOfertas().activas(fecha, localidad);
+    }
+
+    /**
+     * Obtiene el próximo instante en que cambian las ofertas activas de una localidad.
+     * Hasta entonces, el resultado de {@link #obtenerOfertasActivas(LocalDateTime, Localidad)}
+     * no cambia (salvo que se modifiquen las ofertas; ver {@link #getVersionOfertas()}).
+     * @param fecha Fecha de referencia.
+     * @param localidad Localidad de interés.
+     * @return Próximo inicio o fin de una oferta de la localidad, o {@code null} si no hay más.
+     */
+    public LocalDateTime siguienteCambioOfertas(LocalDateTime fecha, Localidad localidad) {
+        return getIndiceOfertas().siguienteCambio(fecha, localidad);
+    }
+
+    /**
+     * Obtiene la versión de las ofertas del evento; aumenta cada vez que se crea una oferta
+     * o cambian sus fechas, descuento o localidad.
+     * @return Versión actual de las ofertas.
+     */
+    public long getVersionOfertas() {
+        return versionOfertas.get();
+    }
+
+    /**
+     * Obtiene el índice de ofertas vigente, reconstruyéndolo si las ofertas cambiaron.
+     * @return Índice de ofertas por intervalo de vigencia.
+     * @post El índice devuelto refleja la versión actual de las ofertas.
+     */
+    public IndiceOfertas getIndiceOfertas() {
+        IndiceOfertas actual = indiceOfertas.get();
+        long version = versionOfertas.get();
+        if (actual != null && actual.getVersion() == version && actual.getTamano() == ofertas.size()) {
+            return actual;
+        }
+        synchronized (ofertas) {
+            actual = indiceOfertas.get();
+            version = versionOfertas.get();
+            if (actual == null || actual.getVersion() != version || actual.getTamano() != ofertas.size()) {
+                actual = new IndiceOfertas(new ArrayList<>(ofertas), version);
+                indiceOfertas.set(actual);
+            }
+            return actual;
         }
-        return activas;
+    }
+
+    /**
+     * Registra que una oferta del evento cambió, para que el índice se reconstruya.
+     */
+    void invalidarOfertas() {
+        versionOfertas.incrementAndGet();
     }
 
     
@@ -260,6 +408,95 @@ public class Evento{
     }
 
     
+    /**
+     * Obtiene la disponibilidad publicada del evento. Si alguna localidad cambió desde la última
+     * publicación, un solo lector reconstruye la fotografía; los demás reciben la anterior en
+     * lugar de esperar. Nunca bloquea a los compradores.
+     * @return Fotografía inmutable de la disponibilidad.
+     * @post Si no había fotografía, queda publicada la primera.
+     */
+    public DisponibilidadEvento getDisponibilidad() {
+        DisponibilidadEvento actual = disponibilidad.get();
+        if (actual != null && actual.getVersionFuente() == versionFuente()) {
+            return actual;
+        }
+        if (actual == null) {
+            return publicarDisponibilidad();
+        }
+        if (!publicandoDisponibilidad.compareAndSet(false, true)) {
+            return actual;
+        }
+        try {
+            return publicarDisponibilidad();
+        } finally {
+            publicandoDisponibilidad.set(false);
+        }
+    }
+
+    /**
+     * Publica una nueva fotografía de disponibilidad si alguna localidad cambió.
+     * Sirve para refrescar la disponibilidad con una cadencia fija desde un hilo aparte.
+     * @return Fotografía publicada (la anterior si no hubo cambios).
+     * @post La versión publicada solo aumenta cuando la fotografía cambia.
+     */
+    public DisponibilidadEvento publicarDisponibilidad() {
+        synchronized (candadoDisponibilidad) {
+            // La versión se lee antes de la fotografía: un cambio concurrente hará que la
+            // siguiente lectura vea una versión distinta y vuelva a publicar.
+            long fuente = versionFuente();
+            DisponibilidadEvento actual = disponibilidad.get();
+            if (actual != null && actual.getVersionFuente() == fuente) {
+                return actual;
+            }
+            long version = (actual == null) ? 1 : actual.getVersion() + 1;
+            DisponibilidadEvento nueva = new DisponibilidadEvento(version, fuente, localidades, System.currentTimeMillis());
+            disponibilidad.set(nueva);
+            return nueva;
+        }
+    }
+
+    /**
+     * Indica si la disponibilidad cambió desde una versión que el cliente ya conoce.
+     * @param version Versión de la última fotografía que recibió el cliente.
+     * @return {@code true} si la fotografía actual tiene otra versión.
+     */
+    public boolean haCambiadoDesde(long version) {
+        return getDisponibilidad().getVersion() != version;
+    }
+
+    /**
+     * Obtiene el canal donde las localidades del evento publican sus cambios de asientos.
+     * @return Canal de cambios del evento.
+     */
+    public CanalCambios getCanalCambios() {
+        return canalCambios;
+    }
+
+    /**
+     * Suscribe a los cambios de asientos de todas las localidades del evento.
+     * @return Suscripción que entrega los cambios publicados desde este momento.
+     * @post Mientras haya suscripciones, cada venta, liberación o retención publica un cambio.
+     */
+    public SuscripcionCambios suscribirCambios() {
+        return canalCambios.suscribir(null);
+    }
+
+    /**
+     * Cuenta un cambio en el inventario del evento. Lo llaman las localidades en cada venta,
+     * liberación, retención o cambio de configuración, después de aplicarlo.
+     */
+    void registrarCambioInventario() {
+        versionInventario.incrementAndGet();
+    }
+
+    /**
+     * Versión del inventario; cambia con cualquier venta, retención o localidad nueva. Leerla
+     * es una sola lectura atómica, sin importar cuántas localidades tenga el evento.
+     */
+    private long versionFuente() {
+        return versionInventario.get();
+    }
+
     /**
      * Calcula el total de tiquetes vendidos en el evento.
      * @return Número de tiquetes vendidos.
@@ -277,9 +514,17 @@ public class Evento{
      * @return Suma de todos los ingresos generados por ventas.
      */
     public double calcularIngresosTotales() {
-        double total = 0;
+        return Dinero.aValor(calcularIngresosTotalesCentavos());
+    }
+
+    /**
+     * Calcula el ingreso total del evento en centavos, sumando sin redondeos intermedios.
+     * @return Suma de los ingresos de todas las localidades, en centavos.
+     */
+    public long calcularIngresosTotalesCentavos() {
+        long total = 0;
         for (Localidad l : localidades) {
-            total += l.calcularIngresos();
+            total = Dinero.sumar(total, l.calcularIngresosCentavos());
         }
         return total;
     }
@@ -0,0 +1,77 @@
+package Eventos;
+
+/**
+ * Representa una fila de asientos consecutivos dentro de una sección de una localidad numerada.
+ * Los asientos de la fila son los números {@code primerAsiento .. primerAsiento + cantidad - 1}
+ * y se consideran contiguos físicamente en ese orden.
+ */
+public class FilaAsientos {
+
+	// Atributos
+	private final String seccion;
+	private final int numero;
+	private final int primerAsiento;
+	private final int cantidad;
+
+	// Ctor
+
+	/**
+	 * Crea una fila de asientos.
+	 *
+	 * @param seccion Nombre de la sección a la que pertenece la fila.
+	 * @param numero Número de la fila dentro de la sección.
+	 * @param primerAsiento Número del primer asiento de la fila.
+	 * @param cantidad Cantidad de asientos de la fila.
+	 * @pre seccion no vacía; primerAsiento >= 1; cantidad > 0.
+	 * @post La fila queda definida con sus asientos consecutivos.
+	 */
+	public FilaAsientos(String seccion, int numero, int primerAsiento, int cantidad) {
+		if (seccion == null || seccion.isEmpty()) {
+			throw new IllegalArgumentException("La sección no puede ser vacía.");
+		}
+		if (primerAsiento < 1 || cantidad <= 0) {
+			throw new IllegalArgumentException("La fila debe tener asientos numerados desde 1.");
+		}
+		this.seccion = seccion;
+		this.numero = numero;
+		this.primerAsiento = primerAsiento;
+		this.cantidad = cantidad;
+	}
+
+	// Getters
+
+	public String getSeccion() {
+		return seccion;
+	}
+
+	public int getNumero() {
+		return numero;
+	}
+
+	public int getPrimerAsiento() {
+		return primerAsiento;
+	}
+
+	public int getCantidad() {
+		return cantidad;
+	}
+
+	/**
+	 * Obtiene el número del último asiento de la fila.
+	 *
+	 * @return Último número de asiento (inclusive).
+	 */
+	public int getUltimoAsiento() {
+		return primerAsiento + cantidad - 1;
+	}
+
+	/**
+	 * Indica si un número de asiento pertenece a la fila.
+	 *
+	 * @param asiento Número de asiento.
+	 * @return {@code true} si el asiento está en la fila.
+	 */
+	public boolean contiene(int asiento) {
+		return asiento >= primerAsiento && asiento <= getUltimoAsiento();
+	}
+}
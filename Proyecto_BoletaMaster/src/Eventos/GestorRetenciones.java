@@ -0,0 +1,389 @@
+package Eventos;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Administra las retenciones temporales de asientos: las crea, las confirma como venta,
+ * las libera y hace vencer las que no se completan a tiempo.
+ * Los vencimientos se programan en una {@link RuedaTemporizadora}, que un hilo en segundo
+ * plano avanza cada tick. También expone contadores para ajustar la duración de las retenciones.
+ * Cuando la retención tiene un cliente titular, el cupo de su {@link LimiteCompras} en el evento
+ * se consume antes de tomar los asientos y se devuelve si la retención falla, se libera o vence.
+ */
+public class GestorRetenciones {
+
+	private static final long TICK_POR_DEFECTO_MS = 100;
+	private static final int RANURAS_POR_DEFECTO = 1024;
+
+	// Atributos
+	private static GestorRetenciones instance;
+	private final RuedaTemporizadora<Retencion> rueda;
+	private final LongSupplier reloj;
+	private final long duracionTick;
+	private final AtomicLong siguienteId;
+	private final LongAdder creadas;
+	private final LongAdder confirmadas;
+	private final LongAdder liberadas;
+	private final LongAdder expiradas;
+	private ScheduledExecutorService temporizador;
+
+	// Ctor
+
+	/**
+	 * Crea un gestor sin hilo de vencimiento; los vencimientos se procesan al llamar
+	 * {@link #procesarVencimientos()} o tras {@link #iniciar()}.
+	 *
+	 * @param reloj Fuente del instante actual en milisegundos.
+	 * @param duracionTick Duración de cada tick de la rueda en milisegundos.
+	 * @param ranuras Número de ranuras de la rueda.
+	 * @pre reloj definido; duracionTick > 0; ranuras > 0.
+	 * @post El gestor queda sin retenciones y con contadores en cero.
+	 */
+	public GestorRetenciones(LongSupplier reloj, long duracionTick, int ranuras) {
+		this.reloj = reloj;
+		this.duracionTick = duracionTick;
+		this.rueda = new RuedaTemporizadora<Retencion>(reloj.getAsLong(), duracionTick, ranuras);
+		this.siguienteId = new AtomicLong();
+		this.creadas = new LongAdder();
+		this.confirmadas = new LongAdder();
+		this.liberadas = new LongAdder();
+		this.expiradas = new LongAdder();
+	}
+
+	/**
+	 * @pre true
+	 * @post Retorna la instancia única del gestor. Si no existe, la crea con el reloj del
+	 *       sistema y arranca su hilo de vencimientos.
+	 * @return instancia única del gestor
+	 */
+	public static synchronized GestorRetenciones getInstance() {
+		if (instance == null) {
+			instance = new GestorRetenciones(System::currentTimeMillis, TICK_POR_DEFECTO_MS, RANURAS_POR_DEFECTO);
+			instance.iniciar();
+		}
+		return instance;
+	}
+
+	// Getters
+
+	public long getCreadas() {
+		return creadas.sum();
+	}
+
+	public long getConfirmadas() {
+		return confirmadas.sum();
+	}
+
+	public long getLiberadas() {
+		return liberadas.sum();
+	}
+
+	public long getExpiradas() {
+		return expiradas.sum();
+	}
+
+	/**
+	 * Obtiene el número de retenciones activas en este momento.
+	 *
+	 * @return Retenciones creadas que no se han confirmado, liberado ni vencido.
+	 */
+	public long getActivas() {
+		return creadas.sum() - confirmadas.sum() - liberadas.sum() - expiradas.sum();
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Arranca un hilo en segundo plano que procesa los vencimientos en cada tick.
+	 *
+	 * @post Las retenciones vencidas se liberan automáticamente.
+	 */
+	public synchronized void iniciar() {
+		if (temporizador != null) {
+			return;
+		}
+		temporizador = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "vencimiento-retenciones");
+			t.setDaemon(true);
+			return t;
+		});
+		temporizador.scheduleAtFixedRate(this::procesarVencimientos, duracionTick, duracionTick, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Detiene el hilo de vencimientos, si existe.
+	 *
+	 * @post Los vencimientos solo se procesan de forma manual.
+	 */
+	public synchronized void detener() {
+		if (temporizador != null) {
+			temporizador.shutdownNow();
+			temporizador = null;
+		}
+	}
+
+	/**
+	 * Retiene asientos numerados y/o cupos generales en una localidad.
+	 *
+	 * @param localidad Localidad donde se retiene.
+	 * @param asientos Números de asiento a retener (puede ser vacío).
+	 * @param cupos Cupos generales a retener.
+	 * @param duracion Tiempo que dura la retención.
+	 * @return Retención activa.
+	 * @throws IllegalStateException si algún asiento o cupo no está disponible; en ese caso no se retiene nada.
+	 * @pre localidad definida; duracion positiva.
+	 * @post Los asientos quedan ocupados hasta que la retención se confirme, se libere o venza.
+	 */
+	public Retencion retener(Localidad localidad, int[] asientos, int cupos, Duration duracion) throws IllegalStateException {
+		return retener(localidad, asientos, cupos, duracion, Retencion.SIN_TITULAR);
+	}
+
+	/**
+	 * Retiene asientos numerados y/o cupos generales a nombre de un cliente, consumiendo su
+	 * límite de compras en el evento de forma atómica con la retención.
+	 *
+	 * @param localidad Localidad donde se retiene.
+	 * @param asientos Números de asiento a retener (puede ser vacío).
+	 * @param cupos Cupos generales a retener.
+	 * @param duracion Tiempo que dura la retención.
+	 * @param titular Id del cliente, o {@link Retencion#SIN_TITULAR} para no aplicar límite.
+	 * @return Retención activa.
+	 * @throws IllegalStateException si algún lugar no está disponible o el cliente supera su límite;
+	 *         en ese caso no se retiene nada ni se consume cupo.
+	 * @pre localidad definida; duracion positiva.
+	 * @post Los asientos quedan ocupados y el cupo del cliente consumido hasta que la retención
+	 *       se confirme, se libere o venza.
+	 */
+	public Retencion retener(Localidad localidad, int[] asientos, int cupos, Duration duracion, int titular) throws IllegalStateException {
+		if (localidad == null || duracion == null || duracion.isNegative() || duracion.isZero()) {
+			throw new IllegalArgumentException("Localidad o duración inválidas.");
+		}
+		int[] copia = (asientos == null) ? new int[0] : asientos.clone();
+		consumirLimite(localidad.getEvento(), titular, copia.length + cupos);
+		try {
+			localidad.tomarParaRetencion(copia, cupos);
+		} catch (RuntimeException e) {
+			devolverLimite(localidad.getEvento(), titular, copia.length + cupos);
+			throw e;
+		}
+		long vencimiento = reloj.getAsLong() + duracion.toMillis();
+		Retencion r = new Retencion(siguienteId.incrementAndGet(), localidad, copia, cupos, vencimiento, this, titular);
+		r.setEntrada(rueda.programar(r, vencimiento));
+		creadas.increment();
+		return r;
+	}
+
+	/**
+	 * Retiene en bloque los lugares de un paquete que puede abarcar varias localidades y eventos:
+	 * se retienen todos o ninguno.
+	 * Las solicitudes se agrupan por localidad y las localidades se recorren siempre en el mismo
+	 * orden global, de modo que dos compradores que compiten por los mismos lugares chocan en la
+	 * primera localidad común en vez de quedarse cada uno con una parte. Cada localidad se toca
+	 * una sola vez por bloque, con sus asientos ordenados.
+	 *
+	 * @param localidades Localidad de cada tiquete del paquete (puede repetirse).
+	 * @param asientos Asiento de cada tiquete; se ignora en localidades no numeradas.
+	 * @param duracion Tiempo que duran las retenciones.
+	 * @return Una retención activa por localidad distinta, en el orden en que aparecen en la lista.
+	 * @throws IllegalStateException si algún lugar no está disponible; en ese caso no se retiene nada.
+	 * @pre localidades.size() == asientos.size(); duracion positiva.
+	 * @post Todos los lugares del paquete quedan retenidos con el mismo vencimiento.
+	 */
+	public Map<Localidad, Retencion> retenerEnBloque(List<Localidad> localidades, List<Integer> asientos, Duration duracion)
+			throws IllegalStateException {
+		return retenerEnBloque(localidades, asientos, duracion, Retencion.SIN_TITULAR);
+	}
+
+	/**
+	 * Retiene en bloque los lugares de un paquete a nombre de un cliente. El límite de compras
+	 * del cliente se consume en cada evento del paquete antes de tomar los lugares; si algún
+	 * evento lo supera o algún lugar no está disponible, no se retiene nada ni se consume cupo.
+	 *
+	 * @param localidades Localidad de cada tiquete del paquete (puede repetirse).
+	 * @param asientos Asiento de cada tiquete; se ignora en localidades no numeradas.
+	 * @param duracion Tiempo que duran las retenciones.
+	 * @param titular Id del cliente, o {@link Retencion#SIN_TITULAR} para no aplicar límite.
+	 * @return Una retención activa por localidad distinta, en el orden en que aparecen en la lista.
+	 * @throws IllegalStateException si algún lugar no está disponible o se supera algún límite.
+	 * @pre localidades.size() == asientos.size(); duracion positiva.
+	 * @post Todos los lugares del paquete quedan retenidos con el mismo vencimiento.
+	 */
+	public Map<Localidad, Retencion> retenerEnBloque(List<Localidad> localidades, List<Integer> asientos, Duration duracion, int titular)
+			throws IllegalStateException {
+		if (localidades == null || asientos == null || localidades.size() != asientos.size() || localidades.isEmpty()) {
+			throw new IllegalArgumentException("Cada tiquete del paquete debe tener localidad y asiento.");
+		}
+		if (duracion == null || duracion.isNegative() || duracion.isZero()) {
+			throw new IllegalArgumentException("Localidad o duración inválidas.");
+		}
+
+		LinkedHashMap<Localidad, List<Integer>> porLocalidad = new LinkedHashMap<Localidad, List<Integer>>();
+		for (int i = 0; i < localidades.size(); i++) {
+			Localidad l = localidades.get(i);
+			if (l == null) {
+				throw new IllegalArgumentException("Localidad o duración inválidas.");
+			}
+			porLocalidad.computeIfAbsent(l, k -> new ArrayList<Integer>()).add(asientos.get(i));
+		}
+		TreeMap<Long, Localidad> enOrden = new TreeMap<Long, Localidad>();
+		for (Localidad l : porLocalidad.keySet()) {
+			enOrden.put(l.getOrdenReserva(), l);
+		}
+
+		LinkedHashMap<Evento, Integer> porEvento = new LinkedHashMap<Evento, Integer>();
+		for (Localidad l : localidades) {
+			if (l.getEvento() != null) {
+				porEvento.merge(l.getEvento(), 1, Integer::sum);
+			}
+		}
+		List<Evento> consumidos = new ArrayList<Evento>();
+		try {
+			for (Map.Entry<Evento, Integer> e : porEvento.entrySet()) {
+				consumirLimite(e.getKey(), titular, e.getValue());
+				consumidos.add(e.getKey());
+			}
+		} catch (IllegalStateException e) {
+			for (Evento ev : consumidos) {
+				devolverLimite(ev, titular, porEvento.get(ev));
+			}
+			throw e;
+		}
+
+		long vencimiento = reloj.getAsLong() + duracion.toMillis();
+		Map<Localidad, Retencion> tomadas = new LinkedHashMap<Localidad, Retencion>();
+		for (Localidad l : enOrden.values()) {
+			List<Integer> pedidos = porLocalidad.get(l);
+			int[] numeros;
+			int cupos;
+			if (l.isNumerada()) {
+				numeros = new int[pedidos.size()];
+				for (int i = 0; i < numeros.length; i++) {
+					numeros[i] = pedidos.get(i);
+				}
+				Arrays.sort(numeros);
+				cupos = 0;
+			} else {
+				numeros = new int[0];
+				cupos = pedidos.size();
+			}
+			try {
+				l.tomarParaRetencion(numeros, cupos);
+			} catch (IllegalStateException e) {
+				for (Retencion r : tomadas.values()) {
+					r.getLocalidad().soltarRetencion(r);
+				}
+				for (Map.Entry<Evento, Integer> ev : porEvento.entrySet()) {
+					devolverLimite(ev.getKey(), titular, ev.getValue());
+				}
+				throw e;
+			}
+			tomadas.put(l, new Retencion(siguienteId.incrementAndGet(), l, numeros, cupos, vencimiento, this, titular));
+		}
+
+		Map<Localidad, Retencion> resultado = new LinkedHashMap<Localidad, Retencion>();
+		for (Localidad l : porLocalidad.keySet()) {
+			Retencion r = tomadas.get(l);
+			r.setEntrada(rueda.programar(r, vencimiento));
+			creadas.increment();
+			resultado.put(l, r);
+		}
+		return resultado;
+	}
+
+	/**
+	 * Convierte una retención activa en venta.
+	 *
+	 * @param retencion Retención a confirmar.
+	 * @throws IllegalStateException si la retención ya venció, se liberó o se confirmó.
+	 * @post Los asientos retenidos cuentan como vendidos.
+	 */
+	public void confirmar(Retencion retencion) throws IllegalStateException {
+		if (!retencion.finalizar(Retencion.CONFIRMADA)) {
+			throw new IllegalStateException("La retención ya no está activa: " + retencion.getEstado() + ".");
+		}
+		rueda.cancelar(retencion.getEntrada());
+		retencion.getLocalidad().convertirRetencionEnVenta(retencion);
+		confirmadas.increment();
+	}
+
+	/**
+	 * Deshace la confirmación de una retención: vuelve a estar activa con su vencimiento
+	 * original, que se procesa en el siguiente tick si ya pasó.
+	 *
+	 * @param retencion Retención confirmada.
+	 * @throws IllegalStateException si la retención no está confirmada.
+	 * @post Los lugares vuelven a contar como retenidos, no como vendidos.
+	 */
+	public void reabrir(Retencion retencion) throws IllegalStateException {
+		if (!retencion.reabrir()) {
+			throw new IllegalStateException("La retención no está confirmada: " + retencion.getEstado() + ".");
+		}
+		retencion.getLocalidad().devolverVentaARetencion(retencion);
+		retencion.setEntrada(rueda.programar(retencion, retencion.getVencimiento()));
+		confirmadas.decrement();
+	}
+
+	/**
+	 * Libera una retención antes de su vencimiento.
+	 *
+	 * @param retencion Retención a liberar.
+	 * @return {@code true} si estaba activa y se liberó; {@code false} si ya había terminado.
+	 * @post Los asientos retenidos vuelven a estar disponibles.
+	 */
+	public boolean liberar(Retencion retencion) {
+		if (!retencion.finalizar(Retencion.LIBERADA)) {
+			return false;
+		}
+		rueda.cancelar(retencion.getEntrada());
+		retencion.getLocalidad().soltarRetencion(retencion);
+		devolverLimite(retencion.getLocalidad().getEvento(), retencion.getTitular(), retencion.getCantidad());
+		liberadas.increment();
+		return true;
+	}
+
+	/**
+	 * Procesa las retenciones cuyo tiempo ya se cumplió.
+	 *
+	 * @return Número de retenciones vencidas en esta pasada.
+	 * @post Las retenciones vencidas quedan en estado "Expirada" y sus asientos se liberan.
+	 */
+	public int procesarVencimientos() {
+		return rueda.avanzar(reloj.getAsLong(), this::expirar);
+	}
+
+	private void expirar(Retencion retencion) {
+		if (retencion.finalizar(Retencion.EXPIRADA)) {
+			retencion.getLocalidad().soltarRetencion(retencion);
+			devolverLimite(retencion.getLocalidad().getEvento(), retencion.getTitular(), retencion.getCantidad());
+			expiradas.increment();
+		}
+	}
+
+	private static void consumirLimite(Evento evento, int titular, int cantidad) throws IllegalStateException {
+		if (evento == null || titular == Retencion.SIN_TITULAR || cantidad == 0) {
+			return;
+		}
+		if (!evento.getLimiteCompras().consumir(titular, cantidad)) {
+			throw new IllegalStateException("Se supera el límite de " + evento.getLimiteCompras().getMaximoPorCliente()
+					+ " tiquetes por cliente para el evento " + evento.getNombre() + ".");
+		}
+	}
+
+	private static void devolverLimite(Evento evento, int titular, int cantidad) {
+		if (evento != null && titular != Retencion.SIN_TITULAR && cantidad > 0) {
+			evento.getLimiteCompras().devolver(titular, cantidad);
+		}
+	}
+}
@@ -0,0 +1,379 @@
+package Eventos;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import Tiquetes.Dinero;
+
+/**
+ * Serie de tiempo, solo de agregado, con los precios que tuvo una localidad: el precio de
+ * lista por tiquete y el precio con la mejor oferta vigente en el instante del punto, en
+ * centavos. Los inicios y fines de las ofertas no se guardan como puntos; la localidad los
+ * deriva de las fechas de las ofertas (ver {@link Localidad#precioEn(LocalDateTime)}).
+ * Cada punto se guarda como diferencias con el anterior (instante en milisegundos y los dos
+ * precios) en enteros de longitud variable dentro de un solo {@code byte[]}, así que un cambio
+ * típico ocupa unos pocos bytes. Cada {@value #BLOQUE} puntos se guarda un punto de control
+ * con los valores absolutos y su posición, de modo que consultar el precio en un instante es
+ * una búsqueda binaria sobre los puntos de control más la lectura de un solo bloque.
+ * Los instantes nunca retroceden: un punto con un instante anterior al último se registra en
+ * el último. Un punto con los mismos precios que el anterior no se guarda.
+ */
+public final class HistorialPrecios {
+
+	static final int BLOQUE = 64;
+
+	// Atributos
+	private byte[] datos;
+	private int tamano;
+	private int cantidad;
+	private long ultimoInstante;
+	private long ultimoBase;
+	private long ultimoOferta;
+
+	// Puntos de control: valores absolutos y posición del primer punto de cada bloque.
+	private long[] instantesBloque;
+	private long[] basesBloque;
+	private long[] ofertasBloque;
+	private int[] posicionesBloque;
+
+	// Ctor
+
+	/**
+	 * Crea un historial vacío.
+	 *
+	 * @post El historial no tiene puntos.
+	 */
+	public HistorialPrecios() {
+		reiniciar();
+	}
+
+	// Getters
+
+	/**
+	 * Obtiene cuántos puntos tiene el historial.
+	 *
+	 * @return Número de cambios de precio registrados.
+	 */
+	public synchronized int getCantidad() {
+		return cantidad;
+	}
+
+	/**
+	 * Obtiene cuántos bytes ocupan los puntos codificados.
+	 *
+	 * @return Tamaño de la serie, sin contar los puntos de control.
+	 */
+	public synchronized int getTamanoBytes() {
+		return tamano;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Agrega un punto a la serie si los precios cambiaron.
+	 *
+	 * @param instante Instante del cambio, en milisegundos desde la época.
+	 * @param precioBase Precio de lista por tiquete, en centavos.
+	 * @param precioOferta Precio por tiquete con la mejor oferta vigente, en centavos.
+	 * @return {@code true} si se agregó el punto; {@code false} si los precios no cambiaron.
+	 * @post Si el instante es anterior al último punto, el punto queda en el instante del último.
+	 */
+	public synchronized boolean registrar(long instante, long precioBase, long precioOferta) {
+		if (cantidad > 0) {
+			if (precioBase == ultimoBase && precioOferta == ultimoOferta) {
+				return false;
+			}
+			instante = Math.max(instante, ultimoInstante);
+		}
+		if (cantidad % BLOQUE == 0) {
+			int b = cantidad / BLOQUE;
+			if (b == instantesBloque.length) {
+				int n = b * 2;
+				instantesBloque = Arrays.copyOf(instantesBloque, n);
+				basesBloque = Arrays.copyOf(basesBloque, n);
+				ofertasBloque = Arrays.copyOf(ofertasBloque, n);
+				posicionesBloque = Arrays.copyOf(posicionesBloque, n);
+			}
+			instantesBloque[b] = instante;
+			basesBloque[b] = precioBase;
+			ofertasBloque[b] = precioOferta;
+			posicionesBloque[b] = tamano;
+		}
+		escribir(instante - ultimoInstante);
+		escribir(precioBase - ultimoBase);
+		escribir(precioOferta - ultimoOferta);
+		ultimoInstante = instante;
+		ultimoBase = precioBase;
+		ultimoOferta = precioOferta;
+		cantidad++;
+		return true;
+	}
+
+	/**
+	 * Obtiene los precios vigentes en un instante.
+	 *
+	 * @param instante Instante a consultar, en milisegundos desde la época.
+	 * @return Último punto registrado en o antes del instante, o {@code null} si el instante es
+	 *         anterior al primer punto.
+	 */
+	public synchronized Punto precioEn(long instante) {
+		if (cantidad == 0 || instante < instantesBloque[0]) {
+			return null;
+		}
+		int bloques = (cantidad + BLOQUE - 1) / BLOQUE;
+		int b = Arrays.binarySearch(instantesBloque, 0, bloques, instante);
+		if (b < 0) {
+			b = -b - 2;
+		} else {
+			// Con instantes repetidos, el último bloque que empieza en ese instante.
+			while (b + 1 < bloques && instantesBloque[b + 1] == instante) {
+				b++;
+			}
+		}
+		Lector lector = new Lector(b);
+		Punto vigente = lector.actual();
+		while (lector.siguiente() && lector.instante <= instante) {
+			vigente = lector.actual();
+		}
+		return vigente;
+	}
+
+	/**
+	 * Obtiene los precios vigentes en una fecha.
+	 *
+	 * @param fecha Fecha a consultar, en la zona horaria del sistema.
+	 * @return Punto vigente, o {@code null} si la fecha es anterior al primer punto.
+	 */
+	public Punto precioEn(LocalDateTime fecha) {
+		return precioEn(aInstante(fecha));
+	}
+
+	/**
+	 * Exporta los puntos de un rango.
+	 *
+	 * @param desde Inicio del rango, en milisegundos desde la época (inclusivo).
+	 * @param hasta Fin del rango, en milisegundos desde la época (inclusivo).
+	 * @return El punto vigente al inicio del rango, si existe, seguido de los cambios dentro
+	 *         del rango, en orden.
+	 */
+	public synchronized List<Punto> exportar(long desde, long hasta) {
+		List<Punto> puntos = new ArrayList<Punto>();
+		if (cantidad == 0 || hasta < desde) {
+			return puntos;
+		}
+		Punto inicial = precioEn(desde);
+		if (inicial != null) {
+			puntos.add(inicial);
+		}
+		int bloques = (cantidad + BLOQUE - 1) / BLOQUE;
+		int b = Arrays.binarySearch(instantesBloque, 0, bloques, desde);
+		b = b < 0 ? Math.max(0, -b - 2) : b;
+		Lector lector = new Lector(b);
+		do {
+			if (lector.instante > hasta) {
+				break;
+			}
+			if (lector.instante > desde) {
+				puntos.add(lector.actual());
+			}
+		} while (lector.siguiente());
+		return Collections.unmodifiableList(puntos);
+	}
+
+	/**
+	 * Exporta los puntos entre dos fechas.
+	 *
+	 * @param desde Inicio del rango, en la zona horaria del sistema.
+	 * @param hasta Fin del rango, en la zona horaria del sistema.
+	 * @return Ver {@link #exportar(long, long)}.
+	 */
+	public List<Punto> exportar(LocalDateTime desde, LocalDateTime hasta) {
+		return exportar(aInstante(desde), aInstante(hasta));
+	}
+
+	/**
+	 * Codifica la serie en texto para guardarla.
+	 *
+	 * @return Bytes de la serie en Base64.
+	 */
+	public synchronized String codificar() {
+		return Base64.getEncoder().encodeToString(Arrays.copyOf(datos, tamano));
+	}
+
+	/**
+	 * Reemplaza la serie por una guardada con {@link #codificar()}.
+	 *
+	 * @param codificado Texto guardado.
+	 * @throws IllegalArgumentException si el texto no es una serie válida; la serie no cambia.
+	 * @post La serie tiene los puntos guardados, en el mismo orden.
+	 */
+	public synchronized void restaurar(String codificado) throws IllegalArgumentException {
+		byte[] bytes;
+		try {
+			bytes = Base64.getDecoder().decode(codificado);
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new IllegalArgumentException("Historial de precios inválido.", e);
+		}
+		HistorialPrecios leido = new HistorialPrecios();
+		int[] pos = { 0 };
+		long instante = 0;
+		long base = 0;
+		long oferta = 0;
+		while (pos[0] < bytes.length) {
+			instante += leer(bytes, pos);
+			base += leer(bytes, pos);
+			oferta += leer(bytes, pos);
+			if (!leido.registrar(instante, base, oferta) || leido.ultimoInstante != instante) {
+				throw new IllegalArgumentException("Historial de precios inválido.");
+			}
+		}
+		this.datos = leido.datos;
+		this.tamano = leido.tamano;
+		this.cantidad = leido.cantidad;
+		this.ultimoInstante = leido.ultimoInstante;
+		this.ultimoBase = leido.ultimoBase;
+		this.ultimoOferta = leido.ultimoOferta;
+		this.instantesBloque = leido.instantesBloque;
+		this.basesBloque = leido.basesBloque;
+		this.ofertasBloque = leido.ofertasBloque;
+		this.posicionesBloque = leido.posicionesBloque;
+	}
+
+	private void reiniciar() {
+		this.datos = new byte[64];
+		this.tamano = 0;
+		this.cantidad = 0;
+		this.ultimoInstante = 0;
+		this.ultimoBase = 0;
+		this.ultimoOferta = 0;
+		this.instantesBloque = new long[4];
+		this.basesBloque = new long[4];
+		this.ofertasBloque = new long[4];
+		this.posicionesBloque = new int[4];
+	}
+
+	/**
+	 * Escribe un entero en zigzag y longitud variable: siete bits por byte, el bit alto
+	 * indica que sigue otro byte.
+	 */
+	private void escribir(long valor) {
+		long v = (valor << 1) ^ (valor >> 63);
+		if (tamano + 10 > datos.length) {
+			datos = Arrays.copyOf(datos, Math.max(datos.length * 2, tamano + 10));
+		}
+		while ((v & ~0x7FL) != 0) {
+			datos[tamano++] = (byte) ((v & 0x7F) | 0x80);
+			v >>>= 7;
+		}
+		datos[tamano++] = (byte) v;
+	}
+
+	private static long leer(byte[] bytes, int[] pos) throws IllegalArgumentException {
+		long v = 0;
+		int desplazamiento = 0;
+		while (true) {
+			if (pos[0] >= bytes.length || desplazamiento > 63) {
+				throw new IllegalArgumentException("Historial de precios inválido.");
+			}
+			byte b = bytes[pos[0]++];
+			v |= (long) (b & 0x7F) << desplazamiento;
+			if ((b & 0x80) == 0) {
+				break;
+			}
+			desplazamiento += 7;
+		}
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+	static long aInstante(LocalDateTime fecha) {
+		return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	/**
+	 * Recorre la serie desde un punto de control. Debe usarse con el monitor del historial.
+	 */
+	private final class Lector {
+		private final int[] pos;
+		private int indice;
+		long instante;
+		long base;
+		long oferta;
+
+		Lector(int bloque) {
+			this.pos = new int[] { posicionesBloque[bloque] };
+			this.indice = bloque * BLOQUE;
+			this.instante = instantesBloque[bloque];
+			this.base = basesBloque[bloque];
+			this.oferta = ofertasBloque[bloque];
+			// El primer punto del bloque ya está en los valores absolutos.
+			leer(datos, pos);
+			leer(datos, pos);
+			leer(datos, pos);
+		}
+
+		boolean siguiente() {
+			if (indice + 1 >= cantidad) {
+				return false;
+			}
+			instante += leer(datos, pos);
+			base += leer(datos, pos);
+			oferta += leer(datos, pos);
+			indice++;
+			return true;
+		}
+
+		Punto actual() {
+			return new Punto(instante, base, oferta);
+		}
+	}
+
+	/**
+	 * Precios de una localidad desde un instante.
+	 */
+	public static final class Punto {
+
+		private final long instante;
+		private final long precioBase;
+		private final long precioOferta;
+
+		Punto(long instante, long precioBase, long precioOferta) {
+			this.instante = instante;
+			this.precioBase = precioBase;
+			this.precioOferta = precioOferta;
+		}
+
+		/** Instante del cambio, en milisegundos desde la época. */
+		public long getInstante() {
+			return instante;
+		}
+
+		/** Fecha del cambio, en la zona horaria del sistema. */
+		public LocalDateTime getFecha() {
+			return LocalDateTime.ofInstant(Instant.ofEpochMilli(instante), ZoneId.systemDefault());
+		}
+
+		/** Precio de lista por tiquete, en centavos. */
+		public long getPrecioBaseCentavos() {
+			return precioBase;
+		}
+
+		/** Precio por tiquete con la mejor oferta vigente, en centavos. */
+		public long getPrecioOfertaCentavos() {
+			return precioOferta;
+		}
+
+		public double getPrecioBase() {
+			return Dinero.aValor(precioBase);
+		}
+
+		public double getPrecioOferta() {
+			return Dinero.aValor(precioOferta);
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package Eventos;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Índice inmutable de las ofertas de un evento por intervalo de vigencia.
+ * Los inicios y fines de las ofertas parten la línea de tiempo en tramos; para cada tramo se
+ * guardan de antemano las ofertas vigentes, así que consultar las ofertas activas en un
+ * instante es una búsqueda binaria sobre los bordes. Hay una línea para todo el evento y una
+ * por localidad. Como entre dos bordes consecutivos el resultado no cambia, el índice también
+ * dice cuándo es el próximo cambio, para que quien calcule precios pueda reutilizar su
+ * resultado hasta entonces. El evento lo reconstruye cuando sus ofertas cambian.
+ */
+public final class IndiceOfertas {
+
+	/**
+	 * Tramos de vigencia de un conjunto de ofertas.
+	 */
+	private static final class Linea {
+		private static final Linea VACIA = new Linea(new ArrayList<Oferta>());
+
+		// bordes[k] es el inicio del tramo k; el tramo k va hasta bordes[k + 1] (exclusivo).
+		private final LocalDateTime[] bordes;
+		private final List<List<Oferta>> vigentes;
+
+		Linea(List<Oferta> ofertas) {
+			TreeSet<LocalDateTime> puntos = new TreeSet<LocalDateTime>();
+			for (Oferta o : ofertas) {
+				puntos.add(o.getFechaInicio());
+				puntos.add(finExclusivo(o));
+			}
+			this.bordes = puntos.toArray(new LocalDateTime[0]);
+			this.vigentes = new ArrayList<List<Oferta>>(bordes.length);
+			for (int k = 0; k < bordes.length; k++) {
+				vigentes.add(new ArrayList<Oferta>());
+			}
+			for (Oferta o : ofertas) {
+				int desde = Arrays.binarySearch(bordes, o.getFechaInicio());
+				int hasta = Arrays.binarySearch(bordes, finExclusivo(o));
+				for (int k = desde; k < hasta; k++) {
+					vigentes.get(k).add(o);
+				}
+			}
+			for (int k = 0; k < bordes.length; k++) {
+				vigentes.set(k, Collections.unmodifiableList(vigentes.get(k)));
+			}
+		}
+
+		List<Oferta> activas(LocalDateTime fecha) {
+			int k = tramo(fecha);
+			return k < 0 ? Collections.<Oferta>emptyList() : vigentes.get(k);
+		}
+
+		LocalDateTime siguienteCambio(LocalDateTime fecha) {
+			int k = tramo(fecha) + 1;
+			return k < bordes.length ? bordes[k] : null;
+		}
+
+		LocalDateTime ultimoCambio(LocalDateTime fecha) {
+			int k = tramo(fecha);
+			return k >= 0 ? bordes[k] : null;
+		}
+
+		/**
+		 * Índice del último borde menor o igual a la fecha, o -1 si es anterior a todos.
+		 */
+		private int tramo(LocalDateTime fecha) {
+			int i = Arrays.binarySearch(bordes, fecha);
+			return i >= 0 ? i : -i - 2;
+		}
+
+		private static LocalDateTime finExclusivo(Oferta o) {
+			return o.getFechaFin().plusNanos(1);
+		}
+	}
+
+	// Atributos
+	private final long version;
+	private final int tamano;
+	private final Linea todas;
+	private final Map<Localidad, Linea> porLocalidad;
+
+	// Ctor
+
+	/**
+	 * Construye el índice. Las ofertas sin fechas o con fin anterior al inicio nunca están
+	 * activas y no se indexan.
+	 *
+	 * @param ofertas Ofertas del evento.
+	 * @param version Versión de las ofertas del evento con la que se construye.
+	 * @post El índice refleja las fechas que tenían las ofertas al construirlo.
+	 */
+	IndiceOfertas(List<Oferta> ofertas, long version) {
+		List<Oferta> validas = new ArrayList<Oferta>();
+		Map<Localidad, List<Oferta>> agrupadas = new IdentityHashMap<Localidad, List<Oferta>>();
+		for (Oferta o : ofertas) {
+			if (o.getFechaInicio() == null || o.getFechaFin() == null || o.getFechaFin().isBefore(o.getFechaInicio())) {
+				continue;
+			}
+			validas.add(o);
+			agrupadas.computeIfAbsent(o.getLocalidad(), l -> new ArrayList<Oferta>()).add(o);
+		}
+		this.version = version;
+		this.tamano = ofertas.size();
+		this.todas = new Linea(validas);
+		this.porLocalidad = new IdentityHashMap<Localidad, Linea>();
+		for (Map.Entry<Localidad, List<Oferta>> e : agrupadas.entrySet()) {
+			porLocalidad.put(e.getKey(), new Linea(e.getValue()));
+		}
+	}
+
+	// Getters
+
+	/**
+	 * Obtiene la versión de las ofertas del evento con la que se construyó el índice.
+	 *
+	 * @return Versión de las ofertas.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	int getTamano() {
+		return tamano;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Obtiene las ofertas activas en un instante.
+	 *
+	 * @param fecha Instante de referencia.
+	 * @return Ofertas vigentes (lista inmodificable).
+	 * @pre fecha definida.
+	 */
+	public List<Oferta> activas(LocalDateTime fecha) {
+		return todas.activas(fecha);
+	}
+
+	/**
+	 * Obtiene las ofertas activas en un instante para una localidad.
+	 *
+	 * @param fecha Instante de referencia.
+	 * @param localidad Localidad de interés.
+	 * @return Ofertas vigentes de la localidad (lista inmodificable).
+	 * @pre fecha definida.
+	 */
+	public List<Oferta> activas(LocalDateTime fecha, Localidad localidad) {
+		return linea(localidad).activas(fecha);
+	}
+
+	/**
+	 * Obtiene el próximo instante en que cambia el conjunto de ofertas activas.
+	 *
+	 * @param fecha Instante de referencia.
+	 * @return Primer instante posterior a fecha en que alguna oferta empieza o termina,
+	 *         o {@code null} si ya no hay cambios.
+	 * @pre fecha definida.
+	 */
+	public LocalDateTime siguienteCambio(LocalDateTime fecha) {
+		return todas.siguienteCambio(fecha);
+	}
+
+	/**
+	 * Obtiene el próximo instante en que cambian las ofertas activas de una localidad.
+	 *
+	 * @param fecha Instante de referencia.
+	 * @param localidad Localidad de interés.
+	 * @return Primer instante posterior a fecha en que alguna oferta de la localidad empieza
+	 *         o termina, o {@code null} si ya no hay cambios.
+	 * @pre fecha definida.
+	 */
+	public LocalDateTime siguienteCambio(LocalDateTime fecha, Localidad localidad) {
+		return linea(localidad).siguienteCambio(fecha);
+	}
+
+	/**
+	 * Obtiene el último instante, en o antes de una fecha, en que cambiaron las ofertas
+	 * activas de una localidad.
+	 *
+	 * @param fecha Instante de referencia.
+	 * @param localidad Localidad de interés.
+	 * @return Último inicio o fin de una oferta de la localidad hasta fecha, o {@code null}
+	 *         si ninguna había empezado.
+	 * @pre fecha definida.
+	 */
+	public LocalDateTime ultimoCambio(LocalDateTime fecha, Localidad localidad) {
+		return linea(localidad).ultimoCambio(fecha);
+	}
+
+	private Linea linea(Localidad localidad) {
+		Linea l = porLocalidad.get(localidad);
+		return l == null ? Linea.VACIA : l;
+	}
+}
@@ -0,0 +1,112 @@
+package Eventos;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Límite de tiquetes por cliente para un evento (por ejemplo, "máximo 4 por cliente").
+ * Guarda cuántos lugares lleva cada cliente en un mapa concurrente de id a cantidad; revisar
+ * y consumir cupo es una sola operación atómica por cliente, así que dos compras simultáneas
+ * de la misma cuenta no pueden pasar juntas el límite. Los clientes que devuelven todo su
+ * cupo salen del mapa. Con límite 0 no se lleva cuenta y no tiene costo.
+ * El límite cuenta lo que el cliente compró o tiene retenido, no lo que conserva: el cupo
+ * vuelve cuando una retención vence o se libera o cuando una compra falla, pero no al
+ * transferir ni al reembolsar un tiquete ya comprado, para que transferir no sirva para
+ * comprar por encima del límite.
+ */
+public class LimiteCompras {
+
+	// Atributos
+	private volatile int maximoPorCliente;
+	private final ConcurrentHashMap<Integer, Integer> consumidos;
+
+	// Ctor
+
+	/**
+	 * Crea un límite.
+	 *
+	 * @param maximoPorCliente Tiquetes máximos por cliente; 0 para no limitar.
+	 * @pre maximoPorCliente >= 0.
+	 * @post Ningún cliente ha consumido cupo.
+	 */
+	public LimiteCompras(int maximoPorCliente) {
+		this.maximoPorCliente = validarMaximo(maximoPorCliente);
+		this.consumidos = new ConcurrentHashMap<Integer, Integer>();
+	}
+
+	// Getters y Setters
+
+	public int getMaximoPorCliente() {
+		return maximoPorCliente;
+	}
+
+	/**
+	 * Cambia el límite. Pensado para configurarse antes de abrir ventas.
+	 *
+	 * @param maximoPorCliente Tiquetes máximos por cliente; 0 para no limitar.
+	 * @pre maximoPorCliente >= 0.
+	 * @post Las siguientes compras se validan con el nuevo límite.
+	 */
+	public void setMaximoPorCliente(int maximoPorCliente) {
+		this.maximoPorCliente = validarMaximo(maximoPorCliente);
+	}
+
+	/**
+	 * Obtiene los lugares que lleva un cliente.
+	 *
+	 * @param cliente Id del cliente.
+	 * @return Lugares retenidos o comprados que cuentan contra el límite.
+	 */
+	public int getConsumidos(int cliente) {
+		Integer actual = consumidos.get(cliente);
+		return actual == null ? 0 : actual;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Consume cupo del cliente si no supera el límite.
+	 *
+	 * @param cliente Id del cliente.
+	 * @param cantidad Lugares a consumir.
+	 * @return {@code true} si se consumió; {@code false} si superaba el límite (no se consume nada).
+	 * @pre cantidad > 0.
+	 * @post Si retorna true, el cliente lleva cantidad lugares más.
+	 */
+	public boolean consumir(int cliente, int cantidad) {
+		int maximo = maximoPorCliente;
+		if (maximo == 0) {
+			return true;
+		}
+		boolean[] aceptado = new boolean[1];
+		consumidos.compute(cliente, (k, actual) -> {
+			int previo = (actual == null) ? 0 : actual;
+			if (previo + cantidad > maximo) {
+				return actual;
+			}
+			aceptado[0] = true;
+			return previo + cantidad;
+		});
+		return aceptado[0];
+	}
+
+	/**
+	 * Devuelve cupo al cliente, por ejemplo cuando una retención vence o se libera.
+	 *
+	 * @param cliente Id del cliente.
+	 * @param cantidad Lugares a devolver.
+	 * @post El cliente lleva cantidad lugares menos (nunca menos de cero).
+	 */
+	public void devolver(int cliente, int cantidad) {
+		consumidos.computeIfPresent(cliente, (k, actual) -> {
+			int restante = actual - cantidad;
+			return restante > 0 ? restante : null;
+		});
+	}
+
+	private static int validarMaximo(int maximoPorCliente) {
+		if (maximoPorCliente < 0) {
+			throw new IllegalArgumentException("El límite por cliente no puede ser negativo.");
+		}
+		return maximoPorCliente;
+	}
+}
@@ -1,22 +1,58 @@
 package Eventos;
-import java.util.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import Tiquetes.Dinero;
+
 /**
  * Representa una localidad dentro de un evento.
  * Puede ser numerada o no numerada, y tiene su propio precio base, capacidad y control de ventas.
+ * Las reservas son seguras entre hilos: cada asiento o cupo se toma con una operación atómica,
+ * de modo que dos compradores simultáneos nunca obtienen el mismo asiento y el contador
+ * de vendidos no pierde actualizaciones.
+ * Además permite retener asientos por un tiempo limitado mientras el cliente paga
+ * (ver {@link Retencion}); un asiento retenido no está disponible pero tampoco cuenta como vendido.
+ * Una localidad numerada puede tener una {@link DisposicionAsientos} con sus secciones y filas,
+ * que se usa para ofrecer los mejores asientos contiguos disponibles.
+ * Cada cambio de ocupación o de configuración incrementa un contador de versión que el
+ * {@link Evento} usa para saber cuándo publicar una nueva {@link DisponibilidadEvento}, y
+ * los cambios de asientos se publican en el {@link CanalCambios} del evento.
+ * Los cambios del precio de lista (manuales o dinámicos) quedan en su {@link HistorialPrecios};
+ * el precio con ofertas se deriva de las fechas de las ofertas al consultarlo.
  */
 public class Localidad{
 	
+	private static final AtomicLong SECUENCIA_RESERVA = new AtomicLong();
+	private static final int ESPERA_RETENCION = 64;
+
 	//private int id;
 	private String nombre;
-	private double precioBase;
-	private double precioBasePaquetesxUnidad;
-	private double precioPaseTemporadaxUnidad;
-	private double precioPaseDeluxexUnidad;
-	private int capacidad;
+	private final AtomicReference<PreciosLocalidad> precios;
+	private volatile PrecioDinamico precioDinamico;
+	private volatile int capacidad;
 	private boolean numerada;
-    private int tiquetesVendidos;
+    private final AtomicInteger tiquetesVendidos;
     private Evento evento;
-    private ArrayList<Integer> asientosOcupados;
+    private MapaAsientos asientosOcupados;
+    private MapaAsientos asientosEnRetencion;
+    private CupoGeneral cuposGenerales;
+    private final AtomicInteger cuposVendidos;
+    private final AtomicInteger asientosRetenidos;
+    private final AtomicInteger cuposRetenidos;
+    private volatile DisposicionAsientos disposicion;
+    private final long ordenReserva;
+    private final LongAdder cambios;
+    private final AtomicReferenceArray<Cotizacion> cotizaciones;
+    private final List<Venue> venues;
+    private final HistorialPrecios historialPrecios;
 	
     /**
      * Crea una localidad asociada a un evento.
@@ -35,26 +71,35 @@ public class Localidad{
         this.nombre = nombre;
         this.numerada = numerada;
         this.capacidad = capacidad;
-        this.precioBase = precioBase;
-        this.precioBasePaquetesxUnidad = precioBasePaquetesxUnidad;
-        this.precioPaseTemporadaxUnidad = precioPaseTemporadaxUnidad;
-        this.precioPaseDeluxexUnidad = precioPaseDeluxexUnidad;
+        this.precios = new AtomicReference<PreciosLocalidad>(new PreciosLocalidad(precioBase, precioBasePaquetesxUnidad,
+                precioPaseTemporadaxUnidad, precioPaseDeluxexUnidad, 0));
         this.evento = evento;
-        this.tiquetesVendidos = 0;
-        this.asientosOcupados = new ArrayList<Integer>();
+        this.tiquetesVendidos = new AtomicInteger(0);
+        this.asientosOcupados = new MapaAsientos(capacidad);
+        this.asientosEnRetencion = new MapaAsientos(capacidad);
+        this.cuposGenerales = new CupoGeneral(capacidad);
+        this.cuposVendidos = new AtomicInteger(0);
+        this.asientosRetenidos = new AtomicInteger(0);
+        this.cuposRetenidos = new AtomicInteger(0);
+        this.ordenReserva = SECUENCIA_RESERVA.incrementAndGet();
+        this.cambios = new LongAdder();
+        this.cotizaciones = new AtomicReferenceArray<Cotizacion>(Cotizador.TIPOS);
+        this.venues = new CopyOnWriteArrayList<Venue>();
+        this.historialPrecios = new HistorialPrecios();
+        historialPrecios.registrar(System.currentTimeMillis(), Dinero.deValor(precioBase), Dinero.deValor(precioBase));
 	}
 
 	
 	//Getters y Setters
 	
 	public double getPrecioBasePaquetesxUnidad() {
-		return this.precioBasePaquetesxUnidad;
+		return precios.get().getPrecioPaquete();
 	}
 	public double getPrecioPaseTemporadaxUnidad() {
-		return this.precioPaseTemporadaxUnidad;
+		return precios.get().getPrecioPaseTemporada();
 	}
 	public double getPrecioPaseDeluxexUnidad() {
-		return this.precioPaseDeluxexUnidad;
+		return precios.get().getPrecioDeluxe();
 	}
 
     /**
@@ -75,6 +120,7 @@ public class Localidad{
      */
     public void setNombre(String nombre) {
         this.nombre = nombre;
+        registrarCambio();
     }
 
     /**
@@ -110,10 +156,18 @@ public class Localidad{
      *
      * @param capacidad Nueva capacidad total.
      * @pre capacidad > 0.
-     * @post Se actualiza la capacidad de la localidad.
+     * @post Se actualiza la capacidad de la localidad y el total de los venues donde está registrada.
      */
-    public void setCapacidad(int capacidad) {
+    public synchronized void setCapacidad(int capacidad) {
+        int diferencia = capacidad - this.capacidad;
+        for (Venue v : venues) {
+            v.ajustarCapacidadAsignada(diferencia);
+        }
         this.capacidad = capacidad;
+        this.asientosOcupados.setCapacidad(capacidad);
+        this.asientosEnRetencion.setCapacidad(capacidad);
+        this.cuposGenerales.setCapacidad(capacidad);
+        registrarCambio();
     }
 
     /**
@@ -122,7 +176,7 @@ public class Localidad{
      * @return Precio base actual.
      */
     public double getPrecioBase() {
-        return precioBase;
+        return precios.get().getPrecioBase();
     }
 
     /**
@@ -133,7 +187,188 @@ public class Localidad{
      * @post El precio base de la localidad se actualiza.
      */
     public void setPrecioBase(double precioBase) {
-        this.precioBase = precioBase;
+        precios.updateAndGet(p -> p.conPrecioBase(precioBase));
+        registrarCambio();
+        registrarPrecio();
+    }
+
+    /**
+     * Obtiene la versión de los precios de la localidad; aumenta cada vez que cambia un precio.
+     *
+     * @return Versión de precios.
+     */
+    public long getVersionPrecio() {
+        return precios.get().getVersion();
+    }
+
+    /**
+     * Obtiene los precios de lista vigentes. Los cuatro precios y la versión corresponden
+     * al mismo cambio.
+     *
+     * @return Precios publicados.
+     */
+    public PreciosLocalidad getPrecios() {
+        return precios.get();
+    }
+
+    public PrecioDinamico getPrecioDinamico() {
+        return precioDinamico;
+    }
+
+    /**
+     * Activa o desactiva el precio dinámico.
+     *
+     * @param precioDinamico Política a aplicar; {@code null} para volver a precio fijo.
+     * @post Las ventas de la localidad alimentan la política y el precio base se ajusta dentro
+     *       de su piso y techo; el precio vigente se mantiene hasta el primer ajuste.
+     */
+    public void setPrecioDinamico(PrecioDinamico precioDinamico) {
+        this.precioDinamico = precioDinamico;
+    }
+
+    /**
+     * Aplica el precio dinámico si le toca evaluar. Lo llaman las ventas y devoluciones;
+     * si la política no está activa o no ha pasado su intervalo, no hace nada.
+     *
+     * @post Si la demanda lo justifica, se publica una nueva versión de los precios con todos
+     *       los precios escalados en la misma proporción.
+     */
+    public void actualizarPrecioDinamico() {
+        PrecioDinamico politica = precioDinamico;
+        if (politica == null) {
+            return;
+        }
+        PreciosLocalidad actual = precios.get();
+        int restantes = capacidad - getTiquetesVendidos() - asientosRetenidos.get() - cuposRetenidos.get();
+        double nuevo = politica.evaluar(actual.getPrecioBase(), restantes);
+        if (nuevo == actual.getPrecioBase()) {
+            return;
+        }
+        PreciosLocalidad siguiente = actual.getPrecioBase() > 0
+                ? actual.escalar(nuevo / actual.getPrecioBase())
+                : actual.conPrecioBase(nuevo);
+        // Si el organizador cambió el precio a la vez, su cambio gana.
+        if (precios.compareAndSet(actual, siguiente)) {
+            politica.contarAjuste();
+            registrarCambio();
+            registrarPrecio();
+        }
+    }
+
+    /**
+     * Obtiene el historial de precios de la localidad.
+     *
+     * @return Serie de precios por tiquete, con y sin ofertas.
+     */
+    public HistorialPrecios getHistorialPrecios() {
+        return historialPrecios;
+    }
+
+    /**
+     * Obtiene los precios vigentes en una fecha: el precio de lista del historial y el precio
+     * con la mejor oferta activa en esa fecha, según las fechas de inicio y fin de las ofertas.
+     *
+     * @param fecha Fecha a consultar, en la zona horaria del sistema.
+     * @return Precios vigentes, con el instante del último cambio de precio o de ofertas, o
+     *         {@code null} si la fecha es anterior al primer punto del historial.
+     */
+    public HistorialPrecios.Punto precioEn(LocalDateTime fecha) {
+        HistorialPrecios.Punto lista = historialPrecios.precioEn(fecha);
+        if (lista == null || evento == null) {
+            return lista;
+        }
+        long instante = lista.getInstante();
+        LocalDateTime cambio = evento.getIndiceOfertas().ultimoCambio(fecha, this);
+        if (cambio != null) {
+            instante = Math.max(instante, HistorialPrecios.aInstante(cambio));
+        }
+        long base = lista.getPrecioBaseCentavos();
+        return new HistorialPrecios.Punto(instante, base, precioConOfertas(base, fecha));
+    }
+
+    /**
+     * Exporta los precios entre dos fechas: los cambios del precio de lista del historial y
+     * los inicios y fines de las ofertas de la localidad, en orden.
+     *
+     * @param desde Inicio del rango, en la zona horaria del sistema (inclusivo).
+     * @param hasta Fin del rango, en la zona horaria del sistema (inclusivo).
+     * @return El punto vigente al inicio del rango, si existe, seguido de los cambios dentro
+     *         del rango; no hay dos puntos seguidos con los mismos precios.
+     */
+    public List<HistorialPrecios.Punto> exportarPrecios(LocalDateTime desde, LocalDateTime hasta) {
+        List<HistorialPrecios.Punto> lista = historialPrecios.exportar(desde, hasta);
+        if (evento == null || lista.isEmpty()) {
+            return lista;
+        }
+        IndiceOfertas indice = evento.getIndiceOfertas();
+        List<HistorialPrecios.Punto> puntos = new ArrayList<HistorialPrecios.Punto>();
+        long inicio = HistorialPrecios.aInstante(desde);
+        LocalDateTime borde = indice.siguienteCambio(desde, this);
+        long base = 0;
+        boolean hayBase = false;
+        for (HistorialPrecios.Punto p : lista) {
+            while (hayBase && borde != null && HistorialPrecios.aInstante(borde) < p.getInstante()) {
+                agregarPunto(puntos, HistorialPrecios.aInstante(borde), base, precioConOfertas(base, borde));
+                borde = indice.siguienteCambio(borde, this);
+            }
+            base = p.getPrecioBaseCentavos();
+            hayBase = true;
+            if (p.getInstante() <= inicio) {
+                puntos.add(precioEn(desde));
+            } else {
+                agregarPunto(puntos, p.getInstante(), base, precioConOfertas(base, p.getFecha()));
+            }
+        }
+        while (borde != null && !borde.isAfter(hasta)) {
+            agregarPunto(puntos, HistorialPrecios.aInstante(borde), base, precioConOfertas(base, borde));
+            borde = indice.siguienteCambio(borde, this);
+        }
+        return puntos;
+    }
+
+    private static void agregarPunto(List<HistorialPrecios.Punto> puntos, long instante, long base, long oferta) {
+        if (!puntos.isEmpty()) {
+            HistorialPrecios.Punto ultimo = puntos.get(puntos.size() - 1);
+            if (ultimo.getPrecioBaseCentavos() == base && ultimo.getPrecioOfertaCentavos() == oferta) {
+                return;
+            }
+        }
+        puntos.add(new HistorialPrecios.Punto(instante, base, oferta));
+    }
+
+    /**
+     * Calcula el precio con la mejor oferta de la localidad activa en una fecha.
+     */
+    private long precioConOfertas(long baseCentavos, LocalDateTime fecha) {
+        double base = Dinero.aValor(baseCentavos);
+        double conOferta = base;
+        if (evento != null) {
+            for (Oferta o : evento.getIndiceOfertas().activas(fecha, this)) {
+                conOferta = Math.min(conOferta, o.aplicarDescuento(base));
+            }
+        }
+        return Dinero.deValor(conOferta);
+    }
+
+    /**
+     * Registra en el historial el precio de lista vigente y el precio con la mejor oferta
+     * activa en este momento. Lo llaman los cambios del precio de lista; los inicios y fines
+     * de las ofertas no se registran, se derivan de sus fechas al consultar
+     * (ver {@link #precioEn(LocalDateTime)}).
+     *
+     * @post Si alguno de los dos precios cambió desde el último punto, el historial tiene uno nuevo.
+     */
+    void registrarPrecio() {
+        long base = Dinero.deValor(precios.get().getPrecioBase());
+        LocalDateTime ahora = LocalDateTime.now();
+        historialPrecios.registrar(HistorialPrecios.aInstante(ahora), base, precioConOfertas(base, ahora));
+    }
+
+    /**
+     * Obtiene las cotizaciones guardadas por el {@link Cotizador}, una por tipo de producto.
+     */
+    AtomicReferenceArray<Cotizacion> getCotizaciones() {
+        return cotizaciones;
     }
 
     /**
@@ -142,7 +377,49 @@ public class Localidad{
      * @return Número total de tiquetes vendidos.
      */
     public int getTiquetesVendidos() {
-        return tiquetesVendidos;
+        return tiquetesVendidos.get() + cuposVendidos.get();
+    }
+
+    /**
+     * Obtiene el número de asientos o cupos retenidos temporalmente.
+     *
+     * @return Lugares retenidos que aún no se han vendido ni liberado.
+     */
+    public int getAsientosRetenidos() {
+        return asientosRetenidos.get() + cuposRetenidos.get();
+    }
+
+    /**
+     * Obtiene la versión de la localidad: un contador que crece con cada reserva, liberación,
+     * retención o cambio de configuración. Leerlo no bloquea a los compradores.
+     *
+     * @return Número de cambios registrados hasta ahora.
+     */
+    public long getVersion() {
+        return cambios.sum();
+    }
+
+    /**
+     * Cuenta un cambio en la versión de la localidad y en la del inventario de su evento.
+     */
+    private void registrarCambio() {
+        cambios.increment();
+        if (evento != null) {
+            evento.registrarCambioInventario();
+        }
+    }
+
+    /**
+     * Suscribe a los cambios de asientos de esta localidad.
+     *
+     * @return Suscripción que entrega los cambios de la localidad publicados desde este momento.
+     * @throws IllegalStateException si la localidad no pertenece a un evento.
+     */
+    public SuscripcionCambios suscribirCambios() throws IllegalStateException {
+        if (evento == null) {
+            throw new IllegalStateException("La localidad no pertenece a un evento.");
+        }
+        return evento.getCanalCambios().suscribir(this);
     }
 
     /**
@@ -163,7 +440,10 @@ public class Localidad{
      * @post No modifica el estado de la localidad.
      */
     public boolean hayDisponibilidad() {
-        return tiquetesVendidos < capacidad;
+        if (!numerada) {
+            return cuposGenerales.hayDisponibles();
+        }
+        return tiquetesVendidos.get() + asientosRetenidos.get() < capacidad;
     }
 
     /**
@@ -178,7 +458,36 @@ public class Localidad{
         if (!numerada) {
             throw new IllegalStateException("La localidad no es numerada.");
         }
-        return !asientosOcupados.contains(numeroAsiento);
+        return !asientosOcupados.estaOcupado(numeroAsiento);
+    }
+
+    /**
+     * Cuenta los asientos numerados que siguen libres.
+     *
+     * @return Número de asientos libres entre 1 y la capacidad.
+     * @pre La localidad debe ser numerada.
+     * @post No modifica el estado de la localidad.
+     */
+    public int contarAsientosLibres() throws IllegalStateException{
+        if (!numerada) {
+            throw new IllegalStateException("La localidad no es numerada.");
+        }
+        return asientosOcupados.contarLibres();
+    }
+
+    /**
+     * Busca el siguiente asiento libre a partir de un número dado.
+     *
+     * @param desde Número de asiento desde el cual buscar (inclusive).
+     * @return Número del primer asiento libre, o -1 si no quedan asientos libres.
+     * @pre La localidad debe ser numerada.
+     * @post No modifica el estado de la localidad.
+     */
+    public int siguienteAsientoLibre(int desde) throws IllegalStateException{
+        if (!numerada) {
+            throw new IllegalStateException("La localidad no es numerada.");
+        }
+        return asientosOcupados.siguienteLibre(desde);
     }
 
     /**
@@ -192,15 +501,18 @@ public class Localidad{
         if (!numerada) {
             throw new IllegalStateException("No aplica para localidades no numeradas.");
         }
-        if (!asientoDisponible(numeroAsiento)) {
+        if (!ocuparYPublicar(numeroAsiento, CambioAsiento.VENDIDO)) {
             throw new IllegalStateException("El asiento ya está ocupado.");
         }
-        asientosOcupados.add(numeroAsiento);
-        tiquetesVendidos++;
+        actualizarDisposicion(numeroAsiento);
+        tiquetesVendidos.incrementAndGet();
+        registrarCambio();
+        registrarVenta(1);
     }
 
     /**
      * Reserva un cupo en una localidad no numerada.
+     * El cupo se toma del asignador por franjas, que nunca entrega más cupos que la capacidad.
      *
      * @pre La localidad no es numerada y hay disponibilidad.
      * @post Incrementa el número de tiquetes vendidos.
@@ -209,41 +521,61 @@ public class Localidad{
         if (numerada) {
             throw new IllegalStateException("Debe indicar número de asiento para localidad numerada.");
         }
-        if (!hayDisponibilidad()) {
+        if (!cuposGenerales.tomar()) {
             throw new IllegalStateException("No hay cupos disponibles.");
         }
-        tiquetesVendidos++;
+        cuposVendidos.incrementAndGet();
+        registrarCambio();
+        publicarCupos(CambioAsiento.VENDIDO, 1);
+        registrarVenta(1);
     }
 
     /**
      * Libera un asiento previamente reservado.
      *
      * @param numeroAsiento Número del asiento a liberar.
-     * @pre El asiento está ocupado.
+     * @pre El asiento está vendido; un asiento que cubre una retención no se libera por aquí.
      * @post El asiento vuelve a estar disponible y se reduce el contador de tiquetes vendidos.
      */
     public void liberarAsiento(int numeroAsiento) throws IllegalStateException{
         if (!numerada) {
             throw new IllegalStateException("Solo aplica a localidades numeradas.");
         }
-        asientosOcupados.remove(Integer.valueOf(numeroAsiento));
-        tiquetesVendidos--;
+        if (estaEnRetencion(numeroAsiento)) {
+            throw new IllegalStateException("El asiento " + numeroAsiento + " está retenido.");
+        }
+        if (!liberarYPublicar(numeroAsiento)) {
+            throw new IllegalStateException("El asiento no está ocupado.");
+        }
+        actualizarDisposicion(numeroAsiento);
+        tiquetesVendidos.decrementAndGet();
+        registrarCambio();
+        registrarVenta(-1);
     }
 
     /**
      * Cancela una reserva general en una localidad no numerada.
+     * El cupo vuelve al mismo asignador del que se tomó. Solo se devuelven cupos vendidos:
+     * los que cubre una retención se devuelven al liberarla.
      *
-     * @pre Hay al menos un tiquete vendido.
+     * @pre Hay al menos un cupo vendido.
      * @post Se reduce el contador de tiquetes vendidos en uno.
      */
     public void cancelarReservaGeneral() throws IllegalStateException{
         if (numerada) {
             throw new IllegalStateException("No aplica a localidades numeradas.");
         }
-        if (tiquetesVendidos <= 0) {
-            throw new IllegalStateException("No hay reservas que cancelar.");
-        }
-        tiquetesVendidos--;
+        int vendidos;
+        do {
+            vendidos = cuposVendidos.get();
+            if (vendidos == 0) {
+                throw new IllegalStateException("No hay reservas que cancelar.");
+            }
+        } while (!cuposVendidos.compareAndSet(vendidos, vendidos - 1));
+        cuposGenerales.devolver();
+        registrarCambio();
+        publicarCupos(CambioAsiento.VENDIDO, -1);
+        registrarVenta(-1);
     }
 
     /**
@@ -253,7 +585,17 @@ public class Localidad{
      * @post No modifica el estado de la localidad.
      */
     public double calcularIngresos() {
-        return tiquetesVendidos * precioBase;
+        return Dinero.aValor(calcularIngresosCentavos());
+    }
+
+    /**
+     * Calcula el ingreso total generado por la localidad en centavos, de forma exacta.
+     *
+     * @return Precio base redondeado al centavo por tiquetes vendidos.
+     * @post No modifica el estado de la localidad.
+     */
+    public long calcularIngresosCentavos() {
+        return Dinero.multiplicar(Dinero.deValor(getPrecioBase()), getTiquetesVendidos());
     }
 
     /**
@@ -266,7 +608,426 @@ public class Localidad{
         if (capacidad == 0) { 
         	return 0;
         }
-        return (tiquetesVendidos * 100.0) / capacidad;
+        return (getTiquetesVendidos() * 100.0) / capacidad;
+    }
+
+
+    // Disposición y mejores asientos
+
+    /**
+     * Obtiene la disposición de secciones y filas de la localidad.
+     *
+     * @return Disposición asignada, o {@code null} si no tiene.
+     */
+    public DisposicionAsientos getDisposicion() {
+        return disposicion;
+    }
+
+    /**
+     * Asigna la disposición de secciones y filas de una localidad numerada.
+     * El índice de la disposición se carga con los asientos que ya estén ocupados o retenidos.
+     *
+     * @param disposicion Disposición nueva; no debe estar asignada a otra localidad.
+     * @throws IllegalStateException si la localidad no es numerada.
+     * @pre Todos los asientos de la disposición están entre 1 y la capacidad.
+     * @post Las reservas, liberaciones y retenciones mantienen la disposición al día.
+     */
+    public synchronized void setDisposicion(DisposicionAsientos disposicion) throws IllegalStateException {
+        if (!numerada) {
+            throw new IllegalStateException("Solo aplica a localidades numeradas.");
+        }
+        if (disposicion != null) {
+            if (disposicion.getUltimoAsiento() > capacidad) {
+                throw new IllegalArgumentException("La disposición tiene asientos por fuera de la capacidad.");
+            }
+            this.disposicion = disposicion;
+            for (FilaAsientos fila : disposicion.getFilas()) {
+                for (int a = fila.getPrimerAsiento(); a <= fila.getUltimoAsiento(); a++) {
+                    disposicion.sincronizar(a, asientosOcupados);
+                }
+            }
+        } else {
+            this.disposicion = null;
+        }
+    }
+
+    /**
+     * Busca los mejores asientos contiguos libres en una misma fila.
+     *
+     * @param cantidad Número de asientos juntos que se buscan.
+     * @return Números de los asientos, o un arreglo vacío si ninguna fila tiene ese bloque libre.
+     * @throws IllegalStateException si la localidad no es numerada o no tiene disposición.
+     * @pre cantidad > 0.
+     * @post No modifica el estado de la localidad.
+     */
+    public int[] buscarMejoresAsientos(int cantidad) throws IllegalStateException {
+        return disposicionRequerida().buscarContiguos(cantidad);
+    }
+
+    /**
+     * Busca y retiene los mejores asientos contiguos libres. Si otro comprador toma alguno de
+     * los asientos entre la búsqueda y la retención, se vuelve a buscar.
+     *
+     * @param cantidad Número de asientos juntos.
+     * @param duracion Tiempo que dura la retención.
+     * @return Retención activa sobre el bloque de asientos.
+     * @throws IllegalStateException si ya no hay un bloque libre de ese tamaño.
+     * @pre La localidad es numerada y tiene disposición; cantidad > 0.
+     * @post Los asientos retenidos quedan ocupados hasta confirmar, liberar o vencer la retención.
+     */
+    public Retencion retenerMejoresAsientos(int cantidad, Duration duracion) throws IllegalStateException {
+        return retenerMejoresAsientos(cantidad, duracion, Retencion.SIN_TITULAR);
+    }
+
+    /**
+     * Busca y retiene los mejores asientos contiguos libres a nombre de un cliente, consumiendo
+     * su límite de compras en el evento.
+     *
+     * @param cantidad Número de asientos juntos.
+     * @param duracion Tiempo que dura la retención.
+     * @param titular Id del cliente, o {@link Retencion#SIN_TITULAR} para no aplicar límite.
+     * @return Retención activa sobre el bloque de asientos.
+     * @throws IllegalStateException si ya no hay un bloque libre de ese tamaño o el cliente supera su límite.
+     * @pre La localidad es numerada y tiene disposición; cantidad > 0.
+     * @post Los asientos retenidos quedan ocupados hasta confirmar, liberar o vencer la retención.
+     */
+    public Retencion retenerMejoresAsientos(int cantidad, Duration duracion, int titular) throws IllegalStateException {
+        DisposicionAsientos d = disposicionRequerida();
+        while (true) {
+            int[] bloque = d.buscarContiguos(cantidad);
+            if (bloque.length == 0) {
+                throw new IllegalStateException("No hay " + cantidad + " asientos contiguos disponibles.");
+            }
+            try {
+                return GestorRetenciones.getInstance().retener(this, bloque, 0, duracion, titular);
+            } catch (IllegalStateException e) {
+                // Si el bloque sigue libre, el fallo no fue por competencia (p. ej. límite por cliente).
+                boolean bloqueLibre = true;
+                for (int asiento : bloque) {
+                    bloqueLibre &= asientoDisponible(asiento);
+                }
+                if (bloqueLibre) {
+                    throw e;
+                }
+                // Otro hilo tomó parte del bloque; el índice ya lo refleja.
+            }
+        }
+    }
+
+    private DisposicionAsientos disposicionRequerida() throws IllegalStateException {
+        DisposicionAsientos d = disposicion;
+        if (!numerada || d == null) {
+            throw new IllegalStateException("La localidad no tiene disposición de asientos.");
+        }
+        return d;
+    }
+
+    private void actualizarDisposicion(int numeroAsiento) {
+        DisposicionAsientos d = disposicion;
+        if (d != null) {
+            d.sincronizar(numeroAsiento, asientosOcupados);
+        }
+    }
+
+    // Retenciones temporales
+
+    /**
+     * Retiene asientos numerados por un tiempo limitado.
+     *
+     * @param numerosAsientos Asientos a retener.
+     * @param duracion Tiempo que dura la retención.
+     * @return Retención activa sobre los asientos.
+     * @throws IllegalStateException si la localidad no es numerada o algún asiento no está libre;
+     *         en ese caso no se retiene ninguno.
+     * @pre La localidad es numerada y los asientos están libres.
+     * @post Los asientos quedan ocupados hasta confirmar, liberar o vencer la retención.
+     */
+    public Retencion retenerAsientos(int[] numerosAsientos, Duration duracion) throws IllegalStateException {
+        if (!numerada) {
+            throw new IllegalStateException("Solo aplica a localidades numeradas.");
+        }
+        return GestorRetenciones.getInstance().retener(this, numerosAsientos, 0, duracion);
+    }
+
+    /**
+     * Retiene cupos de una localidad no numerada por un tiempo limitado.
+     *
+     * @param cantidad Número de cupos a retener.
+     * @param duracion Tiempo que dura la retención.
+     * @return Retención activa sobre los cupos.
+     * @throws IllegalStateException si la localidad es numerada o no hay cupos suficientes.
+     * @pre La localidad no es numerada y hay cupos disponibles.
+     * @post Los cupos quedan apartados hasta confirmar, liberar o vencer la retención.
+     */
+    public Retencion retenerCupos(int cantidad, Duration duracion) throws IllegalStateException {
+        if (numerada) {
+            throw new IllegalStateException("No aplica a localidades numeradas.");
+        }
+        return GestorRetenciones.getInstance().retener(this, null, cantidad, duracion);
+    }
+
+    /**
+     * Convierte una retención activa de esta localidad en venta.
+     *
+     * @param retencion Retención a confirmar.
+     * @throws IllegalStateException si la retención ya no está activa.
+     * @post Los lugares retenidos pasan a contar como vendidos.
+     */
+    public void confirmarRetencion(Retencion retencion) throws IllegalStateException {
+        validarRetencion(retencion);
+        retencion.getGestor().confirmar(retencion);
+    }
+
+    /**
+     * Deshace la venta de una retención confirmada de esta localidad, por ejemplo cuando la
+     * compra que la confirmó falla en un paso posterior.
+     *
+     * @param retencion Retención a reabrir.
+     * @throws IllegalStateException si la retención no está confirmada.
+     * @post Los lugares vuelven a contar como retenidos hasta que la retención se confirme, se
+     *       libere o venza.
+     */
+    public void reabrirRetencion(Retencion retencion) throws IllegalStateException {
+        validarRetencion(retencion);
+        retencion.getGestor().reabrir(retencion);
+    }
+
+    /**
+     * Libera una retención activa de esta localidad.
+     *
+     * @param retencion Retención a liberar.
+     * @return {@code true} si estaba activa y se liberó.
+     * @post Los lugares retenidos vuelven a estar disponibles.
+     */
+    public boolean liberarRetencion(Retencion retencion) {
+        validarRetencion(retencion);
+        return retencion.getGestor().liberar(retencion);
+    }
+
+    private void validarRetencion(Retencion retencion) {
+        if (retencion == null || retencion.getLocalidad() != this) {
+            throw new IllegalArgumentException("La retención no pertenece a esta localidad.");
+        }
+    }
+
+    void registrarVenue(Venue venue) {
+        venues.add(venue);
+    }
+
+    void desregistrarVenue(Venue venue) {
+        venues.remove(venue);
+    }
+
+    /**
+     * Posición de la localidad en el orden global en que se toman las reservas en bloque.
+     */
+    long getOrdenReserva() {
+        return ordenReserva;
+    }
+
+    /**
+     * Toma los asientos y cupos de una retención: o se toman todos, o ninguno.
+     */
+    void tomarParaRetencion(int[] asientos, int cupos) throws IllegalStateException {
+        if (cupos < 0) {
+            throw new IllegalArgumentException("La cantidad de cupos no puede ser negativa.");
+        }
+        if (asientos.length > 0 && !numerada) {
+            throw new IllegalStateException("Solo aplica a localidades numeradas.");
+        }
+        if (cupos > 0 && numerada) {
+            throw new IllegalStateException("No aplica a localidades numeradas.");
+        }
+        for (int i = 0; i < asientos.length; i++) {
+            // Se marca antes de ocupar: así liberarAsiento nunca ve un asiento retenido sin marca.
+            boolean marcado = asientosEnRetencion.ocupar(asientos[i]);
+            if (!marcado || !ocuparYPublicar(asientos[i], CambioAsiento.RETENIDO)) {
+                if (marcado) {
+                    asientosEnRetencion.liberar(asientos[i]);
+                }
+                for (int j = 0; j < i; j++) {
+                    liberarYPublicar(asientos[j]);
+                    actualizarDisposicion(asientos[j]);
+                    asientosEnRetencion.liberar(asientos[j]);
+                }
+                throw new IllegalStateException("El asiento " + asientos[i] + " no está disponible.");
+            }
+            actualizarDisposicion(asientos[i]);
+        }
+        asientosRetenidos.addAndGet(asientos.length);
+        for (int i = 0; i < cupos; i++) {
+            if (!cuposGenerales.tomar()) {
+                for (int j = 0; j < i; j++) {
+                    cuposGenerales.devolver();
+                }
+                throw new IllegalStateException("No hay cupos disponibles.");
+            }
+        }
+        cuposRetenidos.addAndGet(cupos);
+        registrarCambio();
+        if (cupos > 0) {
+            publicarCupos(CambioAsiento.RETENIDO, cupos);
+        }
+    }
+
+    /**
+     * Pasa los lugares de una retención confirmada al conteo de vendidos.
+     */
+    void convertirRetencionEnVenta(Retencion retencion) {
+        int asientos = retencion.asientosInternos().length;
+        for (int asiento : retencion.asientosInternos()) {
+            asientosEnRetencion.liberar(asiento);
+        }
+        asientosRetenidos.addAndGet(-asientos);
+        tiquetesVendidos.addAndGet(asientos);
+        cuposRetenidos.addAndGet(-retencion.getCupos());
+        cuposVendidos.addAndGet(retencion.getCupos());
+        registrarCambio();
+        for (int asiento : retencion.asientosInternos()) {
+            publicarAsiento(asiento, CambioAsiento.VENDIDO);
+        }
+        if (retencion.getCupos() > 0) {
+            publicarCupos(CambioAsiento.RETENIDO, -retencion.getCupos());
+            publicarCupos(CambioAsiento.VENDIDO, retencion.getCupos());
+        }
+        registrarVenta(asientos + retencion.getCupos());
+    }
+
+    /**
+     * Devuelve al conteo de retenidos los lugares de una retención confirmada que se reabre.
+     */
+    void devolverVentaARetencion(Retencion retencion) {
+        int asientos = retencion.asientosInternos().length;
+        for (int asiento : retencion.asientosInternos()) {
+            asientosEnRetencion.ocupar(asiento);
+        }
+        tiquetesVendidos.addAndGet(-asientos);
+        asientosRetenidos.addAndGet(asientos);
+        cuposVendidos.addAndGet(-retencion.getCupos());
+        cuposRetenidos.addAndGet(retencion.getCupos());
+        registrarCambio();
+        for (int asiento : retencion.asientosInternos()) {
+            publicarAsiento(asiento, CambioAsiento.RETENIDO);
+        }
+        if (retencion.getCupos() > 0) {
+            publicarCupos(CambioAsiento.VENDIDO, -retencion.getCupos());
+            publicarCupos(CambioAsiento.RETENIDO, retencion.getCupos());
+        }
+        registrarVenta(-(asientos + retencion.getCupos()));
+    }
+
+    /**
+     * Devuelve los lugares de una retención liberada o vencida.
+     */
+    void soltarRetencion(Retencion retencion) {
+        for (int asiento : retencion.asientosInternos()) {
+            liberarYPublicar(asiento);
+            actualizarDisposicion(asiento);
+            asientosEnRetencion.liberar(asiento);
+        }
+        asientosRetenidos.addAndGet(-retencion.asientosInternos().length);
+        cuposRetenidos.addAndGet(-retencion.getCupos());
+        for (int i = 0; i < retencion.getCupos(); i++) {
+            cuposGenerales.devolver();
+        }
+        registrarCambio();
+        if (retencion.getCupos() > 0) {
+            publicarCupos(CambioAsiento.RETENIDO, -retencion.getCupos());
+        }
+    }
+
+    /**
+     * Indica si el asiento está cubierto por una retención. Una retención que se está tomando
+     * marca el asiento antes de ocuparlo, así que se espera un momento a que termine o desista.
+     */
+    private boolean estaEnRetencion(int numeroAsiento) {
+        for (int intento = 0; intento < ESPERA_RETENCION; intento++) {
+            if (!asientosEnRetencion.estaOcupado(numeroAsiento)) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return asientosEnRetencion.estaOcupado(numeroAsiento);
+    }
+
+    /**
+     * Alimenta el precio dinámico con una venta (o devolución) y lo evalúa si le toca.
+     */
+    private void registrarVenta(int cantidad) {
+        PrecioDinamico politica = precioDinamico;
+        if (politica != null) {
+            politica.registrarVenta(cantidad);
+            actualizarPrecioDinamico();
+        }
+    }
+
+    /**
+     * Publica un cambio neto de cupos en el canal del evento; si nadie está suscrito no hace nada.
+     */
+    private void publicarCupos(String estado, int cantidad) {
+        if (evento != null) {
+            evento.getCanalCambios().publicar(this, -1, estado, cantidad);
+        }
+    }
+
+    /**
+     * Canal del evento si tiene suscriptores; si no, los cambios de asientos no se publican y
+     * no hace falta tomar el candado del asiento.
+     */
+    private CanalCambios canalRegistrando() {
+        if (evento == null) {
+            return null;
+        }
+        CanalCambios canal = evento.getCanalCambios();
+        return canal.isRegistrando() ? canal : null;
+    }
+
+    /**
+     * Ocupa un asiento y publica su nuevo estado en la misma sección crítica, para que un
+     * cambio posterior del mismo asiento, desde otro hilo, reciba una secuencia mayor.
+     */
+    private boolean ocuparYPublicar(int asiento, String estado) {
+        CanalCambios canal = canalRegistrando();
+        if (canal == null) {
+            return asientosOcupados.ocupar(asiento);
+        }
+        synchronized (canal.candadoAsiento(this, asiento)) {
+            if (!asientosOcupados.ocupar(asiento)) {
+                return false;
+            }
+            canal.publicar(this, asiento, estado, 1);
+            return true;
+        }
+    }
+
+    /**
+     * Libera un asiento y publica que quedó libre en la misma sección crítica.
+     */
+    private boolean liberarYPublicar(int asiento) {
+        CanalCambios canal = canalRegistrando();
+        if (canal == null) {
+            return asientosOcupados.liberar(asiento);
+        }
+        synchronized (canal.candadoAsiento(this, asiento)) {
+            if (!asientosOcupados.liberar(asiento)) {
+                return false;
+            }
+            canal.publicar(this, asiento, CambioAsiento.LIBRE, 1);
+            return true;
+        }
+    }
+
+    /**
+     * Publica el nuevo estado de un asiento que sigue ocupado (retenido o vendido) con su
+     * candado tomado, en orden con los demás cambios del asiento.
+     */
+    private void publicarAsiento(int asiento, String estado) {
+        CanalCambios canal = canalRegistrando();
+        if (canal != null) {
+            synchronized (canal.candadoAsiento(this, asiento)) {
+                canal.publicar(this, asiento, estado, 1);
+            }
+        }
     }
 
 }
\ No newline at end of file
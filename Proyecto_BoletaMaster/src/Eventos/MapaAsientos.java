@@ -0,0 +1,265 @@
+package Eventos;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mapa de ocupación de asientos de una localidad numerada.
+ * Guarda un bit por asiento en palabras de 64 bits, de modo que consultar,
+ * ocupar o liberar un asiento es O(1) y no requiere objetos {@code Integer}.
+ * Cada asiento se toma con una operación compare-and-set sobre su palabra, así que
+ * varios hilos pueden vender en la misma localidad sin bloqueos y sin vender dos
+ * veces el mismo asiento.
+ * Los asientos se numeran desde 1 hasta la capacidad; si se usa un número mayor,
+ * el mapa crece para incluirlo agregando bloques nuevos (los existentes no se copian).
+ */
+public class MapaAsientos {
+
+	private static final int PALABRAS_POR_BLOQUE = 64;
+	private static final int BITS_POR_BLOQUE = PALABRAS_POR_BLOQUE * 64;
+
+	// Atributos
+	private volatile AtomicLongArray[] bloques;
+	private volatile int capacidad;
+	private final AtomicInteger ocupadosEnRango;
+
+	// Ctor
+
+	/**
+	 * Crea un mapa de asientos vacío.
+	 *
+	 * @param capacidad Número de asientos de la localidad.
+	 * @pre capacidad >= 0.
+	 * @post Todos los asientos entre 1 y capacidad quedan libres.
+	 */
+	public MapaAsientos(int capacidad) {
+		if (capacidad < 0) {
+			throw new IllegalArgumentException("La capacidad no puede ser negativa.");
+		}
+		this.capacidad = capacidad;
+		this.bloques = new AtomicLongArray[0];
+		this.ocupadosEnRango = new AtomicInteger(0);
+		asegurarTamano(capacidad);
+	}
+
+	// Getters y Setters
+
+	/**
+	 * Obtiene la capacidad sobre la cual se cuentan los asientos libres.
+	 *
+	 * @return Capacidad actual del mapa.
+	 */
+	public int getCapacidad() {
+		return capacidad;
+	}
+
+	/**
+	 * Ajusta la capacidad del mapa conservando los asientos ocupados.
+	 * Pensado para la configuración de la localidad, no para usarse mientras hay ventas en curso.
+	 *
+	 * @param capacidad Nueva capacidad.
+	 * @pre capacidad >= 0.
+	 * @post Los conteos de libres y ocupados se calculan sobre la nueva capacidad.
+	 */
+	public synchronized void setCapacidad(int capacidad) {
+		if (capacidad < 0) {
+			throw new IllegalArgumentException("La capacidad no puede ser negativa.");
+		}
+		asegurarTamano(capacidad);
+		this.capacidad = capacidad;
+		this.ocupadosEnRango.set(contarBits(1, capacidad));
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Indica si un asiento está ocupado.
+	 *
+	 * @param numero Número del asiento.
+	 * @return {@code true} si el asiento está ocupado.
+	 * @pre numero >= 0.
+	 */
+	public boolean estaOcupado(int numero) {
+		validarNumero(numero);
+		AtomicLongArray[] actuales = bloques;
+		int bloque = numero / BITS_POR_BLOQUE;
+		if (bloque >= actuales.length) {
+			return false;
+		}
+		return (actuales[bloque].get(palabraEnBloque(numero)) & (1L << numero)) != 0;
+	}
+
+	/**
+	 * Marca un asiento como ocupado de forma atómica.
+	 *
+	 * @param numero Número del asiento.
+	 * @return {@code true} si el asiento estaba libre y quedó ocupado; {@code false} si ya estaba ocupado.
+	 * @pre numero >= 0.
+	 * @post El asiento queda ocupado; si dos hilos compiten por él, solo uno recibe {@code true}.
+	 */
+	public boolean ocupar(int numero) {
+		validarNumero(numero);
+		AtomicLongArray palabras = bloqueDe(numero);
+		int palabra = palabraEnBloque(numero);
+		long mascara = 1L << numero;
+		long actual;
+		do {
+			actual = palabras.get(palabra);
+			if ((actual & mascara) != 0) {
+				return false;
+			}
+		} while (!palabras.compareAndSet(palabra, actual, actual | mascara));
+		if (numero >= 1 && numero <= capacidad) {
+			ocupadosEnRango.incrementAndGet();
+		}
+		return true;
+	}
+
+	/**
+	 * Marca un asiento como libre de forma atómica.
+	 *
+	 * @param numero Número del asiento.
+	 * @return {@code true} si el asiento estaba ocupado y quedó libre; {@code false} si ya estaba libre.
+	 * @pre numero >= 0.
+	 * @post El asiento queda libre.
+	 */
+	public boolean liberar(int numero) {
+		validarNumero(numero);
+		AtomicLongArray[] actuales = bloques;
+		int bloque = numero / BITS_POR_BLOQUE;
+		if (bloque >= actuales.length) {
+			return false;
+		}
+		AtomicLongArray palabras = actuales[bloque];
+		int palabra = palabraEnBloque(numero);
+		long mascara = 1L << numero;
+		long actual;
+		do {
+			actual = palabras.get(palabra);
+			if ((actual & mascara) == 0) {
+				return false;
+			}
+		} while (!palabras.compareAndSet(palabra, actual, actual & ~mascara));
+		if (numero >= 1 && numero <= capacidad) {
+			ocupadosEnRango.decrementAndGet();
+		}
+		return true;
+	}
+
+	/**
+	 * Cuenta los asientos libres entre 1 y la capacidad.
+	 *
+	 * @return Número de asientos libres.
+	 * @post No modifica el estado del mapa.
+	 */
+	public int contarLibres() {
+		return capacidad - ocupadosEnRango.get();
+	}
+
+	/**
+	 * Cuenta los asientos ocupados entre 1 y la capacidad.
+	 *
+	 * @return Número de asientos ocupados.
+	 * @post No modifica el estado del mapa.
+	 */
+	public int contarOcupados() {
+		return ocupadosEnRango.get();
+	}
+
+	/**
+	 * Busca el primer asiento libre a partir de un número dado.
+	 *
+	 * @param desde Número de asiento desde el cual buscar (inclusive).
+	 * @return Número del primer asiento libre entre desde y la capacidad, o -1 si no hay.
+	 * @post No modifica el estado del mapa.
+	 */
+	public int siguienteLibre(int desde) {
+		int inicio = Math.max(desde, 1);
+		int limite = capacidad;
+		if (inicio > limite) {
+			return -1;
+		}
+		AtomicLongArray[] actuales = bloques;
+		int palabra = inicio >>> 6;
+		int totalPalabras = actuales.length * PALABRAS_POR_BLOQUE;
+		long libres = ~leerPalabra(actuales, palabra) & (-1L << inicio);
+		while (true) {
+			if (libres != 0) {
+				int numero = (palabra << 6) + Long.numberOfTrailingZeros(libres);
+				return numero <= limite ? numero : -1;
+			}
+			palabra++;
+			if (palabra >= totalPalabras || (palabra << 6) > limite) {
+				return -1;
+			}
+			libres = ~leerPalabra(actuales, palabra);
+		}
+	}
+
+	/**
+	 * Cuenta los bits encendidos en el rango [desde, hasta].
+	 */
+	private int contarBits(int desde, int hasta) {
+		if (hasta < desde) {
+			return 0;
+		}
+		AtomicLongArray[] actuales = bloques;
+		int primera = desde >>> 6;
+		int ultima = hasta >>> 6;
+		long mascaraInicio = -1L << desde;
+		long mascaraFin = -1L >>> (63 - (hasta & 63));
+		if (primera == ultima) {
+			return Long.bitCount(leerPalabra(actuales, primera) & mascaraInicio & mascaraFin);
+		}
+		int total = Long.bitCount(leerPalabra(actuales, primera) & mascaraInicio);
+		for (int i = primera + 1; i < ultima; i++) {
+			total += Long.bitCount(leerPalabra(actuales, i));
+		}
+		return total + Long.bitCount(leerPalabra(actuales, ultima) & mascaraFin);
+	}
+
+	private static long leerPalabra(AtomicLongArray[] actuales, int palabra) {
+		return actuales[palabra / PALABRAS_POR_BLOQUE].get(palabra % PALABRAS_POR_BLOQUE);
+	}
+
+	private static int palabraEnBloque(int numero) {
+		return (numero >>> 6) % PALABRAS_POR_BLOQUE;
+	}
+
+	/**
+	 * Obtiene el bloque que contiene el asiento, creándolo si todavía no existe.
+	 */
+	private AtomicLongArray bloqueDe(int numero) {
+		int bloque = numero / BITS_POR_BLOQUE;
+		AtomicLongArray[] actuales = bloques;
+		if (bloque >= actuales.length) {
+			asegurarTamano(numero);
+			actuales = bloques;
+		}
+		return actuales[bloque];
+	}
+
+	/**
+	 * Agrega bloques para que el asiento indicado tenga posición. Los bloques
+	 * existentes se reutilizan, así que una ocupación concurrente nunca se pierde.
+	 */
+	private synchronized void asegurarTamano(int numero) {
+		int requeridos = numero / BITS_POR_BLOQUE + 1;
+		AtomicLongArray[] actuales = bloques;
+		if (requeridos <= actuales.length) {
+			return;
+		}
+		AtomicLongArray[] nuevos = Arrays.copyOf(actuales, requeridos);
+		for (int i = actuales.length; i < requeridos; i++) {
+			nuevos[i] = new AtomicLongArray(PALABRAS_POR_BLOQUE);
+		}
+		bloques = nuevos;
+	}
+
+	private static void validarNumero(int numero) {
+		if (numero < 0) {
+			throw new IllegalArgumentException("El número de asiento no puede ser negativo.");
+		}
+	}
+}
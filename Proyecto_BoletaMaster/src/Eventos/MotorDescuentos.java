@@ -0,0 +1,177 @@
+package Eventos;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de los {@link CodigoDescuento} y evaluador que los valida al pagar.
+ * Los códigos de un evento o de una de sus localidades se guardan en una tabla propia del
+ * evento; los de tipo de evento o tipo de producto, en una tabla general. Validar un código
+ * para un producto es buscarlo en la tabla del evento, luego en la general, y evaluar la regla
+ * compilada: unas pocas búsquedas en tablas hash, sin recorrer los códigos, aunque haya decenas
+ * de miles registrados. Lo único que puede reservar memoria es normalizar el texto escrito por
+ * el cliente, y solo si no viene ya en mayúsculas y sin espacios alrededor.
+ */
+public class MotorDescuentos {
+
+	// Atributos
+	private static MotorDescuentos instance;
+	private final Map<String, CodigoDescuento> codigos;
+	private final Map<Evento, Map<String, CodigoDescuento>> porEvento;
+	private final Map<String, CodigoDescuento> generales;
+
+	// Ctor
+
+	/**
+	 * Crea un motor sin códigos.
+	 *
+	 * @post No hay códigos registrados.
+	 */
+	public MotorDescuentos() {
+		this.codigos = new ConcurrentHashMap<String, CodigoDescuento>();
+		this.porEvento = new ConcurrentHashMap<Evento, Map<String, CodigoDescuento>>();
+		this.generales = new ConcurrentHashMap<String, CodigoDescuento>();
+	}
+
+	/**
+	 * Obtiene el motor de descuentos de la aplicación.
+	 *
+	 * @return Instancia única.
+	 */
+	public static synchronized MotorDescuentos getInstance() {
+		if (instance == null) {
+			instance = new MotorDescuentos();
+		}
+		return instance;
+	}
+
+	// Getters
+
+	/**
+	 * Obtiene cuántos códigos hay registrados.
+	 *
+	 * @return Número de códigos.
+	 */
+	public int contarCodigos() {
+		return codigos.size();
+	}
+
+	/**
+	 * Obtiene los códigos de un evento y de sus localidades.
+	 *
+	 * @param evento Evento a consultar.
+	 * @return Códigos del evento, de solo lectura.
+	 */
+	public Collection<CodigoDescuento> getCodigosEvento(Evento evento) {
+		Map<String, CodigoDescuento> tabla = porEvento.get(evento);
+		if (tabla == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(new ArrayList<CodigoDescuento>(tabla.values()));
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Registra un código.
+	 *
+	 * @param codigo Código compilado.
+	 * @throws IllegalArgumentException si el código es nulo o ya existe otro con el mismo texto.
+	 * @post El código se puede validar y canjear.
+	 */
+	public void registrar(CodigoDescuento codigo) throws IllegalArgumentException {
+		if (codigo == null) {
+			throw new IllegalArgumentException("Código de descuento inválido.");
+		}
+		if (codigos.putIfAbsent(codigo.getCodigo(), codigo) != null) {
+			throw new IllegalArgumentException("Ya existe el código de descuento " + codigo.getCodigo() + ".");
+		}
+		tablaDe(codigo).put(codigo.getCodigo(), codigo);
+	}
+
+	/**
+	 * Registra varios códigos.
+	 *
+	 * @param lote Códigos compilados.
+	 * @throws IllegalArgumentException si alguno es inválido o repetido; los anteriores quedan
+	 *         registrados.
+	 */
+	public void registrar(Collection<CodigoDescuento> lote) throws IllegalArgumentException {
+		for (CodigoDescuento c : lote) {
+			registrar(c);
+		}
+	}
+
+	/**
+	 * Elimina un código.
+	 *
+	 * @param codigo Texto del código.
+	 * @return {@code true} si existía.
+	 * @post El código ya no se puede validar ni canjear.
+	 */
+	public boolean eliminar(String codigo) {
+		if (codigo == null) {
+			return false;
+		}
+		CodigoDescuento c = codigos.remove(CodigoDescuento.normalizar(codigo));
+		if (c == null) {
+			return false;
+		}
+		tablaDe(c).remove(c.getCodigo(), c);
+		return true;
+	}
+
+	/**
+	 * Busca un código por su texto.
+	 *
+	 * @param codigo Texto escrito por el cliente.
+	 * @return El código, o {@code null} si no existe.
+	 */
+	public CodigoDescuento buscar(String codigo) {
+		if (codigo == null) {
+			return null;
+		}
+		return codigos.get(CodigoDescuento.normalizar(codigo));
+	}
+
+	/**
+	 * Valida un código para un producto.
+	 *
+	 * @param codigo Texto escrito por el cliente.
+	 * @param evento Evento del producto.
+	 * @param localidad Localidad del producto.
+	 * @param tipoProducto Tipo de producto del {@link Cotizador}.
+	 * @return El código si existe y aplica al producto; si no, {@code null}.
+	 * @post No consume usos; el canje, que respeta el máximo, se hace con
+	 *       {@link CodigoDescuento#canjear()}.
+	 */
+	public CodigoDescuento validar(String codigo, Evento evento, Localidad localidad, String tipoProducto) {
+		if (codigo == null) {
+			return null;
+		}
+		String clave = CodigoDescuento.normalizar(codigo);
+		CodigoDescuento c = null;
+		Map<String, CodigoDescuento> tabla = evento == null ? null : porEvento.get(evento);
+		if (tabla != null) {
+			c = tabla.get(clave);
+		}
+		if (c == null) {
+			c = generales.get(clave);
+		}
+		if (c == null || !c.aplica(evento, localidad, tipoProducto)) {
+			return null;
+		}
+		return c;
+	}
+
+	private Map<String, CodigoDescuento> tablaDe(CodigoDescuento c) {
+		int alcance = c.getAlcanceCompilado();
+		if (alcance == CodigoDescuento.EVENTO || alcance == CodigoDescuento.LOCALIDAD) {
+			return porEvento.computeIfAbsent(c.getEvento(), e -> new ConcurrentHashMap<String, CodigoDescuento>());
+		}
+		return generales;
+	}
+}
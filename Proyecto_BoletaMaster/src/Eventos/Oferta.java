@@ -4,6 +4,7 @@ import java.time.*;
 /**
  * Representa una oferta o promoción asociada a una localidad en el sistema BoletaMaster.
  * Cada oferta tiene un porcentaje de descuento, un periodo de vigencia y una descripción.
+ * Al cambiar sus datos avisa al evento para que actualice su {@link IndiceOfertas}.
  */
 public class Oferta{
 	
@@ -55,6 +56,7 @@ public class Oferta{
             throw new IllegalArgumentException("El porcentaje de descuento debe estar entre 0 y 100.");
         }
         this.porcentajeDescuento = porcentajeDescuento;
+        notificarCambio();
     }
 
     /**
@@ -75,6 +77,7 @@ public class Oferta{
      */
     public void setFechaInicio(LocalDateTime fechaInicio) {
         this.fechaInicio = fechaInicio;
+        notificarCambio();
     }
 
     /**
@@ -95,6 +98,7 @@ public class Oferta{
      */
     public void setFechaFin(LocalDateTime fechaFin) {
         this.fechaFin = fechaFin;
+        notificarCambio();
     }
 
     /**
@@ -114,7 +118,9 @@ public class Oferta{
      * @post La oferta queda asociada a la localidad indicada.
      */
     public void setEvento(Localidad localidad) {
+        notificarCambio();
         this.localidad = localidad;
+        notificarCambio();
     }
 
     // Métodos funcionales
@@ -148,4 +154,13 @@ public class Oferta{
         return precioBase - descuento;
     }
 
+    /**
+     * Avisa al evento de la localidad que la oferta cambió, para que reconstruya su índice.
+     */
+    private void notificarCambio() {
+        if (localidad != null && localidad.getEvento() != null) {
+            localidad.getEvento().invalidarOfertas();
+        }
+    }
+
 }
\ No newline at end of file
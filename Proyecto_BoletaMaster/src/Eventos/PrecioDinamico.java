@@ -0,0 +1,153 @@
+package Eventos;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Política de precio dinámico de una localidad.
+ * Cada venta se registra en una {@link TasaVentas}. Como máximo una vez por intervalo (y no
+ * antes de un intervalo desde que se activa, para que la ventana acumule ventas) se
+ * estima la presión de demanda: qué fracción de los lugares que quedan se vendería dentro
+ * del horizonte al ritmo actual. Si la presión supera el umbral alto, el precio base sube un
+ * paso; si queda por debajo del umbral bajo, baja un paso; nunca sale del rango
+ * [piso, techo] fijado por el organizador. Los demás precios de la localidad se escalan en la
+ * misma proporción y todo se publica como un solo {@link PreciosLocalidad}, así que una
+ * cotización en curso ve los precios de antes o los de después, nunca una mezcla.
+ */
+public class PrecioDinamico {
+
+	private static final double UMBRAL_ALTO = 1.0;
+	private static final double UMBRAL_BAJO = 0.1;
+
+	// Atributos
+	private final double piso;
+	private final double techo;
+	private final double paso;
+	private final long horizonte;
+	private final long intervalo;
+	private final LongSupplier reloj;
+	private final TasaVentas tasa;
+	private final AtomicLong proximaEvaluacion;
+	private final AtomicLong ajustes;
+
+	// Ctor
+
+	/**
+	 * Crea una política con pasos de 5 %, ventana de 5 minutos, horizonte de 1 hora y una
+	 * evaluación cada 30 segundos como máximo.
+	 *
+	 * @param piso Precio base mínimo.
+	 * @param techo Precio base máximo.
+	 * @pre 0 <= piso <= techo.
+	 * @post La política no ha registrado ventas.
+	 */
+	public PrecioDinamico(double piso, double techo) {
+		this(piso, techo, 0.05, Duration.ofMinutes(5), Duration.ofHours(1), Duration.ofSeconds(30), System::currentTimeMillis);
+	}
+
+	/**
+	 * Crea una política.
+	 *
+	 * @param piso Precio base mínimo.
+	 * @param techo Precio base máximo.
+	 * @param paso Fracción en que sube o baja el precio en cada ajuste (0.05 = 5 %).
+	 * @param ventana Ventana deslizante para estimar la tasa de ventas.
+	 * @param horizonte Tiempo en que se proyectan las ventas contra los lugares que quedan.
+	 * @param intervalo Tiempo mínimo entre evaluaciones.
+	 * @param reloj Fuente de tiempo en milisegundos.
+	 * @pre 0 <= piso <= techo; paso > 0; duraciones positivas.
+	 * @post La política no ha registrado ventas.
+	 */
+	public PrecioDinamico(double piso, double techo, double paso, Duration ventana, Duration horizonte, Duration intervalo,
+			LongSupplier reloj) {
+		if (piso < 0 || techo < piso) {
+			throw new IllegalArgumentException("El piso y el techo del precio son inválidos.");
+		}
+		if (!(paso > 0) || ventana == null || horizonte == null || intervalo == null || reloj == null
+				|| ventana.isNegative() || ventana.isZero() || horizonte.isNegative() || horizonte.isZero()
+				|| intervalo.isNegative()) {
+			throw new IllegalArgumentException("Parámetros del precio dinámico inválidos.");
+		}
+		this.piso = piso;
+		this.techo = techo;
+		this.paso = paso;
+		this.horizonte = horizonte.toMillis();
+		this.intervalo = intervalo.toMillis();
+		this.reloj = reloj;
+		this.tasa = new TasaVentas(ventana.toMillis(), 60);
+		this.proximaEvaluacion = new AtomicLong(reloj.getAsLong() + this.intervalo);
+		this.ajustes = new AtomicLong(0);
+	}
+
+	// Getters
+
+	public double getPiso() {
+		return piso;
+	}
+
+	public double getTecho() {
+		return techo;
+	}
+
+	/**
+	 * Obtiene la tasa de ventas actual.
+	 *
+	 * @return Ventas por segundo en la ventana.
+	 */
+	public double getVentasPorSegundo() {
+		return tasa.porSegundo(reloj.getAsLong());
+	}
+
+	/**
+	 * Obtiene cuántas veces la política cambió el precio.
+	 *
+	 * @return Ajustes publicados.
+	 */
+	public long getAjustes() {
+		return ajustes.get();
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Registra lugares vendidos.
+	 *
+	 * @param cantidad Lugares vendidos (negativo para devoluciones).
+	 */
+	void registrarVenta(int cantidad) {
+		tasa.registrar(cantidad, reloj.getAsLong());
+	}
+
+	/**
+	 * Evalúa la demanda y, si corresponde, calcula el siguiente precio base. Solo un hilo
+	 * evalúa por intervalo; los demás retornan de inmediato.
+	 *
+	 * @param precioActual Precio base publicado.
+	 * @param restantes Lugares que quedan por vender.
+	 * @return Nuevo precio base, o el actual si no hay que cambiarlo.
+	 */
+	double evaluar(double precioActual, int restantes) {
+		long ahora = reloj.getAsLong();
+		long proxima = proximaEvaluacion.get();
+		if (ahora < proxima || !proximaEvaluacion.compareAndSet(proxima, ahora + intervalo)) {
+			return precioActual;
+		}
+		double ventasEnHorizonte = tasa.porSegundo(ahora) * horizonte / 1000.0;
+		double presion = restantes <= 0 ? Double.POSITIVE_INFINITY : ventasEnHorizonte / restantes;
+		double nuevo = precioActual;
+		if (presion > UMBRAL_ALTO) {
+			nuevo = precioActual * (1 + paso);
+		} else if (presion < UMBRAL_BAJO) {
+			nuevo = precioActual / (1 + paso);
+		}
+		return Math.max(piso, Math.min(techo, nuevo));
+	}
+
+	/**
+	 * Registra que un precio calculado por la política se publicó.
+	 */
+	void contarAjuste() {
+		ajustes.incrementAndGet();
+	}
+}
@@ -0,0 +1,65 @@
+package Eventos;
+
+/**
+ * Precios de lista de una localidad en un momento dado, con su versión.
+ * Es inmutable: la localidad publica una instancia nueva en cada cambio, así que quien lee
+ * una instancia ve los cuatro precios y la versión de un mismo cambio.
+ */
+public final class PreciosLocalidad {
+
+	// Atributos
+	private final double precioBase;
+	private final double precioPaquete;
+	private final double precioPaseTemporada;
+	private final double precioDeluxe;
+	private final long version;
+
+	// Ctor
+
+	PreciosLocalidad(double precioBase, double precioPaquete, double precioPaseTemporada, double precioDeluxe, long version) {
+		this.precioBase = precioBase;
+		this.precioPaquete = precioPaquete;
+		this.precioPaseTemporada = precioPaseTemporada;
+		this.precioDeluxe = precioDeluxe;
+		this.version = version;
+	}
+
+	// Getters
+
+	public double getPrecioBase() {
+		return precioBase;
+	}
+
+	public double getPrecioPaquete() {
+		return precioPaquete;
+	}
+
+	public double getPrecioPaseTemporada() {
+		return precioPaseTemporada;
+	}
+
+	public double getPrecioDeluxe() {
+		return precioDeluxe;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Crea la siguiente versión con otro precio base; los demás precios no cambian.
+	 */
+	PreciosLocalidad conPrecioBase(double nuevoPrecioBase) {
+		return new PreciosLocalidad(nuevoPrecioBase, precioPaquete, precioPaseTemporada, precioDeluxe, version + 1);
+	}
+
+	/**
+	 * Crea la siguiente versión con todos los precios multiplicados por un factor.
+	 */
+	PreciosLocalidad escalar(double factor) {
+		return new PreciosLocalidad(precioBase * factor, precioPaquete * factor, precioPaseTemporada * factor,
+				precioDeluxe * factor, version + 1);
+	}
+}
@@ -0,0 +1,205 @@
+package Eventos;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+import Usuarios.Administrador;
+import Usuarios.TarifasServicio;
+
+/**
+ * Trabajo por lotes que aplica la versión vigente de las tarifas de un administrador a lo que
+ * todavía no se ha vendido: el inventario de sus eventos y los carritos abiertos (tiquetes y
+ * paquetes precomprados que aún no se pagan).
+ * Los eventos y los carritos se reparten entre varios hilos. Las ventas no se detienen: cada
+ * evento, tiquete o paquete cambia de versión con una operación atómica propia, las
+ * cotizaciones de cada localidad se recalculan con el {@link Cotizador} y un tiquete cuyo
+ * precio ya cerró una compra no se toca. Primero se llevan los eventos a la nueva versión y
+ * después los carritos toman la de su evento ({@link Evento#getTarifas()}), así que la
+ * cotización, el repreciado y el cobro usan siempre la misma. Una versión publicada mientras
+ * corre no se ve hasta que un trabajo posterior la aplique; ninguna versión retrocede.
+ */
+public class RepreciadorTarifas {
+
+	private static final String[] TIPOS = { Cotizador.INDIVIDUAL, Cotizador.MULTIPLE, Cotizador.PASE_TEMPORADA,
+			Cotizador.DELUXE };
+
+	// Atributos
+	private final int paralelismo;
+
+	// Ctor
+
+	/**
+	 * Crea un repreciador.
+	 *
+	 * @param paralelismo Hilos que reparten el trabajo.
+	 * @pre paralelismo > 0.
+	 */
+	public RepreciadorTarifas(int paralelismo) {
+		if (paralelismo <= 0) {
+			throw new IllegalArgumentException("El paralelismo debe ser positivo.");
+		}
+		this.paralelismo = paralelismo;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Aplica las tarifas vigentes del administrador a sus eventos y, después, a los carritos
+	 * con la versión de su evento.
+	 *
+	 * @param admin Administrador cuyas tarifas se aplican.
+	 * @param eventos Eventos a repreciar; se ignoran los de otros administradores.
+	 * @param tiquetes Tiquetes de carritos abiertos.
+	 * @param paquetes Paquetes de carritos abiertos.
+	 * @return Resumen de lo que cambió.
+	 * @throws IllegalArgumentException si algún parámetro es nulo.
+	 * @throws IllegalStateException si el trabajo se interrumpe o falla.
+	 * @post Los eventos del administrador que no estaban en una versión igual o posterior
+	 *       quedan en la versión aplicada; sus tiquetes y paquetes, en la versión de su evento.
+	 */
+	public Resumen repreciar(Administrador admin, Collection<Evento> eventos, Collection<? extends Tiquete> tiquetes,
+			Collection<? extends PaqueteTiquetes> paquetes) throws IllegalArgumentException, IllegalStateException {
+		if (admin == null || eventos == null || tiquetes == null || paquetes == null) {
+			throw new IllegalArgumentException("Datos inválidos para repreciar.");
+		}
+		TarifasServicio tarifas = admin.getTarifas();
+		LocalDateTime ahora = LocalDateTime.now();
+		AtomicInteger eventosCambiados = new AtomicInteger();
+		AtomicInteger localidades = new AtomicInteger();
+		AtomicInteger tiquetesCambiados = new AtomicInteger();
+		AtomicInteger paquetesCambiados = new AtomicInteger();
+
+		List<Callable<Void>> tareasEventos = new ArrayList<Callable<Void>>();
+		for (Evento e : eventos) {
+			if (e.getAdmin() != admin) {
+				continue;
+			}
+			tareasEventos.add(() -> {
+				if (e.aplicarTarifas(tarifas)) {
+					eventosCambiados.incrementAndGet();
+				}
+				for (Localidad l : e.getLocalidades()) {
+					for (String tipo : TIPOS) {
+						Cotizador.getInstance().cotizar(e, l, tipo, ahora);
+					}
+					localidades.incrementAndGet();
+				}
+				return null;
+			});
+		}
+		ejecutar(tareasEventos);
+
+		List<Callable<Void>> tareas = new ArrayList<Callable<Void>>();
+		for (List<? extends Tiquete> lote : repartir(new ArrayList<Tiquete>(tiquetes))) {
+			tareas.add(() -> {
+				for (Tiquete t : lote) {
+					if (t.getEvento().getAdmin() == admin && t.aplicarTarifas(t.getEvento().getTarifas())) {
+						tiquetesCambiados.incrementAndGet();
+					}
+				}
+				return null;
+			});
+		}
+		for (List<? extends PaqueteTiquetes> lote : repartir(new ArrayList<PaqueteTiquetes>(paquetes))) {
+			tareas.add(() -> {
+				for (PaqueteTiquetes p : lote) {
+					if (p.estaVacio()) {
+						continue;
+					}
+					Evento e = p.getTiquetesIncluidos().getFirst().getEvento();
+					if (e.getAdmin() == admin && p.aplicarTarifas(e.getTarifas())) {
+						paquetesCambiados.incrementAndGet();
+					}
+				}
+				return null;
+			});
+		}
+
+		ejecutar(tareas);
+		return new Resumen(tarifas.getVersion(), eventosCambiados.get(), localidades.get(), tiquetesCambiados.get(),
+				paquetesCambiados.get());
+	}
+
+	private <T> List<List<T>> repartir(List<T> elementos) {
+		List<List<T>> lotes = new ArrayList<List<T>>();
+		if (elementos.isEmpty()) {
+			return lotes;
+		}
+		int tamano = (elementos.size() + paralelismo - 1) / paralelismo;
+		for (int i = 0; i < elementos.size(); i += tamano) {
+			lotes.add(elementos.subList(i, Math.min(elementos.size(), i + tamano)));
+		}
+		return lotes;
+	}
+
+	private void ejecutar(List<Callable<Void>> tareas) throws IllegalStateException {
+		ExecutorService hilos = Executors.newFixedThreadPool(paralelismo);
+		try {
+			for (Future<Void> f : hilos.invokeAll(tareas)) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("El repreciado fue interrumpido.", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("El repreciado falló.", e.getCause());
+		} finally {
+			hilos.shutdownNow();
+		}
+	}
+
+	/**
+	 * Resultado de un repreciado.
+	 */
+	public static final class Resumen {
+
+		private final long version;
+		private final int eventos;
+		private final int localidades;
+		private final int tiquetes;
+		private final int paquetes;
+
+		Resumen(long version, int eventos, int localidades, int tiquetes, int paquetes) {
+			this.version = version;
+			this.eventos = eventos;
+			this.localidades = localidades;
+			this.tiquetes = tiquetes;
+			this.paquetes = paquetes;
+		}
+
+		/** Versión de tarifas aplicada. */
+		public long getVersion() {
+			return version;
+		}
+
+		/** Eventos que cambiaron de versión. */
+		public int getEventos() {
+			return eventos;
+		}
+
+		/** Localidades cuyas cotizaciones se recalcularon. */
+		public int getLocalidades() {
+			return localidades;
+		}
+
+		/** Tiquetes de carritos abiertos que cambiaron de versión. */
+		public int getTiquetes() {
+			return tiquetes;
+		}
+
+		/** Paquetes de carritos abiertos que cambiaron de versión. */
+		public int getPaquetes() {
+			return paquetes;
+		}
+	}
+}
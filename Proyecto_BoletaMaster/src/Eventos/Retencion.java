@@ -0,0 +1,145 @@
+package Eventos;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Representa una retención temporal de asientos o cupos mientras un cliente completa su compra.
+ * Mientras está activa, los asientos no pueden venderse a nadie más; al confirmarla se
+ * convierten en venta y, si vence o se libera, vuelven a estar disponibles.
+ * El cambio de estado es atómico: una retención se confirma, se libera o vence una sola vez.
+ */
+public class Retencion {
+
+	public static final String ACTIVA = "Activa";
+	public static final String CONFIRMADA = "Confirmada";
+	public static final String LIBERADA = "Liberada";
+	public static final String EXPIRADA = "Expirada";
+	public static final int SIN_TITULAR = -1;
+
+	// Atributos
+	private final long id;
+	private final Localidad localidad;
+	private final int[] asientos;
+	private final int cupos;
+	private final long vencimiento;
+	private final GestorRetenciones gestor;
+	private final int titular;
+	private final AtomicReference<String> estado;
+	private volatile RuedaTemporizadora.Entrada<Retencion> entrada;
+
+	// Ctor
+
+	/**
+	 * Crea una retención activa.
+	 *
+	 * @param id Identificador de la retención.
+	 * @param localidad Localidad donde se retienen los asientos.
+	 * @param asientos Números de asiento retenidos (vacío en localidades no numeradas).
+	 * @param cupos Cupos generales retenidos (0 en localidades numeradas).
+	 * @param vencimiento Instante de vencimiento en milisegundos.
+	 * @param gestor Gestor que controla el vencimiento.
+	 * @param titular Id del cliente cuyo límite de compras consumió la retención, o {@link #SIN_TITULAR}.
+	 * @pre localidad y gestor definidos; los asientos o cupos ya fueron tomados en la localidad.
+	 * @post La retención queda en estado "Activa".
+	 */
+	Retencion(long id, Localidad localidad, int[] asientos, int cupos, long vencimiento, GestorRetenciones gestor, int titular) {
+		this.id = id;
+		this.localidad = localidad;
+		this.asientos = asientos;
+		this.cupos = cupos;
+		this.vencimiento = vencimiento;
+		this.gestor = gestor;
+		this.titular = titular;
+		this.estado = new AtomicReference<String>(ACTIVA);
+	}
+
+	// Getters
+
+	public long getId() {
+		return id;
+	}
+
+	public Localidad getLocalidad() {
+		return localidad;
+	}
+
+	/**
+	 * Obtiene los asientos retenidos.
+	 *
+	 * @return Copia de los números de asiento retenidos.
+	 */
+	public int[] getAsientos() {
+		return asientos.clone();
+	}
+
+	public int getCupos() {
+		return cupos;
+	}
+
+	/**
+	 * Obtiene la cantidad total de asientos y cupos retenidos.
+	 *
+	 * @return Número de lugares retenidos.
+	 */
+	public int getCantidad() {
+		return asientos.length + cupos;
+	}
+
+	public long getVencimiento() {
+		return vencimiento;
+	}
+
+	public GestorRetenciones getGestor() {
+		return gestor;
+	}
+
+	public int getTitular() {
+		return titular;
+	}
+
+	public String getEstado() {
+		return estado.get();
+	}
+
+	/**
+	 * Indica si la retención sigue activa.
+	 *
+	 * @return {@code true} si no ha sido confirmada, liberada ni vencida.
+	 */
+	public boolean estaActiva() {
+		return estado.get() == ACTIVA;
+	}
+
+	// Métodos de uso interno del paquete
+
+	int[] asientosInternos() {
+		return asientos;
+	}
+
+	/**
+	 * Cambia el estado solo si la retención sigue activa.
+	 *
+	 * @param nuevo Estado final.
+	 * @return {@code true} si este llamado hizo la transición.
+	 */
+	boolean finalizar(String nuevo) {
+		return estado.compareAndSet(ACTIVA, nuevo);
+	}
+
+	/**
+	 * Vuelve a activar una retención confirmada cuya venta se deshizo.
+	 *
+	 * @return {@code true} si estaba confirmada.
+	 */
+	boolean reabrir() {
+		return estado.compareAndSet(CONFIRMADA, ACTIVA);
+	}
+
+	RuedaTemporizadora.Entrada<Retencion> getEntrada() {
+		return entrada;
+	}
+
+	void setEntrada(RuedaTemporizadora.Entrada<Retencion> entrada) {
+		this.entrada = entrada;
+	}
+}
@@ -0,0 +1,183 @@
+package Eventos;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporización (hashed timing wheel) para vencimientos masivos.
+ * Cada elemento programado cae en la ranura de su tick de vencimiento; avanzar la rueda
+ * solo revisa las ranuras de los ticks transcurridos, así que programar, cancelar y vencer
+ * cuestan O(1) aunque haya cientos de miles de elementos vivos.
+ * Cualquier hilo puede programar o cancelar; solo un hilo a la vez avanza la rueda.
+ *
+ * @param <T> Tipo de elemento que vence.
+ */
+public class RuedaTemporizadora<T> {
+
+	/**
+	 * Elemento programado dentro de la rueda.
+	 *
+	 * @param <T> Tipo de elemento que vence.
+	 */
+	public static final class Entrada<T> {
+		private final T elemento;
+		private final long vencimiento;
+		private long rondas;
+		private volatile boolean cancelada;
+
+		private Entrada(T elemento, long vencimiento) {
+			this.elemento = elemento;
+			this.vencimiento = vencimiento;
+		}
+
+		/**
+		 * Obtiene el elemento programado.
+		 *
+		 * @return Elemento asociado a la entrada.
+		 */
+		public T getElemento() {
+			return elemento;
+		}
+
+		/**
+		 * Obtiene el instante de vencimiento en milisegundos.
+		 *
+		 * @return Vencimiento de la entrada.
+		 */
+		public long getVencimiento() {
+			return vencimiento;
+		}
+
+		/**
+		 * Indica si la entrada fue cancelada.
+		 *
+		 * @return {@code true} si ya no debe vencer.
+		 */
+		public boolean isCancelada() {
+			return cancelada;
+		}
+	}
+
+	// Atributos
+	private final ArrayList<ArrayList<Entrada<T>>> ranuras;
+	private final ConcurrentLinkedQueue<Entrada<T>> pendientes;
+	private final long duracionTick;
+	private final int mascara;
+	private final long inicio;
+	private long tickActual;
+
+	// Ctor
+
+	/**
+	 * Crea una rueda vacía.
+	 *
+	 * @param inicio Instante (milisegundos) que corresponde al tick 0.
+	 * @param duracionTick Duración de cada tick en milisegundos.
+	 * @param numeroRanuras Número de ranuras; se redondea a la siguiente potencia de dos.
+	 * @pre duracionTick > 0; numeroRanuras > 0.
+	 * @post La rueda queda en el tick 0 sin elementos.
+	 */
+	public RuedaTemporizadora(long inicio, long duracionTick, int numeroRanuras) {
+		if (duracionTick <= 0 || numeroRanuras <= 0) {
+			throw new IllegalArgumentException("La duración del tick y el número de ranuras deben ser positivos.");
+		}
+		int n = Integer.highestOneBit(numeroRanuras);
+		if (n < numeroRanuras) {
+			n <<= 1;
+		}
+		this.ranuras = new ArrayList<ArrayList<Entrada<T>>>(n);
+		for (int i = 0; i < n; i++) {
+			ranuras.add(new ArrayList<Entrada<T>>());
+		}
+		this.pendientes = new ConcurrentLinkedQueue<Entrada<T>>();
+		this.duracionTick = duracionTick;
+		this.mascara = n - 1;
+		this.inicio = inicio;
+		this.tickActual = 0;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Programa un elemento para que venza en un instante dado.
+	 *
+	 * @param elemento Elemento a programar.
+	 * @param vencimiento Instante de vencimiento en milisegundos.
+	 * @return Entrada que permite cancelar el vencimiento.
+	 * @post El elemento vencerá en el primer avance cuyo instante sea >= vencimiento.
+	 */
+	public Entrada<T> programar(T elemento, long vencimiento) {
+		Entrada<T> entrada = new Entrada<T>(elemento, vencimiento);
+		pendientes.add(entrada);
+		return entrada;
+	}
+
+	/**
+	 * Cancela una entrada programada. La entrada se descarta la próxima vez que su
+	 * ranura sea revisada.
+	 *
+	 * @param entrada Entrada a cancelar.
+	 * @post La entrada no vencerá.
+	 */
+	public void cancelar(Entrada<T> entrada) {
+		entrada.cancelada = true;
+	}
+
+	/**
+	 * Avanza la rueda hasta un instante y entrega los elementos vencidos.
+	 *
+	 * @param ahora Instante actual en milisegundos.
+	 * @param alVencer Acción a ejecutar con cada elemento vencido.
+	 * @return Número de elementos vencidos en este avance.
+	 * @post Todos los elementos no cancelados con vencimiento <= ahora fueron entregados.
+	 */
+	public synchronized int avanzar(long ahora, Consumer<T> alVencer) {
+		long objetivo = Math.floorDiv(ahora - inicio, duracionTick);
+		int vencidos = 0;
+		ubicarPendientes();
+		while (tickActual <= objetivo) {
+			ArrayList<Entrada<T>> ranura = ranuras.get((int) (tickActual & mascara));
+			int i = 0;
+			while (i < ranura.size()) {
+				Entrada<T> e = ranura.get(i);
+				boolean quitar;
+				if (e.cancelada) {
+					quitar = true;
+				} else if (e.rondas > 0) {
+					e.rondas--;
+					quitar = false;
+				} else {
+					alVencer.accept(e.elemento);
+					vencidos++;
+					quitar = true;
+				}
+				if (quitar) {
+					int ultimo = ranura.size() - 1;
+					ranura.set(i, ranura.get(ultimo));
+					ranura.remove(ultimo);
+				} else {
+					i++;
+				}
+			}
+			tickActual++;
+			ubicarPendientes();
+		}
+		return vencidos;
+	}
+
+	/**
+	 * Pasa las entradas recién programadas a su ranura.
+	 */
+	private void ubicarPendientes() {
+		Entrada<T> e;
+		while ((e = pendientes.poll()) != null) {
+			if (e.cancelada) {
+				continue;
+			}
+			long tick = Math.max(-Math.floorDiv(inicio - e.vencimiento, duracionTick), tickActual);
+			e.rondas = (tick - tickActual) / ranuras.size();
+			ranuras.get((int) (tick & mascara)).add(e);
+		}
+	}
+}
@@ -0,0 +1,445 @@
+package Eventos;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Sala de espera virtual para la apertura de ventas de un evento.
+ * Los compradores entran a una cola y reciben un turno; la sala los admite a una tasa fija
+ * (admisiones por segundo, con una ráfaga de hasta un segundo) y nunca deja más de
+ * {@code maximoActivos} compradores admitidos a la vez, de modo que el inventario solo ve un
+ * número acotado y estable de compradores concurrentes. Cada admitido recibe un token y una
+ * ventana de compra; al comprar, abandonar o vencer la ventana su cupo pasa al siguiente.
+ * Los que llegan antes de abrir pueden ordenarse al azar al abrir (para no premiar a quien
+ * llegó primero con un script); los que llegan después se atienden en orden de llegada.
+ * La cola tiene capacidad fija: si está llena, {@link #entrar(int)} rechaza (contrapresión).
+ * Quien abandona la cola sale de ella en ese momento y los turnos detrás de él avanzan un
+ * número, así que la cola nunca guarda turnos abandonados y la posición no los cuenta.
+ * Para comprar, el cliente debe presentar el token que recibió al ser admitido.
+ * La sala no tiene hilo propio: las admisiones se calculan con el reloj en cada llamada.
+ */
+public class SalaEspera {
+
+	public static final String EN_COLA = "En cola";
+	public static final String ADMITIDO = "Admitido";
+	public static final String FINALIZADO = "Finalizado";
+	public static final String EXPIRADO = "Expirado";
+	public static final String ABANDONADO = "Abandonado";
+
+	/**
+	 * Turno de un cliente en la sala.
+	 */
+	public static final class Turno {
+		private final int cliente;
+		private final long llegada;
+		private volatile long numero;
+		private volatile String estado;
+		private volatile String token;
+		private volatile long admision;
+		private volatile long vencimiento;
+
+		Turno(int cliente, long numero, long llegada) {
+			this.cliente = cliente;
+			this.numero = numero;
+			this.llegada = llegada;
+			this.estado = EN_COLA;
+		}
+
+		public int getCliente() {
+			return cliente;
+		}
+
+		/**
+		 * Obtiene el número de turno; los turnos se atienden en orden creciente. Baja en uno
+		 * cada vez que abandona la cola alguien que estaba antes.
+		 *
+		 * @return Número de turno.
+		 */
+		public long getNumero() {
+			return numero;
+		}
+
+		public String getEstado() {
+			return estado;
+		}
+
+		/**
+		 * Obtiene el token de admisión.
+		 *
+		 * @return Token, o {@code null} si aún no ha sido admitido.
+		 */
+		public String getToken() {
+			return token;
+		}
+
+		public long getLlegada() {
+			return llegada;
+		}
+
+		/**
+		 * Obtiene el instante en que fue admitido.
+		 *
+		 * @return Milisegundos del reloj de la sala, o 0 si no ha sido admitido.
+		 */
+		public long getAdmision() {
+			return admision;
+		}
+
+		public long getVencimiento() {
+			return vencimiento;
+		}
+	}
+
+	// Atributos
+	private final LongSupplier reloj;
+	private final double admisionesPorSegundo;
+	private final int maximoActivos;
+	private final int capacidadCola;
+	private final long ventanaCompra;
+	private final boolean aleatoria;
+	private final SecureRandom azar;
+
+	private final ArrayDeque<Turno> cola;
+	private final ArrayDeque<Turno> admitidos;
+	private final ConcurrentHashMap<Integer, Turno> turnos;
+	private boolean abierta;
+	private long numerados;
+	private long atendidos;
+	private int enCola;
+	private int activos;
+	private double fichas;
+	private long ultimoAvance;
+	private long totalAdmitidos;
+	private long totalRechazados;
+	private long totalExpirados;
+
+	// Ctor
+
+	/**
+	 * Crea una sala de espera con el reloj del sistema.
+	 *
+	 * @param admisionesPorSegundo Compradores admitidos por segundo.
+	 * @param maximoActivos Compradores admitidos a la vez como máximo.
+	 * @param capacidadCola Turnos en cola como máximo.
+	 * @param ventanaCompra Tiempo que tiene un admitido para comprar.
+	 * @param aleatoria Si es {@code true}, los que llegan antes de abrir se ordenan al azar.
+	 * @pre Todos los valores positivos.
+	 * @post La sala queda cerrada y vacía.
+	 */
+	public SalaEspera(double admisionesPorSegundo, int maximoActivos, int capacidadCola, Duration ventanaCompra, boolean aleatoria) {
+		this(System::currentTimeMillis, admisionesPorSegundo, maximoActivos, capacidadCola, ventanaCompra, aleatoria);
+	}
+
+	/**
+	 * Crea una sala de espera.
+	 *
+	 * @param reloj Fuente de tiempo en milisegundos.
+	 * @param admisionesPorSegundo Compradores admitidos por segundo.
+	 * @param maximoActivos Compradores admitidos a la vez como máximo.
+	 * @param capacidadCola Turnos en cola como máximo.
+	 * @param ventanaCompra Tiempo que tiene un admitido para comprar.
+	 * @param aleatoria Si es {@code true}, los que llegan antes de abrir se ordenan al azar.
+	 * @pre Todos los valores positivos.
+	 * @post La sala queda cerrada y vacía.
+	 */
+	public SalaEspera(LongSupplier reloj, double admisionesPorSegundo, int maximoActivos, int capacidadCola,
+			Duration ventanaCompra, boolean aleatoria) {
+		if (reloj == null || !(admisionesPorSegundo > 0) || maximoActivos <= 0 || capacidadCola <= 0
+				|| ventanaCompra == null || ventanaCompra.isNegative() || ventanaCompra.isZero()) {
+			throw new IllegalArgumentException("Parámetros de la sala de espera inválidos.");
+		}
+		this.reloj = reloj;
+		this.admisionesPorSegundo = admisionesPorSegundo;
+		this.maximoActivos = maximoActivos;
+		this.capacidadCola = capacidadCola;
+		this.ventanaCompra = ventanaCompra.toMillis();
+		this.aleatoria = aleatoria;
+		this.azar = new SecureRandom();
+		this.cola = new ArrayDeque<Turno>();
+		this.admitidos = new ArrayDeque<Turno>();
+		this.turnos = new ConcurrentHashMap<Integer, Turno>();
+		this.abierta = false;
+	}
+
+	// Getters
+
+	public double getAdmisionesPorSegundo() {
+		return admisionesPorSegundo;
+	}
+
+	public int getMaximoActivos() {
+		return maximoActivos;
+	}
+
+	public int getCapacidadCola() {
+		return capacidadCola;
+	}
+
+	public synchronized boolean isAbierta() {
+		return abierta;
+	}
+
+	public synchronized int getEnCola() {
+		return enCola;
+	}
+
+	/**
+	 * Obtiene cuántos compradores están admitidos en este momento.
+	 *
+	 * @return Compradores con ventana de compra vigente.
+	 */
+	public synchronized int getActivos() {
+		avanzar(reloj.getAsLong());
+		return activos;
+	}
+
+	public synchronized long getTotalAdmitidos() {
+		return totalAdmitidos;
+	}
+
+	public synchronized long getTotalRechazados() {
+		return totalRechazados;
+	}
+
+	public synchronized long getTotalExpirados() {
+		return totalExpirados;
+	}
+
+	/**
+	 * Obtiene el turno vigente de un cliente.
+	 *
+	 * @param cliente Id del cliente.
+	 * @return Turno en cola o admitido, o {@code null} si no tiene.
+	 */
+	public Turno getTurno(int cliente) {
+		return turnos.get(cliente);
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Abre la sala y empieza a admitir. Si la sala es aleatoria, los turnos tomados antes de
+	 * abrir se reordenan al azar.
+	 *
+	 * @throws IllegalStateException si ya estaba abierta.
+	 * @post La sala admite compradores a la tasa configurada.
+	 */
+	public synchronized void abrir() throws IllegalStateException {
+		if (abierta) {
+			throw new IllegalStateException("La sala de espera ya está abierta.");
+		}
+		if (aleatoria && cola.size() > 1) {
+			List<Turno> previos = new ArrayList<Turno>(cola);
+			Collections.shuffle(previos, azar);
+			cola.clear();
+			long numero = atendidos;
+			for (Turno t : previos) {
+				t.numero = ++numero;
+				cola.add(t);
+			}
+		}
+		abierta = true;
+		fichas = 0;
+		ultimoAvance = reloj.getAsLong();
+	}
+
+	/**
+	 * Entra a la cola. Si el cliente ya tiene un turno vigente, lo retorna sin crear otro.
+	 *
+	 * @param cliente Id del cliente.
+	 * @return Turno del cliente; puede quedar admitido de inmediato si hay cupo.
+	 * @throws IllegalStateException si la cola está llena.
+	 * @post El cliente queda en la cola o admitido.
+	 */
+	public synchronized Turno entrar(int cliente) throws IllegalStateException {
+		long ahora = reloj.getAsLong();
+		avanzar(ahora);
+		Turno actual = turnos.get(cliente);
+		if (actual != null) {
+			return actual;
+		}
+		if (enCola >= capacidadCola) {
+			totalRechazados++;
+			throw new IllegalStateException("La sala de espera está llena; intente más tarde.");
+		}
+		Turno t = new Turno(cliente, ++numerados, ahora);
+		cola.add(t);
+		enCola++;
+		turnos.put(cliente, t);
+		avanzar(ahora);
+		return t;
+	}
+
+	/**
+	 * Obtiene cuántos turnos hay antes del cliente (contando el suyo).
+	 *
+	 * @param cliente Id del cliente.
+	 * @return Posición en la cola (1 = el siguiente en ser admitido); 0 si ya fue admitido.
+	 * @throws IllegalArgumentException si el cliente no tiene turno vigente.
+	 */
+	public synchronized long getPosicion(int cliente) throws IllegalArgumentException {
+		avanzar(reloj.getAsLong());
+		Turno t = turnoVigente(cliente);
+		return EN_COLA.equals(t.estado) ? t.numero - atendidos : 0;
+	}
+
+	/**
+	 * Estima cuánto falta para que el cliente sea admitido, a la tasa de admisión.
+	 * Si los admitidos demoran en comprar y la sala está llena, la espera real puede ser mayor.
+	 *
+	 * @param cliente Id del cliente.
+	 * @return Tiempo estimado; cero si ya fue admitido.
+	 * @throws IllegalArgumentException si el cliente no tiene turno vigente.
+	 */
+	public synchronized Duration estimarEspera(int cliente) throws IllegalArgumentException {
+		long posicion = getPosicion(cliente);
+		return Duration.ofMillis((long) Math.ceil(posicion * 1000.0 / admisionesPorSegundo));
+	}
+
+	/**
+	 * Indica si el cliente está admitido y con la ventana de compra vigente.
+	 *
+	 * @param cliente Id del cliente.
+	 * @return {@code true} si puede comprar.
+	 */
+	public synchronized boolean estaAdmitido(int cliente) {
+		avanzar(reloj.getAsLong());
+		Turno t = turnos.get(cliente);
+		return t != null && ADMITIDO.equals(t.estado);
+	}
+
+	/**
+	 * Valida el token que presenta un cliente.
+	 *
+	 * @param cliente Id del cliente.
+	 * @param token Token recibido al ser admitido.
+	 * @return {@code true} si el cliente está admitido con ese token.
+	 */
+	public synchronized boolean validarToken(int cliente, String token) {
+		return estaAdmitido(cliente) && turnos.get(cliente).token.equals(token);
+	}
+
+	/**
+	 * Verifica que el cliente pueda comprar con el token que presenta.
+	 *
+	 * @param cliente Id del cliente.
+	 * @param token Token recibido al ser admitido.
+	 * @throws IllegalStateException si no ha sido admitido, su ventana de compra venció o el
+	 *         token no es el que se le entregó.
+	 */
+	public synchronized void verificarAdmision(int cliente, String token) throws IllegalStateException {
+		if (!estaAdmitido(cliente)) {
+			Turno t = turnos.get(cliente);
+			throw new IllegalStateException(t == null
+					? "El cliente debe entrar a la sala de espera para comprar."
+					: "El cliente aún no ha sido admitido; posición " + (t.numero - atendidos) + ".");
+		}
+		if (!turnos.get(cliente).token.equals(token)) {
+			throw new IllegalStateException("El token de admisión no es válido.");
+		}
+	}
+
+	/**
+	 * Termina la sesión de compra de un cliente admitido, o lo saca de la cola.
+	 *
+	 * @param cliente Id del cliente.
+	 * @return {@code true} si tenía un turno vigente.
+	 * @post Si estaba admitido, su cupo pasa al siguiente turno.
+	 */
+	public synchronized boolean salir(int cliente) {
+		Turno t = turnos.remove(cliente);
+		if (t == null) {
+			return false;
+		}
+		if (ADMITIDO.equals(t.estado)) {
+			t.estado = FINALIZADO;
+			activos--;
+		} else {
+			t.estado = ABANDONADO;
+			quitarDeCola(t);
+			enCola--;
+		}
+		avanzar(reloj.getAsLong());
+		return true;
+	}
+
+	/**
+	 * Aplica las admisiones y vencimientos pendientes hasta el instante actual. Las demás
+	 * operaciones lo hacen solas; sirve para avanzar la sala sin consultarla.
+	 *
+	 * @return Compradores admitidos en este momento.
+	 */
+	public synchronized int actualizar() {
+		avanzar(reloj.getAsLong());
+		return activos;
+	}
+
+	private Turno turnoVigente(int cliente) throws IllegalArgumentException {
+		Turno t = turnos.get(cliente);
+		if (t == null) {
+			throw new IllegalArgumentException("El cliente no tiene turno en la sala de espera.");
+		}
+		return t;
+	}
+
+	/**
+	 * Saca de la cola un turno abandonado y adelanta un número a los que estaban detrás.
+	 * Recorre la cola desde el final, así que cuesta lo que mide la cola detrás del turno.
+	 */
+	private void quitarDeCola(Turno t) {
+		Iterator<Turno> it = cola.descendingIterator();
+		while (it.hasNext()) {
+			Turno otro = it.next();
+			if (otro == t) {
+				it.remove();
+				numerados--;
+				return;
+			}
+			otro.numero--;
+		}
+	}
+
+	private void avanzar(long ahora) {
+		while (!admitidos.isEmpty()) {
+			Turno t = admitidos.peek();
+			if (ADMITIDO.equals(t.estado)) {
+				if (t.vencimiento > ahora) {
+					break;
+				}
+				t.estado = EXPIRADO;
+				turnos.remove(t.cliente, t);
+				activos--;
+				totalExpirados++;
+			}
+			admitidos.poll();
+		}
+		if (!abierta) {
+			return;
+		}
+		if (ahora > ultimoAvance) {
+			double rafaga = Math.max(1.0, admisionesPorSegundo);
+			fichas = Math.min(rafaga, fichas + (ahora - ultimoAvance) * admisionesPorSegundo / 1000.0);
+			ultimoAvance = ahora;
+		}
+		while (fichas >= 1.0 && activos < maximoActivos && !cola.isEmpty()) {
+			Turno t = cola.poll();
+			atendidos = t.numero;
+			t.estado = ADMITIDO;
+			t.token = Long.toHexString(azar.nextLong()) + Long.toHexString(azar.nextLong());
+			t.admision = ahora;
+			t.vencimiento = ahora + ventanaCompra;
+			admitidos.add(t);
+			enCola--;
+			activos++;
+			fichas -= 1.0;
+			totalAdmitidos++;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package Eventos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Suscripción a los cambios de asientos de un evento (o de una sola localidad).
+ * El suscriptor pide los cambios a su ritmo; los que se acumularon desde la última lectura
+ * se entregan en un solo lote y combinados: de cada asiento solo llega su último estado y
+ * los cupos generales llegan como cambio neto por localidad. Así un mapa de asientos en la
+ * interfaz o un long-poll HTTP reciben deltas pequeños aunque se hayan atrasado.
+ */
+public class SuscripcionCambios {
+
+	/**
+	 * Lote de cambios combinados entregado a un suscriptor.
+	 */
+	public static final class Lote {
+		private final List<CambioAsiento> cambios;
+		private final long hasta;
+		private final boolean resincronizar;
+
+		Lote(List<CambioAsiento> cambios, long hasta, boolean resincronizar) {
+			this.cambios = Collections.unmodifiableList(cambios);
+			this.hasta = hasta;
+			this.resincronizar = resincronizar;
+		}
+
+		public List<CambioAsiento> getCambios() {
+			return cambios;
+		}
+
+		/**
+		 * Obtiene la secuencia del canal hasta la cual se leyó (exclusiva).
+		 *
+		 * @return Próxima secuencia que leerá la suscripción.
+		 */
+		public long getHasta() {
+			return hasta;
+		}
+
+		/**
+		 * Indica si el suscriptor se atrasó más de lo que guarda el canal y perdió cambios.
+		 * En ese caso debe volver a leer la disponibilidad completa.
+		 *
+		 * @return {@code true} si hay que resincronizar.
+		 */
+		public boolean isResincronizar() {
+			return resincronizar;
+		}
+
+		public boolean estaVacio() {
+			return cambios.isEmpty() && !resincronizar;
+		}
+	}
+
+	// Atributos
+	private final CanalCambios canal;
+	private final Localidad filtro;
+	private long cursor;
+	private volatile boolean cerrada;
+
+	// Ctor
+
+	SuscripcionCambios(CanalCambios canal, Localidad filtro, long desde) {
+		this.canal = canal;
+		this.filtro = filtro;
+		this.cursor = desde;
+		this.cerrada = false;
+	}
+
+	// Getters
+
+	public Localidad getFiltro() {
+		return filtro;
+	}
+
+	public boolean isCerrada() {
+		return cerrada;
+	}
+
+	/**
+	 * Obtiene cuántos cambios del canal faltan por leer, sin aplicar el filtro.
+	 *
+	 * @return Cambios pendientes.
+	 */
+	public synchronized long getPendientes() {
+		return canal.getSecuencia() - cursor;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Toma los cambios publicados desde la última lectura, combinados.
+	 *
+	 * @param maximo Máximo de cambios del canal a recorrer en esta lectura.
+	 * @return Lote de cambios; vacío si no hay nada nuevo.
+	 * @throws IllegalStateException si la suscripción está cerrada.
+	 * @pre maximo > 0.
+	 * @post El cursor avanza hasta el último cambio leído.
+	 */
+	public synchronized Lote tomarCambios(int maximo) throws IllegalStateException {
+		if (cerrada) {
+			throw new IllegalStateException("La suscripción está cerrada.");
+		}
+		if (maximo <= 0) {
+			throw new IllegalArgumentException("El máximo de cambios debe ser positivo.");
+		}
+		long fin = Math.min(canal.getSecuencia(), cursor + maximo);
+		Map<Long, CambioAsiento> asientos = new LinkedHashMap<Long, CambioAsiento>();
+		Map<Long, CambioAsiento> cupos = new LinkedHashMap<Long, CambioAsiento>();
+
+		long s = cursor;
+		for (; s < fin; s++) {
+			CambioAsiento c = canal.leer(s);
+			if (c == null || c.getSecuencia() < s) {
+				break; // El publicador aún no termina de escribirlo.
+			}
+			if (c.getSecuencia() > s) {
+				cursor = canal.getSecuencia();
+				return new Lote(new ArrayList<CambioAsiento>(), cursor, true);
+			}
+			if (filtro != null && c.getLocalidad() != filtro) {
+				continue;
+			}
+			long orden = c.getLocalidad().getOrdenReserva();
+			if (c.esDeCupos()) {
+				long clave = (orden << 2) | indiceEstado(c.getEstado());
+				CambioAsiento previo = cupos.get(clave);
+				int neto = c.getCantidad() + (previo == null ? 0 : previo.getCantidad());
+				cupos.put(clave, new CambioAsiento(c.getSecuencia(), c.getLocalidad(), -1, c.getEstado(), neto));
+			} else {
+				long clave = (orden << 32) | (c.getAsiento() & 0xffffffffL);
+				asientos.remove(clave);
+				asientos.put(clave, c);
+			}
+		}
+		cursor = s;
+
+		List<CambioAsiento> resultado = new ArrayList<CambioAsiento>(asientos.values());
+		for (CambioAsiento c : cupos.values()) {
+			if (c.getCantidad() != 0) {
+				resultado.add(c);
+			}
+		}
+		return new Lote(resultado, cursor, false);
+	}
+
+	/**
+	 * Espera hasta que haya cambios o se agote el tiempo, y los entrega (long-poll).
+	 *
+	 * @param maximo Máximo de cambios del canal a recorrer.
+	 * @param milisegundos Tiempo máximo de espera.
+	 * @return Lote de cambios; vacío si se agotó el tiempo.
+	 * @throws InterruptedException si el hilo es interrumpido mientras espera.
+	 */
+	public Lote esperarCambios(int maximo, long milisegundos) throws InterruptedException {
+		long limite = System.currentTimeMillis() + milisegundos;
+		while (true) {
+			Lote lote = tomarCambios(maximo);
+			long restante = limite - System.currentTimeMillis();
+			if (!lote.estaVacio() || restante <= 0) {
+				return lote;
+			}
+			canal.esperar(lote.getHasta(), restante);
+		}
+	}
+
+	/**
+	 * Cierra la suscripción.
+	 *
+	 * @post El canal deja de contarla; si no quedan suscriptores deja de registrar cambios.
+	 */
+	public synchronized void cerrar() {
+		if (!cerrada) {
+			cerrada = true;
+			canal.cancelarSuscripcion();
+		}
+	}
+
+	private static int indiceEstado(String estado) {
+		if (CambioAsiento.VENDIDO.equals(estado)) {
+			return 0;
+		}
+		if (CambioAsiento.RETENIDO.equals(estado)) {
+			return 1;
+		}
+		return 2;
+	}
+}
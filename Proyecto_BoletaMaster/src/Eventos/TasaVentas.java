@@ -0,0 +1,102 @@
+package Eventos;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estimador de ventas por segundo en una ventana deslizante.
+ * La ventana se divide en franjas de igual duración guardadas en un arreglo circular; cada
+ * posición guarda en un solo {@code long} el número de franja y las ventas de esa franja, así
+ * que registrar una venta es una operación atómica sin candados y O(1). Las franjas viejas se
+ * reutilizan al pasar por encima y se ignoran al sumar.
+ * El número de franja se guarda módulo 2^40 y se compara por diferencia, así que no se
+ * desborda aunque las franjas sean de 1 ms y los instantes sean milisegundos desde 1970.
+ */
+public class TasaVentas {
+
+	private static final int BITS_CONTEO = 24;
+	private static final long MASCARA_CONTEO = (1L << BITS_CONTEO) - 1;
+	private static final long MASCARA_FRANJA = (1L << (64 - BITS_CONTEO)) - 1;
+
+	// Atributos
+	private final AtomicLongArray franjas;
+	private final long anchoFranja;
+
+	// Ctor
+
+	/**
+	 * Crea un estimador.
+	 *
+	 * @param ventanaMilis Duración de la ventana en milisegundos.
+	 * @param franjas Número de franjas en que se divide la ventana.
+	 * @pre ventanaMilis >= franjas > 0.
+	 * @post No hay ventas registradas.
+	 */
+	public TasaVentas(long ventanaMilis, int franjas) {
+		if (franjas <= 0 || ventanaMilis < franjas) {
+			throw new IllegalArgumentException("Ventana o número de franjas inválidos.");
+		}
+		this.franjas = new AtomicLongArray(franjas);
+		this.anchoFranja = ventanaMilis / franjas;
+	}
+
+	// Getters
+
+	public long getVentanaMilis() {
+		return anchoFranja * franjas.length();
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Registra ventas en un instante.
+	 *
+	 * @param cantidad Lugares vendidos (negativo para devoluciones).
+	 * @param ahora Instante en milisegundos.
+	 * @post Las ventas cuentan en la tasa mientras su franja esté dentro de la ventana.
+	 */
+	public void registrar(int cantidad, long ahora) {
+		long franja = (ahora / anchoFranja) & MASCARA_FRANJA;
+		int i = (int) (franja % franjas.length());
+		while (true) {
+			long actual = franjas.get(i);
+			long nuevo = (actual >>> BITS_CONTEO) == franja
+					? (franja << BITS_CONTEO) | ((actual + cantidad) & MASCARA_CONTEO)
+					: (franja << BITS_CONTEO) | (cantidad & MASCARA_CONTEO);
+			if (franjas.compareAndSet(i, actual, nuevo)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Obtiene las ventas registradas dentro de la ventana que termina en un instante.
+	 *
+	 * @param ahora Instante en milisegundos.
+	 * @return Ventas netas en la ventana.
+	 */
+	public long contar(long ahora) {
+		long franja = (ahora / anchoFranja) & MASCARA_FRANJA;
+		long total = 0;
+		for (int i = 0; i < franjas.length(); i++) {
+			long v = franjas.get(i);
+			// Diferencia módulo 2^40: una franja futura da una diferencia enorme y no cuenta.
+			long atras = (franja - (v >>> BITS_CONTEO)) & MASCARA_FRANJA;
+			if (atras < franjas.length()) {
+				long conteo = v & MASCARA_CONTEO;
+				// El conteo se guarda en complemento a dos de BITS_CONTEO bits.
+				total += (conteo << (64 - BITS_CONTEO)) >> (64 - BITS_CONTEO);
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Obtiene la tasa de ventas por segundo en la ventana que termina en un instante.
+	 *
+	 * @param ahora Instante en milisegundos.
+	 * @return Ventas por segundo.
+	 */
+	public double porSegundo(long ahora) {
+		return contar(ahora) * 1000.0 / getVentanaMilis();
+	}
+}
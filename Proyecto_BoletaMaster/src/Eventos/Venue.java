@@ -4,6 +4,10 @@ import java.util.*;
 /**
  * Representa un lugar físico (venue) donde se pueden realizar eventos en el sistema BoletaMaster.
  * Un venue debe ser aprobado por un administrador antes de ser usado por un organizador.
+ * Lleva un total acumulado de la capacidad asignada a sus localidades y un índice hash con la
+ * posición de cada una en la lista, así que agregar, quitar, buscar y validar capacidad cuesta
+ * O(1) aunque tenga cientos de localidades. Si una localidad cambia su capacidad, le avisa al
+ * venue para ajustar el total.
  */
 public class Venue{
 	// Atributos
@@ -14,6 +18,8 @@ public class Venue{
 	private String restricciones;
 	private boolean aprobado;
     private ArrayList<Localidad> localidades;
+    private HashMap<Localidad, Integer> indiceLocalidades;
+    private int capacidadAsignada;
 	
 	//Ctor
 	/**
@@ -34,6 +40,8 @@ public class Venue{
 		this.capacidad = capacidad;
 		this.restricciones = restricciones;
 		this.localidades = new ArrayList<Localidad>();
+		this.indiceLocalidades = new HashMap<Localidad, Integer>();
+		this.capacidadAsignada = 0;
 	}
 
 	// Getters y Setters
@@ -155,6 +163,8 @@ public class Venue{
 
     /**
      * Obtiene la lista de localidades del venue.
+     * Para agregar o quitar localidades use {@link #agregarLocalidad} y {@link #eliminarLocalidad},
+     * que mantienen al día el índice y el total de capacidad.
      *
      * @return Lista actual de localidades.
      */
@@ -169,8 +179,28 @@ public class Venue{
      * @pre La lista no es nula y cada localidad pertenece a este venue.
      * @post Se actualiza la lista completa de localidades asociadas al venue.
      */
-    public void setLocalidades(ArrayList<Localidad> localidades) {
+    public synchronized void setLocalidades(ArrayList<Localidad> localidades) {
+        for (Localidad l : this.localidades) {
+            l.desregistrarVenue(this);
+        }
         this.localidades = localidades;
+        this.indiceLocalidades = new HashMap<Localidad, Integer>();
+        this.capacidadAsignada = 0;
+        for (int i = 0; i < localidades.size(); i++) {
+            Localidad l = localidades.get(i);
+            indiceLocalidades.put(l, i);
+            l.registrarVenue(this);
+            capacidadAsignada += l.getCapacidad();
+        }
+    }
+
+    /**
+     * Obtiene la capacidad que aún no está asignada a ninguna localidad.
+     *
+     * @return Capacidad del venue menos la suma de capacidades de sus localidades.
+     */
+    public synchronized int getCapacidadDisponible() {
+        return capacidad - capacidadAsignada;
     }
 
     // Métodos funcionales
@@ -182,45 +212,71 @@ public class Venue{
      * @pre localidad no nula y no existente previamente en el venue.
      * @post La localidad queda registrada en la lista de localidades del venue.
      */
-    public void agregarLocalidad(Localidad localidad) throws IllegalArgumentException{
+    public synchronized void agregarLocalidad(Localidad localidad) throws IllegalArgumentException{
         if (localidad == null) {
             throw new IllegalArgumentException("La localidad no puede ser nula.");
         }
-        if (localidades.contains(localidad)) {
+        if (indiceLocalidades.containsKey(localidad)) {
             throw new IllegalArgumentException("La localidad ya está registrada en este venue.");
         }
-        if(localidad.getCapacidad() + this.calcularCapacidadTotal() > this.capacidad) {
+        if(localidad.getCapacidad() + this.capacidadAsignada > this.capacidad) {
         	throw new IllegalArgumentException("La capacidad del venue supera su valor máximo con la nueva localidad.");
         }
+        indiceLocalidades.put(localidad, localidades.size());
         localidades.add(localidad);
+        capacidadAsignada += localidad.getCapacidad();
+        localidad.registrarVenue(this);
     }
 
     /**
-     * Elimina una localidad del venue.
+     * Elimina una localidad del venue en O(1): la última localidad de la lista ocupa el lugar
+     * de la eliminada, así que el orden de las demás puede cambiar.
      *
      * @param localidad Localidad a eliminar.
      * @pre La localidad pertenece a este venue.
      * @post La localidad se elimina de la lista de localidades asociadas.
      */
-    public void eliminarLocalidad(Localidad localidad)throws IllegalArgumentException {
-    	if (!localidades.contains(localidad)) {
+    public synchronized void eliminarLocalidad(Localidad localidad)throws IllegalArgumentException {
+    	Integer posicion = indiceLocalidades.remove(localidad);
+    	if (posicion == null) {
     		throw new IllegalArgumentException("La localidad indicada no existe.");
     	}
-        localidades.remove(localidad);
+        Localidad ultima = localidades.remove(localidades.size() - 1);
+        if (ultima != localidad) {
+            localidades.set(posicion, ultima);
+            indiceLocalidades.put(ultima, posicion);
+        }
+        capacidadAsignada -= localidad.getCapacidad();
+        localidad.desregistrarVenue(this);
+    }
+
+    /**
+     * Indica si una localidad está registrada en el venue.
+     *
+     * @param localidad Localidad a buscar.
+     * @return {@code true} si la localidad pertenece al venue.
+     * @post No modifica el estado del venue.
+     */
+    public synchronized boolean contieneLocalidad(Localidad localidad) {
+        return indiceLocalidades.containsKey(localidad);
     }
 
     /**
      * Calcula la capacidad total del venue sumando las capacidades de sus localidades.
+     * El total se mantiene acumulado, así que la consulta es O(1).
      *
      * @return Suma de las capacidades de todas las localidades.
      * @post No modifica el estado del objeto.
      */
-    public int calcularCapacidadTotal() {
-        int total = 0;
-        for (Localidad l : localidades) {
-            total += l.getCapacidad();
-        }
-        return total;
+    public synchronized int calcularCapacidadTotal() {
+        return capacidadAsignada;
+    }
+
+    /**
+     * Ajusta el total acumulado cuando una localidad registrada cambia su capacidad.
+     */
+    synchronized void ajustarCapacidadAsignada(int diferencia) {
+        capacidadAsignada += diferencia;
     }
 
     /**
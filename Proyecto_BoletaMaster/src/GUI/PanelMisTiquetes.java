@@ -101,12 +101,12 @@ public class PanelMisTiquetes extends JPanel {
      * Carga en la lista los tiquetes del cliente.
      * @pre cliente != null y cliente.obtenerTiquetesComprados() no retorna null
      * @post modeloLista se limpia y luego contiene todos los tiquetes del cliente en orden.
+     * @post La lista se lee del índice de tiquetes propios del cliente y se agrega de una vez,
+     * con un solo aviso a la JList aunque el cliente tenga miles de tiquetes.
      */
     private void cargarTiquetes() {
         modeloLista.clear();
-        for (Tiquete t : cliente.obtenerTiquetesComprados()) {
-            modeloLista.addElement(t);
-        }
+        modeloLista.addAll(cliente.obtenerTiquetesComprados());
     }
 
     /**
@@ -3,6 +3,8 @@ package MarketPlace;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 
+import Tiquetes.Dinero;
+import Tiquetes.GeneradorIds;
 import Tiquetes.Tiquete;
 import Usuarios.Cliente;
 
@@ -17,7 +19,7 @@ public class OfertaMP {
     private int idOferta;
     private Cliente vendedor;
     private ArrayList<Tiquete> boletas;
-    private double precioBase;
+    private long precioBase;
     private String estado;
     private LocalDateTime fechaPublicacion;
     private LocalDateTime fechaCierre;
@@ -41,13 +43,30 @@ public class OfertaMP {
         this.idOferta = idOferta;
         this.vendedor = vendedor;
         this.boletas = boletas;
-        this.precioBase = precioBase;
+        this.precioBase = Dinero.deValor(precioBase);
         this.estado = estado;
         this.fechaPublicacion = fechaPublicacion;
         this.fechaCierre = fechaCierre;
         this.pujas = pujas;
     }
 
+    /**
+     * @pre vendedor != null ; boletas != null ; pujas != null
+     * @post La oferta queda creada con un id asignado por el {@link GeneradorIds}
+     * @param vendedor dueño de las boletas
+     * @param boletas lista de tiquetes a vender
+     * @param precioBase precio base inicial
+     * @param estado estado inicial de la oferta
+     * @param fechaPublicacion momento de publicación
+     * @param fechaCierre momento de cierre de pujas (puede ser null)
+     * @param pujas lista inicial de pujas
+     */
+    public OfertaMP(Cliente vendedor, ArrayList<Tiquete> boletas, double precioBase, String estado,
+                    LocalDateTime fechaPublicacion, LocalDateTime fechaCierre, ArrayList<Puja> pujas) {
+        this(GeneradorIds.getInstance().siguiente(GeneradorIds.OFERTAS_MP), vendedor, boletas, precioBase, estado,
+                fechaPublicacion, fechaCierre, pujas);
+    }
+
     /**
      * @pre true
      * @post retorna el id de la oferta
@@ -108,6 +127,15 @@ public class OfertaMP {
      * @return precioBase
      */
     public double getPrecioBase() {
+        return Dinero.aValor(precioBase);
+    }
+
+    /**
+     * @pre true
+     * @post retorna el precio base en centavos
+     * @return precioBase en centavos
+     */
+    public long getPrecioBaseCentavos() {
         return precioBase;
     }
 
@@ -117,7 +145,7 @@ public class OfertaMP {
      * @param precioBase nuevo precio
      */
     public void setPrecioBase(double precioBase) {
-        this.precioBase = precioBase;
+        this.precioBase = Dinero.deValor(precioBase);
     }
 
     /**
@@ -1,5 +1,7 @@
 package MarketPlace;
 
+import Tiquetes.Dinero;
+import Tiquetes.GeneradorIds;
 import Usuarios.Cliente;
 import java.time.LocalDateTime;
 
@@ -12,7 +14,7 @@ public class Puja {
     private int idPuja;
     private OfertaMP oferta;
     private Cliente comprador;
-    private double monto;
+    private long monto;
     private String estado; // Pendiente, Aceptada, Rechazada, Superada
     private LocalDateTime fechaHora;
 
@@ -31,11 +33,24 @@ public class Puja {
         this.idPuja = idPuja;
         this.oferta = oferta;
         this.comprador = comprador;
-        this.monto = monto;
+        this.monto = Dinero.deValor(monto);
         this.estado = estado;
         this.fechaHora = fechaHora;
     }
 
+    /**
+     * @pre oferta != null ; comprador != null ; monto > 0 ; estado != null ; fechaHora != null
+     * @post La puja queda creada con un id asignado por el {@link GeneradorIds}
+     * @param oferta oferta asociada
+     * @param comprador cliente que realiza la puja
+     * @param monto valor ofrecido
+     * @param estado estado inicial de la puja
+     * @param fechaHora fecha y hora de creación
+     */
+    public Puja(OfertaMP oferta, Cliente comprador, double monto, String estado, LocalDateTime fechaHora) {
+        this(GeneradorIds.getInstance().siguiente(GeneradorIds.PUJAS), oferta, comprador, monto, estado, fechaHora);
+    }
+
     /**
      * @pre true
      * @post retorna el id de la puja
@@ -96,6 +111,15 @@ public class Puja {
      * @return monto
      */
     public double getMonto() {
+        return Dinero.aValor(monto);
+    }
+
+    /**
+     * @pre true
+     * @post retorna el monto de la puja en centavos
+     * @return monto en centavos
+     */
+    public long getMontoCentavos() {
         return monto;
     }
 
@@ -105,7 +129,7 @@ public class Puja {
      * @param monto nuevo valor ofrecido
      */
     public void setMonto(double monto) {
-        this.monto = monto;
+        this.monto = Dinero.deValor(monto);
     }
 
     /**
@@ -0,0 +1,52 @@
+package Persistencia;
+
+import java.util.List;
+
+import Tiquetes.Compra;
+
+/**
+ * Gestiona el diario de compras: un archivo al que cada lote de compras confirmadas se agrega
+ * con una sola escritura, una compra por línea en JSON.
+ */
+public class PersistenciaCompras extends PersistenciaJSON {
+
+    private static final String ARCHIVO_COMPRAS = "data/compras.jsonl";
+
+    /**
+     * Agrega un lote de compras al diario.
+     *
+     * @param compras Compras del lote.
+     * @pre compras definida.
+     * @post Las compras quedan al final del diario, en orden.
+     */
+    public static void agregarCompras(List<Compra> compras) {
+        agregarCompras(compras, ARCHIVO_COMPRAS);
+    }
+
+    /**
+     * Agrega un lote de compras a un diario dado.
+     *
+     * @param compras Compras del lote.
+     * @param rutaArchivo Ruta del diario.
+     * @pre compras y rutaArchivo definidos.
+     * @post Las compras quedan al final del diario, en orden, escritas en una sola operación.
+     */
+    public static void agregarCompras(List<Compra> compras, String rutaArchivo) {
+        if (compras.isEmpty()) return;
+        StringBuilder lineas = new StringBuilder(compras.size() * 160);
+        for (Compra c : compras) {
+            lineas.append("{\"id\": ").append(c.getIdCompra())
+                .append(", \"cliente\": ").append(c.getDueno() == null ? -1 : c.getDueno().getId())
+                .append(", \"fecha\": \"").append(c.getFechaCompra()).append("\"")
+                .append(", \"valor\": ").append(c.getValorCompraCentavos())
+                .append(", \"tiquetes\": ").append(c.getTiquetesComprados().size())
+                .append(", \"paquetes\": ").append(c.getPaquetes().size());
+            if (c.getCodigoDescuento() != null) {
+                lineas.append(", \"codigoDescuento\": \"").append(c.getCodigoDescuento()).append("\"")
+                    .append(", \"descuento\": ").append(c.getDescuentoCentavos());
+            }
+            lineas.append("}\n");
+        }
+        agregarArchivo(rutaArchivo, lineas.toString());
+    }
+}
@@ -1,15 +1,23 @@
 package Persistencia;
 
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import Eventos.Evento;
+import Eventos.Localidad;
 
 /**
  * Gestiona la persistencia de los eventos, incluyendo sus localidades,
- * ofertas y sedes (venues).
+ * ofertas y sedes (venues). El historial de precios de cada localidad se guarda
+ * codificado (ver {@link Eventos.HistorialPrecios#codificar()}) junto a la localidad.
  */
 public class PersistenciaEventos extends PersistenciaJSON {
 
     private static final String ARCHIVO_EVENTOS = "data/eventos.json";
+    private static final Pattern ID_EVENTO = Pattern.compile("\"id\": (-?\\d+),");
+    private static final Pattern HISTORIAL_LOCALIDAD = Pattern.compile(
+            "\\{\"nombre\": \"([^\"]*)\", \"capacidad\": -?\\d+, \"historialPrecios\": \"([A-Za-z0-9+/=]*)\"\\}");
 
     /**
      * Guarda la lista de eventos y sus componentes.
@@ -19,6 +27,18 @@ public class PersistenciaEventos extends PersistenciaJSON {
      * @post Se guarda el estado de los eventos en JSON.
      */
     public static void guardarEventos(List<Evento> eventos) {
+        guardarEventos(eventos, ARCHIVO_EVENTOS);
+    }
+
+    /**
+     * Guarda la lista de eventos y sus componentes en un archivo dado.
+     *
+     * @param eventos Lista de eventos.
+     * @param rutaArchivo Ruta del archivo JSON.
+     * @pre eventos y rutaArchivo definidos.
+     * @post Se guarda el estado de los eventos en JSON.
+     */
+    public static void guardarEventos(List<Evento> eventos, String rutaArchivo) {
         StringBuilder json = new StringBuilder("[\n");
         for (int i = 0; i < eventos.size(); i++) {
             Evento e = eventos.get(i);
@@ -35,7 +55,8 @@ public class PersistenciaEventos extends PersistenciaJSON {
             for (int j = 0; j < locs.size(); j++) {
                 var l = locs.get(j);
                 json.append("{\"nombre\": \"").append(l.getNombre())
-                    .append("\", \"capacidad\": ").append(l.getCapacidad()).append("}");
+                    .append("\", \"capacidad\": ").append(l.getCapacidad())
+                    .append(", \"historialPrecios\": \"").append(l.getHistorialPrecios().codificar()).append("\"}");
                 if (j < locs.size() - 1) json.append(",");
             }
             json.append("],\n");
@@ -57,6 +78,68 @@ public class PersistenciaEventos extends PersistenciaJSON {
             json.append("\n");
         }
         json.append("]");
-        guardarArchivo(ARCHIVO_EVENTOS, json.toString());
+        guardarArchivo(rutaArchivo, json.toString());
+    }
+
+    /**
+     * Restaura el historial de precios de las localidades desde el archivo de eventos.
+     *
+     * @param eventos Eventos ya cargados; se emparejan por id y las localidades por nombre.
+     * @return Cantidad de localidades restauradas.
+     * @pre eventos definida.
+     * @post Cada localidad encontrada en el archivo recupera su historial guardado.
+     */
+    public static int cargarHistorialesPrecios(List<Evento> eventos) {
+        return cargarHistorialesPrecios(eventos, ARCHIVO_EVENTOS);
+    }
+
+    /**
+     * Restaura el historial de precios de las localidades desde un archivo dado.
+     *
+     * @param eventos Eventos ya cargados; se emparejan por id y las localidades por nombre.
+     * @param rutaArchivo Ruta del archivo JSON.
+     * @return Cantidad de localidades restauradas; 0 si el archivo no existe.
+     * @throws IllegalArgumentException si algún historial guardado está dañado.
+     * @pre eventos y rutaArchivo definidos.
+     * @post Cada localidad encontrada en el archivo recupera su historial guardado.
+     */
+    public static int cargarHistorialesPrecios(List<Evento> eventos, String rutaArchivo) throws IllegalArgumentException {
+        String json = cargarArchivo(rutaArchivo);
+        if (json == null) return 0;
+
+        int restauradas = 0;
+        Matcher ids = ID_EVENTO.matcher(json);
+        int inicio = ids.find() ? ids.start() : -1;
+        while (inicio >= 0) {
+            int id = Integer.parseInt(ids.group(1));
+            int fin = ids.find() ? ids.start() : json.length();
+            Evento evento = buscarEvento(eventos, id);
+            if (evento != null) {
+                Matcher historiales = HISTORIAL_LOCALIDAD.matcher(json.substring(inicio, fin));
+                while (historiales.find()) {
+                    Localidad l = buscarLocalidad(evento, historiales.group(1));
+                    if (l != null) {
+                        l.getHistorialPrecios().restaurar(historiales.group(2));
+                        restauradas++;
+                    }
+                }
+            }
+            inicio = fin < json.length() ? fin : -1;
+        }
+        return restauradas;
+    }
+
+    private static Localidad buscarLocalidad(Evento evento, String nombre) {
+        for (Localidad l : evento.getLocalidades()) {
+            if (l.getNombre().equals(nombre)) return l;
+        }
+        return null;
+    }
+
+    private static Evento buscarEvento(List<Evento> eventos, int id) {
+        for (Evento e : eventos) {
+            if (e.getId() == id) return e;
+        }
+        return null;
     }
 }
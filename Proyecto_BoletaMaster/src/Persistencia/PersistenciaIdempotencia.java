@@ -0,0 +1,163 @@
+package Persistencia;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import Tiquetes.Compra;
+import Usuarios.Cliente;
+import Usuarios.RegistroIdempotencia;
+
+/**
+ * Gestiona la persistencia del {@link RegistroIdempotencia}, para que un reintento que llega
+ * después de reiniciar la aplicación siga recibiendo la compra original.
+ * Cada entrada guarda el cliente, la clave, el vencimiento y los datos de la respuesta: id,
+ * fecha, valor, descuento y códigos de los tiquetes y paquetes de la compra. Al cargar, si el
+ * cliente aún tiene la compra con ese id se usa esa; si no, se reconstruye con
+ * {@link Compra#restaurar}.
+ */
+public class PersistenciaIdempotencia extends PersistenciaJSON {
+
+    private static final String ARCHIVO_IDEMPOTENCIA = "data/idempotencia.json";
+    private static final Pattern ENTRADA = Pattern.compile(
+            "\\{\"cliente\": (-?\\d+), \"clave\": \"([A-Za-z0-9_-]+)\", \"expira\": (-?\\d+), "
+            + "\"idCompra\": (-?\\d+), \"fecha\": \"([^\"]*)\", \"valor\": (-?\\d+)"
+            + "(?:, \"codigoDescuento\": \"([^\"]*)\", \"descuento\": (-?\\d+))?"
+            + ", \"tiquetes\": \\[([-\\d, ]*)\\], \"paquetes\": \\[([-\\d, ]*)\\]\\}");
+
+    /**
+     * Guarda las entradas vigentes del registro.
+     *
+     * @param registro Registro a guardar.
+     * @pre registro definido.
+     * @post Se guarda el registro en JSON.
+     */
+    public static void guardarRegistro(RegistroIdempotencia registro) {
+        guardarRegistro(registro, ARCHIVO_IDEMPOTENCIA);
+    }
+
+    /**
+     * Guarda las entradas vigentes del registro en un archivo dado.
+     *
+     * @param registro Registro a guardar.
+     * @param rutaArchivo Ruta del archivo JSON.
+     * @pre registro y rutaArchivo definidos.
+     * @post Se guarda el registro en JSON.
+     */
+    public static void guardarRegistro(RegistroIdempotencia registro, String rutaArchivo) {
+        List<RegistroIdempotencia.Entrada> entradas = registro.getEntradas();
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < entradas.size(); i++) {
+            RegistroIdempotencia.Entrada e = entradas.get(i);
+            Compra c = e.getCompra();
+            if (i > 0) json.append(",\n");
+            json.append("  {\"cliente\": ").append(e.getIdCliente())
+                .append(", \"clave\": \"").append(e.getClave()).append("\"")
+                .append(", \"expira\": ").append(e.getExpira())
+                .append(", \"idCompra\": ").append(c.getIdCompra())
+                .append(", \"fecha\": \"").append(c.getFechaCompra()).append("\"")
+                .append(", \"valor\": ").append(c.getValorCompraCentavos());
+            if (c.getCodigoDescuento() != null) {
+                json.append(", \"codigoDescuento\": \"").append(c.getCodigoDescuento()).append("\"")
+                    .append(", \"descuento\": ").append(c.getDescuentoCentavos());
+            }
+            json.append(", \"tiquetes\": ");
+            agregarCodigos(json, c.getCodigosTiquetes());
+            json.append(", \"paquetes\": ");
+            agregarCodigos(json, c.getCodigosPaquetes());
+            json.append("}");
+        }
+        json.append("\n]");
+        guardarArchivo(rutaArchivo, json.toString());
+    }
+
+    /**
+     * Carga en el registro las entradas guardadas.
+     *
+     * @param registro Registro a completar.
+     * @param clientes Clientes ya cargados; no necesitan tener sus compras.
+     * @return Cantidad de entradas restauradas.
+     * @pre registro y clientes definidos.
+     * @post Las entradas vigentes de clientes conocidos quedan en el registro.
+     */
+    public static int cargarRegistro(RegistroIdempotencia registro, List<Cliente> clientes) {
+        return cargarRegistro(registro, clientes, ARCHIVO_IDEMPOTENCIA);
+    }
+
+    /**
+     * Carga en el registro las entradas guardadas en un archivo dado.
+     *
+     * @param registro Registro a completar.
+     * @param clientes Clientes ya cargados; no necesitan tener sus compras.
+     * @param rutaArchivo Ruta del archivo JSON.
+     * @return Cantidad de entradas restauradas; 0 si el archivo no existe.
+     * @pre registro, clientes y rutaArchivo definidos.
+     * @post Las entradas vigentes de clientes conocidos quedan en el registro, con la compra
+     *       del cliente si aún la tiene o con una reconstruida; las vencidas se descartan.
+     */
+    public static int cargarRegistro(RegistroIdempotencia registro, List<Cliente> clientes, String rutaArchivo) {
+        String json = cargarArchivo(rutaArchivo);
+        if (json == null) return 0;
+
+        Map<Integer, Cliente> porId = new HashMap<Integer, Cliente>();
+        for (Cliente c : clientes) {
+            porId.put(c.getId(), c);
+        }
+        // Compras de cada cliente por id, armadas solo para los clientes con entradas.
+        Map<Cliente, Map<Integer, Compra>> comprasPorCliente = new HashMap<Cliente, Map<Integer, Compra>>();
+        int restauradas = 0;
+        Matcher m = ENTRADA.matcher(json);
+        while (m.find()) {
+            Cliente cliente = porId.get(Integer.parseInt(m.group(1)));
+            if (cliente == null) continue;
+            int idCompra = Integer.parseInt(m.group(4));
+            LocalDateTime fecha;
+            try {
+                fecha = LocalDateTime.parse(m.group(5));
+            } catch (RuntimeException e) {
+                continue;
+            }
+            long valor = Long.parseLong(m.group(6));
+            Compra c = comprasPorCliente.computeIfAbsent(cliente, PersistenciaIdempotencia::comprasPorId).get(idCompra);
+            if (c == null || !fecha.equals(c.getFechaCompra()) || c.getValorCompraCentavos() != valor) {
+                c = Compra.restaurar(cliente, idCompra, fecha, valor, leerCodigos(m.group(9)), leerCodigos(m.group(10)));
+                if (m.group(7) != null) {
+                    c.setDescuento(m.group(7), Long.parseLong(m.group(8)));
+                }
+            }
+            if (registro.restaurar(cliente, m.group(2), c, Long.parseLong(m.group(3)))) {
+                restauradas++;
+            }
+        }
+        return restauradas;
+    }
+
+    private static Map<Integer, Compra> comprasPorId(Cliente cliente) {
+        Map<Integer, Compra> compras = new HashMap<Integer, Compra>();
+        for (Compra c : cliente.getCompras()) {
+            compras.put(c.getIdCompra(), c);
+        }
+        return compras;
+    }
+
+    private static void agregarCodigos(StringBuilder json, int[] codigos) {
+        json.append("[");
+        for (int i = 0; i < codigos.length; i++) {
+            if (i > 0) json.append(", ");
+            json.append(codigos[i]);
+        }
+        json.append("]");
+    }
+
+    private static int[] leerCodigos(String lista) {
+        String[] partes = lista.trim().isEmpty() ? new String[0] : lista.split(",");
+        int[] codigos = new int[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            codigos[i] = Integer.parseInt(partes[i].trim());
+        }
+        return codigos;
+    }
+}
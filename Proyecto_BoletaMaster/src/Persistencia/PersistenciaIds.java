@@ -0,0 +1,83 @@
+package Persistencia;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import Tiquetes.GeneradorIds;
+
+/**
+ * Gestiona la persistencia de las marcas del {@link GeneradorIds}, para que después de
+ * reiniciar no se vuelva a entregar un id ya usado.
+ */
+public class PersistenciaIds extends PersistenciaJSON {
+
+    private static final String ARCHIVO_IDS = "data/ids.json";
+    private static final Pattern MARCA = Pattern.compile("\"([A-Za-z0-9_]+)\": (\\d+)");
+
+    /**
+     * Guarda la marca de cada secuencia.
+     *
+     * @param generador Generador a guardar.
+     * @pre generador definido.
+     * @post Se guardan las marcas en JSON.
+     */
+    public static void guardarMarcas(GeneradorIds generador) {
+        guardarMarcas(generador, ARCHIVO_IDS);
+    }
+
+    /**
+     * Guarda la marca de cada secuencia en un archivo dado.
+     *
+     * @param generador Generador a guardar.
+     * @param rutaArchivo Ruta del archivo JSON.
+     * @pre generador y rutaArchivo definidos.
+     * @post Se guardan las marcas en JSON.
+     */
+    public static void guardarMarcas(GeneradorIds generador, String rutaArchivo) {
+        StringBuilder json = new StringBuilder("{\n");
+        Map<String, Long> marcas = generador.getMarcas();
+        int i = 0;
+        for (Map.Entry<String, Long> e : marcas.entrySet()) {
+            json.append("  \"").append(e.getKey()).append("\": ").append(e.getValue());
+            if (++i < marcas.size()) json.append(",");
+            json.append("\n");
+        }
+        json.append("}");
+        guardarArchivo(rutaArchivo, json.toString());
+    }
+
+    /**
+     * Avanza las secuencias del generador hasta las marcas guardadas.
+     *
+     * @param generador Generador a restaurar.
+     * @return Cantidad de secuencias restauradas.
+     * @pre generador definido.
+     * @post Ninguna secuencia entrega un id menor a su marca guardada.
+     */
+    public static int cargarMarcas(GeneradorIds generador) {
+        return cargarMarcas(generador, ARCHIVO_IDS);
+    }
+
+    /**
+     * Avanza las secuencias del generador hasta las marcas guardadas en un archivo dado.
+     *
+     * @param generador Generador a restaurar.
+     * @param rutaArchivo Ruta del archivo JSON.
+     * @return Cantidad de secuencias restauradas; 0 si el archivo no existe.
+     * @pre generador y rutaArchivo definidos.
+     * @post Ninguna secuencia entrega un id menor a su marca guardada.
+     */
+    public static int cargarMarcas(GeneradorIds generador, String rutaArchivo) {
+        String json = cargarArchivo(rutaArchivo);
+        if (json == null) return 0;
+
+        int restauradas = 0;
+        Matcher m = MARCA.matcher(json);
+        while (m.find()) {
+            generador.restaurarMarca(m.group(1), Long.parseLong(m.group(2)));
+            restauradas++;
+        }
+        return restauradas;
+    }
+}
@@ -26,6 +26,24 @@ public abstract class PersistenciaJSON {
         }
     }
 
+    /**
+     * Agrega texto al final de un archivo, en una sola escritura, y espera a que llegue al disco.
+     *
+     * @param rutaArchivo Ruta completa del archivo.
+     * @param contenido Texto a agregar.
+     * @pre rutaArchivo y contenido definidos.
+     * @post El archivo se crea si no existe y termina con el texto especificado, ya guardado
+     *       en el disco.
+     */
+    protected static void agregarArchivo(String rutaArchivo, String contenido) {
+        try (FileOutputStream salida = new FileOutputStream(rutaArchivo, true)) {
+            salida.write(contenido.getBytes(StandardCharsets.UTF_8));
+            salida.getFD().sync();
+        } catch (IOException e) {
+            throw new RuntimeException("Error al agregar al archivo: " + rutaArchivo, e);
+        }
+    }
+
     /**
      * Carga un archivo JSON como cadena de texto.
      *
@@ -5,6 +5,7 @@ import java.util.List;
 import MarketPlace.OfertaMP;
 import MarketPlace.Puja;
 import MarketPlace.marketPlace;
+import Tiquetes.Dinero;
 import Tiquetes.Tiquete;
 
 /**
@@ -66,7 +67,7 @@ public class PersistenciaMarketplace extends PersistenciaJSON {
         json.append("    {\n");
         json.append("      \"idOferta\": ").append(o.getIdOferta()).append(",\n");
         json.append("      \"vendedor\": \"").append(o.getVendedor().getLogin()).append("\",\n");
-        json.append("      \"precioBase\": ").append(o.getPrecioBase()).append(",\n");
+        json.append("      \"precioBase\": ").append(Dinero.formatear(o.getPrecioBaseCentavos())).append(",\n");
         json.append("      \"estado\": \"").append(o.getEstado()).append("\",\n");
         json.append("      \"fechaPublicacion\": \"").append(o.getFechaPublicacion()).append("\",\n");
         json.append("      \"fechaCierre\": ");
@@ -86,7 +87,7 @@ public class PersistenciaMarketplace extends PersistenciaJSON {
             json.append(", \"eventoNombre\": \"").append(t.getEvento().getNombre()).append("\"");
             json.append(", \"localidad\": \"").append(t.getLocalidad().getNombre()).append("\"");
             json.append(", \"dueno\": \"").append(t.getDueno().getLogin()).append("\"");
-            json.append(", \"precio\": ").append(t.getPrecio());
+            json.append(", \"precio\": ").append(Dinero.formatear(t.getPrecioCentavos()));
             json.append(", \"transferible\": ").append(t.isTransferible());
             json.append(", \"usado\": ").append(t.isUsado());
             json.append(", \"reembolsado\": ").append(t.isReembolsado());
@@ -104,7 +105,7 @@ public class PersistenciaMarketplace extends PersistenciaJSON {
             json.append("        {");
             json.append("\"idPuja\": ").append(p.getIdPuja());
             json.append(", \"comprador\": \"").append(p.getComprador().getLogin()).append("\"");
-            json.append(", \"monto\": ").append(p.getMonto());
+            json.append(", \"monto\": ").append(Dinero.formatear(p.getMontoCentavos()));
             json.append(", \"estado\": \"").append(p.getEstado()).append("\"");
             json.append(", \"fechaHora\": \"").append(p.getFechaHora()).append("\"");
             json.append("}");
@@ -29,7 +29,7 @@ public class PersistenciaTiquetes extends PersistenciaJSON {
         for (int i = 0; i < individuales.size(); i++) {
             Individual t = individuales.get(i);
             json.append("    {\"codigo\": \"").append(t.getCodigo())
-                .append("\", \"precio\": ").append(t.getPrecioPagado())
+                .append("\", \"precio\": ").append(Dinero.formatear(t.getPrecioCentavos()))
                 .append(", \"evento\": ").append(t.getEvento().getId())
                 .append(", \"cliente\": \"").append(t.getComprador().getLogin())
                 .append("\", \"usado\": ").append(t.isUsado())
@@ -45,7 +45,7 @@ public class PersistenciaTiquetes extends PersistenciaJSON {
             PaqueteTiquetes p = paquetes.get(i);
             json.append("    {\"id\": ").append(p.getCodigo())
                 .append(", \"tipo\": \"").append(p.getClass().getSimpleName())
-                .append("\", \"precio\": ").append(p.getPrecio())
+                .append("\", \"precio\": ").append(Dinero.formatear(p.getPrecioCentavos()))
                 .append(", \"dueno\": \"").append(p.getDueno().getLogin())
                 .append("\", \"cantidad\": ").append(p.getTiquetesIncluidos().size())
                 .append("}");
@@ -15,28 +15,59 @@ public class Compra {
 	private Cliente dueno;
     private int idCompra;
     private LocalDateTime fechaCompra;
-    private double valorCompra;
+    private long valorCompra;
     private ArrayList<Tiquete> tiquetesComprados;
     private ArrayList<PaqueteTiquetes> paquetesComprados;
-    private static int idActual = 0;
+    private String codigoDescuento;
+    private long descuento;
+    // Códigos de una compra restaurada sin sus tiquetes ni paquetes (ver restaurar).
+    private int[] codigosTiquetes;
+    private int[] codigosPaquetes;
 
     // Ctor
     /**
-     * Crea un registro de compra de Tiquetes.
-     * @param idCompra Identificador de la compra.
+     * Crea un registro de compra de Tiquetes, con un id asignado por el {@link GeneradorIds}.
      * @param fechaCompra Fecha y hora en que se realiza la compra.
-     * @pre idCompra > 0; fechaCompra está definida.
+     * @pre fechaCompra está definida.
      * @post La compra queda creada en estado pendiente o confirmada según la implementación,
      *       con valor total en cero y sin ítems iniciales.
      */
     public Compra(Cliente dueno, ArrayList<Tiquete> tiquetesComprados, ArrayList<PaqueteTiquetes> paquetesComprados, double valorCompra, LocalDateTime fechaCompra) {
         this.dueno = dueno;
-    	this.idCompra = Compra.idActual+1;
+    	this.idCompra = GeneradorIds.getInstance().siguiente(GeneradorIds.COMPRAS);
         this.fechaCompra = fechaCompra;
-        this.valorCompra = valorCompra;
+        this.valorCompra = Dinero.deValor(valorCompra);
         this.tiquetesComprados = tiquetesComprados;
         this.paquetesComprados = paquetesComprados;
     }
+
+    private Compra(Cliente dueno, int idCompra, LocalDateTime fechaCompra, long valorCompra) {
+        this.dueno = dueno;
+        this.idCompra = idCompra;
+        this.fechaCompra = fechaCompra;
+        this.valorCompra = valorCompra;
+        this.tiquetesComprados = new ArrayList<Tiquete>();
+        this.paquetesComprados = new ArrayList<PaqueteTiquetes>();
+    }
+
+    /**
+     * Reconstruye una compra guardada a partir de sus datos, sin pedir un id nuevo ni cargar
+     * sus tiquetes y paquetes, por ejemplo para responder un reintento después de reiniciar.
+     * @param dueno Cliente que hizo la compra.
+     * @param idCompra Identificador original de la compra.
+     * @param fechaCompra Fecha original de la compra.
+     * @param valorCompra Valor total, en centavos.
+     * @param codigosTiquetes Códigos de los tiquetes comprados.
+     * @param codigosPaquetes Códigos de los paquetes comprados.
+     * @return Compra con los mismos datos y códigos, y sin tiquetes ni paquetes.
+     */
+    public static Compra restaurar(Cliente dueno, int idCompra, LocalDateTime fechaCompra, long valorCompra,
+            int[] codigosTiquetes, int[] codigosPaquetes) {
+        Compra c = new Compra(dueno, idCompra, fechaCompra, valorCompra);
+        c.codigosTiquetes = codigosTiquetes.clone();
+        c.codigosPaquetes = codigosPaquetes.clone();
+        return c;
+    }
     
 
     // Setters y Getters
@@ -77,6 +108,14 @@ public class Compra {
      * @return Valor total actual.
      */
     public double getvalorCompra() {
+        return Dinero.aValor(valorCompra);
+    }
+
+    /**
+     * Obtiene el valor total de la compra en centavos.
+     * @return Valor total actual, en centavos.
+     */
+    public long getValorCompraCentavos() {
         return valorCompra;
     }
 
@@ -85,6 +124,14 @@ public class Compra {
      * @param valorTotal Nuevo valor total.
      */
     public void setvalorCompral(double valorCompra) {
+        this.valorCompra = Dinero.deValor(valorCompra);
+    }
+
+    /**
+     * Establece el valor total de la compra en centavos.
+     * @param valorCompra Nuevo valor total, en centavos.
+     */
+    public void setValorCompraCentavos(long valorCompra) {
         this.valorCompra = valorCompra;
     }
 
@@ -128,6 +175,62 @@ public class Compra {
     	this.dueno = dueno;
     }
 
+    /**
+     * Obtiene el código de descuento canjeado en la compra.
+     * @return Código, o null si la compra no usó ninguno.
+     */
+    public String getCodigoDescuento() {
+        return codigoDescuento;
+    }
+
+    /**
+     * Obtiene el descuento aplicado por el código, ya restado del valor de la compra.
+     * @return Descuento en centavos.
+     */
+    public long getDescuentoCentavos() {
+        return descuento;
+    }
+
+    /**
+     * Registra el código de descuento canjeado en la compra.
+     * @param codigoDescuento Código canjeado.
+     * @param descuento Descuento aplicado, en centavos.
+     */
+    public void setDescuento(String codigoDescuento, long descuento) {
+        this.codigoDescuento = codigoDescuento;
+        this.descuento = descuento;
+    }
+
+    /**
+     * Obtiene los códigos de los tiquetes comprados.
+     * @return Códigos, en orden; los guardados si la compra se restauró.
+     */
+    public int[] getCodigosTiquetes() {
+        if (codigosTiquetes != null) {
+            return codigosTiquetes.clone();
+        }
+        int[] codigos = new int[tiquetesComprados.size()];
+        for (int i = 0; i < codigos.length; i++) {
+            codigos[i] = tiquetesComprados.get(i).id;
+        }
+        return codigos;
+    }
+
+    /**
+     * Obtiene los códigos de los paquetes comprados.
+     * @return Códigos, en orden; los guardados si la compra se restauró.
+     */
+    public int[] getCodigosPaquetes() {
+        if (codigosPaquetes != null) {
+            return codigosPaquetes.clone();
+        }
+        int[] codigos = new int[paquetesComprados.size()];
+        for (int i = 0; i < codigos.length; i++) {
+            codigos[i] = paquetesComprados.get(i).getCodigo();
+        }
+        return codigos;
+    }
+
 
     // Métodos funcionales
 
@@ -18,13 +18,26 @@ public class Deluxe extends PaqueteTiquetes {
     // ==========================
 
     /**
-     * Crea un paquete deluxe.
+     * Crea un paquete deluxe con un id asignado por el {@link GeneradorIds}.
+     *
+     * @param propietario     Cliente propietario.
+     * @param precioPaquete   Precio base del paquete.
+     * @param beneficios      Descripción de beneficios adicionales.
+     * @param tiquetes        Lista de tiquetes que componen el paquete.
+     * @pre Parámetros válidos análogos a los del paquete base;
+     *      la descripción de beneficios es un texto no vacío.
+     * @post El paquete deluxe queda creado y, por política, no es transferible.
+     */
+    public Deluxe(Cliente dueno, double precioPaquete, String beneficios, ArrayList<Tiquete> tiquetes) throws IllegalArgumentException {
+        this(GeneradorIds.getInstance().siguiente(GeneradorIds.PAQUETES), dueno, precioPaquete, beneficios, tiquetes);
+    }
+
+    /**
+     * Crea un paquete deluxe con un id dado.
      *
      * @param id              Identificador del paquete.
      * @param propietario     Cliente propietario.
      * @param precioPaquete   Precio base del paquete.
-     * @param cargoServicio   Cargo de servicio del paquete.
-     * @param cuotaImpresion  Valor de emisión o impresión del paquete.
      * @param beneficios      Descripción de beneficios adicionales.
      * @param tiquetes        Lista de tiquetes que componen el paquete.
      * @pre Parámetros válidos análogos a los del paquete base;
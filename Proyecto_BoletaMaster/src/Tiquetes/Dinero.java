@@ -0,0 +1,143 @@
+package Tiquetes;
+
+/**
+ * Aritmética de dinero en punto fijo.
+ * Los montos se representan como {@code long} en unidades menores (centavos, con
+ * {@link #ESCALA} decimales), así que sumar, restar y multiplicar por cantidades es exacto y no
+ * crea objetos. Los {@code double} solo aparecen en la frontera: al recibir un precio de la
+ * cotización o al mostrar un monto. {@link #deValor(double)} y {@link #aValor(long)} son
+ * inversos exactos para cualquier monto menor a 2^51 centavos.
+ * Las operaciones que podrían desbordar lanzan {@link ArithmeticException} en lugar de dar un
+ * total equivocado.
+ */
+public final class Dinero {
+
+	/** Decimales de la moneda. */
+	public static final int ESCALA = 2;
+
+	/** Unidades menores por unidad de moneda. */
+	public static final long UNIDAD = 100;
+
+	private Dinero() {
+	}
+
+	// Conversión
+
+	/**
+	 * Convierte un valor en unidades de moneda a unidades menores, redondeando al centavo más
+	 * cercano (las mitades se alejan de cero).
+	 *
+	 * @param valor Monto en unidades de moneda.
+	 * @return Monto en centavos.
+	 * @throws ArithmeticException si el valor no es finito o no cabe en un {@code long}.
+	 */
+	public static long deValor(double valor) throws ArithmeticException {
+		double centavos = valor * UNIDAD;
+		if (Double.isNaN(centavos) || Math.abs(centavos) >= 0x1p62) {
+			throw new ArithmeticException("Monto fuera de rango: " + valor + ".");
+		}
+		return redondear(centavos);
+	}
+
+	/**
+	 * Convierte un monto en centavos a unidades de moneda.
+	 *
+	 * @param centavos Monto en centavos.
+	 * @return Monto en unidades de moneda.
+	 */
+	public static double aValor(long centavos) {
+		return centavos / (double) UNIDAD;
+	}
+
+	// Aritmética
+
+	/**
+	 * Suma dos montos.
+	 *
+	 * @throws ArithmeticException si el resultado desborda.
+	 */
+	public static long sumar(long a, long b) throws ArithmeticException {
+		return Math.addExact(a, b);
+	}
+
+	/**
+	 * Resta dos montos.
+	 *
+	 * @throws ArithmeticException si el resultado desborda.
+	 */
+	public static long restar(long a, long b) throws ArithmeticException {
+		return Math.subtractExact(a, b);
+	}
+
+	/**
+	 * Multiplica un monto por una cantidad de unidades.
+	 *
+	 * @throws ArithmeticException si el resultado desborda.
+	 */
+	public static long multiplicar(long monto, int cantidad) throws ArithmeticException {
+		return Math.multiplyExact(monto, (long) cantidad);
+	}
+
+	/**
+	 * Aplica una tasa a un monto (por ejemplo 0.10 para un cargo del 10 %) y redondea al centavo.
+	 *
+	 * @param monto Monto en centavos.
+	 * @param tasa Fracción a aplicar.
+	 * @return Monto por la tasa, en centavos.
+	 * @throws ArithmeticException si la tasa no es finita o el resultado no cabe.
+	 */
+	public static long aplicarTasa(long monto, double tasa) throws ArithmeticException {
+		double resultado = monto * tasa;
+		if (Double.isNaN(resultado) || Math.abs(resultado) >= 0x1p62) {
+			throw new ArithmeticException("Tasa inválida: " + tasa + ".");
+		}
+		return redondear(resultado);
+	}
+
+	/**
+	 * Divide un monto en partes iguales y redondea al centavo (las mitades se alejan de cero).
+	 *
+	 * @param monto Monto en centavos.
+	 * @param partes Número de partes.
+	 * @return Monto de cada parte, en centavos.
+	 * @throws ArithmeticException si partes <= 0.
+	 */
+	public static long dividir(long monto, int partes) throws ArithmeticException {
+		if (partes <= 0) {
+			throw new ArithmeticException("No se puede dividir en " + partes + " partes.");
+		}
+		long cociente = monto / partes;
+		long resto = monto % partes;
+		if (Math.abs(resto) * 2 >= partes) {
+			cociente += Long.signum(monto);
+		}
+		return cociente;
+	}
+
+	// Presentación
+
+	/**
+	 * Formatea un monto con {@link #ESCALA} decimales, sin separadores de miles.
+	 *
+	 * @param centavos Monto en centavos.
+	 * @return Texto como {@code "1234.50"} o {@code "-0.05"}.
+	 */
+	public static String formatear(long centavos) {
+		StringBuilder sb = new StringBuilder(24);
+		if (centavos < 0) {
+			sb.append('-');
+		}
+		long absoluto = Math.abs(centavos);
+		sb.append(absoluto / UNIDAD).append('.');
+		long fraccion = absoluto % UNIDAD;
+		if (fraccion < 10) {
+			sb.append('0');
+		}
+		return sb.append(fraccion).toString();
+	}
+
+	private static long redondear(double centavos) {
+		// Math.round redondea las mitades hacia +infinito; aquí se alejan de cero en ambos signos.
+		return centavos < 0 ? -Math.round(-centavos) : Math.round(centavos);
+	}
+}
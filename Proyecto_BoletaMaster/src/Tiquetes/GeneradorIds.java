@@ -0,0 +1,209 @@
+package Tiquetes;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Asigna los ids de las compras, tiquetes, paquetes, ofertas y pujas del marketplace. Cada
+ * tipo tiene su propia secuencia.
+ * Las secuencias se reparten por bloques: cada secuencia tiene varias franjas, cada hilo usa
+ * la franja que le corresponde y cada franja toma de la secuencia un bloque de
+ * {@code tamanoBloque} ids consecutivos, que entrega uno a uno con una operación corta sobre
+ * la franja. Solo al tomar un bloque se toca la marca de la secuencia (el primer id que nunca
+ * se ha entregado) y se avisa para guardarla; al reiniciar, las secuencias siguen desde la
+ * marca guardada, así que un id nunca se repite aunque queden ids sin usar en los bloques que
+ * había tomados. Los ids crecen con el tiempo: dos ids entregados con más de unos pocos
+ * bloques de distancia están en el orden en que se entregaron.
+ * Las secuencias empiezan en {@value #INICIO} para no chocar con los códigos que se asignaban
+ * a mano.
+ */
+public final class GeneradorIds {
+
+	public static final String COMPRAS = "Compras";
+	public static final String TIQUETES = "Tiquetes";
+	public static final String PAQUETES = "Paquetes";
+	public static final String OFERTAS_MP = "OfertasMP";
+	public static final String PUJAS = "Pujas";
+
+	public static final int INICIO = 1_000_000;
+	public static final int TAMANO_BLOQUE = 256;
+
+	// Atributos
+	private static GeneradorIds instance;
+	private final int tamanoBloque;
+	private final int mascaraFranjas;
+	private final Map<String, Secuencia> secuencias;
+	private volatile Consumer<GeneradorIds> alReservar;
+
+	// Ctor
+
+	/**
+	 * Crea un generador sin secuencias usadas.
+	 *
+	 * @param tamanoBloque Ids que toma cada franja a la vez.
+	 * @pre tamanoBloque > 0.
+	 */
+	public GeneradorIds(int tamanoBloque) {
+		if (tamanoBloque <= 0) {
+			throw new IllegalArgumentException("El tamaño del bloque de ids debe ser positivo.");
+		}
+		this.tamanoBloque = tamanoBloque;
+		int franjas = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) * 2;
+		this.mascaraFranjas = franjas - 1;
+		this.secuencias = new ConcurrentHashMap<String, Secuencia>();
+	}
+
+	/**
+	 * Obtiene el generador de la aplicación.
+	 *
+	 * @return Instancia única, con bloques de {@value #TAMANO_BLOQUE} ids.
+	 */
+	public static synchronized GeneradorIds getInstance() {
+		if (instance == null) {
+			instance = new GeneradorIds(TAMANO_BLOQUE);
+		}
+		return instance;
+	}
+
+	// Getters y Setters
+
+	/**
+	 * Obtiene la marca de cada secuencia usada.
+	 *
+	 * @return Primer id nunca entregado de cada secuencia, de solo lectura.
+	 */
+	public Map<String, Long> getMarcas() {
+		Map<String, Long> marcas = new LinkedHashMap<String, Long>();
+		for (Map.Entry<String, Secuencia> e : secuencias.entrySet()) {
+			marcas.put(e.getKey(), e.getValue().getMarca());
+		}
+		return Collections.unmodifiableMap(marcas);
+	}
+
+	/**
+	 * Define qué hacer cada vez que una secuencia toma un bloque, normalmente guardar las
+	 * marcas (por ejemplo con {@code Persistencia.PersistenciaIds::guardarMarcas}). Se llama
+	 * antes de entregar el primer id del bloque, con un solo aviso a la vez.
+	 *
+	 * @param alReservar Acción a ejecutar, o {@code null} para no hacer nada.
+	 */
+	public void setAlReservar(Consumer<GeneradorIds> alReservar) {
+		this.alReservar = alReservar;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Entrega el siguiente id de una secuencia.
+	 *
+	 * @param secuencia Nombre de la secuencia, por ejemplo {@link #COMPRAS}.
+	 * @return Id que no se ha entregado antes en la secuencia.
+	 * @throws IllegalArgumentException si el nombre es nulo o vacío.
+	 * @throws IllegalStateException si la secuencia se agotó.
+	 */
+	public int siguiente(String secuencia) throws IllegalArgumentException, IllegalStateException {
+		return secuencia(secuencia).siguiente((int) Thread.currentThread().threadId() & mascaraFranjas);
+	}
+
+	/**
+	 * Avanza una secuencia hasta una marca guardada, por ejemplo al reiniciar.
+	 *
+	 * @param secuencia Nombre de la secuencia.
+	 * @param marca Primer id que no se había entregado.
+	 * @throws IllegalArgumentException si el nombre es inválido o la marca no cabe en un id.
+	 * @post Los ids siguientes son mayores o iguales a la marca; una marca menor a la actual no
+	 *       cambia nada.
+	 */
+	public void restaurarMarca(String secuencia, long marca) throws IllegalArgumentException {
+		if (marca > (long) Integer.MAX_VALUE + 1) {
+			throw new IllegalArgumentException("Marca de ids inválida: " + marca + ".");
+		}
+		secuencia(secuencia).avanzar(marca);
+	}
+
+	private Secuencia secuencia(String nombre) throws IllegalArgumentException {
+		if (nombre == null || nombre.isBlank()) {
+			throw new IllegalArgumentException("Nombre de secuencia inválido.");
+		}
+		Secuencia s = secuencias.get(nombre);
+		return s != null ? s : secuencias.computeIfAbsent(nombre, n -> new Secuencia(mascaraFranjas + 1));
+	}
+
+	private void avisar() {
+		Consumer<GeneradorIds> accion = alReservar;
+		if (accion != null) {
+			// Un aviso a la vez: cada uno lee las marcas después de que subieron, así que el
+			// último en escribir nunca guarda una marca menor que la de uno anterior.
+			synchronized (this) {
+				accion.accept(this);
+			}
+		}
+	}
+
+	/**
+	 * Secuencia de ids con sus franjas.
+	 */
+	private final class Secuencia {
+		private long marca = INICIO;
+		private final Franja[] franjas;
+
+		Secuencia(int cantidadFranjas) {
+			this.franjas = new Franja[cantidadFranjas];
+			for (int i = 0; i < cantidadFranjas; i++) {
+				franjas[i] = new Franja();
+			}
+		}
+
+		synchronized long getMarca() {
+			return marca;
+		}
+
+		void avanzar(long nueva) {
+			synchronized (this) {
+				marca = Math.max(marca, nueva);
+			}
+			// Descarta los bloques tomados antes con ids menores a la marca.
+			for (Franja f : franjas) {
+				synchronized (f) {
+					if (f.siguiente < nueva) {
+						f.siguiente = 0;
+						f.fin = 0;
+					}
+				}
+			}
+		}
+
+		private synchronized long reservar() throws IllegalStateException {
+			if (marca + tamanoBloque > (long) Integer.MAX_VALUE + 1) {
+				throw new IllegalStateException("Se agotaron los ids de la secuencia.");
+			}
+			long inicio = marca;
+			marca += tamanoBloque;
+			return inicio;
+		}
+
+		int siguiente(int franja) throws IllegalStateException {
+			Franja f = franjas[franja];
+			synchronized (f) {
+				if (f.siguiente == f.fin) {
+					long inicio = reservar();
+					avisar();
+					f.siguiente = inicio;
+					f.fin = inicio + tamanoBloque;
+				}
+				return (int) f.siguiente++;
+			}
+		}
+	}
+
+	/**
+	 * Bloque de ids que entrega una franja.
+	 */
+	private static final class Franja {
+		private long siguiente;
+		private long fin;
+	}
+}
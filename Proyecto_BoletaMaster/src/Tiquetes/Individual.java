@@ -27,6 +27,22 @@ public class Individual extends Tiquete{
 		super(codigo, precio, evento, localidad, dueno, transferible);
 		this.numeroAsiento = numeroAsiento;
 	}
+
+    /**
+     * Crea un nuevo tiquete individual con un código asignado por el {@link GeneradorIds}.
+     *
+     * @param precio Precio pagado por el cliente.
+     * @param evento Evento al que pertenece el tiquete.
+     * @param localidad Localidad asignada dentro del evento.
+     * @param dueno Cliente que es dueno del tiquete.
+     * @pre precio ≥ 0; evento, localidad y Cliente definidos.
+     * @post Se crea un tiquete individual sin usar ni reembolsar, con un código que ningún otro
+     *       tiquete tiene.
+     */
+	public Individual(double precio, Evento evento, Localidad localidad, Cliente dueno, boolean transferible, int numeroAsiento) {
+		this(GeneradorIds.getInstance().siguiente(GeneradorIds.TIQUETES), precio, evento, localidad, dueno, transferible,
+				numeroAsiento);
+	}
 	
 	// Getters y Setters
 
@@ -75,7 +91,7 @@ public class Individual extends Tiquete{
      * @return precio del tiquete
      */
     public double getPrecioPagado() {
-        return precio;
+        return Dinero.aValor(precio);
     }
 
     /**
@@ -85,7 +101,7 @@ public class Individual extends Tiquete{
      * @pre Valor del tiquete es mayor que 0 y está compuesto por el precio base, cargo por servicio y cuota de emisión
      */
     public void setPrecioPagado(double precio) {
-        this.precio = precio;
+        this.precio = Dinero.deValor(precio);
     }
 
     /** 
@@ -104,7 +120,7 @@ public class Individual extends Tiquete{
      * @post Se actualiza el estado del tiquete y el dueño
      */
     public void setComprador(Cliente cliente) {
-        this.dueno = cliente;
+        setDueno(cliente);
     }
 	
 	// Métodos funcionales
@@ -37,6 +37,19 @@ public class Multiple extends PaqueteTiquetes {
         this.cantidad = tiquetes.size();
     }
 
+    /**
+     * Crea un paquete múltiple con un id asignado por el {@link GeneradorIds}.
+     *
+     * @param dueno           Cliente propietario del paquete.
+     * @param precioPaquete   Precio base total del paquete.
+     * @param tiquetes        Lista de tiquetes que componen el paquete.
+     * @pre dueno definido, precioPaquete ≥ 0, lista de tiquetes no vacía.
+     * @post El paquete múltiple queda creado con un id que ningún otro paquete tiene.
+     */
+    public Multiple(Cliente dueno, double precioPaquete, ArrayList<Tiquete> tiquetes) {
+        this(GeneradorIds.getInstance().siguiente(GeneradorIds.PAQUETES), dueno, precioPaquete, tiquetes);
+    }
+
     // Métodos funcionales
 
     /**
@@ -6,17 +6,20 @@ import Usuarios.*;
  * Clase abstracta que representa un paquete de tiquetes en el sistema BoletaMaster.
  * Agrupa múltiples tiquetes individuales que comparten un mismo comprador y condiciones comunes.
  * Sirve como clase base para {@link PaqueteMultiple}, {@link PaseTemporada} y {@link PaqueteDeluxe}.
+ * Como en {@link Tiquete}, los montos se guardan en centavos.
  */
 public abstract class PaqueteTiquetes{
 	// Atributos 
     protected int id;
-	protected double precio;
-	protected double cargoServicio;
-	protected double cuotaImpresion;
+	protected long precio;
+	protected long cargoServicio;
+	protected long cuotaImpresion;
 	protected Cliente dueno;
 	protected ArrayList<Tiquete> tiquetesIncluidos;	
 	protected boolean isTransferible;
 	protected String estado;
+	protected long versionTarifas;
+	protected boolean precioCerrado;
 	//Ctor
 	
     /**
@@ -31,11 +34,11 @@ public abstract class PaqueteTiquetes{
      * @post Se crea un paquete vacío, sin tiquetes individuales asignados.
      */
 	public PaqueteTiquetes(int id,double precio, Cliente dueno, ArrayList<Tiquete> tiquetesIncluidos) {
-		this.precio = precio;
-		this.cargoServicio = precio*(1 + tiquetesIncluidos.getFirst().getCargoServicio());
-		this.cuotaImpresion = (tiquetesIncluidos.getFirst().evento.getAdmin().getCuotaEmisionGlobal()) * tiquetesIncluidos.size();
+		this.id = id;
+		this.precio = Dinero.deValor(precio);
 		this.dueno = dueno;
 		this.tiquetesIncluidos = tiquetesIncluidos;
+		cobrarTarifas(tiquetesIncluidos.getFirst().evento.getTarifas());
 		estado = "Activo";
 		this.isTransferible = true;
 	}
@@ -67,6 +70,15 @@ public abstract class PaqueteTiquetes{
      * @return Precio actual del paquete.
      */
     public double getPrecio() {
+        return Dinero.aValor(precio);
+    }
+
+    /**
+     * Obtiene el precio total del paquete en centavos.
+     *
+     * @return Precio actual del paquete, en centavos.
+     */
+    public long getPrecioCentavos() {
         return precio;
     }
 
@@ -78,7 +90,7 @@ public abstract class PaqueteTiquetes{
      * @post Se actualiza el precio del paquete.
      */
     public void setPrecio(double precio) {
-        this.precio = precio;
+        this.precio = Dinero.deValor(precio);
     }
 
     /**
@@ -87,6 +99,15 @@ public abstract class PaqueteTiquetes{
      * @return Cargo de servicio actual.
      */
     public double getCargoServicio() {
+        return Dinero.aValor(cargoServicio);
+    }
+
+    /**
+     * Obtiene el cargo por servicio aplicado al paquete en centavos.
+     *
+     * @return Cargo de servicio actual, en centavos.
+     */
+    public long getCargoServicioCentavos() {
         return cargoServicio;
     }
 
@@ -98,7 +119,7 @@ public abstract class PaqueteTiquetes{
      * @post Se actualiza el cargo de servicio.
      */
     public void setCargoServicio(double cargoServicio) {
-        this.cargoServicio = cargoServicio;
+        this.cargoServicio = Dinero.deValor(cargoServicio);
     }
 
     /**
@@ -107,6 +128,15 @@ public abstract class PaqueteTiquetes{
      * @return Cuota de impresión actual.
      */
     public double getCuotaImpresion() {
+        return Dinero.aValor(cuotaImpresion);
+    }
+
+    /**
+     * Obtiene la cuota de impresión del paquete en centavos.
+     *
+     * @return Cuota de impresión actual, en centavos.
+     */
+    public long getCuotaImpresionCentavos() {
         return cuotaImpresion;
     }
 
@@ -118,7 +148,7 @@ public abstract class PaqueteTiquetes{
      * @post Se actualiza la cuota de impresión del paquete.
      */
     public void setCuotaImpresion(double cuotaImpresion) {
-        this.cuotaImpresion = cuotaImpresion;
+        this.cuotaImpresion = Dinero.deValor(cuotaImpresion);
     }
 
     /**
@@ -131,14 +161,19 @@ public abstract class PaqueteTiquetes{
     }
 
     /**
-     * Establece el propietario del paquete.
+     * Establece el propietario del paquete. Si el paquete estaba entre los paquetes del dueño
+     * anterior (ver {@link Cliente#getPaquetesPropios()}), pasa a los del nuevo dueño.
      *
      * @param dueno Nuevo cliente propietario.
      * @pre dueno definido.
      * @post Se actualiza el dueño del paquete.
      */
     public void setDueno(Cliente dueno) {
+        Cliente anterior = this.dueno;
         this.dueno = dueno;
+        if (anterior != null && anterior != dueno && anterior.getPaquetesPropios().quitar(this) && dueno != null) {
+            dueno.getPaquetesPropios().agregar(this);
+        }
     }
     
     /**
@@ -225,7 +260,75 @@ public abstract class PaqueteTiquetes{
      * @post No modifica el estado del paquete.
      */
     public double calcularCostoTotal() {
-        return precio + cargoServicio + cuotaImpresion;
+        return Dinero.aValor(calcularCostoTotalCentavos());
+    }
+
+    /**
+     * Calcula el costo total del paquete en centavos, de forma exacta.
+     *
+     * @return Suma de precio, cargo de servicio y cuota de impresión, en centavos.
+     * @post No modifica el estado del paquete.
+     */
+    public synchronized long calcularCostoTotalCentavos() {
+        return Dinero.sumar(Dinero.sumar(precio, cargoServicio), cuotaImpresion);
+    }
+
+    /**
+     * Obtiene la versión de tarifas con la que se calcularon los cargos del paquete.
+     *
+     * @return Versión de {@link TarifasServicio}.
+     */
+    public synchronized long getVersionTarifas() {
+        return versionTarifas;
+    }
+
+    /**
+     * Recalcula los cargos del paquete y de sus tiquetes con tarifas más nuevas, si el precio
+     * del paquete sigue abierto.
+     *
+     * @param tarifas Tarifas a aplicar.
+     * @return {@code true} si los cargos del paquete cambiaron de versión.
+     * @post Si el precio está cerrado o las tarifas no son más nuevas, no cambia nada.
+     */
+    public synchronized boolean aplicarTarifas(TarifasServicio tarifas) {
+        if (precioCerrado || tarifas.getVersion() <= versionTarifas) {
+            return false;
+        }
+        cobrarTarifas(tarifas);
+        for (Tiquete t : tiquetesIncluidos) {
+            t.aplicarTarifas(tarifas);
+        }
+        return true;
+    }
+
+    /**
+     * Cierra el precio del paquete si estaba abierto. La compra lo usa para apartar el paquete:
+     * si ya estaba cerrado, el paquete está en otra compra o ya se compró.
+     *
+     * @return {@code true} si el precio estaba abierto y quedó cerrado.
+     */
+    public synchronized boolean cerrarPrecio() {
+        if (precioCerrado) {
+            return false;
+        }
+        precioCerrado = true;
+        return true;
+    }
+
+    /**
+     * Cierra o reabre el precio del paquete; ver {@link Tiquete#setPrecioCerrado(boolean)}.
+     *
+     * @param cerrado {@code true} para cerrar el precio.
+     */
+    public synchronized void setPrecioCerrado(boolean cerrado) {
+        this.precioCerrado = cerrado;
+    }
+
+    private void cobrarTarifas(TarifasServicio tarifas) {
+        String tipoEvento = tiquetesIncluidos.getFirst().evento.getTipoEvento();
+        this.cargoServicio = tarifas.calcularCargoCentavos(tipoEvento, precio);
+        this.cuotaImpresion = Dinero.multiplicar(tarifas.getCuotaEmisionCentavos(), tiquetesIncluidos.size());
+        this.versionTarifas = tarifas.getVersion();
     }
 
     /**
@@ -257,11 +360,11 @@ public abstract class PaqueteTiquetes{
     public double calcularValorPromedio() {
         if (tiquetesIncluidos.isEmpty())
             return 0;
-        int total = 0;
+        long total = 0;
         for (Tiquete t : tiquetesIncluidos) {
-            total += t.getPrecio();
+            total = Dinero.sumar(total, t.getPrecioCentavos());
         }
-        return (double) total / tiquetesIncluidos.size();
+        return Dinero.aValor(Dinero.dividir(total, tiquetesIncluidos.size()));
     }
 
 	
@@ -34,6 +34,20 @@ public class PaseTemporada extends PaqueteTiquetes{
         this.tiquetesIncluidos = tiquetes;
     }
 
+    /**
+     * Crea un pase de temporada con un id asignado por el {@link GeneradorIds}.
+     *
+     * @param dueno           Cliente propietario.
+     * @param precioPaquete   Precio base del pase.
+     * @param eventosValidos  Lista de eventos a los que aplica el pase.
+     * @param tiquetes        Lista de tiquetes que componen el pase.
+     * @pre Parámetros válidos análogos a los del paquete base.
+     * @post El pase de temporada queda creado con un id que ningún otro paquete tiene.
+     */
+    public PaseTemporada(Cliente dueno, double precioPaquete, ArrayList<Evento> eventosValidos, ArrayList<Tiquete> tiquetes) {
+        this(GeneradorIds.getInstance().siguiente(GeneradorIds.PAQUETES), dueno, precioPaquete, eventosValidos, tiquetes);
+    }
+
 	// Getters y Setters
 	public ArrayList<Evento> getEventosValidos() {
 		return eventosValidos;
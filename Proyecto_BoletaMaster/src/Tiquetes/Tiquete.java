@@ -5,13 +5,15 @@ import Usuarios.*;
 /**
  * Clase abstracta que representa un tiquete en el sistema BoletaMaster.
  * Define la información y el comportamiento común a todos los tipos de tiquetes.
+ * Los montos se guardan en centavos (ver {@link Dinero}); los getters en {@code double} son
+ * solo una vista para mostrar.
  */
 public abstract class Tiquete{
 	
 	
-	protected double precio;
-	protected double cargoServicio;
-	protected double cuotaImpresion;
+	protected long precio;
+	protected long cargoServicio;
+	protected long cuotaImpresion;
 	protected int id;
 	protected boolean transferible;
 	protected boolean reembolsado;
@@ -20,6 +22,9 @@ public abstract class Tiquete{
 	protected Cliente dueno;
 	protected boolean usado;
 	protected boolean impreso;  
+	protected Retencion retencion;
+	protected long versionTarifas;
+	protected boolean precioCerrado;
 	
 	//Ctor
 	
@@ -38,9 +43,7 @@ public abstract class Tiquete{
      * @post Se crea un tiquete sin usar ni reembolsar.
      */
 	public Tiquete(int id, double precio, Evento evento, Localidad localidad, Cliente dueno, boolean transferible) {
-		this.precio = precio;
-		this.cargoServicio = precio*(1 + evento.getCuotaEvento());
-		this.cuotaImpresion = evento.getAdmin().getCuotaEmisionGlobal();
+		this.precio = Dinero.deValor(precio);
 		this.id = id;
 		this.evento = evento;
 		this.localidad = localidad;
@@ -49,6 +52,7 @@ public abstract class Tiquete{
 		this.usado = false;
 		this.dueno = dueno;
 		this.impreso = false;  
+		cobrarTarifas(evento.getTarifas());
 	}
 
 	// Getters y Setters
@@ -60,6 +64,15 @@ public abstract class Tiquete{
      * @return Precio final pagado.
      */
     public double getPrecio() {
+        return Dinero.aValor(precio);
+    }
+
+    /**
+     * Obtiene el precio pagado por el tiquete en centavos.
+     *
+     * @return Precio final pagado, en centavos.
+     */
+    public long getPrecioCentavos() {
         return precio;
     }
 
@@ -71,7 +84,7 @@ public abstract class Tiquete{
      * @post Se actualiza el valor del precio pagado.
      */
     public void setPrecio(double precio) {
-        this.precio = precio;
+        this.precio = Dinero.deValor(precio);
     }
 
     /**
@@ -80,6 +93,15 @@ public abstract class Tiquete{
      * @return Valor cargo del servicio.
      */
     public double getCargoServicio() {
+        return Dinero.aValor(this.cargoServicio);
+    }
+
+    /**
+     * Obtiene el cargo del servicio en centavos.
+     *
+     * @return Valor cargo del servicio, en centavos.
+     */
+    public long getCargoServicioCentavos() {
         return this.cargoServicio;
     }
 
@@ -91,7 +113,7 @@ public abstract class Tiquete{
      * @post Se actualiza el valor del cargo de servicio.
      */
     public void setCargoServicio(double cargoServicio) {
-        this.cargoServicio = cargoServicio;
+        this.cargoServicio = Dinero.deValor(cargoServicio);
     }
     
     /**
@@ -100,6 +122,15 @@ public abstract class Tiquete{
      * @return Precio de la cuota de impresión.
      */
     public double getCuotaImpresion() {
+        return Dinero.aValor(this.cuotaImpresion);
+    }
+
+    /**
+     * Obtiene la cuota de impresión por el tiquete en centavos.
+     *
+     * @return Cuota de impresión, en centavos.
+     */
+    public long getCuotaImpresionCentavos() {
         return this.cuotaImpresion;
     }
 
@@ -111,7 +142,7 @@ public abstract class Tiquete{
      * @post Se actualiza el valor de la cuota de impresion.
      */
     public void setCuotaImpresion(double cuotaImpresion) {
-        this.cuotaImpresion = cuotaImpresion;
+        this.cuotaImpresion = Dinero.deValor(cuotaImpresion);
     }
     
     /**
@@ -165,10 +196,14 @@ public abstract class Tiquete{
      * Marca el tiquete como reembolsado o no.
      *
      * @param reembolsado Valor booleano que indica si el tiquete fue reembolsado.
-     * @post Actualiza el estado de reembolso del tiquete.
+     * @post Actualiza el estado de reembolso del tiquete; un tiquete reembolsado sale de los
+     *       tiquetes de su dueño.
      */
     public void setReembolsado(boolean reembolsado) {
         this.reembolsado = reembolsado;
+        if (reembolsado && dueno != null) {
+            dueno.getTiquetesPropios().quitar(this);
+        }
     }
 
     /**
@@ -259,17 +294,107 @@ public abstract class Tiquete{
      * @post No modifica el estado del tiquete.
      */
     public double calcularCostoTotal() {
-        return precio + cargoServicio + cuotaImpresion;
+        return Dinero.aValor(calcularCostoTotalCentavos());
+    }
+
+    /**
+     * Calcula el costo total del tiquete en centavos, de forma exacta.
+     *
+     * @return Suma de precio, cargo de servicio y cuota de impresión, en centavos.
+     * @post No modifica el estado del tiquete.
+     */
+    public synchronized long calcularCostoTotalCentavos() {
+        return Dinero.sumar(Dinero.sumar(precio, cargoServicio), cuotaImpresion);
     }
+
     /**
-     * Asigna el dueño del tiquete.
+     * Obtiene la versión de tarifas con la que se calcularon los cargos del tiquete.
+     *
+     * @return Versión de {@link TarifasServicio}.
+     */
+    public synchronized long getVersionTarifas() {
+        return versionTarifas;
+    }
+
+    /**
+     * Recalcula el cargo de servicio y la cuota de impresión con tarifas más nuevas, si el
+     * precio del tiquete sigue abierto.
+     *
+     * @param tarifas Tarifas a aplicar.
+     * @return {@code true} si los cargos cambiaron de versión.
+     * @post Si el precio está cerrado o las tarifas no son más nuevas, no cambia nada.
+     */
+    public synchronized boolean aplicarTarifas(TarifasServicio tarifas) {
+        if (precioCerrado || tarifas.getVersion() <= versionTarifas) {
+            return false;
+        }
+        cobrarTarifas(tarifas);
+        return true;
+    }
+
+    /**
+     * Cierra el precio del tiquete si estaba abierto. La compra lo usa para apartar el tiquete:
+     * si ya estaba cerrado, el tiquete está en otra compra o ya se compró.
+     *
+     * @return {@code true} si el precio estaba abierto y quedó cerrado.
+     */
+    public synchronized boolean cerrarPrecio() {
+        if (precioCerrado) {
+            return false;
+        }
+        precioCerrado = true;
+        return true;
+    }
+
+    /**
+     * Cierra o reabre el precio del tiquete. Una compra lo cierra antes de sumar su total,
+     * para que un repreciado simultáneo no cambie lo que se está cobrando.
+     *
+     * @param cerrado {@code true} para cerrar el precio.
+     * @post Mientras esté cerrado, {@link #aplicarTarifas(TarifasServicio)} no tiene efecto.
+     */
+    public synchronized void setPrecioCerrado(boolean cerrado) {
+        this.precioCerrado = cerrado;
+    }
+
+    private void cobrarTarifas(TarifasServicio tarifas) {
+        this.cargoServicio = tarifas.calcularCargoCentavos(evento.getTipoEvento(), precio);
+        this.cuotaImpresion = tarifas.getCuotaEmisionCentavos();
+        this.versionTarifas = tarifas.getVersion();
+    }
+    /**
+     * Obtiene la retención de asiento asociada al tiquete, si la tiene.
+     *
+     * @return Retención pendiente de confirmar, o {@code null}.
+     */
+    public Retencion getRetencion() {
+        return retencion;
+    }
+
+    /**
+     * Asocia una retención de asiento al tiquete para confirmarla al momento de la compra.
+     *
+     * @param retencion Retención activa sobre el asiento del tiquete.
+     * @post El tiquete queda ligado a la retención.
+     */
+    public void setRetencion(Retencion retencion) {
+        this.retencion = retencion;
+    }
+
+    /**
+     * Asigna el dueño del tiquete. Si el tiquete estaba entre los tiquetes del dueño anterior
+     * (ver {@link Cliente#getTiquetesPropios()}), pasa a los del nuevo dueño.
      *
      * @param dueno Cliente que es dueño del tiquete.
      * @pre Cliente definido.
      * @post Se actualiza el dueño asociado.
      */
     public void setDueno(Cliente dueno) {
+        Cliente anterior = this.dueno;
         this.dueno = dueno;
+        if (anterior != null && anterior != dueno && anterior.getTiquetesPropios().quitar(this) && dueno != null) {
+            dueno.getTiquetesPropios().agregar(this);
+        }
     }
 	
 }
@@ -6,21 +6,27 @@ import MarketPlace.marketPlace;
 import Tiquetes.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 
 /**
  * Representa a un administrador del sistema BoletaMaster.
  * Se encarga de aprobar venues, abrir o cerrar eventos, establecer cuotas
  * y resolver solicitudes de reembolso.
+ * Las tarifas (cuota de emisión y cargos por tipo de evento) se publican como versiones
+ * inmutables de {@link TarifasServicio}: cada cambio publica una versión nueva, que usan de
+ * inmediato las cotizaciones y tiquetes nuevos. Lo ya cotizado conserva su versión hasta que
+ * un {@link RepreciadorTarifas} lo lleve a la vigente; lo ya comprado no cambia.
  */
 public class Administrador extends Usuario{
 	
     // Atributos 
     protected int id;
-	private double gananciaSobreCargos;
-	private double ventasDia;
-	private double ventasOrganizador;
-	private double cuotaEmisionGlobal;
-	private Map<String, Double> cargosPorTipoEvento;
+	private long gananciaSobreCargos;
+	private long ventasDia;
+	private long ventasOrganizador;
+	private volatile TarifasServicio tarifas;
+	private final Map<Long, TarifasServicio> historialTarifas;
     private Map<Cliente, Tiquete> solicitudesReembolsoTiquete;
     private Map<Cliente, PaqueteTiquetes> solicitudesReembolsoPaquetes;
 	
@@ -39,8 +45,9 @@ public class Administrador extends Usuario{
 		this.setGananciaSobreCargos(0.0);
 		this.setVentasDia(0.0);
 		this.setVentasOrganizador(0.0);
-		this.cuotaEmisionGlobal = 0.0;
-        this.cargosPorTipoEvento = new HashMap<>();
+		this.tarifas = new TarifasServicio(0, 0.0, new HashMap<String, Double>());
+		this.historialTarifas = new ConcurrentHashMap<Long, TarifasServicio>();
+		this.historialTarifas.put(0L, tarifas);
         this.solicitudesReembolsoTiquete = new HashMap<>();
         this.solicitudesReembolsoPaquetes = new HashMap<>();
 	}
@@ -71,6 +78,15 @@ public class Administrador extends Usuario{
      * @return doble
      */
 	public double getVentasOrganizador() {
+		return Dinero.aValor(ventasOrganizador);
+	}
+
+    /**
+     * @pre true
+     * @post retorna ventas organizador en centavos
+     * @return valor en centavos
+     */
+	public long getVentasOrganizadorCentavos() {
 		return ventasOrganizador;
 	}
 
@@ -83,7 +99,7 @@ public class Administrador extends Usuario{
         if (ventasOrganizador < 0) {
         	throw new IllegalArgumentException("Valor inválido.");
         }
-		this.ventasOrganizador = ventasOrganizador;
+		this.ventasOrganizador = Dinero.deValor(ventasOrganizador);
 	}
 
     /**
@@ -92,6 +108,15 @@ public class Administrador extends Usuario{
      * @return valor
      */
 	public double getVentasDia() {
+		return Dinero.aValor(ventasDia);
+	}
+
+    /**
+     * @pre true
+     * @post retorna ventas del día en centavos
+     * @return valor en centavos
+     */
+	public long getVentasDiaCentavos() {
 		return ventasDia;
 	}
 
@@ -104,7 +129,7 @@ public class Administrador extends Usuario{
         if (ventasDia < 0) {
         	throw new IllegalArgumentException("Valor inválido.");
         }
-		this.ventasDia = ventasDia;
+		this.ventasDia = Dinero.deValor(ventasDia);
 	}
 
     /**
@@ -113,6 +138,15 @@ public class Administrador extends Usuario{
      * @return valor
      */
 	public double getGananciaSobreCargos() {
+		return Dinero.aValor(gananciaSobreCargos);
+	}
+
+    /**
+     * @pre true
+     * @post retorna ganancia sobre cargos en centavos
+     * @return valor en centavos
+     */
+	public long getGananciaSobreCargosCentavos() {
 		return gananciaSobreCargos;
 	}
 
@@ -125,7 +159,7 @@ public class Administrador extends Usuario{
         if (gananciaSobreCargos < 0) {
         	throw new IllegalArgumentException("Valor inválido.");
         }
-		this.gananciaSobreCargos = gananciaSobreCargos;
+		this.gananciaSobreCargos = Dinero.deValor(gananciaSobreCargos);
 	}
 
     /**
@@ -134,7 +168,7 @@ public class Administrador extends Usuario{
      * @return cuota
      */
     public double getCuotaEmisionGlobal() { 
-    	return cuotaEmisionGlobal; 
+    	return tarifas.getCuotaEmision(); 
     }
 
     /**
@@ -146,16 +180,16 @@ public class Administrador extends Usuario{
         if (c < 0) {
         	throw new IllegalArgumentException("La cuota no puede ser negativa.");
         }
-        this.cuotaEmisionGlobal = c;
+        publicarTarifas(t -> t.conCuotaEmision(c));
     }
 
     /**
      * @pre true
-     * @post retorna mapa de cargos
+     * @post retorna los cargos vigentes, de solo lectura
      * @return mapa
      */
     public Map<String, Double> getCargosPorTipoEvento() {
-    	return cargosPorTipoEvento; 
+    	return tarifas.getCargosPorTipoEvento(); 
     }
 
     /**
@@ -167,7 +201,52 @@ public class Administrador extends Usuario{
         if (m == null) {
         	throw new IllegalArgumentException("Mapa inválido.");
         }
-        this.cargosPorTipoEvento = m;
+        publicarTarifas(t -> t.conCargos(m));
+    }
+
+    /**
+     * @pre true
+     * @post retorna la versión de tarifas; aumenta con cada cambio de cuota de emisión o
+     *       de cargos por tipo de evento hecho con los métodos del administrador
+     * @return versión
+     */
+    public long getVersionTarifas() {
+    	return tarifas.getVersion();
+    }
+
+    /**
+     * @pre true
+     * @post retorna las tarifas vigentes; la cuota y los cargos leídos de ella son de la misma versión
+     * @return tarifas vigentes
+     */
+    public TarifasServicio getTarifas() {
+    	return tarifas;
+    }
+
+    /**
+     * @pre version fue publicada por este administrador
+     * @post retorna las tarifas de esa versión
+     * @param version versión buscada
+     * @return tarifas de la versión
+     * @throws IllegalArgumentException si la versión no existe
+     */
+    public TarifasServicio getTarifas(long version) throws IllegalArgumentException {
+    	TarifasServicio t = historialTarifas.get(version);
+    	if (t == null) {
+    		throw new IllegalArgumentException("Versión de tarifas inexistente: " + version + ".");
+    	}
+    	return t;
+    }
+
+    /**
+     * Publica una versión nueva de las tarifas a partir de la vigente. Los cambios del
+     * administrador se serializan entre sí (son raros); las lecturas no esperan. La versión
+     * entra al historial antes de publicarse, así que quien la vea puede consultarla.
+     */
+    private synchronized void publicarTarifas(UnaryOperator<TarifasServicio> cambio) {
+    	TarifasServicio nueva = cambio.apply(tarifas);
+    	historialTarifas.put(nueva.getVersion(), nueva);
+    	tarifas = nueva;
     }
 
     /**
@@ -235,7 +314,7 @@ public class Administrador extends Usuario{
         if (cuota < 0) {
         	throw new IllegalArgumentException("La cuota debe ser positiva.");
         }
-        this.cuotaEmisionGlobal = cuota;
+        publicarTarifas(t -> t.conCuotaEmision(cuota));
     }
 
     /**
@@ -251,7 +330,7 @@ public class Administrador extends Usuario{
         if (porcentaje < 0) {
             throw new IllegalArgumentException("Porcentaje inválido.");
         }
-        cargosPorTipoEvento.put(tipoEvento, porcentaje);
+        publicarTarifas(t -> t.conCargo(tipoEvento, porcentaje));
     }
 
     /**
@@ -261,7 +340,7 @@ public class Administrador extends Usuario{
      * @return porcentaje
      */
     public double getCargoServicioParaEvento(String tipoEvento) {
-        return cargosPorTipoEvento.getOrDefault(tipoEvento, 0.0);
+        return tarifas.getCargoServicio(tipoEvento);
     }
 
     /**
@@ -284,7 +363,7 @@ public class Administrador extends Usuario{
     public void aprobarReembolsoPorCalamidadTiquete(Cliente cliente, Tiquete tiquete) {
         
         tiquete.setReembolsado(true);
-        cliente.setSaldo(cliente.getSaldo() + tiquete.calcularCostoTotal());;
+        cliente.abonarSaldo(tiquete.calcularCostoTotalCentavos());
         solicitudesReembolsoTiquete.remove(cliente);
     }
 
@@ -299,17 +378,21 @@ public class Administrador extends Usuario{
 
     /**
      * @pre cliente != null ; paquete != null
-     * @post todos los tiquetes del paquete reembolsados y saldo incrementado
+     * @post todos los tiquetes del paquete reembolsados, el paquete sale de los paquetes de su
+     *       dueño y saldo incrementado
      * @param cliente cliente
      * @param paquete paquete
      */
     public void aprobarReembolsoPorCalamidadPaquete(Cliente cliente, PaqueteTiquetes paquete) {
-    	double precioAReembolsar = 0.0;
+    	long precioAReembolsar = 0;
     	for(Tiquete t: paquete.getTiquetesIncluidos()) {
     		t.setReembolsado(true);
-    		precioAReembolsar += t.calcularCostoTotal();
+    		precioAReembolsar = Dinero.sumar(precioAReembolsar, t.calcularCostoTotalCentavos());
+        }
+        if (paquete.getDueno() != null) {
+        	paquete.getDueno().getPaquetesPropios().quitar(paquete);
         }
-        cliente.setSaldo(cliente.getSaldo() + precioAReembolsar);;
+        cliente.abonarSaldo(precioAReembolsar);
         solicitudesReembolsoTiquete.remove(cliente);
     }
 
@@ -0,0 +1,327 @@
+package Usuarios;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import Eventos.Retencion;
+import Eventos.RuedaTemporizadora;
+import Tiquetes.Dinero;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+/**
+ * Carrito de un cliente guardado en el {@link ServicioCarritos}. Cada tiquete o paquete del
+ * carrito queda ligado a la retención de sus asientos (si la tiene): al quitarlo, vaciar el
+ * carrito o dejarlo vencer, la retención se libera.
+ * El total es la suma del costo total (precio y cargos) de cada elemento, antes de códigos de
+ * descuento: lo mismo que cobra la compra. Se actualiza al agregar o quitar cada elemento, sin
+ * recorrer el carrito; como el {@link Eventos.RepreciadorTarifas} puede cambiar el costo de un
+ * elemento que ya está en el carrito, al consultar el total y antes de pagar se compara el
+ * costo actual de cada elemento con el monto que sumó y se ajusta solo la diferencia.
+ * Los cambios se hacen por medio del servicio; el carrito solo expone consultas.
+ */
+public class Carrito {
+
+	public static final String ABIERTO = "Abierto";
+	public static final String PAGANDO = "Pagando";
+	public static final String PAGADO = "Pagado";
+	public static final String VACIADO = "Vaciado";
+	public static final String EXPIRADO = "Expirado";
+
+	// Atributos
+	private final Cliente cliente;
+	private ArrayList<Tiquete> tiquetes;
+	private ArrayList<PaqueteTiquetes> paquetes;
+	private long totalCentavos;
+	// Monto que sumó cada elemento al total, por identidad.
+	private IdentityHashMap<Object, Long> montos;
+	private long ultimaActividad;
+	private String estado;
+	private RuedaTemporizadora.Entrada<Carrito> entrada;
+
+	// Ctor
+
+	/**
+	 * Crea un carrito abierto y vacío.
+	 *
+	 * @param cliente Dueño del carrito.
+	 * @param ahora Instante de creación en milisegundos.
+	 * @pre cliente != null.
+	 */
+	Carrito(Cliente cliente, long ahora) {
+		this.cliente = cliente;
+		this.ultimaActividad = ahora;
+		this.estado = ABIERTO;
+	}
+
+	// Getters
+
+	public Cliente getCliente() {
+		return cliente;
+	}
+
+	/**
+	 * Obtiene los tiquetes sueltos del carrito.
+	 *
+	 * @return Copia de los tiquetes, en el orden en que se agregaron.
+	 */
+	public synchronized ArrayList<Tiquete> getTiquetes() {
+		return tiquetes == null ? new ArrayList<Tiquete>() : new ArrayList<Tiquete>(tiquetes);
+	}
+
+	/**
+	 * Obtiene los paquetes del carrito.
+	 *
+	 * @return Copia de los paquetes, en el orden en que se agregaron.
+	 */
+	public synchronized ArrayList<PaqueteTiquetes> getPaquetes() {
+		return paquetes == null ? new ArrayList<PaqueteTiquetes>() : new ArrayList<PaqueteTiquetes>(paquetes);
+	}
+
+	/**
+	 * Obtiene cuántos tiquetes sueltos y paquetes tiene el carrito.
+	 *
+	 * @return Número de elementos.
+	 */
+	public synchronized int getCantidadElementos() {
+		return (tiquetes == null ? 0 : tiquetes.size()) + (paquetes == null ? 0 : paquetes.size());
+	}
+
+	/**
+	 * Obtiene el total del carrito en centavos, con el costo actual de cada elemento.
+	 *
+	 * @return Suma del costo total de los elementos.
+	 */
+	public synchronized long getTotalCentavos() {
+		actualizarMontos();
+		return totalCentavos;
+	}
+
+	/**
+	 * Obtiene el total del carrito.
+	 *
+	 * @return Suma del costo total de los elementos.
+	 */
+	public double getTotal() {
+		return Dinero.aValor(getTotalCentavos());
+	}
+
+	/**
+	 * Obtiene el instante del último cambio del carrito.
+	 *
+	 * @return Milisegundos según el reloj del servicio.
+	 */
+	public synchronized long getUltimaActividad() {
+		return ultimaActividad;
+	}
+
+	/**
+	 * Obtiene el estado del carrito.
+	 *
+	 * @return {@link #ABIERTO}, {@link #PAGANDO}, {@link #PAGADO}, {@link #VACIADO} o
+	 *         {@link #EXPIRADO}.
+	 */
+	public synchronized String getEstado() {
+		return estado;
+	}
+
+	// Métodos de uso interno del paquete; se llaman con el monitor del carrito tomado.
+
+	boolean isAbierto() {
+		return estado == ABIERTO;
+	}
+
+	boolean isCerrado() {
+		return estado == PAGADO || estado == VACIADO || estado == EXPIRADO;
+	}
+
+	boolean isVacio() {
+		return getCantidadElementos() == 0;
+	}
+
+	void setEstado(String estado) {
+		this.estado = estado;
+	}
+
+	void tocar(long ahora) {
+		ultimaActividad = ahora;
+	}
+
+	RuedaTemporizadora.Entrada<Carrito> getEntrada() {
+		return entrada;
+	}
+
+	void setEntrada(RuedaTemporizadora.Entrada<Carrito> entrada) {
+		this.entrada = entrada;
+	}
+
+	boolean agregar(Tiquete t) {
+		if (tiquetes == null) {
+			tiquetes = new ArrayList<Tiquete>(2);
+		} else if (contiene(tiquetes, t)) {
+			return false;
+		}
+		tiquetes.add(t);
+		sumarMonto(t, t.calcularCostoTotalCentavos());
+		return true;
+	}
+
+	boolean agregar(PaqueteTiquetes p) {
+		if (paquetes == null) {
+			paquetes = new ArrayList<PaqueteTiquetes>(1);
+		} else if (contiene(paquetes, p)) {
+			return false;
+		}
+		paquetes.add(p);
+		sumarMonto(p, p.calcularCostoTotalCentavos());
+		return true;
+	}
+
+	boolean quitar(Tiquete t) {
+		if (tiquetes == null || !quitarIdentico(tiquetes, t)) {
+			return false;
+		}
+		restarMonto(t);
+		liberar(t.getRetencion());
+		return true;
+	}
+
+	boolean quitar(PaqueteTiquetes p) {
+		if (paquetes == null || !quitarIdentico(paquetes, p)) {
+			return false;
+		}
+		restarMonto(p);
+		liberarRetenciones(p.getTiquetesIncluidos());
+		return true;
+	}
+
+	/**
+	 * Quita los elementos cuya retención ya no está activa (venció o se liberó por fuera).
+	 *
+	 * @return Número de elementos quitados.
+	 */
+	int quitarSinRetencion() {
+		int quitados = 0;
+		if (tiquetes != null) {
+			for (int i = tiquetes.size() - 1; i >= 0; i--) {
+				Tiquete t = tiquetes.get(i);
+				if (retencionTerminada(t)) {
+					tiquetes.remove(i);
+					restarMonto(t);
+					quitados++;
+				}
+			}
+		}
+		if (paquetes != null) {
+			for (int i = paquetes.size() - 1; i >= 0; i--) {
+				PaqueteTiquetes p = paquetes.get(i);
+				boolean terminada = false;
+				for (Tiquete t : p.getTiquetesIncluidos()) {
+					terminada |= retencionTerminada(t);
+				}
+				if (terminada) {
+					paquetes.remove(i);
+					restarMonto(p);
+					liberarRetenciones(p.getTiquetesIncluidos());
+					quitados++;
+				}
+			}
+		}
+		return quitados;
+	}
+
+	/**
+	 * Ajusta el total con el costo actual de los elementos que se repreciaron.
+	 */
+	void actualizarMontos() {
+		if (tiquetes != null) {
+			for (Tiquete t : tiquetes) {
+				ajustarMonto(t, t.calcularCostoTotalCentavos());
+			}
+		}
+		if (paquetes != null) {
+			for (PaqueteTiquetes p : paquetes) {
+				ajustarMonto(p, p.calcularCostoTotalCentavos());
+			}
+		}
+	}
+
+	/**
+	 * Libera las retenciones de todos los elementos y deja el carrito vacío.
+	 */
+	void vaciar() {
+		if (tiquetes != null) {
+			liberarRetenciones(tiquetes);
+		}
+		if (paquetes != null) {
+			for (PaqueteTiquetes p : paquetes) {
+				liberarRetenciones(p.getTiquetesIncluidos());
+			}
+		}
+		tiquetes = null;
+		paquetes = null;
+		montos = null;
+		totalCentavos = 0;
+	}
+
+	private void sumarMonto(Object elemento, long monto) {
+		if (montos == null) {
+			montos = new IdentityHashMap<Object, Long>();
+		}
+		montos.put(elemento, monto);
+		totalCentavos = Dinero.sumar(totalCentavos, monto);
+	}
+
+	private void ajustarMonto(Object elemento, long actual) {
+		long previo = montos.get(elemento);
+		if (previo != actual) {
+			montos.put(elemento, actual);
+			totalCentavos = Dinero.sumar(Dinero.restar(totalCentavos, previo), actual);
+		}
+	}
+
+	private void restarMonto(Object elemento) {
+		totalCentavos = Dinero.restar(totalCentavos, montos.remove(elemento));
+	}
+
+	private static boolean retencionTerminada(Tiquete t) {
+		return t.getRetencion() != null && !t.getRetencion().estaActiva();
+	}
+
+	private static void liberarRetenciones(ArrayList<Tiquete> ts) {
+		// Los tiquetes de una misma localidad comparten retención; se libera una sola vez.
+		Set<Retencion> vistas = Collections.newSetFromMap(new IdentityHashMap<Retencion, Boolean>());
+		for (Tiquete t : ts) {
+			if (t.getRetencion() != null && vistas.add(t.getRetencion())) {
+				liberar(t.getRetencion());
+			}
+		}
+	}
+
+	private static void liberar(Retencion r) {
+		if (r != null) {
+			r.getGestor().liberar(r);
+		}
+	}
+
+	private static <T> boolean contiene(ArrayList<T> lista, T elemento) {
+		for (T e : lista) {
+			if (e == elemento) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static <T> boolean quitarIdentico(ArrayList<T> lista, T elemento) {
+		for (int i = 0; i < lista.size(); i++) {
+			if (lista.get(i) == elemento) {
+				lista.remove(i);
+				return true;
+			}
+		}
+		return false;
+	}
+}
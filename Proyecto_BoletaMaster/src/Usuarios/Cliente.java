@@ -11,13 +11,18 @@ import MarketPlace.marketPlace;
 /**
  * Representa a un cliente del sistema BoletaMaster.
  * Un cliente puede comprar tiquetes, solicitar reembolsos y transferir entradas.
+ * El saldo se lleva en centavos (ver {@link Dinero}) para que compras, pujas y reembolsos
+ * cuadren al centavo.
  */
 public class Cliente extends Usuario{
 	
 	// Atributos 
-	private double saldo;
+	private long saldo;
 	private ArrayList<Compra> compras; 
     protected int id;
+    private final IndicePropietario<Tiquete> tiquetesPropios;
+    private final IndicePropietario<PaqueteTiquetes> paquetesPropios;
+    private final Map<Evento, String> tokensSalaEspera;
 	
 	// Constructor
 	
@@ -34,6 +39,9 @@ public class Cliente extends Usuario{
 		this.setSaldo(0.0);
 		this.compras = new ArrayList<Compra>();
 		this.id = id;
+		this.tiquetesPropios = new IndicePropietario<Tiquete>();
+		this.paquetesPropios = new IndicePropietario<PaqueteTiquetes>();
+		this.tokensSalaEspera = new HashMap<Evento, String>();
 	}
 
 	// Getters y Setters
@@ -61,7 +69,16 @@ public class Cliente extends Usuario{
      * @post Se retorna el saldo actual
      * @return saldo
      */
-	public double getSaldo() {
+	public synchronized double getSaldo() {
+		return Dinero.aValor(saldo);
+	}
+
+    /**
+     * @pre true
+     * @post Se retorna el saldo actual en centavos
+     * @return saldo en centavos
+     */
+	public synchronized long getSaldoCentavos() {
 		return saldo;
 	}
 
@@ -70,13 +87,52 @@ public class Cliente extends Usuario{
      * @post El saldo queda actualizado
      * @param saldo Nuevo saldo
      */
-	public void setSaldo(double saldo) throws IllegalArgumentException  {
+	public synchronized void setSaldo(double saldo) throws IllegalArgumentException  {
         if (saldo < 0) {
         	throw new IllegalArgumentException("El saldo no puede ser negativo.");
         }
-		this.saldo = saldo;
+		this.saldo = Dinero.deValor(saldo);
 	}
 
+    /**
+     * @pre centavos >= 0
+     * @post saldo = saldo + centavos
+     * @param centavos monto a abonar, en centavos
+     */
+    public synchronized void abonarSaldo(long centavos) throws IllegalArgumentException {
+        if (centavos < 0) {
+        	throw new IllegalArgumentException("El monto a abonar no puede ser negativo.");
+        }
+        saldo = Dinero.sumar(saldo, centavos);
+    }
+
+    /**
+     * @pre 0 <= centavos <= saldo
+     * @post saldo = saldo - centavos
+     * @param centavos monto a descontar, en centavos
+     */
+    private synchronized void descontarSaldo(long centavos) throws IllegalArgumentException {
+        if (!debitarSaldo(centavos)) {
+            throw new IllegalArgumentException("Monto inválido o saldo insuficiente.");
+        }
+    }
+
+    /**
+     * @pre true
+     * @post Si 0 <= centavos <= saldo, saldo = saldo - centavos; si no, el saldo no cambia.
+     *       Revisar y descontar es una sola operación, así que dos compras simultáneas no
+     *       pueden gastar el mismo saldo
+     * @param centavos monto a descontar, en centavos
+     * @return true si se descontó
+     */
+    synchronized boolean debitarSaldo(long centavos) {
+        if (centavos < 0 || centavos > saldo) {
+            return false;
+        }
+        saldo -= centavos;
+        return true;
+    }
+
     /**
      * @pre true
      * @post Retorna la lista actual de compras
@@ -88,34 +144,75 @@ public class Cliente extends Usuario{
 
     /**
      * @pre compras != null
-     * @post Se reemplaza la lista de compras
+     * @post Se reemplaza la lista de compras y se reconstruyen los tiquetes y paquetes propios
+     *       con los de esas compras que el cliente aún tiene
      * @param compras nueva lista
      */
-    public void setCompras(ArrayList<Compra> compras) {
+    public synchronized void setCompras(ArrayList<Compra> compras) {
         this.compras = compras;
+        tiquetesPropios.limpiar();
+        paquetesPropios.limpiar();
+        for (Compra c : compras) {
+        	indexarCompra(c);
+        }
+    }
+
+    /**
+     * @pre true
+     * @post Retorna los tiquetes sueltos que el cliente tiene ahora, en el orden en que los
+     *       recibió: los comprados y los recibidos por transferencia o en el marketplace, sin
+     *       los reembolsados ni los que ya entregó
+     * @return índice de tiquetes propios
+     */
+    public IndicePropietario<Tiquete> getTiquetesPropios() {
+        return tiquetesPropios;
+    }
+
+    /**
+     * @pre true
+     * @post Retorna los paquetes que el cliente tiene ahora, en el orden en que los recibió
+     * @return índice de paquetes propios
+     */
+    public IndicePropietario<PaqueteTiquetes> getPaquetesPropios() {
+        return paquetesPropios;
     }
 
     /**
      * @pre compra != null
-     * @post compra agregada a la lista del cliente
+     * @post compra agregada a la lista del cliente y sus tiquetes y paquetes a los propios
      * @param compra objeto de compra
      */
-    public void registrarCompra(Compra compra) {
+    public synchronized void registrarCompra(Compra compra) {
         if (compra != null) {
         	compras.add(compra);
+        	indexarCompra(compra);
         }
     }
 
+    private void indexarCompra(Compra compra) {
+    	for (Tiquete t : compra.getTiquetesComprados()) {
+    		if (t.getDueno() == this && !t.isReembolsado()) {
+    			tiquetesPropios.agregar(t);
+    		}
+    	}
+    	for (PaqueteTiquetes p : compra.getPaquetes()) {
+    		if (p.getDueno() == this) {
+    			paquetesPropios.agregar(p);
+    		}
+    	}
+    }
+
     /**
      * @pre monto > 0 && monto <= saldo
      * @post saldo = saldo - monto
      * @param monto cantidad a descontar
      */
     public void usarSaldoDeReembolso(double monto)throws IllegalArgumentException  {
-        if (monto <= 0 || monto > saldo) {
+        long centavos = Dinero.deValor(monto);
+        if (centavos <= 0) {
             throw new IllegalArgumentException("Monto inválido o saldo insuficiente.");
         }
-        saldo -= monto;
+        descontarSaldo(centavos);
     }
     
     
@@ -140,12 +237,35 @@ public class Cliente extends Usuario{
 
         if (evento.getEstado() != "Activo" || evento.getFecha().isBefore(LocalDateTime.now()))
             throw new IllegalArgumentException("El evento no está disponible para compras.");
+        verificarAdmision(evento);
 
-        Individual tiquete = new Individual(codigo, localidad.getPrecioBase(), evento, localidad, this, true, numeroAsiento);
+        Individual tiquete = new Individual(codigo, cotizar(evento, localidad, Cotizador.INDIVIDUAL), evento, localidad, this, true, numeroAsiento);
         
         return tiquete;
     }
 
+    /**
+     * @pre evento != null ; localidad != null ; localidad.isNumerada()==true ;
+     *      evento.getEstado()=="Activo" ; evento.getFecha().isAfter(now) ; duracionRetencion > 0
+     * @post Se crea un tiquete numerado cuyo asiento queda retenido durante duracionRetencion;
+     *       hacerCompra confirma la retención
+     * @param codigo identificador del tiquete
+     * @param evento evento asociado
+     * @param localidad localidad numerada
+     * @param numeroAsiento asiento solicitado
+     * @param duracionRetencion tiempo que se aparta el asiento mientras se paga
+     * @return Tiquete Individual numerado con su retención
+     * @throws IllegalArgumentException si evento/localidad inválidos o fuera de fecha
+     * @throws IllegalStateException si el asiento no está libre o se supera el límite por cliente del evento
+     */
+    public Individual precompraIndividualNumerada(int codigo, Evento evento, Localidad localidad, int numeroAsiento, Duration duracionRetencion)
+            throws IllegalArgumentException, IllegalStateException {
+
+        Individual tiquete = precompraIndividualNumerada(codigo, evento, localidad, numeroAsiento);
+        tiquete.setRetencion(GestorRetenciones.getInstance().retener(localidad, new int[] {numeroAsiento}, 0, duracionRetencion, getId()));
+        return tiquete;
+    }
+
     /**
      * @pre evento != null ; localidad != null ; localidad.isNumerada()==false ;
      *      evento.getEstado()=="Activo"
@@ -165,8 +285,9 @@ public class Cliente extends Usuario{
 
         if (evento.getEstado() != "Activo" || evento.getFecha().isBefore(LocalDateTime.now()))
             throw new IllegalArgumentException("El evento no está disponible para compras.");
+        verificarAdmision(evento);
 
-        Individual tiquete = new Individual(codigo, localidad.getPrecioBase(), evento, localidad, this, true, -1);
+        Individual tiquete = new Individual(codigo, cotizar(evento, localidad, Cotizador.INDIVIDUAL), evento, localidad, this, true, -1);
 
         return tiquete;
     }
@@ -191,12 +312,13 @@ public class Cliente extends Usuario{
 
         if (evento.getEstado() != "Activo" || evento.getFecha().isBefore(LocalDateTime.now()))
             throw new IllegalArgumentException("El evento no está disponible para compras.");
+        verificarAdmision(evento);
 
         ArrayList<Tiquete> tiquetesPaquete = new ArrayList<Tiquete>();
         
         for(int i = 0;i<cantidad;i++) {
         	if((localidad.asientoDisponible(numerosAsientos.get(i)) && localidad.isNumerada())||(!localidad.isNumerada() && localidad.hayDisponibilidad())) {
-                Individual tiquete = new Individual(codigo, localidad.getPrecioBase(), evento, localidad, this, true, numerosAsientos.get(i));
+                Individual tiquete = new Individual(cotizar(evento, localidad, Cotizador.INDIVIDUAL), evento, localidad, this, true, numerosAsientos.get(i));
         		tiquetesPaquete.add(tiquete);
         	}
         	else {
@@ -204,11 +326,47 @@ public class Cliente extends Usuario{
         	}
         }
         
-        Multiple paquete = new Multiple(codigo, this, localidad.getPrecioBasePaquetesxUnidad()*cantidad, tiquetesPaquete);
+        Multiple paquete = new Multiple(codigo, this, cotizarMultiple(evento, localidad, cantidad), tiquetesPaquete);
 
         return paquete;
     }
 
+    /**
+     * @pre evento != null ; localidad != null ; localidad.isNumerada()==true ;
+     *      localidad.getDisposicion() != null ; cantidad > 0 ; duracionRetencion > 0
+     * @post Se genera un paquete Multiple con los mejores asientos contiguos disponibles,
+     *       retenidos durante duracionRetencion; hacerCompra confirma la retención
+     * @param codigo id
+     * @param evento evento asociado
+     * @param localidad localidad numerada con disposición de filas
+     * @param cantidad cantidad de tiquetes
+     * @param duracionRetencion tiempo que se apartan los asientos mientras se paga
+     * @return paquete Multiple
+     * @throws IllegalArgumentException si el evento no está disponible
+     * @throws IllegalStateException si no hay un bloque de asientos contiguos libre o se supera
+     *         el límite por cliente del evento
+     */
+    public Multiple precompraPaqueteMultipleMismoEvento(int codigo, Evento evento, Localidad localidad, int cantidad, Duration duracionRetencion)
+            throws IllegalArgumentException, IllegalStateException {
+
+        if (evento == null || localidad == null || !localidad.isNumerada())
+            throw new IllegalArgumentException("Evento o localidad inválidos.");
+
+        if (evento.getEstado() != "Activo" || evento.getFecha().isBefore(LocalDateTime.now()))
+            throw new IllegalArgumentException("El evento no está disponible para compras.");
+        verificarAdmision(evento);
+
+        Retencion retencion = localidad.retenerMejoresAsientos(cantidad, duracionRetencion, getId());
+        ArrayList<Tiquete> tiquetesPaquete = new ArrayList<Tiquete>();
+        for (int asiento : retencion.getAsientos()) {
+            Individual tiquete = new Individual(cotizar(evento, localidad, Cotizador.INDIVIDUAL), evento, localidad, this, true, asiento);
+            tiquete.setRetencion(retencion);
+            tiquetesPaquete.add(tiquete);
+        }
+
+        return new Multiple(codigo, this, cotizarMultiple(evento, localidad, cantidad), tiquetesPaquete);
+    }
+
     /**
      * @pre eventos.size()==localidades.size()==numerosAsientos.size()
      *      todos los eventos activos
@@ -230,6 +388,7 @@ public class Cliente extends Usuario{
     		if (e.getEstado() != "Activo" || e.getFecha().isBefore(LocalDateTime.now())) {
     			throw new IllegalArgumentException("El evento no está disponible para compras.");
     		}
+    		verificarAdmision(e);
     	}
     	
     	double precioTotal = 0.0;
@@ -237,14 +396,14 @@ public class Cliente extends Usuario{
             if (l == null) {
                 throw new IllegalArgumentException("Evento o localidad inválidos.");
             }
-            precioTotal = l.getPrecioPaseTemporadaxUnidad();
+            precioTotal = cotizar(l.getEvento(), l, Cotizador.PASE_TEMPORADA);
     	}
     	
         ArrayList<Tiquete> tiquetesPaquete = new ArrayList<Tiquete>();
         
         for(int i = 0;i<eventos.size();i++) {
         	if((localidades.get(i).asientoDisponible(numerosAsientos.get(i)) && localidades.get(i).isNumerada())||(!localidades.get(i).isNumerada() && localidades.get(i).hayDisponibilidad())) {
-                Individual tiquete = new Individual(codigo, localidades.get(i).getPrecioBase(), eventos.get(i), localidades.get(i), this, true, numerosAsientos.get(i));
+                Individual tiquete = new Individual(cotizar(eventos.get(i), localidades.get(i), Cotizador.INDIVIDUAL), eventos.get(i), localidades.get(i), this, true, numerosAsientos.get(i));
         		tiquetesPaquete.add(tiquete);
         	}
         	else {
@@ -278,6 +437,7 @@ public class Cliente extends Usuario{
     		if (e.getEstado() != "Activo" || e.getFecha().isBefore(LocalDateTime.now())) {
     			throw new IllegalArgumentException("El evento no está disponible para compras.");
     		}
+    		verificarAdmision(e);
     	}
     	
     	double precioTotal = 0.0;
@@ -285,14 +445,14 @@ public class Cliente extends Usuario{
             if (l == null) {
                 throw new IllegalArgumentException("Evento o localidad inválidos.");
             }
-            precioTotal = l.getPrecioPaseDeluxexUnidad();
+            precioTotal = cotizar(l.getEvento(), l, Cotizador.DELUXE);
     	}
     	
         ArrayList<Tiquete> tiquetesPaquete = new ArrayList<Tiquete>();
         
         for(int i = 0;i<eventos.size();i++) {
         	if((localidades.get(i).asientoDisponible(numerosAsientos.get(i)) && localidades.get(i).isNumerada())||(!localidades.get(i).isNumerada() && localidades.get(i).hayDisponibilidad())) {
-                Individual tiquete = new Individual(codigo, localidades.get(i).getPrecioBase(), eventos.get(i), localidades.get(i), this, true, numerosAsientos.get(i));
+                Individual tiquete = new Individual(cotizar(eventos.get(i), localidades.get(i), Cotizador.INDIVIDUAL), eventos.get(i), localidades.get(i), this, true, numerosAsientos.get(i));
         		tiquetesPaquete.add(tiquete);
         	}
         	else {
@@ -304,30 +464,169 @@ public class Cliente extends Usuario{
         return deluxe;
     }
 
+    /**
+     * @pre cantidad > 0 ; si la localidad es numerada, numerosAsientos.size()==cantidad ; duracionRetencion > 0
+     * @post Se genera un paquete Multiple cuyos asientos o cupos quedan retenidos en bloque
+     *       durante duracionRetencion; si alguno no está disponible no se retiene ninguno
+     * @param codigo id
+     * @param evento evento asociado
+     * @param localidad localidad
+     * @param cantidad cantidad de tiquetes
+     * @param numerosAsientos lista de asientos (se ignora en localidades no numeradas)
+     * @param duracionRetencion tiempo que se apartan los lugares mientras se paga
+     * @return paquete Multiple con sus retenciones
+     * @throws IllegalArgumentException si el evento o la localidad no son válidos
+     * @throws IllegalStateException si algún asiento o cupo no está disponible
+     */
+    public Multiple precompraPaqueteMultipleMismoEvento(int codigo, Evento evento, Localidad localidad, int cantidad, ArrayList<Integer> numerosAsientos, Duration duracionRetencion)
+            throws IllegalArgumentException, IllegalStateException {
+
+        if (evento == null || localidad == null || cantidad <= 0)
+            throw new IllegalArgumentException("Evento o localidad inválidos.");
+
+        ArrayList<Evento> eventos = new ArrayList<Evento>();
+        ArrayList<Localidad> localidades = new ArrayList<Localidad>();
+        ArrayList<Integer> asientos = new ArrayList<Integer>();
+        for (int i = 0; i < cantidad; i++) {
+            eventos.add(evento);
+            localidades.add(localidad);
+            asientos.add(localidad.isNumerada() ? numerosAsientos.get(i) : -1);
+        }
+
+        ArrayList<Tiquete> tiquetesPaquete = retenerTiquetesPaquete(eventos, localidades, asientos, duracionRetencion);
+        return new Multiple(codigo, this, cotizarMultiple(evento, localidad, cantidad), tiquetesPaquete);
+    }
+
+    /**
+     * @pre eventos.size()==localidades.size()==numerosAsientos.size() ; duracionRetencion > 0
+     * @post Se genera un PaseTemporada cuyos lugares, en todos sus eventos, quedan retenidos
+     *       en bloque durante duracionRetencion; si alguno no está disponible no se retiene ninguno
+     * @param codigo id
+     * @param eventos lista eventos
+     * @param localidades lista localidades
+     * @param numerosAsientos lista asientos
+     * @param duracionRetencion tiempo que se apartan los lugares mientras se paga
+     * @return PaseTemporada con sus retenciones
+     * @throws IllegalArgumentException si un evento no está disponible
+     * @throws IllegalStateException si algún asiento o cupo no está disponible
+     */
+    public PaseTemporada precompraPaseTemporada(int codigo, ArrayList<Evento> eventos, ArrayList<Localidad> localidades, ArrayList<Integer> numerosAsientos, Duration duracionRetencion)
+            throws IllegalArgumentException, IllegalStateException {
+
+    	ArrayList<Tiquete> tiquetesPaquete = retenerTiquetesPaquete(eventos, localidades, numerosAsientos, duracionRetencion);
+    	double precioTotal = cotizar(localidades.getLast().getEvento(), localidades.getLast(), Cotizador.PASE_TEMPORADA);
+        return new PaseTemporada(codigo, this, precioTotal, eventos, tiquetesPaquete);
+    }
+
+    /**
+     * @pre eventos.size()==localidades.size()==numerosAsientos.size() ; beneficios no vacío ;
+     *      duracionRetencion > 0
+     * @post Se genera un paquete Deluxe cuyos lugares quedan retenidos en bloque durante
+     *       duracionRetencion; si alguno no está disponible no se retiene ninguno
+     * @param codigo id
+     * @param eventos lista eventos
+     * @param localidades lista localidades
+     * @param beneficios beneficios del paquete
+     * @param numerosAsientos lista asientos
+     * @param duracionRetencion tiempo que se apartan los lugares mientras se paga
+     * @return Deluxe con sus retenciones
+     * @throws IllegalArgumentException si un evento no está disponible o no hay beneficios
+     * @throws IllegalStateException si algún asiento o cupo no está disponible
+     */
+    public Deluxe precompraDeluxe(int codigo, ArrayList<Evento> eventos, ArrayList<Localidad> localidades, String beneficios, ArrayList<Integer> numerosAsientos, Duration duracionRetencion)
+            throws IllegalArgumentException, IllegalStateException {
+
+        if (beneficios == null || beneficios.isBlank())
+            throw new IllegalArgumentException("La descripción de beneficios no puede estar vacía.");
+
+    	ArrayList<Tiquete> tiquetesPaquete = retenerTiquetesPaquete(eventos, localidades, numerosAsientos, duracionRetencion);
+    	double precioTotal = cotizar(localidades.getLast().getEvento(), localidades.getLast(), Cotizador.DELUXE);
+        return new Deluxe(codigo, this, precioTotal, beneficios, tiquetesPaquete);
+    }
+
+    /**
+     * @pre eventos.size()==localidades.size()==numerosAsientos.size()
+     * @post Todos los lugares quedan retenidos en una sola operación en bloque y cada tiquete
+     *       queda ligado a la retención de su localidad; cada tiquete recibe su propio código
+     * @param eventos evento de cada tiquete
+     * @param localidades localidad de cada tiquete
+     * @param numerosAsientos asiento de cada tiquete
+     * @param duracion duración de las retenciones
+     * @return tiquetes retenidos
+     * @throws IllegalArgumentException si un evento o localidad no es válido
+     * @throws IllegalStateException si algún lugar no está disponible
+     */
+    private ArrayList<Tiquete> retenerTiquetesPaquete(ArrayList<Evento> eventos, ArrayList<Localidad> localidades, ArrayList<Integer> numerosAsientos, Duration duracion)
+            throws IllegalArgumentException, IllegalStateException {
+
+    	if (eventos == null || localidades == null || numerosAsientos == null || eventos.isEmpty()
+    			|| eventos.size() != localidades.size() || eventos.size() != numerosAsientos.size())
+    		throw new IllegalArgumentException("Evento o localidad inválidos.");
+
+    	for (int i = 0; i < eventos.size(); i++) {
+    		Evento e = eventos.get(i);
+    		if (e == null || localidades.get(i) == null)
+    			throw new IllegalArgumentException("Evento o localidad inválidos.");
+    		if (e.getEstado() != "Activo" || e.getFecha().isBefore(LocalDateTime.now()))
+    			throw new IllegalArgumentException("El evento no está disponible para compras.");
+    		verificarAdmision(e);
+    	}
+
+    	Map<Localidad, Retencion> retenciones = GestorRetenciones.getInstance().retenerEnBloque(localidades, numerosAsientos, duracion, getId());
+
+    	ArrayList<Tiquete> tiquetes = new ArrayList<Tiquete>();
+    	for (int i = 0; i < eventos.size(); i++) {
+    		Localidad l = localidades.get(i);
+    		int asiento = l.isNumerada() ? numerosAsientos.get(i) : -1;
+    		Individual tiquete = new Individual(cotizar(eventos.get(i), l, Cotizador.INDIVIDUAL), eventos.get(i), l, this, true, asiento);
+    		tiquete.setRetencion(retenciones.get(l));
+    		tiquetes.add(tiquete);
+    	}
+    	return tiquetes;
+    }
+
     /**
      * @pre true
-     * @post Se retorna la lista de tiquetes comprados
+     * @post Se retorna la lista de tiquetes sueltos que el cliente tiene ahora (ver
+     *       {@link #getTiquetesPropios()}), sin recorrer las compras
      * @return lista de tiquetes
      */
     public ArrayList<Tiquete> obtenerTiquetesComprados() {
-        ArrayList<Tiquete> resultado = new ArrayList<Tiquete>();
-        for (Compra c : compras) {
-            resultado.addAll(c.getTiquetesComprados());
-        }
-        return resultado;
+        return tiquetesPropios.listar();
+    }
+
+    /**
+     * @pre cantidad > 0
+     * @post Se retorna una página de los tiquetes que el cliente tiene ahora
+     * @param despuesDe último tiquete de la página anterior, o null para la primera
+     * @param cantidad tiquetes máximos de la página
+     * @return lista de tiquetes
+     * @throws IllegalArgumentException si la cantidad no es positiva o despuesDe ya no es del cliente
+     */
+    public ArrayList<Tiquete> obtenerTiquetesComprados(Tiquete despuesDe, int cantidad) throws IllegalArgumentException {
+        return tiquetesPropios.pagina(despuesDe, cantidad);
     }
 
     /**
      * @pre true
-     * @post Se retorna lista de paquetes comprados
+     * @post Se retorna lista de paquetes que el cliente tiene ahora (ver
+     *       {@link #getPaquetesPropios()}), sin recorrer las compras
      * @return lista de paquetes
      */
     public ArrayList<PaqueteTiquetes> obtenerPaquetesComprados() {
-        ArrayList<PaqueteTiquetes> resultado = new ArrayList<PaqueteTiquetes>();
-        for (Compra c : compras) {
-            resultado.addAll(c.getPaquetes());
-        }
-        return resultado;
+        return paquetesPropios.listar();
+    }
+
+    /**
+     * @pre cantidad > 0
+     * @post Se retorna una página de los paquetes que el cliente tiene ahora
+     * @param despuesDe último paquete de la página anterior, o null para la primera
+     * @param cantidad paquetes máximos de la página
+     * @return lista de paquetes
+     * @throws IllegalArgumentException si la cantidad no es positiva o despuesDe ya no es del cliente
+     */
+    public ArrayList<PaqueteTiquetes> obtenerPaquetesComprados(PaqueteTiquetes despuesDe, int cantidad) throws IllegalArgumentException {
+        return paquetesPropios.pagina(despuesDe, cantidad);
     }
 
     /**
@@ -339,25 +638,108 @@ public class Cliente extends Usuario{
      * @return nueva Compra
      */
     public Compra hacerCompra(ArrayList<Tiquete> tiquetes, ArrayList<PaqueteTiquetes> paquetes, boolean usarSaldoReembolso) {
-    	double totalCompra = 0.0;
-    	
-    	for(Tiquete t: tiquetes) {
-            totalCompra += t.getPrecio() + t.getCargoServicio() + t.getCuotaImpresion();
+    	return hacerCompra(tiquetes, paquetes, usarSaldoReembolso, null);
+    }
+
+    /**
+     * @pre tiquetes != null ; paquetes != null ; si usarSaldoReembolso entonces saldo>=total
+     * @post compra registrada y pagada con el saldo o con la pasarela de pago; si se usó un
+     *       código de descuento, queda canjeado una vez y su descuento restado del total. Si
+     *       algo falla no cambia nada (ver {@link TransaccionCompra})
+     * @param tiquetes lista de tiquetes
+     * @param paquetes lista de paquetes
+     * @param usarSaldoReembolso indicador
+     * @param codigoDescuento código escrito por el cliente, o null
+     * @return nueva Compra
+     * @throws IllegalArgumentException si el carrito es inválido o el código no existe o no aplica
+     * @throws IllegalStateException si no se puede apartar el inventario o cobrar la compra
+     */
+    public Compra hacerCompra(ArrayList<Tiquete> tiquetes, ArrayList<PaqueteTiquetes> paquetes, boolean usarSaldoReembolso,
+    		String codigoDescuento) throws IllegalArgumentException, IllegalStateException {
+    	return new TransaccionCompra(this, tiquetes, paquetes, usarSaldoReembolso, codigoDescuento).ejecutar();
+    }
+
+    /**
+     * @pre tiquetes != null ; paquetes != null ; si usarSaldoReembolso entonces saldo>=total
+     * @post igual que sin clave, pero una sola vez por clave: un reintento con la misma clave
+     *       devuelve la compra original sin volver a cobrar (ver {@link RegistroIdempotencia})
+     * @param tiquetes lista de tiquetes
+     * @param paquetes lista de paquetes
+     * @param usarSaldoReembolso indicador
+     * @param codigoDescuento código escrito por el cliente, o null
+     * @param claveIdempotencia clave que el cliente repite al reintentar, o null para no usarla
+     * @return nueva Compra, o la que ya se había hecho con la clave
+     * @throws IllegalArgumentException si el carrito, el código o la clave son inválidos
+     * @throws IllegalStateException si no se puede apartar el inventario o cobrar la compra
+     */
+    public Compra hacerCompra(ArrayList<Tiquete> tiquetes, ArrayList<PaqueteTiquetes> paquetes, boolean usarSaldoReembolso,
+    		String codigoDescuento, String claveIdempotencia) throws IllegalArgumentException, IllegalStateException {
+    	if (claveIdempotencia == null) {
+    		return hacerCompra(tiquetes, paquetes, usarSaldoReembolso, codigoDescuento);
     	}
-    	
-    	for(PaqueteTiquetes p: paquetes) {
-            totalCompra += p.getPrecio() + p.getCargoServicio() + p.getCuotaImpresion();
+    	return RegistroIdempotencia.getInstance().ejecutar(this, claveIdempotencia,
+    			() -> new TransaccionCompra(this, tiquetes, paquetes, usarSaldoReembolso, codigoDescuento).ejecutar());
+    }
+
+    /**
+     * @pre evento != null ; localidad != null
+     * @post Se obtiene el precio unitario con descuento del producto en este momento, desde
+     *       la cotización guardada si sigue vigente
+     * @param evento evento del producto
+     * @param localidad localidad del producto
+     * @param tipo tipo de producto del Cotizador
+     * @return precio con descuento, sin cargos
+     */
+    private double cotizar(Evento evento, Localidad localidad, String tipo) {
+    	return Cotizador.getInstance().cotizar(evento, localidad, tipo, LocalDateTime.now()).getPrecio();
+    }
+
+    /**
+     * @pre evento != null ; localidad != null ; cantidad > 0
+     * @post Se obtiene el precio de un paquete Multiple: el precio unitario se redondea al
+     *       centavo y luego se multiplica, para que el total sea exactamente cantidad veces
+     *       lo que cuesta una unidad
+     * @param evento evento del paquete
+     * @param localidad localidad del paquete
+     * @param cantidad tiquetes del paquete
+     * @return precio del paquete, sin cargos
+     */
+    private double cotizarMultiple(Evento evento, Localidad localidad, int cantidad) {
+    	long unidad = Dinero.deValor(cotizar(evento, localidad, Cotizador.MULTIPLE));
+    	return Dinero.aValor(Dinero.multiplicar(unidad, cantidad));
+    }
+
+    /**
+     * @pre evento != null
+     * @post Si el evento tiene sala de espera, el cliente fue admitido y su ventana está vigente
+     * @param evento evento a comprar
+     * @throws IllegalStateException si el cliente aún no ha sido admitido por la sala de espera
+     */
+    private void verificarAdmision(Evento evento) throws IllegalStateException {
+    	SalaEspera sala = evento.getSalaEspera();
+    	if (sala != null) {
+    		String token;
+    		synchronized (tokensSalaEspera) {
+    			token = tokensSalaEspera.get(evento);
+    		}
+    		sala.verificarAdmision(getId(), token);
     	}
-    	
-    	if (usarSaldoReembolso && saldo >= totalCompra) {
-            this.setSaldo(saldo-totalCompra);
-        } else {
-            // pasarela externa
-        }
-        Compra compra = new Compra(this, tiquetes, paquetes, totalCompra, LocalDateTime.now());
-        this.registrarCompra(compra);
-        return compra;
+    }
 
+    /**
+     * @pre evento != null ; token != null
+     * @post Las compras del evento se verifican con este token ante su sala de espera
+     * @param evento evento con sala de espera
+     * @param token token recibido al ser admitido por la sala
+     * @throws IllegalArgumentException si el evento o el token son nulos
+     */
+    public void presentarTokenSalaEspera(Evento evento, String token) throws IllegalArgumentException {
+    	if (evento == null || token == null) {
+    		throw new IllegalArgumentException("Evento o token inválidos.");
+    	}
+    	synchronized (tokensSalaEspera) {
+    		tokensSalaEspera.put(evento, token);
+    	}
     }
 
     /**
@@ -457,6 +839,7 @@ public class Cliente extends Usuario{
         	if(credencial) {
         		for (Tiquete t: tiquetes) {
         			t.setDueno(destino);
+        			destino.getTiquetesPropios().agregar(t);
         		}
         		return true;
         	}
@@ -486,10 +869,20 @@ public class Cliente extends Usuario{
     	admin.crearSolicitudReembolsoPaquete( paquete, this);
     }
 
+    /**
+     * @pre omp != null ; monto > 0 ; saldo >= monto
+     * @post puja creada, con un id asignado por el {@link GeneradorIds}, y saldo descontado
+     * @param omp oferta
+     * @param monto valor
+     */
+    public void crearPuja(OfertaMP omp, double monto) {
+    	crearPuja(0, omp, monto);
+    }
+
     /**
      * @pre omp != null ; monto > 0 ; monto <= saldo
      * @post puja creada y saldo descontado
-     * @param id id puja
+     * @param id id puja, o 0 para que lo asigne el {@link GeneradorIds}
      * @param omp oferta
      * @param monto valor
      */
@@ -503,17 +896,19 @@ public class Cliente extends Usuario{
             throw new IllegalArgumentException("El monto debe ser mayor a 0.");
         }
 
-        if (monto > this.saldo) {
+        long centavos = Dinero.deValor(monto);
+        if (centavos > this.saldo) {
             throw new IllegalArgumentException("Saldo insuficiente.");
         }
 
-        if (!omp.getPujas().isEmpty() && monto <= omp.getPujas().getFirst().getMonto()) {
+        if (!omp.getPujas().isEmpty() && centavos <= omp.getPujas().getFirst().getMontoCentavos()) {
             throw new IllegalArgumentException("El monto debe superar la puja más reciente.");
         }
 
-        Puja p = new Puja(id, omp, this, monto, "Pendiente", LocalDateTime.now());
+        Puja p = id > 0 ? new Puja(id, omp, this, monto, "Pendiente", LocalDateTime.now())
+        		: new Puja(omp, this, monto, "Pendiente", LocalDateTime.now());
 
-        this.setSaldo(this.saldo - monto);
+        descontarSaldo(centavos);
 
         ArrayList<Puja> pjs = omp.getPujas();
         pjs.addFirst(p);
@@ -535,8 +930,10 @@ public class Cliente extends Usuario{
     	omp.setEstado("Cerrada");
     	for (Tiquete t: omp.getBoletas()) {
     		t.setDueno(p.getComprador());
+    		// Un tiquete vendido desde un paquete no estaba en el índice del vendedor.
+    		p.getComprador().getTiquetesPropios().agregar(t);
     	}
-    	this.setSaldo(saldo+p.getMonto());
+    	abonarSaldo(p.getMontoCentavos());
     	
     	ArrayList<OfertaMP> ofs= marketPlace.getInstance().getActivas();
     	ofs.remove(omp);
@@ -555,16 +952,28 @@ public class Cliente extends Usuario{
     		throw new IllegalArgumentException();
     	}
     	p.setEstado("Cancelada");
-    	p.getComprador().setSaldo(saldo+p.getMonto());
+    	abonarSaldo(p.getMontoCentavos());
     	ArrayList<Puja> pjs = omp.getPujas();
     	pjs.remove(p);
     	omp.setPujas(pjs);
     }
 
+    /**
+     * @pre boletas != null ; precioBase > 0 ; fechaCierre != null
+     * @post oferta creada, con un id asignado por el {@link GeneradorIds}, y añadida a activas y log
+     * @param boletas lista
+     * @param precioBase precio
+     * @param fechaCierre cierre
+     * @throws IllegalArgumentException si boletas es null
+     */
+    public void crearOfertaMP(ArrayList<Tiquete> boletas, double precioBase, LocalDateTime fechaCierre) throws IllegalArgumentException{
+    	crearOfertaMP(0, boletas, precioBase, fechaCierre);
+    }
+
     /**
      * @pre boletas != null ; precioBase > 0 ; fechaCierre != null
      * @post oferta creada y añadida a activas y log
-     * @param idOferta id
+     * @param idOferta id, o 0 para que lo asigne el {@link GeneradorIds}
      * @param boletas lista
      * @param precioBase precio
      * @param fechaCierre cierre
@@ -583,8 +992,9 @@ public class Cliente extends Usuario{
     	}
     	
     	ArrayList<Puja> pjs = new ArrayList<Puja>();
-    	OfertaMP omp= new OfertaMP(idOferta, this, boletas,  precioBase, "Activa",
-    			LocalDateTime.now(), fechaCierre, pjs);
+    	OfertaMP omp= idOferta > 0
+    			? new OfertaMP(idOferta, this, boletas,  precioBase, "Activa", LocalDateTime.now(), fechaCierre, pjs)
+    			: new OfertaMP(this, boletas,  precioBase, "Activa", LocalDateTime.now(), fechaCierre, pjs);
     	
     	ArrayList<OfertaMP> ofs= marketPlace.getInstance().getActivas();
     	ofs.add(omp);
@@ -0,0 +1,151 @@
+package Usuarios;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Elementos que un cliente tiene en este momento (tiquetes o paquetes), en el orden en que los
+ * recibió. Se actualiza al comprar, transferir, vender en el marketplace o reembolsar, en vez
+ * de recorrer todas las compras en cada consulta.
+ * Cada elemento guarda su posición de llegada, así que listar cuesta lo que mide el resultado
+ * y una página se pide por cursor: los {@code cantidad} elementos que siguen a uno dado, en
+ * O(log n + cantidad), sin importar cuántos elementos tenga el cliente.
+ * Los elementos se comparan por identidad, porque dos tiquetes pueden tener el mismo código.
+ * Las estructuras se crean con el primer elemento, así que un cliente sin tiquetes casi no
+ * ocupa memoria.
+ *
+ * @param <T> Tipo de elemento.
+ */
+public class IndicePropietario<T> {
+
+	// Atributos
+	private TreeMap<Long, T> porLlegada;
+	private Map<T, Long> posiciones;
+	private long siguiente;
+
+	// Ctor
+
+	/**
+	 * Crea un índice vacío.
+	 */
+	public IndicePropietario() {
+	}
+
+	// Getters
+
+	/**
+	 * Obtiene cuántos elementos hay.
+	 *
+	 * @return Número de elementos.
+	 */
+	public synchronized int getCantidad() {
+		return posiciones == null ? 0 : posiciones.size();
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Agrega un elemento al final.
+	 *
+	 * @param elemento Elemento recibido.
+	 * @return {@code true} si no estaba.
+	 * @throws IllegalArgumentException si el elemento es nulo.
+	 */
+	public synchronized boolean agregar(T elemento) throws IllegalArgumentException {
+		if (elemento == null) {
+			throw new IllegalArgumentException("No se puede indexar un elemento nulo.");
+		}
+		if (posiciones == null) {
+			porLlegada = new TreeMap<Long, T>();
+			posiciones = new IdentityHashMap<T, Long>(4);
+		} else if (posiciones.containsKey(elemento)) {
+			return false;
+		}
+		long posicion = siguiente++;
+		posiciones.put(elemento, posicion);
+		porLlegada.put(posicion, elemento);
+		return true;
+	}
+
+	/**
+	 * Quita un elemento.
+	 *
+	 * @param elemento Elemento que el cliente ya no tiene.
+	 * @return {@code true} si estaba.
+	 */
+	public synchronized boolean quitar(T elemento) {
+		Long posicion = posiciones == null ? null : posiciones.remove(elemento);
+		if (posicion == null) {
+			return false;
+		}
+		porLlegada.remove(posicion);
+		return true;
+	}
+
+	/**
+	 * Indica si el elemento está en el índice.
+	 *
+	 * @param elemento Elemento a buscar.
+	 * @return {@code true} si el cliente lo tiene.
+	 */
+	public synchronized boolean contiene(T elemento) {
+		return posiciones != null && posiciones.containsKey(elemento);
+	}
+
+	/**
+	 * Lista todos los elementos.
+	 *
+	 * @return Copia de los elementos en orden de llegada.
+	 */
+	public synchronized ArrayList<T> listar() {
+		return porLlegada == null ? new ArrayList<T>() : new ArrayList<T>(porLlegada.values());
+	}
+
+	/**
+	 * Lista una página de elementos.
+	 *
+	 * @param despuesDe Último elemento de la página anterior, o {@code null} para la primera.
+	 * @param cantidad Elementos máximos de la página.
+	 * @return Elementos que siguen a {@code despuesDe}, en orden de llegada.
+	 * @throws IllegalArgumentException si la cantidad no es positiva o {@code despuesDe} no
+	 *         está en el índice.
+	 */
+	public synchronized ArrayList<T> pagina(T despuesDe, int cantidad) throws IllegalArgumentException {
+		if (cantidad <= 0) {
+			throw new IllegalArgumentException("El tamaño de la página debe ser positivo.");
+		}
+		if (porLlegada == null) {
+			if (despuesDe != null) {
+				throw new IllegalArgumentException("El elemento de referencia ya no está en la lista.");
+			}
+			return new ArrayList<T>();
+		}
+		Map<Long, T> resto = porLlegada;
+		if (despuesDe != null) {
+			Long posicion = posiciones.get(despuesDe);
+			if (posicion == null) {
+				throw new IllegalArgumentException("El elemento de referencia ya no está en la lista.");
+			}
+			resto = porLlegada.tailMap(posicion, false);
+		}
+		// El tamaño de una vista tailMap se calcula recorriéndola, así que no se consulta.
+		ArrayList<T> resultado = new ArrayList<T>();
+		for (T elemento : resto.values()) {
+			if (resultado.size() == cantidad) {
+				break;
+			}
+			resultado.add(elemento);
+		}
+		return resultado;
+	}
+
+	/**
+	 * Vacía el índice.
+	 */
+	public synchronized void limpiar() {
+		porLlegada = null;
+		posiciones = null;
+	}
+}
@@ -1,6 +1,7 @@
 package Usuarios;
 import java.util.*;
 import Eventos.*;
+import Tiquetes.Dinero;
 import java.time.*;
 
 /**
@@ -12,9 +13,9 @@ public class Organizador extends Usuario{
 	// Atributos 
 	private int id;
 	private String nombreOrganización;
-	private double ventasLocalidad;
-	private double gananciaSinRecargos;
-	private double saldo;
+	private long ventasLocalidad;
+	private long gananciaSinRecargos;
+	private long saldo;
     private ArrayList<Evento> eventosOrganizados;
     private ArrayList<ReporteFinanciero> reportesGenerados;
 	
@@ -64,27 +65,39 @@ public class Organizador extends Usuario{
 	}
 
 	public double getVentasLocalidad() {
+		return Dinero.aValor(ventasLocalidad);
+	}
+
+	public long getVentasLocalidadCentavos() {
 		return ventasLocalidad;
 	}
 
 	public void setVentasLocalidad(double d) {
-		this.ventasLocalidad = d;
+		this.ventasLocalidad = Dinero.deValor(d);
 	}
 
 	public double getGananciaSinRecargos() {
+		return Dinero.aValor(gananciaSinRecargos);
+	}
+
+	public long getGananciaSinRecargosCentavos() {
 		return gananciaSinRecargos;
 	}
 
 	public void setGananciasinRecargos(double d) {
-		this.gananciaSinRecargos = d;
+		this.gananciaSinRecargos = Dinero.deValor(d);
 	}
 
 	public double getSaldo() {
+		return Dinero.aValor(saldo);
+	}
+
+	public long getSaldoCentavos() {
 		return saldo;
 	}
 
 	public void setSaldo(double saldo) {
-		this.saldo = saldo;
+		this.saldo = Dinero.deValor(saldo);
 	}
 	
     /** Devuelve los eventos organizados por este usuario. */
@@ -217,6 +230,40 @@ public class Organizador extends Usuario{
             throw new IllegalArgumentException("Descuento inválido.");
         return evento.crearOferta(porcentajeDescuento, fechaInicio, fechaFin, localidad);
     }
+
+    /**
+     * Activa el precio dinámico en una localidad de un evento propio.
+     * @param evento Evento del organizador.
+     * @param localidad Localidad del evento.
+     * @param piso Precio base mínimo.
+     * @param techo Precio base máximo.
+     * @return Política activada.
+     * @pre 0 <= piso <= techo.
+     * @post El precio base de la localidad sigue la demanda dentro de [piso, techo].
+     */
+    public PrecioDinamico activarPrecioDinamico(Evento evento, Localidad localidad, double piso, double techo) {
+        validarLocalidadPropia(evento, localidad);
+        PrecioDinamico politica = new PrecioDinamico(piso, techo);
+        localidad.setPrecioDinamico(politica);
+        return politica;
+    }
+
+    /**
+     * Desactiva el precio dinámico de una localidad; el último precio publicado se mantiene.
+     * @param evento Evento del organizador.
+     * @param localidad Localidad del evento.
+     */
+    public void desactivarPrecioDinamico(Evento evento, Localidad localidad) {
+        validarLocalidadPropia(evento, localidad);
+        localidad.setPrecioDinamico(null);
+    }
+
+    private void validarLocalidadPropia(Evento evento, Localidad localidad) {
+        if (evento == null || !eventosOrganizados.contains(evento))
+            throw new IllegalArgumentException("Evento inválido.");
+        if (localidad == null || localidad.getEvento() != evento)
+            throw new IllegalArgumentException("Localidad inválida.");
+    }
     
     /**
      * Registra una cortesía (tiquete gratuito) en un evento.
@@ -247,6 +294,8 @@ public class Organizador extends Usuario{
             throw new IllegalArgumentException("Evento inválido o no pertenece al organizador.");
 
         ReporteFinanciero reporte = new ReporteFinanciero(id, LocalDateTime.now(), LocalDateTime.now());
+        reporte.setVentasEvento(evento);
+        reporte.setIngresosEvento(evento);
         reportesGenerados.add(reporte);
         return reporte;
     }
@@ -0,0 +1,51 @@
+package Usuarios;
+
+/**
+ * Medio de pago externo para las compras que no se pagan con el saldo del cliente.
+ * La compra llama {@link #cobrar(Cliente, long, String)} como último paso, cuando el inventario
+ * ya está apartado; si el cobro se rechaza o falla, la compra se deshace completa.
+ * Un rechazo se indica devolviendo {@code false}; una falla de la pasarela (caída, sin
+ * respuesta) se indica con una excepción.
+ * Cada compra manda su propia referencia de pago en el cobro, en cada reintento y en el
+ * reembolso: una pasarela que recibe dos veces la misma referencia debe responder lo mismo que
+ * la primera vez sin volver a cobrar ni a reembolsar. Así, reintentar una llamada que no
+ * respondió a tiempo no cobra dos veces aunque la primera sí haya llegado. {@link PasarelaSimulada} simula una pasarela externa
+ * y {@link PasarelaResiliente} le agrega tiempos máximos, reintentos y un interruptor de
+ * circuito.
+ */
+public interface PasarelaPago {
+
+	/**
+	 * Pasarela de prueba que aprueba todos los cobros. Es la que usa la aplicación mientras no
+	 * se configure otra con {@link TransaccionCompra#setPasarelaPorDefecto(PasarelaPago)}.
+	 */
+	PasarelaPago APROBAR_TODO = new PasarelaPago() {
+		@Override
+		public boolean cobrar(Cliente cliente, long centavos, String referencia) {
+			return true;
+		}
+
+		@Override
+		public void reembolsar(Cliente cliente, long centavos, String referencia) {
+		}
+	};
+
+	/**
+	 * Cobra un monto al cliente.
+	 *
+	 * @param cliente Cliente que paga.
+	 * @param centavos Monto a cobrar, en centavos.
+	 * @param referencia Referencia de pago de la compra; se repite igual en cada reintento.
+	 * @return {@code true} si el cobro fue aprobado.
+	 */
+	boolean cobrar(Cliente cliente, long centavos, String referencia);
+
+	/**
+	 * Devuelve un cobro aprobado.
+	 *
+	 * @param cliente Cliente al que se le cobró.
+	 * @param centavos Monto a devolver, en centavos.
+	 * @param referencia Referencia de pago con la que se hizo el cobro.
+	 */
+	void reembolsar(Cliente cliente, long centavos, String referencia);
+}
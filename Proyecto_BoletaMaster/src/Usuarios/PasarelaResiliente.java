@@ -0,0 +1,282 @@
+package Usuarios;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Envuelve una {@link PasarelaPago} externa con un tiempo máximo por llamada, reintentos y un
+ * interruptor de circuito.
+ * Cada llamada corre en un hilo virtual, así que una pasarela lenta no ocupa hilos de
+ * plataforma; si no responde a tiempo, el hilo virtual se interrumpe y la llamada cuenta como
+ * falla. Las fallas (excepciones o tiempos agotados) se reintentan con una espera que se
+ * duplica en cada intento; un rechazo es una respuesta válida y no se reintenta.
+ * El interruptor empieza {@link #CERRADO}. Tras {@code umbralFallos} fallas seguidas pasa a
+ * {@link #ABIERTO} y las llamadas fallan de inmediato, sin tocar la pasarela, durante
+ * {@code tiempoAbierto}; después pasa a {@link #SEMI_ABIERTO} y deja pasar una sola llamada de
+ * prueba: si responde, se cierra; si falla, se vuelve a abrir.
+ * Cada reintento manda la misma referencia de pago, así que un cobro que no respondió a tiempo
+ * pero sí llegó no se cobra otra vez en una pasarela que cumple el contrato de
+ * {@link PasarelaPago}, como {@link PasarelaSimulada}.
+ * Los reembolsos no pasan por el interruptor: se deben al cliente aunque el circuito esté
+ * abierto. Se intentan con los mismos reintentos y, si todos fallan, quedan pendientes; se
+ * reintentan con {@link #reintentarReembolsosPendientes()}, que también corre sola después
+ * de cada cobro que la pasarela responde.
+ */
+public class PasarelaResiliente implements PasarelaPago {
+
+	public static final String CERRADO = "Cerrado";
+	public static final String ABIERTO = "Abierto";
+	public static final String SEMI_ABIERTO = "SemiAbierto";
+
+	private static final ExecutorService HILOS_VIRTUALES = Executors.newVirtualThreadPerTaskExecutor();
+
+	// Atributos
+	private final PasarelaPago pasarela;
+	private final long tiempoMaximoNanos;
+	private final int reintentos;
+	private final long esperaReintentoMilis;
+	private final int umbralFallos;
+	private final long tiempoAbiertoMilis;
+	private final LongSupplier reloj;
+	private final ConcurrentLinkedQueue<Callable<Boolean>> reembolsosPendientes;
+
+	// Estado del interruptor, protegido por el monitor de la instancia.
+	private String estado;
+	private int fallosSeguidos;
+	private long abiertoDesde;
+	private boolean pruebaEnCurso;
+
+	// Ctor
+
+	/**
+	 * Envuelve una pasarela con el reloj del sistema.
+	 *
+	 * @param pasarela Pasarela externa.
+	 * @param tiempoMaximo Tiempo máximo de cada llamada.
+	 * @param reintentos Intentos adicionales después de una falla.
+	 * @param esperaReintento Espera antes del primer reintento; se duplica en cada uno.
+	 * @param umbralFallos Fallas seguidas que abren el interruptor.
+	 * @param tiempoAbierto Tiempo que el interruptor queda abierto antes de probar de nuevo.
+	 * @pre pasarela != null ; tiempoMaximo > 0 ; reintentos >= 0 ; umbralFallos > 0.
+	 */
+	public PasarelaResiliente(PasarelaPago pasarela, Duration tiempoMaximo, int reintentos, Duration esperaReintento,
+			int umbralFallos, Duration tiempoAbierto) {
+		this(pasarela, tiempoMaximo, reintentos, esperaReintento, umbralFallos, tiempoAbierto,
+				System::currentTimeMillis);
+	}
+
+	/**
+	 * Envuelve una pasarela.
+	 *
+	 * @param pasarela Pasarela externa.
+	 * @param tiempoMaximo Tiempo máximo de cada llamada.
+	 * @param reintentos Intentos adicionales después de una falla.
+	 * @param esperaReintento Espera antes del primer reintento; se duplica en cada uno.
+	 * @param umbralFallos Fallas seguidas que abren el interruptor.
+	 * @param tiempoAbierto Tiempo que el interruptor queda abierto antes de probar de nuevo.
+	 * @param reloj Hora actual en milisegundos, para el interruptor.
+	 * @pre pasarela != null ; tiempoMaximo > 0 ; reintentos >= 0 ; umbralFallos > 0 ; reloj != null.
+	 */
+	public PasarelaResiliente(PasarelaPago pasarela, Duration tiempoMaximo, int reintentos, Duration esperaReintento,
+			int umbralFallos, Duration tiempoAbierto, LongSupplier reloj) {
+		if (pasarela == null || reloj == null || tiempoMaximo == null || esperaReintento == null
+				|| tiempoAbierto == null) {
+			throw new IllegalArgumentException("Configuración de pasarela inválida.");
+		}
+		if (tiempoMaximo.isNegative() || tiempoMaximo.isZero() || reintentos < 0 || esperaReintento.isNegative()
+				|| umbralFallos <= 0 || tiempoAbierto.isNegative()) {
+			throw new IllegalArgumentException("Configuración de pasarela inválida.");
+		}
+		this.pasarela = pasarela;
+		this.tiempoMaximoNanos = tiempoMaximo.toNanos();
+		this.reintentos = reintentos;
+		this.esperaReintentoMilis = esperaReintento.toMillis();
+		this.umbralFallos = umbralFallos;
+		this.tiempoAbiertoMilis = tiempoAbierto.toMillis();
+		this.reloj = reloj;
+		this.reembolsosPendientes = new ConcurrentLinkedQueue<Callable<Boolean>>();
+		this.estado = CERRADO;
+	}
+
+	// Getters
+
+	/**
+	 * Obtiene el estado del interruptor.
+	 *
+	 * @return {@link #CERRADO}, {@link #ABIERTO} o {@link #SEMI_ABIERTO}.
+	 */
+	public synchronized String getEstado() {
+		if (ABIERTO.equals(estado) && reloj.getAsLong() - abiertoDesde >= tiempoAbiertoMilis) {
+			return SEMI_ABIERTO;
+		}
+		return estado;
+	}
+
+	/**
+	 * Obtiene cuántos reembolsos fallaron en todos sus intentos y esperan otro.
+	 *
+	 * @return Número de reembolsos pendientes.
+	 */
+	public int getReembolsosPendientes() {
+		return reembolsosPendientes.size();
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Cobra con la pasarela envuelta.
+	 *
+	 * @return {@code true} si se aprobó; {@code false} si la pasarela lo rechazó.
+	 * @throws IllegalStateException si la pasarela falló en todos los intentos, el
+	 *         interruptor está abierto o el hilo se interrumpió.
+	 */
+	@Override
+	public boolean cobrar(Cliente cliente, long centavos, String referencia) throws IllegalStateException {
+		boolean respuesta = llamar(() -> pasarela.cobrar(cliente, centavos, referencia), true);
+		if (!reembolsosPendientes.isEmpty()) {
+			HILOS_VIRTUALES.submit(this::reintentarReembolsosPendientes);
+		}
+		return respuesta;
+	}
+
+	/**
+	 * Reembolsa con la pasarela envuelta, sin pasar por el interruptor.
+	 *
+	 * @throws IllegalStateException si la pasarela falló en todos los intentos (el reembolso
+	 *         queda pendiente) o el hilo se interrumpió.
+	 */
+	@Override
+	public void reembolsar(Cliente cliente, long centavos, String referencia) throws IllegalStateException {
+		Callable<Boolean> reembolso = () -> {
+			pasarela.reembolsar(cliente, centavos, referencia);
+			return true;
+		};
+		try {
+			llamar(reembolso, false);
+		} catch (IllegalStateException e) {
+			reembolsosPendientes.add(reembolso);
+			throw new IllegalStateException("El reembolso quedó pendiente y se reintentará.", e);
+		}
+	}
+
+	/**
+	 * Reintenta una vez cada reembolso pendiente, sin pasar por el interruptor.
+	 *
+	 * @return Número de reembolsos que se completaron.
+	 * @post Los que vuelven a fallar siguen pendientes.
+	 */
+	public int reintentarReembolsosPendientes() {
+		int completados = 0;
+		for (int i = reembolsosPendientes.size(); i > 0; i--) {
+			Callable<Boolean> reembolso = reembolsosPendientes.poll();
+			if (reembolso == null) {
+				break;
+			}
+			try {
+				llamar(reembolso, false);
+				completados++;
+			} catch (IllegalStateException e) {
+				reembolsosPendientes.add(reembolso);
+			}
+		}
+		return completados;
+	}
+
+	/**
+	 * Hace la llamada con tiempo máximo y reintentos; con {@code conInterruptor} además la
+	 * somete al interruptor y le cuenta el resultado.
+	 */
+	private boolean llamar(Callable<Boolean> llamada, boolean conInterruptor) throws IllegalStateException {
+		RuntimeException ultimaFalla = null;
+		long espera = esperaReintentoMilis;
+		for (int intento = 0; intento <= reintentos; intento++) {
+			if (intento > 0) {
+				dormir(espera);
+				espera *= 2;
+			}
+			boolean prueba = conInterruptor && permitir();
+			Future<Boolean> futuro = HILOS_VIRTUALES.submit(llamada);
+			try {
+				boolean respuesta = futuro.get(tiempoMaximoNanos, TimeUnit.NANOSECONDS);
+				if (conInterruptor) {
+					registrarExito();
+				}
+				return respuesta;
+			} catch (TimeoutException e) {
+				futuro.cancel(true);
+				ultimaFalla = new IllegalStateException("La pasarela de pago no respondió a tiempo.", e);
+			} catch (ExecutionException e) {
+				ultimaFalla = new IllegalStateException("La pasarela de pago falló.", e.getCause());
+			} catch (InterruptedException e) {
+				futuro.cancel(true);
+				Thread.currentThread().interrupt();
+				liberarPrueba(prueba);
+				throw new IllegalStateException("El pago fue interrumpido.", e);
+			}
+			if (conInterruptor) {
+				registrarFallo();
+			}
+		}
+		throw ultimaFalla;
+	}
+
+	/**
+	 * Deja pasar una llamada según el estado del interruptor.
+	 *
+	 * @return {@code true} si la llamada es la prueba de un interruptor semiabierto.
+	 */
+	private synchronized boolean permitir() throws IllegalStateException {
+		if (CERRADO.equals(estado)) {
+			return false;
+		}
+		if (ABIERTO.equals(estado) && reloj.getAsLong() - abiertoDesde >= tiempoAbiertoMilis) {
+			estado = SEMI_ABIERTO;
+		}
+		if (SEMI_ABIERTO.equals(estado) && !pruebaEnCurso) {
+			pruebaEnCurso = true;
+			return true;
+		}
+		throw new IllegalStateException("La pasarela de pago no está disponible; intente más tarde.");
+	}
+
+	private synchronized void registrarExito() {
+		estado = CERRADO;
+		fallosSeguidos = 0;
+		pruebaEnCurso = false;
+	}
+
+	private synchronized void registrarFallo() {
+		fallosSeguidos++;
+		if (SEMI_ABIERTO.equals(estado) || fallosSeguidos >= umbralFallos) {
+			estado = ABIERTO;
+			abiertoDesde = reloj.getAsLong();
+		}
+		pruebaEnCurso = false;
+	}
+
+	private synchronized void liberarPrueba(boolean prueba) {
+		if (prueba) {
+			pruebaEnCurso = false;
+		}
+	}
+
+	private static void dormir(long milis) throws IllegalStateException {
+		if (milis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(milis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("El pago fue interrumpido.", e);
+		}
+	}
+}
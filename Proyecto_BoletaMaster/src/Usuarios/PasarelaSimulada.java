@@ -0,0 +1,141 @@
+package Usuarios;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pasarela de pago local para pruebas y mediciones. Cada llamada espera una latencia fija y
+ * luego falla con una probabilidad dada (como una pasarela caída o sin respuesta) o, si no
+ * falla, rechaza el cobro con otra probabilidad; en los demás casos lo aprueba.
+ * Una falla se lanza como {@link IllegalStateException} y un rechazo se devuelve como
+ * {@code false}, así que quien la llama puede reintentar las fallas sin reintentar rechazos.
+ * Si el hilo se interrumpe durante la espera, la llamada termina sin cobrar.
+ * Como pide {@link PasarelaPago}, recuerda la respuesta de cada referencia de pago: un cobro
+ * repetido devuelve la respuesta original y un reembolso repetido no devuelve dos veces.
+ */
+public class PasarelaSimulada implements PasarelaPago {
+
+	// Atributos
+	private final long latenciaNanos;
+	private final double tasaFallos;
+	private final double tasaRechazos;
+	private final Random aleatorio;
+	private final AtomicLong cobrado;
+	private final AtomicLong llamadas;
+	private final ConcurrentHashMap<String, Boolean> cobros;
+	private final Set<String> reembolsos;
+
+	// Ctor
+
+	/**
+	 * Crea una pasarela simulada que no rechaza cobros.
+	 *
+	 * @param latencia Tiempo que tarda cada llamada.
+	 * @param tasaFallos Probabilidad de que una llamada falle, entre 0 y 1.
+	 * @pre latencia no negativa ; 0 <= tasaFallos <= 1.
+	 */
+	public PasarelaSimulada(Duration latencia, double tasaFallos) {
+		this(latencia, tasaFallos, 0.0, System.nanoTime());
+	}
+
+	/**
+	 * Crea una pasarela simulada.
+	 *
+	 * @param latencia Tiempo que tarda cada llamada.
+	 * @param tasaFallos Probabilidad de que una llamada falle, entre 0 y 1.
+	 * @param tasaRechazos Probabilidad de que un cobro que no falla se rechace, entre 0 y 1.
+	 * @param semilla Semilla de los números aleatorios, para repetir una simulación.
+	 * @pre latencia no negativa ; 0 <= tasaFallos <= 1 ; 0 <= tasaRechazos <= 1.
+	 */
+	public PasarelaSimulada(Duration latencia, double tasaFallos, double tasaRechazos, long semilla) {
+		if (latencia == null || latencia.isNegative()) {
+			throw new IllegalArgumentException("La latencia no puede ser negativa.");
+		}
+		if (tasaFallos < 0 || tasaFallos > 1 || tasaRechazos < 0 || tasaRechazos > 1) {
+			throw new IllegalArgumentException("Las tasas de fallo y rechazo deben estar entre 0 y 1.");
+		}
+		this.latenciaNanos = latencia.toNanos();
+		this.tasaFallos = tasaFallos;
+		this.tasaRechazos = tasaRechazos;
+		this.aleatorio = new Random(semilla);
+		this.cobrado = new AtomicLong();
+		this.llamadas = new AtomicLong();
+		this.cobros = new ConcurrentHashMap<String, Boolean>();
+		this.reembolsos = ConcurrentHashMap.newKeySet();
+	}
+
+	// Getters
+
+	/**
+	 * Obtiene el neto cobrado: cobros aprobados menos reembolsos.
+	 *
+	 * @return Monto en centavos.
+	 */
+	public long getCobradoCentavos() {
+		return cobrado.get();
+	}
+
+	/**
+	 * Obtiene cuántas llamadas recibió la pasarela, incluidas las que fallaron.
+	 *
+	 * @return Número de llamadas.
+	 */
+	public long getLlamadas() {
+		return llamadas.get();
+	}
+
+	// Métodos funcionales
+
+	@Override
+	public boolean cobrar(Cliente cliente, long centavos, String referencia) throws IllegalStateException {
+		esperarYFallar();
+		Boolean previa = cobros.get(referencia);
+		if (previa != null) {
+			return previa;
+		}
+		boolean aprobado = !sortear(tasaRechazos);
+		previa = cobros.putIfAbsent(referencia, aprobado);
+		if (previa != null) {
+			return previa;
+		}
+		if (aprobado) {
+			cobrado.addAndGet(centavos);
+		}
+		return aprobado;
+	}
+
+	@Override
+	public void reembolsar(Cliente cliente, long centavos, String referencia) throws IllegalStateException {
+		esperarYFallar();
+		if (Boolean.TRUE.equals(cobros.get(referencia)) && reembolsos.add(referencia)) {
+			cobrado.addAndGet(-centavos);
+		}
+	}
+
+	private void esperarYFallar() throws IllegalStateException {
+		llamadas.incrementAndGet();
+		if (latenciaNanos > 0) {
+			try {
+				Thread.sleep(Duration.ofNanos(latenciaNanos));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("La llamada a la pasarela fue interrumpida.", e);
+			}
+		}
+		if (sortear(tasaFallos)) {
+			throw new IllegalStateException("La pasarela de pago no está disponible.");
+		}
+	}
+
+	private boolean sortear(double probabilidad) {
+		if (probabilidad <= 0) {
+			return false;
+		}
+		synchronized (aleatorio) {
+			return aleatorio.nextDouble() < probabilidad;
+		}
+	}
+}
@@ -0,0 +1,336 @@
+package Usuarios;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import Eventos.Evento;
+import Tiquetes.Compra;
+
+/**
+ * Etapa de compra que agrupa las solicitudes en lotes por {@link Evento} y los confirma juntos
+ * (group commit), para las salidas a la venta con miles de compras por segundo.
+ * Cada solicitud espera en la cola de su evento hasta que el lote se llena o pasa el tiempo de
+ * espera desde la primera solicitud del lote. Entonces un solo hilo prepara todas las
+ * transacciones del lote una tras otra ({@link TransaccionCompra#preparar()}: apartar
+ * inventario y cobrar), guarda las compras que salieron bien con una sola escritura y solo
+ * después las confirma. Quien envía la solicitud recibe su propio resultado: su compra, la
+ * excepción de su transacción, o una {@link IllegalStateException} si falló la escritura del
+ * lote, en cuyo caso todas las compras del lote se revierten. Todo futuro termina, aunque
+ * falle la confirmación o la reversión de otra compra del lote.
+ * Lleva métricas del llenado de los lotes y de la espera que agrega.
+ * Como el lote se prepara en un solo hilo, conviene usarlo con compras pagadas con saldo o con
+ * una pasarela rápida.
+ */
+public class ProcesadorLotesCompra {
+
+	// Atributos
+	private final int tamanoLote;
+	private final long esperaNanos;
+	private final Consumer<List<Compra>> persistir;
+	private final Map<Evento, Cola> colas;
+	private final ScheduledExecutorService temporizador;
+	private final ExecutorService hilos;
+	// Los envíos toman la lectura y el cierre la escritura, para no encolar después de cerrar.
+	private final ReadWriteLock candadoCierre;
+	private boolean cerrado;
+
+	// Métricas
+	private final AtomicLong lotes;
+	private final AtomicLong solicitudes;
+	private final AtomicLong esperaTotalNanos;
+	private final AtomicLong esperaMaximaNanos;
+	private final AtomicLong escrituraTotalNanos;
+
+	// Ctor
+
+	/**
+	 * Crea un procesador de lotes.
+	 *
+	 * @param tamanoLote Solicitudes máximas por lote.
+	 * @param espera Tiempo máximo que la primera solicitud de un lote espera a que se llene.
+	 * @param persistir Escritura de un lote de compras, por ejemplo
+	 *        {@code Persistencia.PersistenciaCompras::agregarCompras}; si lanza una excepción,
+	 *        el lote se revierte.
+	 * @pre tamanoLote > 0 ; espera no negativa ; persistir != null.
+	 */
+	public ProcesadorLotesCompra(int tamanoLote, Duration espera, Consumer<List<Compra>> persistir) {
+		if (tamanoLote <= 0 || espera == null || espera.isNegative() || persistir == null) {
+			throw new IllegalArgumentException("Configuración de lotes inválida.");
+		}
+		this.tamanoLote = tamanoLote;
+		this.esperaNanos = espera.toNanos();
+		this.persistir = persistir;
+		this.colas = new ConcurrentHashMap<Evento, Cola>();
+		this.temporizador = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "lotes-compra");
+			t.setDaemon(true);
+			return t;
+		});
+		this.hilos = Executors.newVirtualThreadPerTaskExecutor();
+		this.candadoCierre = new ReentrantReadWriteLock();
+		this.lotes = new AtomicLong();
+		this.solicitudes = new AtomicLong();
+		this.esperaTotalNanos = new AtomicLong();
+		this.esperaMaximaNanos = new AtomicLong();
+		this.escrituraTotalNanos = new AtomicLong();
+	}
+
+	// Getters
+
+	public int getTamanoLote() {
+		return tamanoLote;
+	}
+
+	/**
+	 * Obtiene cuántos lotes se han procesado.
+	 *
+	 * @return Número de lotes.
+	 */
+	public long getLotes() {
+		return lotes.get();
+	}
+
+	/**
+	 * Obtiene cuántas solicitudes se han procesado en lotes.
+	 *
+	 * @return Número de solicitudes.
+	 */
+	public long getSolicitudes() {
+		return solicitudes.get();
+	}
+
+	/**
+	 * Obtiene el llenado promedio de los lotes.
+	 *
+	 * @return Solicitudes por lote sobre el tamaño del lote, entre 0 y 1; 0 si no hay lotes.
+	 */
+	public double getLlenadoPromedio() {
+		long n = lotes.get();
+		return n == 0 ? 0.0 : solicitudes.get() / (double) (n * tamanoLote);
+	}
+
+	/**
+	 * Obtiene la espera promedio que agrega el agrupamiento: desde que llega la solicitud
+	 * hasta que su lote empieza a procesarse.
+	 *
+	 * @return Espera promedio en nanosegundos; 0 si no hay solicitudes.
+	 */
+	public long getEsperaPromedioNanos() {
+		long n = solicitudes.get();
+		return n == 0 ? 0 : esperaTotalNanos.get() / n;
+	}
+
+	/**
+	 * Obtiene la mayor espera que agregó el agrupamiento a una solicitud.
+	 *
+	 * @return Espera máxima en nanosegundos.
+	 */
+	public long getEsperaMaximaNanos() {
+		return esperaMaximaNanos.get();
+	}
+
+	/**
+	 * Obtiene el tiempo promedio de la escritura de un lote.
+	 *
+	 * @return Nanosegundos por lote; 0 si no hay lotes.
+	 */
+	public long getEscrituraPromedioNanos() {
+		long n = lotes.get();
+		return n == 0 ? 0 : escrituraTotalNanos.get() / n;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Envía una compra al lote de su evento.
+	 *
+	 * @param transaccion Compra a ejecutar; no debe haberse ejecutado.
+	 * @return Futuro que termina con la compra confirmada y guardada, o con su excepción.
+	 * @throws IllegalArgumentException si la transacción es nula.
+	 * @throws IllegalStateException si el procesador está cerrado.
+	 */
+	public CompletableFuture<Compra> enviar(TransaccionCompra transaccion)
+			throws IllegalArgumentException, IllegalStateException {
+		if (transaccion == null) {
+			throw new IllegalArgumentException("Transacción de compra inválida.");
+		}
+		Evento evento = transaccion.getEventoPrincipal();
+		if (evento == null) {
+			return CompletableFuture.failedFuture(new IllegalArgumentException("El carrito no tiene tiquetes de un evento."));
+		}
+		Solicitud solicitud = new Solicitud(transaccion);
+		candadoCierre.readLock().lock();
+		try {
+			if (cerrado) {
+				throw new IllegalStateException("El procesador de lotes está cerrado.");
+			}
+			colas.computeIfAbsent(evento, e -> new Cola()).agregar(solicitud);
+		} finally {
+			candadoCierre.readLock().unlock();
+		}
+		return solicitud.resultado;
+	}
+
+	/**
+	 * Procesa los lotes pendientes y deja de aceptar solicitudes.
+	 *
+	 * @post Toda solicitud enviada antes de cerrar tiene resultado.
+	 */
+	public void cerrar() {
+		candadoCierre.writeLock().lock();
+		try {
+			cerrado = true;
+		} finally {
+			candadoCierre.writeLock().unlock();
+		}
+		temporizador.shutdownNow();
+		try {
+			temporizador.awaitTermination(1, TimeUnit.MINUTES);
+			for (Cola c : colas.values()) {
+				c.vaciar();
+			}
+			hilos.shutdown();
+			hilos.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void procesar(List<Solicitud> lote) {
+		try {
+			procesarLote(lote);
+		} finally {
+			for (Solicitud s : lote) {
+				if (!s.resultado.isDone()) {
+					s.resultado.completeExceptionally(new IllegalStateException("El lote de compras no terminó."));
+				}
+			}
+		}
+	}
+
+	private void procesarLote(List<Solicitud> lote) {
+		long inicio = System.nanoTime();
+		for (Solicitud s : lote) {
+			long espera = inicio - s.llegada;
+			esperaTotalNanos.addAndGet(espera);
+			esperaMaximaNanos.accumulateAndGet(espera, Math::max);
+		}
+		lotes.incrementAndGet();
+		solicitudes.addAndGet(lote.size());
+
+		List<Solicitud> preparadas = new ArrayList<Solicitud>(lote.size());
+		List<Compra> compras = new ArrayList<Compra>(lote.size());
+		for (Solicitud s : lote) {
+			try {
+				compras.add(s.transaccion.preparar());
+				preparadas.add(s);
+			} catch (RuntimeException e) {
+				s.resultado.completeExceptionally(e);
+			}
+		}
+		if (compras.isEmpty()) {
+			return;
+		}
+		long inicioEscritura = System.nanoTime();
+		try {
+			persistir.accept(compras);
+		} catch (RuntimeException e) {
+			IllegalStateException falla = new IllegalStateException("No se pudo guardar el lote de compras.", e);
+			for (int i = preparadas.size() - 1; i >= 0; i--) {
+				Solicitud s = preparadas.get(i);
+				try {
+					s.transaccion.revertir();
+				} catch (RuntimeException r) {
+					falla.addSuppressed(r);
+				} finally {
+					s.resultado.completeExceptionally(falla);
+				}
+			}
+			return;
+		} finally {
+			escrituraTotalNanos.addAndGet(System.nanoTime() - inicioEscritura);
+		}
+		for (int i = 0; i < preparadas.size(); i++) {
+			Solicitud s = preparadas.get(i);
+			try {
+				s.transaccion.confirmar();
+				s.resultado.complete(compras.get(i));
+			} catch (RuntimeException e) {
+				s.resultado.completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * Solicitudes pendientes de un evento.
+	 */
+	private final class Cola {
+		private List<Solicitud> pendientes = new ArrayList<Solicitud>();
+		private ScheduledFuture<?> vencimiento;
+
+		void agregar(Solicitud s) {
+			List<Solicitud> lleno = null;
+			synchronized (this) {
+				pendientes.add(s);
+				if (pendientes.size() >= tamanoLote) {
+					lleno = tomar();
+				} else if (pendientes.size() == 1) {
+					vencimiento = temporizador.schedule(this::vaciar, esperaNanos, TimeUnit.NANOSECONDS);
+				}
+			}
+			if (lleno != null) {
+				List<Solicitud> lote = lleno;
+				hilos.execute(() -> procesar(lote));
+			}
+		}
+
+		void vaciar() {
+			List<Solicitud> lote;
+			synchronized (this) {
+				if (pendientes.isEmpty()) {
+					return;
+				}
+				lote = tomar();
+			}
+			hilos.execute(() -> procesar(lote));
+		}
+
+		private List<Solicitud> tomar() {
+			List<Solicitud> lote = pendientes;
+			pendientes = new ArrayList<Solicitud>(tamanoLote);
+			if (vencimiento != null) {
+				vencimiento.cancel(false);
+				vencimiento = null;
+			}
+			return lote;
+		}
+	}
+
+	/**
+	 * Compra en espera de su lote.
+	 */
+	private static final class Solicitud {
+		private final TransaccionCompra transaccion;
+		private final CompletableFuture<Compra> resultado;
+		private final long llegada;
+
+		Solicitud(TransaccionCompra transaccion) {
+			this.transaccion = transaccion;
+			this.resultado = new CompletableFuture<Compra>();
+			this.llegada = System.nanoTime();
+		}
+	}
+}
@@ -0,0 +1,341 @@
+package Usuarios;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import Tiquetes.Compra;
+
+/**
+ * Registro de las compras hechas con una clave de idempotencia, para que un cliente que
+ * reintenta una compra (por ejemplo, después de un tiempo de espera) reciba la {@link Compra}
+ * original en lugar de pagar dos veces.
+ * Las claves son por cliente. Mientras la primera solicitud con una clave se ejecuta, los
+ * reintentos con la misma clave la esperan; si termina bien reciben su compra y si falla uno
+ * de ellos vuelve a intentarla. Un reintento recibe la compra original aunque su carrito sea
+ * distinto.
+ * Las compras terminadas se guardan en una tabla hash en orden de llegada: buscar una clave es
+ * O(1) y, como todas vencen al mismo tiempo después de creadas, las vencidas siempre están al
+ * principio y se retiran sin recorrer la tabla. La tabla no pasa de un máximo de entradas (al
+ * llenarse sale la más antigua) y las claves tienen una longitud máxima, así que la memoria
+ * que ocupa está acotada. Se guarda en disco con {@code Persistencia.PersistenciaIdempotencia}.
+ */
+public class RegistroIdempotencia {
+
+	public static final int MAXIMO_ENTRADAS = 100_000;
+	public static final long VIGENCIA_MILIS = 24L * 60 * 60 * 1000;
+	public static final int LONGITUD_MAXIMA_CLAVE = 64;
+
+	private static final Pattern FORMATO_CLAVE = Pattern.compile("[A-Za-z0-9_-]+");
+
+	// Atributos
+	private static RegistroIdempotencia instance;
+	private final int maximoEntradas;
+	private final long vigenciaMilis;
+	private final LongSupplier reloj;
+	private final LinkedHashMap<String, Entrada> terminadas;
+	private final Map<String, EnCurso> enCurso;
+
+	// Ctor
+
+	/**
+	 * Crea un registro vacío con el reloj del sistema.
+	 *
+	 * @param maximoEntradas Compras terminadas que se recuerdan a la vez.
+	 * @param vigenciaMilis Tiempo que se recuerda cada compra, en milisegundos.
+	 * @pre maximoEntradas > 0 ; vigenciaMilis > 0.
+	 */
+	public RegistroIdempotencia(int maximoEntradas, long vigenciaMilis) {
+		this(maximoEntradas, vigenciaMilis, System::currentTimeMillis);
+	}
+
+	/**
+	 * Crea un registro vacío.
+	 *
+	 * @param maximoEntradas Compras terminadas que se recuerdan a la vez.
+	 * @param vigenciaMilis Tiempo que se recuerda cada compra, en milisegundos.
+	 * @param reloj Hora actual en milisegundos desde la época.
+	 * @pre maximoEntradas > 0 ; vigenciaMilis > 0 ; reloj != null.
+	 */
+	public RegistroIdempotencia(int maximoEntradas, long vigenciaMilis, LongSupplier reloj) {
+		if (maximoEntradas <= 0 || vigenciaMilis <= 0 || reloj == null) {
+			throw new IllegalArgumentException("Configuración de idempotencia inválida.");
+		}
+		this.maximoEntradas = maximoEntradas;
+		this.vigenciaMilis = vigenciaMilis;
+		this.reloj = reloj;
+		this.terminadas = new LinkedHashMap<String, Entrada>();
+		this.enCurso = new ConcurrentHashMap<String, EnCurso>();
+	}
+
+	/**
+	 * Obtiene el registro de la aplicación.
+	 *
+	 * @return Instancia única, con {@value #MAXIMO_ENTRADAS} entradas y un día de vigencia.
+	 */
+	public static synchronized RegistroIdempotencia getInstance() {
+		if (instance == null) {
+			instance = new RegistroIdempotencia(MAXIMO_ENTRADAS, VIGENCIA_MILIS);
+		}
+		return instance;
+	}
+
+	// Getters
+
+	/**
+	 * Obtiene cuántas compras terminadas se recuerdan.
+	 *
+	 * @return Entradas en la tabla; una restaurada que vence antes que las anteriores se cuenta
+	 *         hasta que se busca o llega al principio.
+	 */
+	public synchronized int getCantidad() {
+		retirarVencidas(reloj.getAsLong());
+		return terminadas.size();
+	}
+
+	/**
+	 * Obtiene las compras terminadas que se recuerdan, para guardarlas.
+	 *
+	 * @return Entradas vigentes en orden de llegada, de solo lectura.
+	 */
+	public synchronized List<Entrada> getEntradas() {
+		long ahora = reloj.getAsLong();
+		retirarVencidas(ahora);
+		List<Entrada> vigentes = new ArrayList<Entrada>(terminadas.size());
+		for (Entrada e : terminadas.values()) {
+			if (e.expira > ahora) {
+				vigentes.add(e);
+			}
+		}
+		return Collections.unmodifiableList(vigentes);
+	}
+
+	/**
+	 * Busca la compra hecha con una clave.
+	 *
+	 * @param cliente Cliente que hizo la compra.
+	 * @param clave Clave de idempotencia.
+	 * @return La compra, o {@code null} si no hay una vigente con esa clave.
+	 */
+	public synchronized Compra buscar(Cliente cliente, String clave) {
+		if (cliente == null || clave == null) {
+			return null;
+		}
+		return vigente(llave(cliente.getId(), clave), reloj.getAsLong());
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Ejecuta una compra una sola vez por clave.
+	 *
+	 * @param cliente Cliente que compra.
+	 * @param clave Clave de idempotencia que el cliente repite en sus reintentos.
+	 * @param compra Compra a ejecutar si la clave es nueva.
+	 * @return La compra hecha ahora o la que ya se había hecho con la clave.
+	 * @throws IllegalArgumentException si la clave es inválida, o lo que lance la compra.
+	 * @throws IllegalStateException si el hilo se interrumpe esperando a otra solicitud con la
+	 *         misma clave, o lo que lance la compra.
+	 * @post Si la compra termina bien, la clave queda registrada durante la vigencia.
+	 */
+	public Compra ejecutar(Cliente cliente, String clave, Supplier<Compra> compra)
+			throws IllegalArgumentException, IllegalStateException {
+		if (cliente == null || compra == null) {
+			throw new IllegalArgumentException("Datos de compra inválidos.");
+		}
+		validarClave(clave);
+		String llave = llave(cliente.getId(), clave);
+		while (true) {
+			Compra previa;
+			synchronized (this) {
+				previa = vigente(llave, reloj.getAsLong());
+			}
+			if (previa != null) {
+				return previa;
+			}
+			EnCurso propia = new EnCurso();
+			EnCurso otra = enCurso.putIfAbsent(llave, propia);
+			if (otra != null) {
+				Compra resultado = otra.esperar();
+				if (resultado != null) {
+					return resultado;
+				}
+				continue;
+			}
+			// La otra solicitud pudo terminar entre la búsqueda y el putIfAbsent.
+			synchronized (this) {
+				previa = vigente(llave, reloj.getAsLong());
+			}
+			if (previa != null) {
+				enCurso.remove(llave, propia);
+				propia.terminar(previa);
+				return previa;
+			}
+			Compra resultado = null;
+			try {
+				resultado = compra.get();
+				synchronized (this) {
+					agregar(new Entrada(cliente.getId(), clave, resultado, reloj.getAsLong() + vigenciaMilis));
+				}
+				return resultado;
+			} finally {
+				enCurso.remove(llave, propia);
+				propia.terminar(resultado);
+			}
+		}
+	}
+
+	/**
+	 * Vuelve a registrar una compra guardada, por ejemplo al cargar el registro desde disco.
+	 *
+	 * @param cliente Cliente que hizo la compra.
+	 * @param clave Clave de idempotencia.
+	 * @param compra Compra hecha con la clave.
+	 * @param expira Instante en que vence la entrada, en milisegundos desde la época.
+	 * @return {@code true} si quedó registrada; {@code false} si ya venció.
+	 * @throws IllegalArgumentException si algún dato es inválido.
+	 */
+	public synchronized boolean restaurar(Cliente cliente, String clave, Compra compra, long expira)
+			throws IllegalArgumentException {
+		if (cliente == null || compra == null) {
+			throw new IllegalArgumentException("Datos de compra inválidos.");
+		}
+		validarClave(clave);
+		long ahora = reloj.getAsLong();
+		if (expira <= ahora) {
+			return false;
+		}
+		// Una entrada guardada no vence después de lo que permite la vigencia actual.
+		agregar(new Entrada(cliente.getId(), clave, compra, Math.min(expira, ahora + vigenciaMilis)));
+		return true;
+	}
+
+	/**
+	 * Olvida todas las compras terminadas.
+	 *
+	 * @post El registro no recuerda ninguna clave.
+	 */
+	public synchronized void limpiar() {
+		terminadas.clear();
+	}
+
+	private Compra vigente(String llave, long ahora) {
+		retirarVencidas(ahora);
+		Entrada e = terminadas.get(llave);
+		if (e == null) {
+			return null;
+		}
+		if (e.expira <= ahora) {
+			terminadas.remove(llave);
+			return null;
+		}
+		return e.compra;
+	}
+
+	private void agregar(Entrada entrada) {
+		String llave = llave(entrada.idCliente, entrada.clave);
+		terminadas.remove(llave);
+		terminadas.put(llave, entrada);
+		if (terminadas.size() > maximoEntradas) {
+			Iterator<Entrada> it = terminadas.values().iterator();
+			it.next();
+			it.remove();
+		}
+	}
+
+	/**
+	 * Retira las entradas vencidas del principio de la tabla. Las entradas restauradas pueden
+	 * vencer antes que una anterior; esas se descartan al buscarlas o al llegar al principio.
+	 */
+	private void retirarVencidas(long ahora) {
+		Iterator<Entrada> it = terminadas.values().iterator();
+		while (it.hasNext() && it.next().expira <= ahora) {
+			it.remove();
+		}
+	}
+
+	private static void validarClave(String clave) throws IllegalArgumentException {
+		if (clave == null || clave.length() > LONGITUD_MAXIMA_CLAVE || !FORMATO_CLAVE.matcher(clave).matches()) {
+			throw new IllegalArgumentException("La clave de idempotencia debe tener entre 1 y "
+					+ LONGITUD_MAXIMA_CLAVE + " letras, dígitos, guiones o guiones bajos.");
+		}
+	}
+
+	private static String llave(int idCliente, String clave) {
+		return idCliente + ":" + clave;
+	}
+
+	/**
+	 * Solicitud en ejecución; los reintentos con la misma clave esperan su resultado.
+	 */
+	private static final class EnCurso {
+		private boolean terminada;
+		private Compra compra;
+
+		synchronized void terminar(Compra compra) {
+			this.compra = compra;
+			this.terminada = true;
+			notifyAll();
+		}
+
+		/**
+		 * @return La compra, o {@code null} si la solicitud falló.
+		 */
+		synchronized Compra esperar() throws IllegalStateException {
+			while (!terminada) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Se interrumpió la espera de la compra en curso.", e);
+				}
+			}
+			return compra;
+		}
+	}
+
+	/**
+	 * Compra terminada que se recuerda por su clave.
+	 */
+	public static final class Entrada {
+
+		private final int idCliente;
+		private final String clave;
+		private final Compra compra;
+		private final long expira;
+
+		Entrada(int idCliente, String clave, Compra compra, long expira) {
+			this.idCliente = idCliente;
+			this.clave = clave;
+			this.compra = compra;
+			this.expira = expira;
+		}
+
+		/** Id del cliente que hizo la compra. */
+		public int getIdCliente() {
+			return idCliente;
+		}
+
+		/** Clave de idempotencia. */
+		public String getClave() {
+			return clave;
+		}
+
+		/** Compra hecha con la clave. */
+		public Compra getCompra() {
+			return compra;
+		}
+
+		/** Instante en que vence la entrada, en milisegundos desde la época. */
+		public long getExpira() {
+			return expira;
+		}
+	}
+}
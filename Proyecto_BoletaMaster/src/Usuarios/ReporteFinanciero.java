@@ -1,6 +1,7 @@
 package Usuarios;
 import java.time.*;
 import Eventos.*;
+import Tiquetes.Dinero;
 
 /**
  * Representa un reporte financiero asociado a un evento del sistema BoletaMaster.
@@ -13,6 +14,7 @@ public class ReporteFinanciero {
     private LocalDateTime fechaInicio;
     private LocalDateTime fechaFin;
     private int ventasEvento;
+    private long ingresosEvento;
     private double porcentajeOcupacion;
 
     /**
@@ -73,6 +75,24 @@ public class ReporteFinanciero {
         ventasEvento = evento.calcularTotalTiquetesVendidos();
     }
 
+    public double getIngresosEvento() {
+        return Dinero.aValor(ingresosEvento);
+    }
+
+    public long getIngresosEventoCentavos() {
+        return ingresosEvento;
+    }
+
+    /**
+     * Actualiza los ingresos a partir de un evento, sumados en centavos.
+     * @param evento Evento del cual se obtendrán los ingresos.
+     * @pre evento != null
+     * @post this.ingresosEvento == evento.calcularIngresosTotalesCentavos()
+     */
+    public void setIngresosEvento(Evento evento) {
+        ingresosEvento = evento.calcularIngresosTotalesCentavos();
+    }
+
     public double getPorcentajeOcupacion() {
         return porcentajeOcupacion;
     }
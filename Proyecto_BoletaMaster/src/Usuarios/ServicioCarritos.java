@@ -0,0 +1,433 @@
+package Usuarios;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import Eventos.RuedaTemporizadora;
+import Tiquetes.Compra;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+/**
+ * Guarda el {@link Carrito} de cada cliente mientras arma su compra, en vez de que quien llama
+ * tenga que armar las listas para {@link Cliente#hacerCompra}.
+ * Un cliente tiene a lo sumo un carrito abierto; se crea al agregar el primer elemento y se
+ * descarta al pagarlo, vaciarlo o quitarle el último elemento. Un carrito sin cambios durante
+ * la vigencia vence: sus retenciones se liberan y se descarta.
+ * Los vencimientos se programan en una {@link RuedaTemporizadora} con una sola entrada por
+ * carrito, que un hilo en segundo plano avanza cada tick. Un cambio en el carrito solo anota la
+ * hora; cuando su entrada vence, el barrido revisa la hora del último cambio y, si el carrito
+ * sigue en uso, lo vuelve a programar. Así cada cambio cuesta lo mismo aunque haya un millón de
+ * carritos, y cada barrido solo revisa los carritos que podrían haber vencido.
+ * La cantidad de carritos abiertos tiene un máximo, para acotar la memoria: al llegar a él no
+ * se abren carritos nuevos hasta que otros se paguen o venzan.
+ */
+public class ServicioCarritos {
+
+	public static final Duration VIGENCIA_POR_DEFECTO = Duration.ofMinutes(30);
+	public static final int MAXIMO_POR_DEFECTO = 1_000_000;
+
+	private static final long TICK_POR_DEFECTO_MS = 1000;
+	private static final int RANURAS_POR_DEFECTO = 4096;
+
+	// Atributos
+	private static ServicioCarritos instance;
+	private final ConcurrentHashMap<Integer, Carrito> carritos;
+	private final RuedaTemporizadora<Carrito> rueda;
+	private final LongSupplier reloj;
+	private final long vigenciaMilis;
+	private final long duracionTick;
+	private final int maximoCarritos;
+	private final AtomicInteger abiertos;
+	private final LongAdder creados;
+	private final LongAdder pagados;
+	private final LongAdder expirados;
+	private ScheduledExecutorService temporizador;
+
+	// Ctor
+
+	/**
+	 * Crea un servicio sin hilo de vencimiento; los vencimientos se procesan al llamar
+	 * {@link #procesarVencimientos()} o tras {@link #iniciar()}.
+	 *
+	 * @param reloj Fuente del instante actual en milisegundos.
+	 * @param vigencia Tiempo sin cambios tras el cual un carrito vence.
+	 * @param maximoCarritos Carritos abiertos máximos.
+	 * @param duracionTick Duración de cada tick de la rueda en milisegundos.
+	 * @param ranuras Número de ranuras de la rueda.
+	 * @pre reloj definido; vigencia positiva; maximoCarritos > 0; duracionTick > 0; ranuras > 0.
+	 * @post El servicio queda sin carritos y con contadores en cero.
+	 */
+	public ServicioCarritos(LongSupplier reloj, Duration vigencia, int maximoCarritos, long duracionTick, int ranuras) {
+		if (reloj == null || vigencia == null || vigencia.isNegative() || vigencia.isZero() || maximoCarritos <= 0) {
+			throw new IllegalArgumentException("Configuración de carritos inválida.");
+		}
+		this.carritos = new ConcurrentHashMap<Integer, Carrito>();
+		this.rueda = new RuedaTemporizadora<Carrito>(reloj.getAsLong(), duracionTick, ranuras);
+		this.reloj = reloj;
+		this.vigenciaMilis = vigencia.toMillis();
+		this.duracionTick = duracionTick;
+		this.maximoCarritos = maximoCarritos;
+		this.abiertos = new AtomicInteger();
+		this.creados = new LongAdder();
+		this.pagados = new LongAdder();
+		this.expirados = new LongAdder();
+	}
+
+	/**
+	 * @pre true
+	 * @post Retorna la instancia única del servicio. Si no existe, la crea con el reloj del
+	 *       sistema, vigencia de {@link #VIGENCIA_POR_DEFECTO} y hasta
+	 *       {@value #MAXIMO_POR_DEFECTO} carritos, y arranca su hilo de vencimientos.
+	 * @return instancia única del servicio
+	 */
+	public static synchronized ServicioCarritos getInstance() {
+		if (instance == null) {
+			instance = new ServicioCarritos(System::currentTimeMillis, VIGENCIA_POR_DEFECTO, MAXIMO_POR_DEFECTO,
+					TICK_POR_DEFECTO_MS, RANURAS_POR_DEFECTO);
+			instance.iniciar();
+		}
+		return instance;
+	}
+
+	// Getters
+
+	/**
+	 * Obtiene el número de carritos abiertos en este momento.
+	 *
+	 * @return Carritos creados que no se han pagado, vaciado ni vencido.
+	 */
+	public int getAbiertos() {
+		return abiertos.get();
+	}
+
+	public long getCreados() {
+		return creados.sum();
+	}
+
+	public long getPagados() {
+		return pagados.sum();
+	}
+
+	public long getExpirados() {
+		return expirados.sum();
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Arranca un hilo en segundo plano que procesa los vencimientos en cada tick.
+	 *
+	 * @post Los carritos vencidos se descartan automáticamente.
+	 */
+	public synchronized void iniciar() {
+		if (temporizador != null) {
+			return;
+		}
+		temporizador = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "vencimiento-carritos");
+			t.setDaemon(true);
+			return t;
+		});
+		temporizador.scheduleAtFixedRate(this::procesarVencimientos, duracionTick, duracionTick, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Detiene el hilo de vencimientos, si existe.
+	 *
+	 * @post Los vencimientos solo se procesan de forma manual.
+	 */
+	public synchronized void detener() {
+		if (temporizador != null) {
+			temporizador.shutdownNow();
+			temporizador = null;
+		}
+	}
+
+	/**
+	 * Obtiene el carrito abierto de un cliente. Los elementos cuya retención ya venció se
+	 * quitan antes de devolverlo.
+	 *
+	 * @param cliente Cliente a consultar.
+	 * @return Carrito del cliente, o {@code null} si no tiene uno abierto.
+	 */
+	public Carrito obtener(Cliente cliente) {
+		Carrito c = carritos.get(cliente.getId());
+		if (c == null) {
+			return null;
+		}
+		synchronized (c) {
+			if (c.isCerrado()) {
+				return null;
+			}
+			if (c.quitarSinRetencion() > 0 && c.isVacio()) {
+				cerrar(c, Carrito.VACIADO);
+				return null;
+			}
+			return c;
+		}
+	}
+
+	/**
+	 * Agrega un tiquete suelto al carrito del cliente; si no tiene uno, lo abre.
+	 *
+	 * @param cliente Cliente que compra.
+	 * @param tiquete Tiquete de la precompra del cliente, normalmente con su retención.
+	 * @return Carrito actualizado.
+	 * @throws IllegalArgumentException si el tiquete es nulo, no es del cliente o su
+	 *         retención ya no está activa.
+	 * @throws IllegalStateException si el cliente está pagando su carrito o no caben más carritos.
+	 * @post El tiquete está una sola vez en el carrito y el total lo incluye.
+	 */
+	public Carrito agregarTiquete(Cliente cliente, Tiquete tiquete) throws IllegalArgumentException, IllegalStateException {
+		if (tiquete == null || tiquete.getDueno() != cliente) {
+			throw new IllegalArgumentException("El tiquete no pertenece al cliente.");
+		}
+		if (tiquete.getRetencion() != null && !tiquete.getRetencion().estaActiva()) {
+			throw new IllegalArgumentException("La retención del tiquete ya no está activa.");
+		}
+		while (true) {
+			Carrito c = obtenerOCrear(cliente);
+			synchronized (c) {
+				if (c.isCerrado()) {
+					continue;
+				}
+				verificarAbierto(c);
+				c.agregar(tiquete);
+				c.tocar(reloj.getAsLong());
+				return c;
+			}
+		}
+	}
+
+	/**
+	 * Agrega un paquete al carrito del cliente; si no tiene uno, lo abre.
+	 *
+	 * @param cliente Cliente que compra.
+	 * @param paquete Paquete de la precompra del cliente, normalmente con sus retenciones.
+	 * @return Carrito actualizado.
+	 * @throws IllegalArgumentException si el paquete es nulo o no es del cliente.
+	 * @throws IllegalStateException si el cliente está pagando su carrito o no caben más carritos.
+	 * @post El paquete está una sola vez en el carrito y el total lo incluye.
+	 */
+	public Carrito agregarPaquete(Cliente cliente, PaqueteTiquetes paquete) throws IllegalArgumentException, IllegalStateException {
+		if (paquete == null || paquete.getDueno() != cliente) {
+			throw new IllegalArgumentException("El paquete no pertenece al cliente.");
+		}
+		while (true) {
+			Carrito c = obtenerOCrear(cliente);
+			synchronized (c) {
+				if (c.isCerrado()) {
+					continue;
+				}
+				verificarAbierto(c);
+				c.agregar(paquete);
+				c.tocar(reloj.getAsLong());
+				return c;
+			}
+		}
+	}
+
+	/**
+	 * Quita un tiquete del carrito del cliente y libera su retención.
+	 *
+	 * @param cliente Cliente dueño del carrito.
+	 * @param tiquete Tiquete a quitar.
+	 * @return {@code true} si estaba en el carrito.
+	 * @throws IllegalStateException si el cliente está pagando su carrito.
+	 * @post Si el carrito queda vacío, se descarta.
+	 */
+	public boolean quitarTiquete(Cliente cliente, Tiquete tiquete) throws IllegalStateException {
+		Carrito c = carritos.get(cliente.getId());
+		if (c == null) {
+			return false;
+		}
+		synchronized (c) {
+			if (c.isCerrado()) {
+				return false;
+			}
+			verificarAbierto(c);
+			boolean quitado = c.quitar(tiquete);
+			despuesDeQuitar(c);
+			return quitado;
+		}
+	}
+
+	/**
+	 * Quita un paquete del carrito del cliente y libera sus retenciones.
+	 *
+	 * @param cliente Cliente dueño del carrito.
+	 * @param paquete Paquete a quitar.
+	 * @return {@code true} si estaba en el carrito.
+	 * @throws IllegalStateException si el cliente está pagando su carrito.
+	 * @post Si el carrito queda vacío, se descarta.
+	 */
+	public boolean quitarPaquete(Cliente cliente, PaqueteTiquetes paquete) throws IllegalStateException {
+		Carrito c = carritos.get(cliente.getId());
+		if (c == null) {
+			return false;
+		}
+		synchronized (c) {
+			if (c.isCerrado()) {
+				return false;
+			}
+			verificarAbierto(c);
+			boolean quitado = c.quitar(paquete);
+			despuesDeQuitar(c);
+			return quitado;
+		}
+	}
+
+	/**
+	 * Vacía y descarta el carrito del cliente, liberando todas sus retenciones.
+	 *
+	 * @param cliente Cliente dueño del carrito.
+	 * @return {@code true} si tenía un carrito abierto.
+	 * @throws IllegalStateException si el cliente está pagando su carrito.
+	 */
+	public boolean vaciar(Cliente cliente) throws IllegalStateException {
+		Carrito c = carritos.get(cliente.getId());
+		if (c == null) {
+			return false;
+		}
+		synchronized (c) {
+			if (c.isCerrado()) {
+				return false;
+			}
+			verificarAbierto(c);
+			c.vaciar();
+			cerrar(c, Carrito.VACIADO);
+			return true;
+		}
+	}
+
+	/**
+	 * Paga el carrito del cliente con {@link Cliente#hacerCompra}. El carrito no se puede
+	 * cambiar mientras se paga, pero el cobro se hace sin su monitor tomado, así que una
+	 * pasarela lenta no detiene el barrido de vencimientos.
+	 *
+	 * @param cliente Cliente dueño del carrito.
+	 * @param usarSaldoReembolso {@code true} para pagar con el saldo del cliente.
+	 * @param codigoDescuento Código de descuento, o {@code null}.
+	 * @return Compra registrada.
+	 * @throws IllegalArgumentException si el cliente no tiene un carrito con elementos, o la
+	 *         compra lo rechaza.
+	 * @throws IllegalStateException si el carrito ya se está pagando o la compra falla.
+	 * @post Si la compra sale bien el carrito se descarta; si falla, el carrito queda abierto
+	 *       como estaba.
+	 */
+	public Compra pagar(Cliente cliente, boolean usarSaldoReembolso, String codigoDescuento)
+			throws IllegalArgumentException, IllegalStateException {
+		Carrito c = obtener(cliente);
+		if (c == null) {
+			throw new IllegalArgumentException("El cliente no tiene un carrito abierto.");
+		}
+		ArrayList<Tiquete> tiquetes;
+		ArrayList<PaqueteTiquetes> paquetes;
+		synchronized (c) {
+			if (c.isCerrado() || c.isVacio()) {
+				throw new IllegalArgumentException("El cliente no tiene un carrito abierto.");
+			}
+			verificarAbierto(c);
+			c.setEstado(Carrito.PAGANDO);
+			c.actualizarMontos();
+			tiquetes = c.getTiquetes();
+			paquetes = c.getPaquetes();
+		}
+		Compra compra;
+		try {
+			compra = cliente.hacerCompra(tiquetes, paquetes, usarSaldoReembolso, codigoDescuento);
+		} catch (RuntimeException e) {
+			synchronized (c) {
+				c.setEstado(Carrito.ABIERTO);
+				c.tocar(reloj.getAsLong());
+			}
+			throw e;
+		}
+		synchronized (c) {
+			cerrar(c, Carrito.PAGADO);
+		}
+		pagados.increment();
+		return compra;
+	}
+
+	/**
+	 * Procesa los carritos cuya vigencia ya se cumplió.
+	 *
+	 * @return Número de carritos vencidos en esta pasada.
+	 * @post Los carritos sin cambios durante la vigencia quedan en estado "Expirado", sus
+	 *       retenciones se liberan y se descartan.
+	 */
+	public int procesarVencimientos() {
+		long antes = expirados.sum();
+		rueda.avanzar(reloj.getAsLong(), this::revisar);
+		return (int) (expirados.sum() - antes);
+	}
+
+	private Carrito obtenerOCrear(Cliente cliente) throws IllegalStateException {
+		Carrito c = carritos.get(cliente.getId());
+		if (c != null) {
+			return c;
+		}
+		return carritos.computeIfAbsent(cliente.getId(), id -> {
+			if (abiertos.incrementAndGet() > maximoCarritos) {
+				abiertos.decrementAndGet();
+				throw new IllegalStateException("Hay demasiados carritos abiertos; intente más tarde.");
+			}
+			long ahora = reloj.getAsLong();
+			Carrito nuevo = new Carrito(cliente, ahora);
+			nuevo.setEntrada(rueda.programar(nuevo, ahora + vigenciaMilis));
+			creados.increment();
+			return nuevo;
+		});
+	}
+
+	private static void verificarAbierto(Carrito c) throws IllegalStateException {
+		if (!c.isAbierto()) {
+			throw new IllegalStateException("El carrito se está pagando y no se puede cambiar.");
+		}
+	}
+
+	private void despuesDeQuitar(Carrito c) {
+		if (c.isVacio()) {
+			cerrar(c, Carrito.VACIADO);
+		} else {
+			c.tocar(reloj.getAsLong());
+		}
+	}
+
+	/**
+	 * Descarta un carrito; se llama con su monitor tomado.
+	 */
+	private void cerrar(Carrito c, String estado) {
+		c.setEstado(estado);
+		rueda.cancelar(c.getEntrada());
+		carritos.remove(c.getCliente().getId(), c);
+		abiertos.decrementAndGet();
+	}
+
+	private void revisar(Carrito c) {
+		synchronized (c) {
+			if (c.isCerrado()) {
+				return;
+			}
+			long ahora = reloj.getAsLong();
+			long vence = c.getUltimaActividad() + vigenciaMilis;
+			if (vence > ahora || !c.isAbierto()) {
+				// Sigue en uso o se está pagando: se revisa de nuevo cuando le toque.
+				c.setEntrada(rueda.programar(c, Math.max(vence, ahora + duracionTick)));
+				return;
+			}
+			c.vaciar();
+			cerrar(c, Carrito.EXPIRADO);
+			expirados.increment();
+		}
+	}
+}
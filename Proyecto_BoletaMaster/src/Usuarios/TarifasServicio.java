@@ -0,0 +1,95 @@
+package Usuarios;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import Tiquetes.Dinero;
+
+/**
+ * Versión publicada de las tarifas del administrador: la cuota de emisión por tiquete y el
+ * porcentaje de cargo de servicio por tipo de evento.
+ * Es inmutable; cada cambio del administrador publica una versión nueva con número mayor, así
+ * que un evento o un tiquete puede guardar la versión con la que se cotizó y consultarla
+ * después con {@link Administrador#getTarifas(long)}.
+ */
+public final class TarifasServicio {
+
+	// Atributos
+	private final long version;
+	private final double cuotaEmision;
+	private final Map<String, Double> cargosPorTipoEvento;
+
+	// Ctor
+
+	TarifasServicio(long version, double cuotaEmision, Map<String, Double> cargosPorTipoEvento) {
+		this.version = version;
+		this.cuotaEmision = cuotaEmision;
+		this.cargosPorTipoEvento = Collections.unmodifiableMap(new HashMap<String, Double>(cargosPorTipoEvento));
+	}
+
+	// Getters
+
+	public long getVersion() {
+		return version;
+	}
+
+	public double getCuotaEmision() {
+		return cuotaEmision;
+	}
+
+	/**
+	 * Obtiene la cuota de emisión por tiquete en centavos.
+	 *
+	 * @return Cuota de emisión, en centavos.
+	 */
+	public long getCuotaEmisionCentavos() {
+		return Dinero.deValor(cuotaEmision);
+	}
+
+	/**
+	 * Obtiene los porcentajes de cargo por tipo de evento.
+	 *
+	 * @return Mapa de solo lectura.
+	 */
+	public Map<String, Double> getCargosPorTipoEvento() {
+		return cargosPorTipoEvento;
+	}
+
+	/**
+	 * Obtiene el porcentaje de cargo de servicio de un tipo de evento.
+	 *
+	 * @param tipoEvento Tipo de evento.
+	 * @return Porcentaje como fracción (0.10 = 10 %), o 0 si el tipo no tiene cargo.
+	 */
+	public double getCargoServicio(String tipoEvento) {
+		return cargosPorTipoEvento.getOrDefault(tipoEvento, 0.0);
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Calcula el cargo de servicio de un precio.
+	 *
+	 * @param tipoEvento Tipo de evento.
+	 * @param precioCentavos Precio con descuento, en centavos.
+	 * @return Cargo de servicio, en centavos.
+	 */
+	public long calcularCargoCentavos(String tipoEvento, long precioCentavos) {
+		return Dinero.aplicarTasa(precioCentavos, getCargoServicio(tipoEvento));
+	}
+
+	TarifasServicio conCuotaEmision(double cuota) {
+		return new TarifasServicio(version + 1, cuota, cargosPorTipoEvento);
+	}
+
+	TarifasServicio conCargo(String tipoEvento, double porcentaje) {
+		Map<String, Double> cargos = new HashMap<String, Double>(cargosPorTipoEvento);
+		cargos.put(tipoEvento, porcentaje);
+		return new TarifasServicio(version + 1, cuotaEmision, cargos);
+	}
+
+	TarifasServicio conCargos(Map<String, Double> cargos) {
+		return new TarifasServicio(version + 1, cuotaEmision, cargos);
+	}
+}
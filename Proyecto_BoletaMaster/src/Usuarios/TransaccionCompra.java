@@ -0,0 +1,459 @@
+package Usuarios;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import Eventos.CodigoDescuento;
+import Eventos.Cotizador;
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.MotorDescuentos;
+import Eventos.Retencion;
+import Tiquetes.Compra;
+import Tiquetes.Deluxe;
+import Tiquetes.Dinero;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.PaseTemporada;
+import Tiquetes.Tiquete;
+
+/**
+ * Compra de un carrito como una sola transacción: valida el carrito, cierra sus precios,
+ * canjea el código de descuento, aparta el inventario (límites por cliente, retenciones y
+ * asientos o cupos), cobra del saldo o de la {@link PasarelaPago}, crea la {@link Compra} y la
+ * registra en el cliente. Si algún paso falla, los anteriores se deshacen en orden inverso y
+ * el carrito queda como estaba.
+ * No hay un candado global: cada recurso se toma con su propia operación corta (el precio de
+ * cada tiquete, el contador del código, el límite de cada evento, cada asiento o cupo de la
+ * localidad y el saldo del cliente), así que compras de eventos o clientes distintos no se
+ * esperan entre sí.
+ * El cobro con pasarela es el último paso y no se hace con ningún candado tomado, así que
+ * una pasarela lenta no bloquea a otros compradores; con {@link #ejecutarAsync()} la compra
+ * corre en un hilo virtual y tampoco ocupa un hilo de plataforma mientras espera el pago.
+ * Cada transacción se ejecuta una sola vez.
+ */
+public class TransaccionCompra {
+
+	private static final ExecutorService HILOS_VIRTUALES = Executors.newVirtualThreadPerTaskExecutor();
+	private static volatile PasarelaPago pasarelaPorDefecto = PasarelaPago.APROBAR_TODO;
+
+	// Atributos
+	private final Cliente cliente;
+	private final ArrayList<Tiquete> tiquetes;
+	private final ArrayList<PaqueteTiquetes> paquetes;
+	private final boolean usarSaldoReembolso;
+	private final String codigoDescuento;
+	private final PasarelaPago pasarela;
+	private final String referenciaPago;
+	private final Deque<Runnable> deshacer;
+	private boolean ejecutada;
+	private Compra compra;
+
+	// Ctor
+
+	/**
+	 * Prepara la compra de un carrito con la pasarela por defecto.
+	 *
+	 * @param cliente Cliente que compra.
+	 * @param tiquetes Tiquetes sueltos del carrito.
+	 * @param paquetes Paquetes del carrito.
+	 * @param usarSaldoReembolso {@code true} para pagar con el saldo del cliente.
+	 * @param codigoDescuento Código de descuento, o {@code null}.
+	 */
+	public TransaccionCompra(Cliente cliente, ArrayList<Tiquete> tiquetes, ArrayList<PaqueteTiquetes> paquetes,
+			boolean usarSaldoReembolso, String codigoDescuento) {
+		this(cliente, tiquetes, paquetes, usarSaldoReembolso, codigoDescuento, pasarelaPorDefecto);
+	}
+
+	/**
+	 * Prepara la compra de un carrito.
+	 *
+	 * @param cliente Cliente que compra.
+	 * @param tiquetes Tiquetes sueltos del carrito.
+	 * @param paquetes Paquetes del carrito.
+	 * @param usarSaldoReembolso {@code true} para pagar con el saldo del cliente.
+	 * @param codigoDescuento Código de descuento, o {@code null}.
+	 * @param pasarela Pasarela para cobrar cuando no se paga con saldo.
+	 */
+	public TransaccionCompra(Cliente cliente, ArrayList<Tiquete> tiquetes, ArrayList<PaqueteTiquetes> paquetes,
+			boolean usarSaldoReembolso, String codigoDescuento, PasarelaPago pasarela) {
+		this.cliente = cliente;
+		this.tiquetes = tiquetes;
+		this.paquetes = paquetes;
+		this.usarSaldoReembolso = usarSaldoReembolso;
+		this.codigoDescuento = codigoDescuento;
+		this.pasarela = pasarela;
+		this.referenciaPago = UUID.randomUUID().toString();
+		this.deshacer = new ArrayDeque<Runnable>();
+	}
+
+	// Getters y Setters
+
+	public static PasarelaPago getPasarelaPorDefecto() {
+		return pasarelaPorDefecto;
+	}
+
+	/**
+	 * Cambia la pasarela que usan las compras que no indican una.
+	 *
+	 * @param pasarela Nueva pasarela.
+	 * @throws IllegalArgumentException si la pasarela es nula.
+	 */
+	public static void setPasarelaPorDefecto(PasarelaPago pasarela) throws IllegalArgumentException {
+		if (pasarela == null) {
+			throw new IllegalArgumentException("La pasarela de pago no puede ser nula.");
+		}
+		pasarelaPorDefecto = pasarela;
+	}
+
+	// Métodos funcionales
+
+	/**
+	 * Ejecuta la compra.
+	 *
+	 * @return Compra registrada en el cliente.
+	 * @throws IllegalArgumentException si el carrito es inválido o el código no existe o no aplica.
+	 * @throws IllegalStateException si un tiquete ya está en otra compra, el código no tiene
+	 *         usos, se supera un límite por cliente, una retención venció, un asiento ya no está
+	 *         libre, el saldo no alcanza o el pago se rechaza; o si la transacción ya se ejecutó.
+	 * @post Si termina bien, el inventario quedó vendido, el pago cobrado y la compra registrada;
+	 *       si lanza una excepción, nada de eso cambió.
+	 */
+	public Compra ejecutar() throws IllegalArgumentException, IllegalStateException {
+		Compra compra = preparar();
+		confirmar();
+		return compra;
+	}
+
+	/**
+	 * Hace todos los pasos de la compra menos registrarla: el inventario queda apartado y el
+	 * pago cobrado hasta que se llame {@link #confirmar()} o {@link #revertir()}. Lo usa
+	 * {@link ProcesadorLotesCompra} para guardar un lote de compras antes de confirmarlas.
+	 *
+	 * @return Compra creada, aún sin registrar en el cliente.
+	 * @throws IllegalArgumentException ver {@link #ejecutar()}.
+	 * @throws IllegalStateException ver {@link #ejecutar()}.
+	 * @post Si lanza una excepción, nada cambió.
+	 */
+	Compra preparar() throws IllegalArgumentException, IllegalStateException {
+		synchronized (this) {
+			if (ejecutada) {
+				throw new IllegalStateException("La transacción de compra ya se ejecutó.");
+			}
+			ejecutada = true;
+		}
+		validarCarrito();
+		try {
+			cerrarPrecios();
+			long total = calcularTotal();
+			CodigoDescuento codigo = null;
+			long descuento = 0;
+			if (codigoDescuento != null) {
+				long subtotal = subtotalConDescuento();
+				codigo = canjearDescuento(subtotal);
+				descuento = codigo.calcularDescuentoCentavos(subtotal);
+				total = Dinero.restar(total, descuento);
+			}
+			consumirLimitesSinRetencion();
+			confirmarRetenciones();
+			reservarInventario();
+			cobrar(total);
+
+			Compra compra = new Compra(cliente, tiquetes, paquetes, Dinero.aValor(total), LocalDateTime.now());
+			compra.setValorCompraCentavos(total);
+			if (codigo != null) {
+				compra.setDescuento(codigo.getCodigo(), descuento);
+			}
+			this.compra = compra;
+			return compra;
+		} catch (RuntimeException e) {
+			try {
+				revertir();
+			} catch (IllegalStateException r) {
+				e.addSuppressed(r);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Registra la compra preparada en el cliente.
+	 *
+	 * @post La compra queda registrada y ya no se puede revertir.
+	 */
+	void confirmar() {
+		cliente.registrarCompra(compra);
+		deshacer.clear();
+		salirDeSalasEspera();
+	}
+
+	/**
+	 * Deshace, en orden inverso, los pasos hechos por {@link #preparar()}. Si un paso falla
+	 * (por ejemplo, el reembolso de la pasarela), se siguen deshaciendo los demás.
+	 *
+	 * @throws IllegalStateException si algún paso falló; las fallas van como suprimidas.
+	 * @post Los pasos que no fallaron quedan deshechos: inventario, pago, límites y código.
+	 */
+	void revertir() throws IllegalStateException {
+		IllegalStateException falla = null;
+		while (!deshacer.isEmpty()) {
+			try {
+				deshacer.pop().run();
+			} catch (RuntimeException e) {
+				if (falla == null) {
+					falla = new IllegalStateException("No se pudo deshacer por completo la compra.");
+				}
+				falla.addSuppressed(e);
+			}
+		}
+		if (falla != null) {
+			throw falla;
+		}
+	}
+
+	/**
+	 * Obtiene el evento con el que se agrupa la compra: el del primer tiquete del carrito.
+	 *
+	 * @return Evento, o {@code null} si el carrito no tiene tiquetes con evento.
+	 */
+	Evento getEventoPrincipal() {
+		if (tiquetes == null || paquetes == null) {
+			return null;
+		}
+		for (Tiquete t : todosLosTiquetes()) {
+			if (t != null && t.getEvento() != null) {
+				return t.getEvento();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Ejecuta la compra en un hilo virtual.
+	 *
+	 * @return Futuro que termina con la compra registrada, o con la excepción que lanzaría
+	 *         {@link #ejecutar()}.
+	 */
+	public CompletableFuture<Compra> ejecutarAsync() {
+		return CompletableFuture.supplyAsync(this::ejecutar, HILOS_VIRTUALES);
+	}
+
+	/**
+	 * Verifica que el carrito tenga al menos un producto y que ningún tiquete aparezca dos veces.
+	 */
+	private void validarCarrito() throws IllegalArgumentException {
+		if (cliente == null || tiquetes == null || paquetes == null || pasarela == null) {
+			throw new IllegalArgumentException("Datos de compra inválidos.");
+		}
+		if (tiquetes.isEmpty() && paquetes.isEmpty()) {
+			throw new IllegalArgumentException("El carrito está vacío.");
+		}
+		Set<Tiquete> vistos = Collections.newSetFromMap(new IdentityHashMap<Tiquete, Boolean>());
+		for (Tiquete t : todosLosTiquetes()) {
+			if (t == null) {
+				throw new IllegalArgumentException("El carrito tiene un tiquete nulo.");
+			}
+			if (!vistos.add(t)) {
+				throw new IllegalArgumentException("Un tiquete aparece más de una vez en el carrito.");
+			}
+		}
+		for (PaqueteTiquetes p : paquetes) {
+			if (p == null) {
+				throw new IllegalArgumentException("El carrito tiene un paquete nulo.");
+			}
+		}
+	}
+
+	/**
+	 * Cierra el precio de cada producto; un producto con el precio ya cerrado está en otra
+	 * compra o ya se compró.
+	 */
+	private void cerrarPrecios() throws IllegalStateException {
+		for (Tiquete t : tiquetes) {
+			if (!t.cerrarPrecio()) {
+				throw new IllegalStateException("Un tiquete del carrito ya fue comprado o está en otra compra.");
+			}
+			deshacer.push(() -> t.setPrecioCerrado(false));
+		}
+		for (PaqueteTiquetes p : paquetes) {
+			if (!p.cerrarPrecio()) {
+				throw new IllegalStateException("El paquete " + p.getCodigo() + " ya fue comprado o está en otra compra.");
+			}
+			deshacer.push(() -> p.setPrecioCerrado(false));
+		}
+	}
+
+	private long calcularTotal() {
+		long total = 0;
+		for (Tiquete t : tiquetes) {
+			total = Dinero.sumar(total, t.calcularCostoTotalCentavos());
+		}
+		for (PaqueteTiquetes p : paquetes) {
+			total = Dinero.sumar(total, p.calcularCostoTotalCentavos());
+		}
+		return total;
+	}
+
+	/**
+	 * Canjea el código de descuento una vez.
+	 *
+	 * @param subtotal Precio de los productos a los que aplica el código.
+	 */
+	private CodigoDescuento canjearDescuento(long subtotal) throws IllegalArgumentException, IllegalStateException {
+		CodigoDescuento codigo = MotorDescuentos.getInstance().buscar(codigoDescuento);
+		if (codigo == null) {
+			throw new IllegalArgumentException("El código de descuento no existe.");
+		}
+		if (subtotal == 0) {
+			throw new IllegalArgumentException("El código de descuento no aplica a esta compra.");
+		}
+		if (!codigo.canjear()) {
+			throw new IllegalStateException("El código de descuento ya no tiene usos disponibles.");
+		}
+		deshacer.push(codigo::devolverCanje);
+		return codigo;
+	}
+
+	/**
+	 * Suma el precio, sin cargos, de los productos a los que aplica el código.
+	 */
+	private long subtotalConDescuento() {
+		MotorDescuentos motor = MotorDescuentos.getInstance();
+		long subtotal = 0;
+		for (Tiquete t : tiquetes) {
+			if (motor.validar(codigoDescuento, t.getEvento(), t.getLocalidad(), Cotizador.INDIVIDUAL) != null) {
+				subtotal = Dinero.sumar(subtotal, t.getPrecioCentavos());
+			}
+		}
+		for (PaqueteTiquetes p : paquetes) {
+			if (p.estaVacio()) {
+				continue;
+			}
+			Tiquete primero = p.getTiquetesIncluidos().getFirst();
+			if (motor.validar(codigoDescuento, primero.getEvento(), primero.getLocalidad(), tipoProducto(p)) != null) {
+				subtotal = Dinero.sumar(subtotal, p.getPrecioCentavos());
+			}
+		}
+		return subtotal;
+	}
+
+	private static String tipoProducto(PaqueteTiquetes paquete) {
+		if (paquete instanceof PaseTemporada) {
+			return Cotizador.PASE_TEMPORADA;
+		}
+		if (paquete instanceof Deluxe) {
+			return Cotizador.DELUXE;
+		}
+		return Cotizador.MULTIPLE;
+	}
+
+	/**
+	 * Consume el límite por cliente de cada evento para los tiquetes sin retención (la
+	 * retención ya consumió el suyo al crearse).
+	 */
+	private void consumirLimitesSinRetencion() throws IllegalStateException {
+		Map<Evento, Integer> porEvento = new LinkedHashMap<Evento, Integer>();
+		for (Tiquete t : todosLosTiquetes()) {
+			if (t.getRetencion() == null && t.getEvento() != null) {
+				porEvento.merge(t.getEvento(), 1, Integer::sum);
+			}
+		}
+		int titular = cliente.getId();
+		for (Map.Entry<Evento, Integer> ev : porEvento.entrySet()) {
+			Evento evento = ev.getKey();
+			int cantidad = ev.getValue();
+			if (!evento.getLimiteCompras().consumir(titular, cantidad)) {
+				throw new IllegalStateException("Se supera el límite de " + evento.getLimiteCompras().getMaximoPorCliente()
+						+ " tiquetes por cliente para el evento " + evento.getNombre() + ".");
+			}
+			deshacer.push(() -> evento.getLimiteCompras().devolver(titular, cantidad));
+		}
+	}
+
+	/**
+	 * Confirma como venta cada retención del carrito, una sola vez. Si la compra falla después,
+	 * la retención se reabre y el cliente conserva sus lugares hasta que venza.
+	 */
+	private void confirmarRetenciones() throws IllegalStateException {
+		Set<Retencion> pendientes = Collections.newSetFromMap(new IdentityHashMap<Retencion, Boolean>());
+		for (Tiquete t : todosLosTiquetes()) {
+			if (t.getRetencion() != null) {
+				pendientes.add(t.getRetencion());
+			}
+		}
+		for (Retencion r : pendientes) {
+			r.getLocalidad().confirmarRetencion(r);
+			deshacer.push(() -> r.getLocalidad().reabrirRetencion(r));
+		}
+	}
+
+	/**
+	 * Toma el asiento o cupo de cada tiquete sin retención.
+	 */
+	private void reservarInventario() throws IllegalStateException {
+		for (Tiquete t : todosLosTiquetes()) {
+			Localidad l = t.getLocalidad();
+			if (t.getRetencion() != null || l == null) {
+				continue;
+			}
+			if (l.isNumerada()) {
+				int asiento = t instanceof Individual ? ((Individual) t).getNumeroAsiento() : -1;
+				if (asiento < 0 || asiento > l.getCapacidad()) {
+					throw new IllegalStateException("El asiento " + asiento + " no existe en la localidad " + l.getNombre() + ".");
+				}
+				l.reservarAsiento(asiento);
+				deshacer.push(() -> l.liberarAsiento(asiento));
+			} else {
+				l.reservarAsiento();
+				deshacer.push(l::cancelarReservaGeneral);
+			}
+		}
+	}
+
+	private void cobrar(long total) throws IllegalStateException {
+		if (usarSaldoReembolso) {
+			if (!cliente.debitarSaldo(total)) {
+				throw new IllegalStateException("Saldo insuficiente para la compra.");
+			}
+			deshacer.push(() -> cliente.abonarSaldo(total));
+		} else {
+			if (!pasarela.cobrar(cliente, total, referenciaPago)) {
+				throw new IllegalStateException("El pago fue rechazado.");
+			}
+			deshacer.push(() -> pasarela.reembolsar(cliente, total, referenciaPago));
+		}
+	}
+
+	/**
+	 * Saca al cliente de la sala de espera de cada evento comprado, liberando su cupo de
+	 * comprador activo para el siguiente turno.
+	 */
+	private void salirDeSalasEspera() {
+		for (Tiquete t : todosLosTiquetes()) {
+			if (t.getEvento() != null && t.getEvento().getSalaEspera() != null) {
+				t.getEvento().getSalaEspera().salir(cliente.getId());
+			}
+		}
+	}
+
+	private ArrayList<Tiquete> todosLosTiquetes() {
+		ArrayList<Tiquete> todos = new ArrayList<Tiquete>(tiquetes);
+		for (PaqueteTiquetes p : paquetes) {
+			if (p != null) {
+				todos.addAll(p.getTiquetesIncluidos());
+			}
+		}
+		return todos;
+	}
+}
@@ -0,0 +1,100 @@
+package benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+import Tiquetes.Individual;
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+import Usuarios.ServicioCarritos;
+
+/**
+ * Abre {@value #CARRITOS} carritos de un tiquete en {@link ServicioCarritos} y mide cuánta
+ * memoria ocupa cada carrito, cuánto cuesta cambiar un carrito, cuánto tarda un barrido que no
+ * encuentra nada vencido y cuánto tarda vencer todos los carritos de una vez.
+ * Los clientes y tiquetes se crean antes de medir, así que la memoria reportada es solo la de
+ * los carritos y el servicio. El reloj es simulado.
+ * Se ejecuta como programa: {@code java -Xmx2g benchmarks.BenchmarkCarritos}.
+ */
+public class BenchmarkCarritos {
+
+    private static final int CARRITOS = 1_000_000;
+    private static final Duration VIGENCIA = Duration.ofMinutes(30);
+    private static final int RONDAS = 3;
+
+    public static void main(String[] args) {
+        Administrador admin = new Administrador("admin", "pwd", "Administrador", 1);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Estadio", "Calle 1", CARRITOS, "Ninguna");
+        venue.setAprobado(true);
+        Evento evento = new Evento("Festival", 1, venue, LocalDateTime.now().plusDays(30), organizador, "Concierto",
+                admin);
+        Localidad general = evento.crearLocalidad("General", false, CARRITOS, 50.0, 50.0, 50.0, 50.0);
+
+        Cliente[] clientes = new Cliente[CARRITOS];
+        Individual[] tiquetes = new Individual[CARRITOS];
+        for (int i = 0; i < CARRITOS; i++) {
+            clientes[i] = new Cliente("c" + i, "pass", "Cliente", i);
+            tiquetes[i] = new Individual(50.0, evento, general, clientes[i], true, -1);
+        }
+
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            System.out.println("Ronda " + (ronda + 1));
+            medir(clientes, tiquetes);
+        }
+    }
+
+    private static void medir(Cliente[] clientes, Individual[] tiquetes) {
+        AtomicLong reloj = new AtomicLong(0);
+        long antes = memoriaUsada();
+        ServicioCarritos servicio = new ServicioCarritos(reloj::get, VIGENCIA, CARRITOS, 1000, 4096);
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < CARRITOS; i++) {
+            reloj.set(i / 1000);
+            servicio.agregarTiquete(clientes[i], tiquetes[i]);
+        }
+        double abrir = (System.nanoTime() - inicio) / 1e9;
+        long bytes = memoriaUsada() - antes;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < CARRITOS; i++) {
+            servicio.agregarTiquete(clientes[i], tiquetes[i]);
+        }
+        double cambiar = (System.nanoTime() - inicio) / 1e9;
+
+        reloj.set(VIGENCIA.toMillis() / 2);
+        inicio = System.nanoTime();
+        int vencidos = servicio.procesarVencimientos();
+        double barridoVacio = (System.nanoTime() - inicio) / 1e6;
+        if (vencidos != 0) {
+            throw new IllegalStateException("Vencieron " + vencidos + " carritos antes de tiempo");
+        }
+
+        reloj.set(VIGENCIA.toMillis() + 2000);
+        inicio = System.nanoTime();
+        vencidos = servicio.procesarVencimientos();
+        double barridoMasivo = (System.nanoTime() - inicio) / 1e6;
+        if (vencidos != CARRITOS || servicio.getAbiertos() != 0) {
+            throw new IllegalStateException("Vencieron " + vencidos + " de " + CARRITOS + " carritos");
+        }
+
+        System.out.printf("abrir %9.0f carritos/s  cambiar %9.0f cambios/s  memoria %4d bytes/carrito%n",
+                CARRITOS / abrir, CARRITOS / cambiar, bytes / CARRITOS);
+        System.out.printf("barrido sin vencidos %7.2f ms  barrido de %d vencidos %7.1f ms%n", barridoVacio,
+                CARRITOS, barridoMasivo);
+    }
+
+    private static long memoriaUsada() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
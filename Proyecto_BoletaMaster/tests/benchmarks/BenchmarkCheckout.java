@@ -0,0 +1,101 @@
+package benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+import Usuarios.TransaccionCompra;
+
+/**
+ * Mide compras por segundo con {@link TransaccionCompra} cuando 1, 8 y 64 hilos compran a la
+ * vez en el mismo evento: la mitad de las compras son asientos de una localidad numerada y la
+ * otra mitad cupos de una localidad general, cada hilo con su propio cliente y pagando con
+ * saldo. Al final revisa que no se haya vendido un lugar dos veces.
+ * Se ejecuta como programa: {@code java benchmarks.BenchmarkCheckout}.
+ */
+public class BenchmarkCheckout {
+
+    private static final int COMPRAS = 200_000;
+    private static final int[] HILOS = { 1, 8, 64 };
+    private static final int RONDAS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            System.out.println("Ronda " + (ronda + 1));
+            for (int hilos : HILOS) {
+                medir(hilos);
+            }
+        }
+    }
+
+    private static void medir(int hilos) throws InterruptedException {
+        Administrador admin = new Administrador("admin", "pwd", "Administrador", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.1);
+        admin.setCuotaEmisionGlobal(1.0);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Estadio", "Calle 1", COMPRAS, "Ninguna");
+        venue.setAprobado(true);
+        Evento evento = new Evento("Festival", 1, venue, LocalDateTime.now().plusDays(30), organizador, "Concierto",
+                admin);
+        Localidad numerada = evento.crearLocalidad("Platea", true, COMPRAS / 2, 80.0, 80.0, 80.0, 80.0);
+        Localidad general = evento.crearLocalidad("General", false, COMPRAS / 2, 50.0, 50.0, 50.0, 50.0);
+
+        int porHilo = COMPRAS / hilos;
+        AtomicInteger fallidas = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> trabajadores = new ArrayList<Thread>();
+        for (int h = 0; h < hilos; h++) {
+            Cliente cliente = new Cliente("c" + h, "pass", "Cliente", 100 + h);
+            cliente.setSaldo(porHilo * 100.0);
+            int primero = h * porHilo;
+            trabajadores.add(new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < porHilo; i++) {
+                    int n = primero + i;
+                    Individual t = n % 2 == 0
+                            ? new Individual(n, 80.0, evento, numerada, cliente, true, 1 + n / 2)
+                            : new Individual(n, 50.0, evento, general, cliente, true, -1);
+                    ArrayList<Tiquete> carrito = new ArrayList<Tiquete>();
+                    carrito.add(t);
+                    try {
+                        cliente.hacerCompra(carrito, new ArrayList<PaqueteTiquetes>(), true);
+                    } catch (IllegalStateException e) {
+                        fallidas.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread t : trabajadores) {
+            t.start();
+        }
+        long inicio = System.nanoTime();
+        salida.countDown();
+        for (Thread t : trabajadores) {
+            t.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        int realizadas = porHilo * hilos - fallidas.get();
+        int vendidos = numerada.getTiquetesVendidos() + general.getTiquetesVendidos();
+        if (vendidos != realizadas) {
+            throw new IllegalStateException("Vendidos " + vendidos + " y compras " + realizadas);
+        }
+        System.out.printf("%3d hilos  %9.0f compras/s  (%d compras, %d fallidas)%n", hilos, realizadas / segundos,
+                realizadas, fallidas.get());
+    }
+}
@@ -0,0 +1,102 @@
+package benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import Eventos.CodigoDescuento;
+import Eventos.Cotizador;
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.MotorDescuentos;
+import Eventos.Venue;
+import Usuarios.Administrador;
+import Usuarios.Organizador;
+
+/**
+ * Mide cuánto tarda {@link MotorDescuentos#validar} con decenas de miles de códigos
+ * registrados, repartidos entre eventos, localidades, tipos de evento y tipos de producto.
+ * Reporta nanosegundos por validación para códigos que aplican, que no aplican y que no
+ * existen.
+ * Se ejecuta como programa: {@code java benchmarks.BenchmarkCodigosDescuento}.
+ */
+public class BenchmarkCodigosDescuento {
+
+    private static final int EVENTOS = 200;
+    private static final int CODIGOS_POR_EVENTO = 250;
+    private static final int VALIDACIONES = 2_000_000;
+    private static final int RONDAS = 5;
+
+    // Resultado que se imprime para que el JIT no descarte los cálculos.
+    private static long sumidero;
+
+    public static void main(String[] args) {
+        Administrador admin = new Administrador("admin", "pwd", "Administrador", 1);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Estadio", "Calle 1", 100000, "Ninguna");
+        venue.setAprobado(true);
+
+        MotorDescuentos motor = new MotorDescuentos();
+        List<Evento> eventos = new ArrayList<Evento>();
+        List<Localidad> localidades = new ArrayList<Localidad>();
+        for (int e = 0; e < EVENTOS; e++) {
+            Evento evento = new Evento("Evento " + e, e, venue, LocalDateTime.now().plusDays(30), organizador,
+                    e % 2 == 0 ? "Concierto" : "Teatro", admin);
+            Localidad localidad = evento.crearLocalidad("General", false, 100, 50.0, 50.0, 50.0, 50.0);
+            eventos.add(evento);
+            localidades.add(localidad);
+            for (int c = 0; c < CODIGOS_POR_EVENTO; c++) {
+                String texto = "E" + e + "C" + c;
+                motor.registrar(c % 2 == 0
+                        ? CodigoDescuento.paraEvento(texto, CodigoDescuento.PORCENTAJE, 10, evento, 1000)
+                        : CodigoDescuento.paraLocalidad(texto, CodigoDescuento.FIJO, 5, localidad, 1000));
+            }
+        }
+        for (int c = 0; c < 1000; c++) {
+            motor.registrar(CodigoDescuento.paraTipoEvento("T" + c, CodigoDescuento.PORCENTAJE, 5, "Teatro", 0));
+            motor.registrar(CodigoDescuento.paraTipoProducto("P" + c, CodigoDescuento.FIJO, 2, Cotizador.MULTIPLE, 0));
+        }
+
+        String[] aplican = new String[1024];
+        String[] otroEvento = new String[1024];
+        String[] inexistentes = new String[1024];
+        int[] eventoDe = new int[1024];
+        for (int i = 0; i < aplican.length; i++) {
+            int e = (i * 37) % EVENTOS;
+            eventoDe[i] = e;
+            aplican[i] = "E" + e + "C" + (i % CODIGOS_POR_EVENTO);
+            otroEvento[i] = "E" + ((e + 1) % EVENTOS) + "C" + (i % CODIGOS_POR_EVENTO);
+            inexistentes[i] = "X" + i;
+        }
+
+        System.out.println("Códigos registrados: " + motor.contarCodigos());
+        double nsAplican = 0;
+        double nsOtro = 0;
+        double nsInexistente = 0;
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            nsAplican = medir(motor, aplican, eventoDe, eventos, localidades);
+            nsOtro = medir(motor, otroEvento, eventoDe, eventos, localidades);
+            nsInexistente = medir(motor, inexistentes, eventoDe, eventos, localidades);
+        }
+        System.out.printf("Código que aplica      %6.1f ns/validación%n", nsAplican);
+        System.out.printf("Código de otro evento  %6.1f ns/validación%n", nsOtro);
+        System.out.printf("Código inexistente     %6.1f ns/validación%n", nsInexistente);
+        System.out.println("(sumidero " + sumidero + ")");
+    }
+
+    private static double medir(MotorDescuentos motor, String[] codigos, int[] eventoDe, List<Evento> eventos,
+            List<Localidad> localidades) {
+        long aciertos = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < VALIDACIONES; i++) {
+            int k = i & (codigos.length - 1);
+            int e = eventoDe[k];
+            if (motor.validar(codigos[k], eventos.get(e), localidades.get(e), Cotizador.INDIVIDUAL) != null) {
+                aciertos++;
+            }
+        }
+        double ns = (System.nanoTime() - inicio) / (double) VALIDACIONES;
+        sumidero += aciertos;
+        return ns;
+    }
+}
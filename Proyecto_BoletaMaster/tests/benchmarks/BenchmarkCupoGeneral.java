@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Eventos.CupoGeneral;
+
+/**
+ * Compara un contador compartido con compare-and-set contra {@link CupoGeneral}
+ * al vender 30.000 cupos generales repetidas veces con 1, 4, 16 y 64 hilos.
+ * Se ejecuta como programa: {@code java benchmarks.BenchmarkCupoGeneral}.
+ */
+public class BenchmarkCupoGeneral {
+
+    private static final int CAPACIDAD = 30_000;
+    private static final int VUELTAS = 200;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int hilos : new int[] {1, 4, 16, 64}) {
+            double contador = 0;
+            double franjas = 0;
+            for (int ronda = 0; ronda < 3; ronda++) {
+                contador = medirContador(hilos);
+                franjas = medirCupo(hilos);
+            }
+            System.out.printf("%2d hilos: contador único %8.1f ms | CupoGeneral %8.1f ms%n",
+                    hilos, contador, franjas);
+        }
+    }
+
+    /**
+     * Cada hilo vende y devuelve cupos; en total se recorre la capacidad VUELTAS veces.
+     */
+    private static double medirContador(int hilos) throws InterruptedException {
+        AtomicInteger vendidos = new AtomicInteger();
+        return ejecutar(hilos, () -> {
+            for (int i = 0; i < CAPACIDAD * VUELTAS / hilos; i++) {
+                int actual;
+                do {
+                    actual = vendidos.get();
+                } while (actual < CAPACIDAD && !vendidos.compareAndSet(actual, actual + 1));
+                vendidos.decrementAndGet();
+            }
+        });
+    }
+
+    private static double medirCupo(int hilos) throws InterruptedException {
+        CupoGeneral cupo = new CupoGeneral(CAPACIDAD);
+        return ejecutar(hilos, () -> {
+            for (int i = 0; i < CAPACIDAD * VUELTAS / hilos; i++) {
+                if (cupo.tomar()) {
+                    cupo.devolver();
+                }
+            }
+        });
+    }
+
+    private static double ejecutar(int hilos, Runnable tarea) throws InterruptedException {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> lista = new ArrayList<Thread>();
+        for (int h = 0; h < hilos; h++) {
+            Thread t = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                tarea.run();
+            });
+            lista.add(t);
+            t.start();
+        }
+        long inicio = System.nanoTime();
+        salida.countDown();
+        for (Thread t : lista) {
+            t.join();
+        }
+        return (System.nanoTime() - inicio) / 1e6;
+    }
+}
@@ -0,0 +1,98 @@
+package benchmarks;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import Tiquetes.Dinero;
+
+/**
+ * Compara el cálculo del total de un carrito con {@link Dinero} (centavos en {@code long}),
+ * con {@link BigDecimal} y con {@code double}: por cada línea se aplica el cargo de servicio,
+ * se suma la cuota y se acumula. Reporta nanosegundos por línea y si el total cuadra con el
+ * de BigDecimal, que se toma como referencia exacta.
+ * Se ejecuta como programa: {@code java benchmarks.BenchmarkDinero}.
+ */
+public class BenchmarkDinero {
+
+    private static final int LINEAS = 1_000_000;
+    private static final int RONDAS = 7;
+    private static final double TASA = 0.08;
+    private static final long CUOTA = 1_250;
+
+    // Resultado que se imprime para que el JIT no descarte los cálculos.
+    private static long sumidero;
+
+    public static void main(String[] args) {
+        Random azar = new Random(42);
+        long[] precios = new long[LINEAS];
+        for (int i = 0; i < LINEAS; i++) {
+            precios[i] = 5_000 + azar.nextInt(50_000_000);
+        }
+        BigDecimal[] preciosDecimal = new BigDecimal[LINEAS];
+        double[] preciosDouble = new double[LINEAS];
+        for (int i = 0; i < LINEAS; i++) {
+            preciosDecimal[i] = BigDecimal.valueOf(precios[i], Dinero.ESCALA);
+            preciosDouble[i] = Dinero.aValor(precios[i]);
+        }
+
+        long totalDinero = 0;
+        BigDecimal totalDecimal = null;
+        double totalDouble = 0;
+        double nsDinero = 0;
+        double nsDecimal = 0;
+        double nsDouble = 0;
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            long inicio = System.nanoTime();
+            totalDinero = totalDinero(precios);
+            nsDinero = (System.nanoTime() - inicio) / (double) LINEAS;
+
+            inicio = System.nanoTime();
+            totalDecimal = totalDecimal(preciosDecimal);
+            nsDecimal = (System.nanoTime() - inicio) / (double) LINEAS;
+
+            inicio = System.nanoTime();
+            totalDouble = totalDouble(preciosDouble);
+            nsDouble = (System.nanoTime() - inicio) / (double) LINEAS;
+        }
+
+        long referencia = totalDecimal.movePointRight(Dinero.ESCALA).longValueExact();
+        System.out.printf("Dinero (long)  %6.2f ns/línea  total %s  %s%n", nsDinero,
+                Dinero.formatear(totalDinero), totalDinero == referencia ? "cuadra" : "NO cuadra");
+        System.out.printf("BigDecimal     %6.2f ns/línea  total %s%n", nsDecimal, Dinero.formatear(referencia));
+        System.out.printf("double         %6.2f ns/línea  total %.2f  diferencia %d centavos%n", nsDouble,
+                totalDouble, Dinero.deValor(totalDouble) - referencia);
+        System.out.println("(sumidero " + sumidero + ")");
+    }
+
+    private static long totalDinero(long[] precios) {
+        long total = 0;
+        for (long precio : precios) {
+            total = Dinero.sumar(total, Dinero.sumar(Dinero.sumar(precio, Dinero.aplicarTasa(precio, TASA)), CUOTA));
+        }
+        sumidero += total;
+        return total;
+    }
+
+    private static BigDecimal totalDecimal(BigDecimal[] precios) {
+        BigDecimal tasa = BigDecimal.valueOf(TASA);
+        BigDecimal cuota = BigDecimal.valueOf(CUOTA, Dinero.ESCALA);
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal precio : precios) {
+            BigDecimal cargo = precio.multiply(tasa).setScale(Dinero.ESCALA, RoundingMode.HALF_UP);
+            total = total.add(precio).add(cargo).add(cuota);
+        }
+        sumidero += total.unscaledValue().longValue();
+        return total;
+    }
+
+    private static double totalDouble(double[] precios) {
+        double cuota = Dinero.aValor(CUOTA);
+        double total = 0;
+        for (double precio : precios) {
+            total += precio + precio * TASA + cuota;
+        }
+        sumidero += (long) total;
+        return total;
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import Eventos.DisposicionAsientos;
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+import Usuarios.Administrador;
+import Usuarios.Organizador;
+
+/**
+ * Compara buscar 6 asientos contiguos en una platea de 20.000 asientos (200 filas de 100)
+ * recorriendo la localidad asiento por asiento contra el árbol de segmentos de
+ * {@link DisposicionAsientos}. La platea se llena al 90 % con huecos aleatorios y solo
+ * queda un bloque de 6 al final, que es el peor caso para el recorrido lineal.
+ * Se ejecuta como programa: {@code java benchmarks.BenchmarkDisposicionAsientos}.
+ */
+public class BenchmarkDisposicionAsientos {
+
+    private static final int FILAS = 200;
+    private static final int POR_FILA = 100;
+    private static final int CONSULTAS = 20_000;
+
+    public static void main(String[] args) {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(1, "Movistar Arena", "Bogotá", FILAS * POR_FILA, "");
+        venue.setAprobado(true);
+        Evento evento = new Evento("Concierto", 1, venue, LocalDateTime.now().plusDays(30), organizador, "Concierto", admin);
+        Localidad platea = new Localidad("Platea", true, FILAS * POR_FILA, 100.0, evento, 90.0, 80.0, 150.0);
+        platea.setDisposicion(DisposicionAsientos.uniforme("Platea", FILAS, POR_FILA));
+
+        Random azar = new Random(42);
+        for (int f = 0; f < FILAS; f++) {
+            for (int a = f * POR_FILA + 1; a <= (f + 1) * POR_FILA; a++) {
+                boolean bloqueFinal = f == FILAS - 1 && a > (f + 1) * POR_FILA - 6;
+                // Un hueco cada 5 asientos como máximo, para que solo exista el bloque final.
+                if (!bloqueFinal && (a % 5 != 0 || azar.nextInt(2) == 0) && azar.nextInt(10) != 0) {
+                    platea.reservarAsiento(a);
+                }
+            }
+        }
+
+        for (int ronda = 0; ronda < 3; ronda++) {
+            long inicio = System.nanoTime();
+            long control = 0;
+            for (int i = 0; i < CONSULTAS; i++) {
+                control += recorrer(platea, 6);
+            }
+            double lineal = (System.nanoTime() - inicio) / 1e6;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < CONSULTAS; i++) {
+                control -= platea.buscarMejoresAsientos(6)[0];
+            }
+            double arbol = (System.nanoTime() - inicio) / 1e6;
+            System.out.printf("%d consultas: recorrido %8.1f ms | árbol %6.1f ms (control %d)%n",
+                    CONSULTAS, lineal, arbol, control);
+        }
+    }
+
+    private static int recorrer(Localidad platea, int cantidad) {
+        for (int f = 0; f < FILAS; f++) {
+            int seguidos = 0;
+            for (int a = f * POR_FILA + 1; a <= (f + 1) * POR_FILA; a++) {
+                seguidos = platea.asientoDisponible(a) ? seguidos + 1 : 0;
+                if (seguidos == cantidad) {
+                    return a - cantidad + 1;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntSupplier;
+
+import Tiquetes.GeneradorIds;
+
+/**
+ * Mide ids por segundo con 1, 8 y 64 hilos pidiendo ids a la vez, comparando un contador
+ * sincronizado único (como el antiguo {@code idActual} de las compras) con el
+ * {@link GeneradorIds} por bloques. Al final revisa que ningún id se haya repetido.
+ * Se ejecuta como programa: {@code java benchmarks.BenchmarkGeneradorIds}.
+ */
+public class BenchmarkGeneradorIds {
+
+    private static final int IDS = 4_000_000;
+    private static final int[] HILOS = { 1, 8, 64 };
+    private static final int RONDAS = 3;
+
+    private static int contador;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            System.out.println("Ronda " + (ronda + 1));
+            for (int hilos : HILOS) {
+                contador = 0;
+                medir("Contador sincronizado", hilos, BenchmarkGeneradorIds::siguienteSincronizado);
+                GeneradorIds generador = new GeneradorIds(GeneradorIds.TAMANO_BLOQUE);
+                medir("Generador por bloques", hilos, () -> generador.siguiente(GeneradorIds.TIQUETES));
+            }
+        }
+    }
+
+    private static synchronized int siguienteSincronizado() {
+        return ++contador;
+    }
+
+    private static void medir(String nombre, int hilos, IntSupplier siguiente) throws InterruptedException {
+        int porHilo = IDS / hilos;
+        int[][] ids = new int[hilos][porHilo];
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> trabajadores = new ArrayList<Thread>();
+        for (int h = 0; h < hilos; h++) {
+            int[] propios = ids[h];
+            trabajadores.add(new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < porHilo; i++) {
+                    propios[i] = siguiente.getAsInt();
+                }
+            }));
+        }
+        for (Thread t : trabajadores) {
+            t.start();
+        }
+        long inicio = System.nanoTime();
+        salida.countDown();
+        for (Thread t : trabajadores) {
+            t.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        int[] todos = new int[porHilo * hilos];
+        for (int h = 0; h < hilos; h++) {
+            System.arraycopy(ids[h], 0, todos, h * porHilo, porHilo);
+        }
+        Arrays.sort(todos);
+        for (int i = 1; i < todos.length; i++) {
+            if (todos[i] == todos[i - 1]) {
+                throw new IllegalStateException("Id repetido: " + todos[i]);
+            }
+        }
+        System.out.printf("%-22s %3d hilos  %12.0f ids/s%n", nombre, hilos, todos.length / segundos);
+    }
+}
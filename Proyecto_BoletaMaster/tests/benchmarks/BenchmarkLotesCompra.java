@@ -0,0 +1,110 @@
+package benchmarks;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+import Persistencia.PersistenciaCompras;
+import Tiquetes.Compra;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+import Usuarios.ProcesadorLotesCompra;
+import Usuarios.TransaccionCompra;
+
+/**
+ * Compara compras por segundo de {@value #HILOS} compradores simultáneos en un evento cuando
+ * cada compra se guarda en el diario con su propia escritura y cuando se agrupan con
+ * {@link ProcesadorLotesCompra}. Reporta también el llenado de los lotes y la espera que
+ * agrega el agrupamiento.
+ * Se ejecuta como programa: {@code java benchmarks.BenchmarkLotesCompra}.
+ */
+public class BenchmarkLotesCompra {
+
+    private static final int COMPRAS = 8_192;
+    private static final int HILOS = 64;
+    private static final int RONDAS = 3;
+
+    public static void main(String[] args) throws Exception {
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            System.out.println("Ronda " + (ronda + 1));
+            medir(null);
+            medir(new int[] { 64, 2 });
+            medir(new int[] { 256, 5 });
+        }
+    }
+
+    /**
+     * @param lote Tamaño del lote y espera en milisegundos, o {@code null} para escribir cada compra.
+     */
+    private static void medir(int[] lote) throws Exception {
+        Administrador admin = new Administrador("admin", "pwd", "Administrador", 1);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Estadio", "Calle 1", COMPRAS, "Ninguna");
+        venue.setAprobado(true);
+        Evento evento = new Evento("Festival", 1, venue, LocalDateTime.now().plusDays(30), organizador, "Concierto",
+                admin);
+        Localidad general = evento.crearLocalidad("General", false, COMPRAS, 50.0, 50.0, 50.0, 50.0);
+        File diario = File.createTempFile("compras", ".jsonl");
+        String ruta = diario.getPath();
+        ProcesadorLotesCompra procesador = lote == null ? null
+                : new ProcesadorLotesCompra(lote[0], Duration.ofMillis(lote[1]),
+                        compras -> PersistenciaCompras.agregarCompras(compras, ruta));
+
+        int porHilo = COMPRAS / HILOS;
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> trabajadores = new ArrayList<Thread>();
+        for (int h = 0; h < HILOS; h++) {
+            Cliente cliente = new Cliente("c" + h, "pass", "Cliente", 100 + h);
+            cliente.setSaldo(porHilo * 100.0);
+            trabajadores.add(new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < porHilo; i++) {
+                    ArrayList<Tiquete> carrito = new ArrayList<Tiquete>();
+                    carrito.add(new Individual(i, 50.0, evento, general, cliente, true, -1));
+                    TransaccionCompra t = new TransaccionCompra(cliente, carrito, new ArrayList<PaqueteTiquetes>(),
+                            true, null);
+                    if (procesador == null) {
+                        Compra c = t.ejecutar();
+                        PersistenciaCompras.agregarCompras(List.of(c), ruta);
+                    } else {
+                        procesador.enviar(t).join();
+                    }
+                }
+            }));
+        }
+        for (Thread t : trabajadores) {
+            t.start();
+        }
+        long inicio = System.nanoTime();
+        salida.countDown();
+        for (Thread t : trabajadores) {
+            t.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        diario.delete();
+
+        if (procesador == null) {
+            System.out.printf("Una escritura por compra     %8.0f compras/s%n", porHilo * HILOS / segundos);
+        } else {
+            procesador.cerrar();
+            System.out.printf("Lotes de %3d, espera %d ms   %8.0f compras/s  (%d lotes, llenado %.0f %%, espera %.2f ms promedio, %.2f ms máx.)%n",
+                    lote[0], lote[1], porHilo * HILOS / segundos, procesador.getLotes(),
+                    procesador.getLlenadoPromedio() * 100, procesador.getEsperaPromedioNanos() / 1e6,
+                    procesador.getEsperaMaximaNanos() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import Eventos.MapaAsientos;
+
+/**
+ * Compara el mapa de asientos por bits con la lista de enteros que usaba
+ * {@code Localidad} sobre una localidad de 50.000 asientos.
+ * Se ejecuta como programa: {@code java benchmarks.BenchmarkMapaAsientos}.
+ */
+public class BenchmarkMapaAsientos {
+
+    private static final int CAPACIDAD = 50_000;
+    private static final int CONSULTAS = 20_000;
+    private static final int RONDAS = 5;
+
+    public static void main(String[] args) {
+        int[] orden = ordenAleatorio(CAPACIDAD, 42);
+        int[] consultas = new int[CONSULTAS];
+        Random r = new Random(7);
+        for (int i = 0; i < CONSULTAS; i++) {
+            consultas[i] = 1 + r.nextInt(CAPACIDAD);
+        }
+
+        long basura = 0;
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            long t0 = System.nanoTime();
+            basura += conLista(orden, consultas);
+            long t1 = System.nanoTime();
+            basura += conMapa(orden, consultas);
+            long t2 = System.nanoTime();
+            System.out.printf("Ronda %d: ArrayList<Integer> %8.1f ms | MapaAsientos %8.3f ms%n",
+                    ronda + 1, (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+        }
+        System.out.println("(control " + basura + ")");
+    }
+
+    /**
+     * Vende toda la localidad, consulta asientos al azar y libera la mitad usando la lista.
+     */
+    private static long conLista(int[] orden, int[] consultas) {
+        ArrayList<Integer> ocupados = new ArrayList<Integer>();
+        long encontrados = 0;
+        for (int i = 0; i < orden.length / 2; i++) {
+            if (!ocupados.contains(orden[i])) {
+                ocupados.add(orden[i]);
+            }
+        }
+        for (int i = 0; i < consultas.length; i++) {
+            if (ocupados.contains(consultas[i])) {
+                encontrados++;
+            }
+        }
+        for (int i = 0; i < orden.length / 20; i++) {
+            ocupados.remove(Integer.valueOf(orden[i]));
+        }
+        return encontrados + ocupados.size();
+    }
+
+    /**
+     * Mismo recorrido que {@link #conLista} pero sobre {@link MapaAsientos}.
+     */
+    private static long conMapa(int[] orden, int[] consultas) {
+        MapaAsientos mapa = new MapaAsientos(CAPACIDAD);
+        long encontrados = 0;
+        for (int i = 0; i < orden.length / 2; i++) {
+            mapa.ocupar(orden[i]);
+        }
+        for (int i = 0; i < consultas.length; i++) {
+            if (mapa.estaOcupado(consultas[i])) {
+                encontrados++;
+            }
+        }
+        for (int i = 0; i < orden.length / 20; i++) {
+            mapa.liberar(orden[i]);
+        }
+        return encontrados + mapa.contarOcupados() + mapa.siguienteLibre(1);
+    }
+
+    private static int[] ordenAleatorio(int n, long semilla) {
+        int[] orden = new int[n];
+        for (int i = 0; i < n; i++) {
+            orden[i] = i + 1;
+        }
+        Random r = new Random(semilla);
+        for (int i = n - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            int tmp = orden[i];
+            orden[i] = orden[j];
+            orden[j] = tmp;
+        }
+        return orden;
+    }
+}
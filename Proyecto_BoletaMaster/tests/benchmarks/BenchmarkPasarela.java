@@ -0,0 +1,104 @@
+package benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+import Tiquetes.Compra;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+import Usuarios.PasarelaResiliente;
+import Usuarios.PasarelaSimulada;
+import Usuarios.TransaccionCompra;
+
+/**
+ * Mide compras por segundo cuando el cobro pasa por una {@link PasarelaSimulada} de 50 ms y de
+ * 500 ms, con 1 % de fallas que {@link PasarelaResiliente} reintenta. Compara dos formas de
+ * correr las compras: un grupo fijo de {@value #HILOS_PLATAFORMA} hilos de plataforma que
+ * llaman {@link TransaccionCompra#ejecutar()}, y {@link TransaccionCompra#ejecutarAsync()},
+ * que corre cada compra en su propio hilo virtual.
+ * Se ejecuta como programa: {@code java benchmarks.BenchmarkPasarela}.
+ */
+public class BenchmarkPasarela {
+
+    private static final int COMPRAS = 1_000;
+    private static final int HILOS_PLATAFORMA = 64;
+    private static final long[] LATENCIAS_MILIS = { 50, 500 };
+
+    public static void main(String[] args) throws Exception {
+        for (long latencia : LATENCIAS_MILIS) {
+            medir(latencia, false);
+            medir(latencia, true);
+        }
+    }
+
+    private static void medir(long latenciaMilis, boolean virtuales) throws Exception {
+        Administrador admin = new Administrador("admin", "pwd", "Administrador", 1);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Estadio", "Calle 1", COMPRAS, "Ninguna");
+        venue.setAprobado(true);
+        Evento evento = new Evento("Festival", 1, venue, LocalDateTime.now().plusDays(30), organizador, "Concierto",
+                admin);
+        Localidad platea = evento.crearLocalidad("Platea", true, COMPRAS, 80.0, 80.0, 80.0, 80.0);
+        PasarelaSimulada simulada = new PasarelaSimulada(Duration.ofMillis(latenciaMilis), 0.01, 0.0, 42);
+        PasarelaResiliente pasarela = new PasarelaResiliente(simulada, Duration.ofMillis(latenciaMilis * 4), 2,
+                Duration.ofMillis(10), 50, Duration.ofSeconds(5));
+
+        List<TransaccionCompra> transacciones = new ArrayList<TransaccionCompra>();
+        for (int i = 1; i <= COMPRAS; i++) {
+            Cliente cliente = new Cliente("c" + i, "pass", "Cliente", 100 + i);
+            ArrayList<Tiquete> carrito = new ArrayList<Tiquete>();
+            carrito.add(new Individual(i, 80.0, evento, platea, cliente, true, i));
+            transacciones.add(new TransaccionCompra(cliente, carrito, new ArrayList<PaqueteTiquetes>(), false, null,
+                    pasarela));
+        }
+
+        int realizadas = 0;
+        long inicio = System.nanoTime();
+        if (virtuales) {
+            List<CompletableFuture<Compra>> futuros = new ArrayList<CompletableFuture<Compra>>();
+            for (TransaccionCompra t : transacciones) {
+                futuros.add(t.ejecutarAsync());
+            }
+            for (CompletableFuture<Compra> f : futuros) {
+                if (f.handle((c, e) -> c != null).join()) {
+                    realizadas++;
+                }
+            }
+        } else {
+            ExecutorService hilos = Executors.newFixedThreadPool(HILOS_PLATAFORMA);
+            try {
+                List<Future<Compra>> futuros = new ArrayList<Future<Compra>>();
+                for (TransaccionCompra t : transacciones) {
+                    futuros.add(hilos.submit(t::ejecutar));
+                }
+                for (Future<Compra> f : futuros) {
+                    try {
+                        f.get();
+                        realizadas++;
+                    } catch (java.util.concurrent.ExecutionException e) {
+                        // la pasarela falló en todos los intentos
+                    }
+                }
+            } finally {
+                hilos.shutdown();
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("%4d ms  %-26s %8.0f compras/s  (%d de %d, %d llamadas a la pasarela)%n", latenciaMilis,
+                virtuales ? "hilos virtuales" : HILOS_PLATAFORMA + " hilos de plataforma", realizadas / segundos,
+                realizadas, COMPRAS, simulada.getLlamadas());
+    }
+}
@@ -0,0 +1,180 @@
+package benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.SalaEspera;
+import Eventos.Venue;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+
+/**
+ * Simula la apertura de ventas de un concierto con 200.000 compradores frente a una
+ * {@link SalaEspera}: 120.000 llegan en el minuto previo a abrir y 80.000 en el primer minuto
+ * de venta. La sala admite 400 compradores por segundo con un máximo de 2.000 activos y una
+ * ventana de compra de 3 minutos. Cada admitido tarda entre 20 y 90 segundos en pagar; el
+ * 10 % abandona y deja vencer su ventana. Los que compran retienen un asiento de una platea
+ * de 50.000 y confirman con {@code hacerCompra}, pasando por el código real de inventario.
+ * El tiempo es simulado (pasos de 100 ms con un reloj falso), así que la simulación corre en
+ * segundos. Se reporta el máximo de compradores activos, la espera en cola por percentiles y
+ * cuánto tardó en agotarse la platea.
+ * Se ejecuta como programa: {@code java benchmarks.SimulacionSalaEspera}.
+ */
+public class SimulacionSalaEspera {
+
+    private static final int USUARIOS = 200_000;
+    private static final int ANTES_DE_ABRIR = 120_000;
+    private static final int ASIENTOS = 50_000;
+    private static final long PASO = 100;
+    private static final long APERTURA = 60_000;
+
+    private static final class Compra implements Comparable<Compra> {
+        final long instante;
+        final Cliente cliente;
+        final boolean abandona;
+
+        Compra(long instante, Cliente cliente, boolean abandona) {
+            this.instante = instante;
+            this.cliente = cliente;
+            this.abandona = abandona;
+        }
+
+        @Override
+        public int compareTo(Compra o) {
+            return Long.compare(instante, o.instante);
+        }
+    }
+
+    public static void main(String[] args) {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(1, "Estadio El Campín", "Bogotá", ASIENTOS, "");
+        venue.setAprobado(true);
+        Evento evento = new Evento("Shakira - Tour Las Mujeres Ya No Lloran", 1, venue,
+                LocalDateTime.now().plusDays(90), organizador, "Concierto", admin);
+        Localidad platea = new Localidad("Platea", true, ASIENTOS, 100.0, evento, 90.0, 80.0, 150.0);
+        evento.setLimitePorCliente(4);
+
+        AtomicLong reloj = new AtomicLong(0);
+        SalaEspera sala = new SalaEspera(reloj::get, 400, 2_000, USUARIOS, Duration.ofMinutes(3), true);
+        evento.setSalaEspera(sala);
+
+        Random azar = new Random(7);
+        long[] llegadas = new long[USUARIOS];
+        for (int i = 0; i < USUARIOS; i++) {
+            llegadas[i] = i < ANTES_DE_ABRIR ? (long) (azar.nextDouble() * APERTURA)
+                    : APERTURA + (long) (azar.nextDouble() * 60_000);
+        }
+        Arrays.sort(llegadas);
+
+        TreeMap<Long, Cliente> enCola = new TreeMap<Long, Cliente>();
+        PriorityQueue<Compra> pendientes = new PriorityQueue<Compra>();
+        ArrayList<Long> esperas = new ArrayList<Long>(USUARIOS);
+        int siguiente = 0;
+        int maximoActivos = 0;
+        int vendidos = 0;
+        int sinAsiento = 0;
+        int rechazados = 0;
+        long agotado = -1;
+        boolean abierta = false;
+        long inicio = System.nanoTime();
+
+        for (long t = 0; siguiente < USUARIOS || !enCola.isEmpty() || !pendientes.isEmpty(); t += PASO) {
+            reloj.set(t);
+            if (!abierta && t >= APERTURA) {
+                sala.abrir();
+                abierta = true;
+                // Al abrir los turnos previos se reordenan al azar; se vuelven a indexar.
+                TreeMap<Long, Cliente> reordenada = new TreeMap<Long, Cliente>();
+                for (Cliente c : enCola.values()) {
+                    reordenada.put(sala.getTurno(c.getId()).getNumero(), c);
+                }
+                enCola = reordenada;
+            }
+            while (siguiente < USUARIOS && llegadas[siguiente] <= t) {
+                Cliente c = new Cliente("u" + siguiente, "pwd", "Usuario", 1_000 + siguiente);
+                try {
+                    SalaEspera.Turno turno = sala.entrar(c.getId());
+                    enCola.put(turno.getNumero(), c);
+                } catch (IllegalStateException e) {
+                    rechazados++;
+                }
+                siguiente++;
+            }
+            sala.actualizar();
+
+            while (!enCola.isEmpty()) {
+                Cliente c = enCola.firstEntry().getValue();
+                SalaEspera.Turno turno = sala.getTurno(c.getId());
+                if (turno != null && SalaEspera.EN_COLA.equals(turno.getEstado())) {
+                    break;
+                }
+                enCola.pollFirstEntry();
+                if (turno != null) {
+                    esperas.add(turno.getAdmision() - turno.getLlegada());
+                    pendientes.add(new Compra(t + 20_000 + azar.nextInt(70_000), c, azar.nextInt(10) == 0));
+                }
+            }
+            maximoActivos = Math.max(maximoActivos, sala.getActivos());
+
+            while (!pendientes.isEmpty() && pendientes.peek().instante <= t) {
+                Compra p = pendientes.poll();
+                if (p.abandona) {
+                    continue; // La ventana vence sola.
+                }
+                if (!sala.estaAdmitido(p.cliente.getId())) {
+                    continue;
+                }
+                int asiento = platea.siguienteAsientoLibre(1 + azar.nextInt(ASIENTOS));
+                if (asiento < 0) {
+                    asiento = platea.siguienteAsientoLibre(1);
+                }
+                if (asiento < 0) {
+                    sala.salir(p.cliente.getId());
+                    sinAsiento++;
+                    continue;
+                }
+                try {
+                    Individual tiquete = p.cliente.precompraIndividualNumerada(vendidos, evento, platea, asiento, Duration.ofMinutes(5));
+                    ArrayList<Tiquete> tiquetes = new ArrayList<Tiquete>();
+                    tiquetes.add(tiquete);
+                    p.cliente.hacerCompra(tiquetes, new ArrayList<PaqueteTiquetes>(), false);
+                    vendidos++;
+                    if (vendidos == ASIENTOS) {
+                        agotado = t;
+                    }
+                } catch (IllegalStateException e) {
+                    sala.salir(p.cliente.getId());
+                    sinAsiento++;
+                }
+            }
+        }
+        double real = (System.nanoTime() - inicio) / 1e9;
+
+        long[] orden = esperas.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("Usuarios %,d | admitidos %,d | rechazados por cola llena %,d | expirados %,d%n",
+                USUARIOS, sala.getTotalAdmitidos(), rechazados, sala.getTotalExpirados());
+        System.out.printf("Vendidos %,d de %,d | sin asiento %,d | agotado a los %s%n", vendidos, ASIENTOS, sinAsiento,
+                agotado < 0 ? "-" : String.format("%.1f s de abrir", (agotado - APERTURA) / 1000.0));
+        System.out.printf("Compradores activos máx. %,d (límite %,d)%n", maximoActivos, sala.getMaximoActivos());
+        System.out.printf("Espera en cola: p50 %.1f s | p90 %.1f s | p99 %.1f s | máx %.1f s%n",
+                percentil(orden, 0.50), percentil(orden, 0.90), percentil(orden, 0.99), orden[orden.length - 1] / 1000.0);
+        System.out.printf("Tiempo real de la simulación: %.2f s%n", real);
+    }
+
+    private static double percentil(long[] orden, double p) {
+        return orden[(int) Math.min(orden.length - 1, Math.round(p * (orden.length - 1)))] / 1000.0;
+    }
+}
@@ -0,0 +1,222 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.CambioAsiento;
+import Eventos.CanalCambios;
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.SuscripcionCambios;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Organizador;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class testCanalCambios {
+
+    private Evento evento;
+    private Localidad platea;
+    private Localidad general;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.10);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(100, "Coliseo", "Calle 1 #2-3", 100000, "No pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock", 500, venue, LocalDateTime.now().plusDays(7), organizador, "Concierto", admin);
+        platea = evento.crearLocalidad("Platea", true, 4000, 100.0, 90.0, 80.0, 150.0);
+        general = evento.crearLocalidad("General", false, 100, 50.0, 45.0, 40.0, 75.0);
+    }
+
+    /**
+     * Given: Una suscripción al evento.
+     * When:  El asiento 1 se vende, se libera y se vende otra vez; los asientos 2 y 3 se retienen
+     *        y el 3 se libera; en la general se venden 3 cupos y se cancela 1.
+     * Then:  Un solo lote trae el último estado de cada asiento y el neto de cupos vendidos (+2).
+     */
+    @Test
+    @DisplayName("tomarCambios: combina los cambios acumulados")
+    void combinaCambios() {
+        SuscripcionCambios s = evento.suscribirCambios();
+        platea.reservarAsiento(1);
+        platea.liberarAsiento(1);
+        platea.reservarAsiento(1);
+        platea.retenerAsientos(new int[] {2}, Duration.ofMinutes(5));
+        platea.liberarRetencion(platea.retenerAsientos(new int[] {3}, Duration.ofMinutes(5)));
+        general.reservarAsiento();
+        general.reservarAsiento();
+        general.reservarAsiento();
+        general.cancelarReservaGeneral();
+
+        SuscripcionCambios.Lote lote = s.tomarCambios(1000);
+        List<CambioAsiento> cambios = lote.getCambios();
+        assertEquals(4, cambios.size());
+        assertEquals(1, cambios.get(0).getAsiento());
+        assertEquals(CambioAsiento.VENDIDO, cambios.get(0).getEstado());
+        assertEquals(2, cambios.get(1).getAsiento());
+        assertEquals(CambioAsiento.RETENIDO, cambios.get(1).getEstado());
+        assertEquals(3, cambios.get(2).getAsiento());
+        assertEquals(CambioAsiento.LIBRE, cambios.get(2).getEstado());
+        assertTrue(cambios.get(3).esDeCupos());
+        assertEquals(2, cambios.get(3).getCantidad());
+        assertEquals(general, cambios.get(3).getLocalidad());
+
+        assertTrue(s.tomarCambios(1000).estaVacio());
+        s.cerrar();
+        assertThrows(IllegalStateException.class, () -> s.tomarCambios(10));
+    }
+
+    /**
+     * Given: Una suscripción solo a la general y ninguna suscripción previa al evento.
+     * When:  Se venden asientos en ambas localidades.
+     * Then:  La suscripción solo ve la general; antes de suscribirse el canal no registraba nada.
+     */
+    @Test
+    @DisplayName("suscribirCambios de localidad: filtra por localidad")
+    void filtraPorLocalidad() {
+        platea.reservarAsiento(9);
+        assertEquals(0, evento.getCanalCambios().getSecuencia());
+
+        SuscripcionCambios s = general.suscribirCambios();
+        platea.reservarAsiento(10);
+        general.reservarAsiento();
+
+        List<CambioAsiento> cambios = s.tomarCambios(100).getCambios();
+        assertEquals(1, cambios.size());
+        assertEquals(general, cambios.get(0).getLocalidad());
+    }
+
+    /**
+     * Given: Un canal de 8 cambios y una suscripción que no lee.
+     * When:  Se publican 20 cambios y luego 1 más.
+     * Then:  La primera lectura pide resincronizar; la siguiente trae el cambio nuevo.
+     */
+    @Test
+    @DisplayName("suscriptor atrasado: se le pide resincronizar")
+    void suscriptorAtrasado() {
+        CanalCambios canal = new CanalCambios(8);
+        SuscripcionCambios s = canal.suscribir(null);
+        for (int i = 1; i <= 20; i++) {
+            canal.publicar(platea, i, CambioAsiento.VENDIDO, 1);
+        }
+        assertTrue(s.tomarCambios(100).isResincronizar());
+
+        canal.publicar(platea, 50, CambioAsiento.LIBRE, 1);
+        List<CambioAsiento> cambios = s.tomarCambios(100).getCambios();
+        assertEquals(1, cambios.size());
+        assertEquals(50, cambios.get(0).getAsiento());
+    }
+
+    /**
+     * Given: Un suscriptor esperando cambios (long-poll) con límite de 5 segundos.
+     * When:  Otro hilo vende un asiento.
+     * Then:  El suscriptor despierta y recibe el cambio antes del límite.
+     */
+    @Test
+    @DisplayName("esperarCambios: despierta al publicarse un cambio")
+    void longPoll() throws InterruptedException {
+        SuscripcionCambios s = platea.suscribirCambios();
+        AtomicReference<SuscripcionCambios.Lote> recibido = new AtomicReference<SuscripcionCambios.Lote>();
+        Thread espera = new Thread(() -> {
+            try {
+                recibido.set(s.esperarCambios(100, 5000));
+            } catch (InterruptedException e) {
+                // Fin de la prueba.
+            }
+        });
+        long inicio = System.currentTimeMillis();
+        espera.start();
+        Thread.sleep(50);
+        platea.reservarAsiento(7);
+        espera.join();
+
+        assertTrue(System.currentTimeMillis() - inicio < 5000);
+        assertEquals(7, recibido.get().getCambios().get(0).getAsiento());
+    }
+
+    /**
+     * Given: 2.000 suscriptores al evento.
+     * When:  4 hilos venden 1.000 asientos distintos.
+     * Then:  Cada suscriptor recibe los 1.000 asientos como vendidos.
+     */
+    @Test
+    @DisplayName("fan-out: miles de suscriptores reciben todos los cambios")
+    void muchosSuscriptores() throws InterruptedException {
+        List<SuscripcionCambios> suscripciones = new ArrayList<SuscripcionCambios>();
+        for (int i = 0; i < 2000; i++) {
+            suscripciones.add(evento.suscribirCambios());
+        }
+        List<Thread> hilos = new ArrayList<Thread>();
+        for (int h = 0; h < 4; h++) {
+            int base = h * 250;
+            Thread t = new Thread(() -> {
+                for (int a = 1; a <= 250; a++) {
+                    platea.reservarAsiento(base + a);
+                }
+            });
+            hilos.add(t);
+            t.start();
+        }
+        for (Thread t : hilos) {
+            t.join();
+        }
+
+        for (SuscripcionCambios s : suscripciones) {
+            List<CambioAsiento> cambios = s.tomarCambios(10_000).getCambios();
+            assertEquals(1000, cambios.size());
+            for (CambioAsiento c : cambios) {
+                assertEquals(CambioAsiento.VENDIDO, c.getEstado());
+            }
+        }
+    }
+
+    /**
+     * Given: Una suscripción al evento y 4 hilos que compiten por los mismos 4 asientos.
+     * When:  Cada hilo vende y luego libera el asiento que logra tomar, 1.000 veces.
+     * Then:  Al combinar los cambios, el último estado de cada asiento es libre, como en la
+     *        localidad: una venta y una liberación simultáneas no se publican invertidas.
+     */
+    @Test
+    @DisplayName("publicar: los cambios de un asiento se publican en el orden en que ocurren")
+    void ordenPorAsiento() throws InterruptedException {
+        SuscripcionCambios s = evento.suscribirCambios();
+        List<Thread> hilos = new ArrayList<Thread>();
+        for (int h = 0; h < 4; h++) {
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    int asiento = 1 + i % 4;
+                    try {
+                        platea.reservarAsiento(asiento);
+                    } catch (IllegalStateException e) {
+                        continue; // lo tiene otro hilo
+                    }
+                    platea.liberarAsiento(asiento);
+                }
+            });
+            hilos.add(t);
+            t.start();
+        }
+        for (Thread t : hilos) {
+            t.join();
+        }
+
+        SuscripcionCambios.Lote lote = s.tomarCambios(10_000);
+        assertFalse(lote.isResincronizar());
+        assertEquals(4, lote.getCambios().size());
+        for (CambioAsiento c : lote.getCambios()) {
+            assertTrue(platea.asientoDisponible(c.getAsiento()));
+            assertEquals(CambioAsiento.LIBRE, c.getEstado());
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package testEventos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.CodigoDescuento;
+import Eventos.Cotizador;
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.MotorDescuentos;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Tiquetes.Compra;
+import Tiquetes.Individual;
+import Tiquetes.Multiple;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+public class testCodigosDescuento {
+
+    private Administrador admin;
+    private Evento evento;
+    private Evento otroEvento;
+    private Localidad vip;
+    private Localidad general;
+    private Cliente cliente;
+    private List<String> registrados;
+
+    @BeforeEach
+    void setUp() {
+        admin = new Administrador("admin", "pwd", "Administrador", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.1);
+        admin.setCuotaEmisionGlobal(1.0);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Teatro Nacional", "Calle 123", 1000, "Sin pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock Fest", 1001, venue, LocalDateTime.now().plusDays(5), organizador, "Concierto", admin);
+        otroEvento = new Evento("Obra", 1002, venue, LocalDateTime.now().plusDays(6), organizador, "Teatro", admin);
+        vip = evento.crearLocalidad("VIP", true, 100, 100.0, 100.0, 100.0, 100.0);
+        general = evento.crearLocalidad("General", true, 100, 50.0, 50.0, 50.0, 50.0);
+        cliente = new Cliente("user1", "pass", "Cliente Uno", 100);
+        cliente.setSaldo(10000.0);
+        registrados = new ArrayList<String>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String c : registrados) {
+            MotorDescuentos.getInstance().eliminar(c);
+        }
+    }
+
+    private CodigoDescuento registrar(CodigoDescuento c) {
+        MotorDescuentos.getInstance().registrar(c);
+        registrados.add(c.getCodigo());
+        return c;
+    }
+
+    /**
+     * Given: Códigos con alcance de evento, localidad, tipo de evento y tipo de producto.
+     * When:  Se validan para distintos productos.
+     * Then:  Cada código solo aplica dentro de su alcance y no distingue mayúsculas.
+     */
+    @Test
+    @DisplayName("MotorDescuentos: cada alcance limita a qué productos aplica el código")
+    void alcances() {
+        MotorDescuentos motor = new MotorDescuentos();
+        motor.registrar(CodigoDescuento.paraEvento("ROCK10", CodigoDescuento.PORCENTAJE, 10, evento, 0));
+        motor.registrar(CodigoDescuento.paraLocalidad("VIP5", CodigoDescuento.FIJO, 5, vip, 0));
+        motor.registrar(CodigoDescuento.paraTipoEvento("TEATRO", CodigoDescuento.PORCENTAJE, 20, "Teatro", 0));
+        motor.registrar(CodigoDescuento.paraTipoProducto("PACK", CodigoDescuento.PORCENTAJE, 15, Cotizador.MULTIPLE, 0));
+
+        assertNotNull(motor.validar("rock10", evento, general, Cotizador.INDIVIDUAL));
+        assertNull(motor.validar("ROCK10", otroEvento, null, Cotizador.INDIVIDUAL));
+        assertNotNull(motor.validar(" vip5 ", evento, vip, Cotizador.DELUXE));
+        assertNull(motor.validar("VIP5", evento, general, Cotizador.INDIVIDUAL));
+        assertNotNull(motor.validar("TEATRO", otroEvento, null, Cotizador.INDIVIDUAL));
+        assertNull(motor.validar("TEATRO", evento, vip, Cotizador.INDIVIDUAL));
+        assertNotNull(motor.validar("PACK", otroEvento, null, Cotizador.MULTIPLE));
+        assertNull(motor.validar("PACK", evento, vip, Cotizador.INDIVIDUAL));
+        assertNull(motor.validar("NADA", evento, vip, Cotizador.INDIVIDUAL));
+
+        assertEquals(2, motor.getCodigosEvento(evento).size());
+        assertThrows(IllegalArgumentException.class,
+                () -> motor.registrar(CodigoDescuento.paraEvento("Rock10", CodigoDescuento.FIJO, 1, otroEvento, 0)));
+        assertTrue(motor.eliminar("vip5"));
+        assertNull(motor.validar("VIP5", evento, vip, Cotizador.INDIVIDUAL));
+    }
+
+    /**
+     * Given: Un porcentaje, un monto fijo menor al subtotal y uno mayor.
+     * When:  Se calcula el descuento.
+     * Then:  El porcentaje se redondea al centavo y el fijo nunca pasa del subtotal.
+     */
+    @Test
+    @DisplayName("CodigoDescuento: calcula porcentajes y montos fijos sin pasar del subtotal")
+    void calculoDescuento() {
+        CodigoDescuento pct = CodigoDescuento.paraEvento("P", CodigoDescuento.PORCENTAJE, 12.5, evento, 0);
+        CodigoDescuento fijo = CodigoDescuento.paraEvento("F", CodigoDescuento.FIJO, 30, evento, 0);
+
+        assertEquals(1250, pct.calcularDescuentoCentavos(10000));
+        assertEquals(3000, fijo.calcularDescuentoCentavos(10000));
+        assertEquals(2000, fijo.calcularDescuentoCentavos(2000));
+        assertEquals(0, fijo.calcularDescuentoCentavos(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> CodigoDescuento.paraEvento("X", CodigoDescuento.PORCENTAJE, 120, evento, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> CodigoDescuento.paraTipoProducto("X", CodigoDescuento.FIJO, 1, "Palco", 0));
+    }
+
+    /**
+     * Given: Textos de código con comillas, barra invertida o espacios internos, y uno con
+     *        letras, dígitos, '-' y '_'.
+     * When:  Se crean los códigos.
+     * Then:  Los primeros se rechazan, porque romperían los archivos de compras; el último se
+     *        acepta normalizado.
+     */
+    @Test
+    @DisplayName("CodigoDescuento: solo admite letras, dígitos, '-' y '_'")
+    void caracteresPermitidos() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CodigoDescuento.paraEvento("DIEZ\"", CodigoDescuento.PORCENTAJE, 10, evento, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> CodigoDescuento.paraEvento("DIEZ\\", CodigoDescuento.PORCENTAJE, 10, evento, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> CodigoDescuento.paraEvento("DIEZ POR", CodigoDescuento.PORCENTAJE, 10, evento, 0));
+        assertEquals("AÑO-NUEVO_10",
+                CodigoDescuento.paraEvento(" año-nuevo_10 ", CodigoDescuento.PORCENTAJE, 10, evento, 0).getCodigo());
+    }
+
+    /**
+     * Given: Un código de localidad del 10 % y una compra con un tiquete en esa localidad y
+     *        otro en otra.
+     * When:  El cliente paga con el código.
+     * Then:  Solo se descuenta el precio del tiquete dentro del alcance, sin tocar los cargos,
+     *        y la compra registra el código.
+     */
+    @Test
+    @DisplayName("Compra: el código descuenta solo los productos dentro de su alcance")
+    void compraConCodigo() {
+        CodigoDescuento codigo = registrar(CodigoDescuento.paraLocalidad("VIPDIEZ", CodigoDescuento.PORCENTAJE, 10, vip, 0));
+        ArrayList<Tiquete> tiquetes = new ArrayList<Tiquete>();
+        tiquetes.add(new Individual(1, 100.0, evento, vip, cliente, true, 1));
+        tiquetes.add(new Individual(2, 50.0, evento, general, cliente, true, 2));
+
+        Compra compra = cliente.hacerCompra(tiquetes, new ArrayList<PaqueteTiquetes>(), true, "vipdiez");
+
+        long sinDescuento = (10000 + 1000 + 100) + (5000 + 500 + 100);
+        assertEquals(1000, compra.getDescuentoCentavos());
+        assertEquals("VIPDIEZ", compra.getCodigoDescuento());
+        assertEquals(sinDescuento - 1000, compra.getValorCompraCentavos());
+        assertEquals(1_000_000 - (sinDescuento - 1000), cliente.getSaldoCentavos());
+        assertEquals(1, codigo.getUsos());
+    }
+
+    /**
+     * Given: Un código para paquetes Multiple y otro que no aplica a la compra.
+     * When:  Se paga un paquete Multiple con el primero y un tiquete suelto con el segundo.
+     * Then:  El paquete recibe el descuento; el segundo intento falla sin canjear ni cobrar.
+     */
+    @Test
+    @DisplayName("Compra: códigos por tipo de producto y códigos que no aplican")
+    void codigoPorTipoProducto() {
+        registrar(CodigoDescuento.paraTipoProducto("MULTI20", CodigoDescuento.FIJO, 20, Cotizador.MULTIPLE, 0));
+        CodigoDescuento teatro = registrar(CodigoDescuento.paraTipoEvento("SOLOTEATRO", CodigoDescuento.PORCENTAJE, 50, "Teatro", 0));
+        ArrayList<Tiquete> incluidos = new ArrayList<Tiquete>();
+        incluidos.add(new Individual(1, 50.0, evento, general, cliente, true, 1));
+        incluidos.add(new Individual(2, 50.0, evento, general, cliente, true, 2));
+        ArrayList<PaqueteTiquetes> paquetes = new ArrayList<PaqueteTiquetes>();
+        paquetes.add(new Multiple(1, cliente, 100.0, incluidos));
+
+        Compra compra = cliente.hacerCompra(new ArrayList<Tiquete>(), paquetes, true, "MULTI20");
+        assertEquals(2000, compra.getDescuentoCentavos());
+
+        ArrayList<Tiquete> suelto = new ArrayList<Tiquete>();
+        suelto.add(new Individual(3, 50.0, evento, general, cliente, true, 3));
+        long saldo = cliente.getSaldoCentavos();
+        assertThrows(IllegalArgumentException.class,
+                () -> cliente.hacerCompra(suelto, new ArrayList<PaqueteTiquetes>(), true, "SOLOTEATRO"));
+        assertThrows(IllegalArgumentException.class,
+                () -> cliente.hacerCompra(suelto, new ArrayList<PaqueteTiquetes>(), true, "NOEXISTE"));
+        assertEquals(saldo, cliente.getSaldoCentavos());
+        assertEquals(0, teatro.getUsos());
+    }
+
+    /**
+     * Given: Un código con 25 usos y 8 hilos que intentan canjearlo 10 veces cada uno.
+     * When:  Todos canjean a la vez.
+     * Then:  Exactamente 25 canjes tienen éxito y devolver un canje libera un uso.
+     */
+    @Test
+    @DisplayName("CodigoDescuento: los canjes simultáneos respetan el máximo de usos")
+    void canjesConcurrentes() throws Exception {
+        CodigoDescuento codigo = CodigoDescuento.paraEvento("LIMITADO", CodigoDescuento.PORCENTAJE, 10, evento, 25);
+        AtomicInteger exitos = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> hilos = new ArrayList<Thread>();
+        for (int h = 0; h < 8; h++) {
+            hilos.add(new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 10; i++) {
+                    if (codigo.canjear()) {
+                        exitos.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread h : hilos) {
+            h.start();
+        }
+        salida.countDown();
+        for (Thread h : hilos) {
+            h.join();
+        }
+
+        assertEquals(25, exitos.get());
+        assertEquals(25, codigo.getUsos());
+        assertFalse(codigo.tieneUsosDisponibles());
+        codigo.devolverCanje();
+        assertTrue(codigo.canjear());
+        assertFalse(codigo.canjear());
+    }
+
+    /**
+     * Given: Un código de un solo uso ya canjeado.
+     * When:  Otro cliente intenta pagar con él.
+     * Then:  La compra falla con IllegalStateException y el precio de sus tiquetes queda abierto.
+     */
+    @Test
+    @DisplayName("Compra: un código agotado rechaza la compra")
+    void codigoAgotado() {
+        registrar(CodigoDescuento.paraEvento("UNICO", CodigoDescuento.FIJO, 10, evento, 1));
+        ArrayList<Tiquete> primera = new ArrayList<Tiquete>();
+        primera.add(new Individual(1, 50.0, evento, general, cliente, true, 1));
+        cliente.hacerCompra(primera, new ArrayList<PaqueteTiquetes>(), true, "UNICO");
+
+        Individual t = new Individual(2, 50.0, evento, general, cliente, true, 2);
+        ArrayList<Tiquete> segunda = new ArrayList<Tiquete>();
+        segunda.add(t);
+        assertThrows(IllegalStateException.class,
+                () -> cliente.hacerCompra(segunda, new ArrayList<PaqueteTiquetes>(), true, "UNICO"));
+        admin.setCuotaEmisionGlobal(2.0);
+        assertTrue(t.aplicarTarifas(admin.getTarifas()));
+    }
+}
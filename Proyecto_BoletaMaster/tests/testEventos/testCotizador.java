@@ -0,0 +1,167 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Cotizacion;
+import Eventos.Cotizador;
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Oferta;
+import Eventos.Venue;
+import Tiquetes.Compra;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+public class testCotizador {
+
+    private Administrador admin;
+    private Evento evento;
+    private Localidad platea;
+    private Cotizador cotizador;
+    private LocalDateTime ahora;
+
+    @BeforeEach
+    void setUp() {
+        admin = new Administrador("admin", "pwd", "Admin", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.10);
+        admin.establecerCuotaEmisionGlobal(2.0);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(100, "Coliseo", "Calle 1 #2-3", 1000, "No pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock", 500, venue, LocalDateTime.now().plusDays(30), organizador, "Concierto", admin);
+        platea = evento.crearLocalidad("Platea", true, 100, 100.0, 90.0, 80.0, 150.0);
+        cotizador = Cotizador.getInstance();
+        ahora = LocalDateTime.now();
+    }
+
+    /**
+     * Given: Dos ofertas activas de 10 % y 25 % en la platea y una de 50 % ya vencida.
+     * When:  Se cotiza un tiquete individual y un paquete múltiple.
+     * Then:  Se aplica el mayor descuento activo, el cargo de servicio se calcula sobre el
+     *        precio con descuento y la cuota de emisión es la del administrador.
+     */
+    @Test
+    @DisplayName("cotizar: aplica el mayor descuento activo y desglosa los cargos")
+    void aplicaMejorDescuento() {
+        evento.crearOferta(10.0, ahora.minusDays(1), ahora.plusDays(1), platea);
+        evento.crearOferta(25.0, ahora.minusHours(1), ahora.plusHours(1), platea);
+        evento.crearOferta(50.0, ahora.minusDays(5), ahora.minusDays(4), platea);
+
+        Cotizacion c = cotizador.cotizar(evento, platea, Cotizador.INDIVIDUAL, ahora);
+        assertEquals(100.0, c.getPrecioBase(), 1e-9);
+        assertEquals(25.0, c.getPorcentajeDescuento(), 1e-9);
+        assertEquals(75.0, c.getPrecio(), 1e-9);
+        assertEquals(25.0, c.getDescuento(), 1e-9);
+        assertEquals(7.5, c.getCargoServicio(), 1e-9);
+        assertEquals(2.0, c.getCuotaEmision(), 1e-9);
+        assertEquals(84.5, c.getTotal(), 1e-9);
+        assertEquals(ahora.plusHours(1).plusNanos(1), c.getValidaHasta());
+
+        assertEquals(67.5, cotizador.cotizar(platea, Cotizador.MULTIPLE, ahora).getPrecio(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> cotizador.cotizar(platea, "Palco", ahora));
+    }
+
+    /**
+     * Given: Una cotización ya calculada.
+     * When:  Se vuelve a cotizar sin cambios, luego tras cambiar el precio base, crear una
+     *        oferta, cambiar las tarifas del administrador y cruzar el fin de una oferta.
+     * Then:  Sin cambios se reutiliza la misma cotización; cada cambio obliga a recalcular.
+     */
+    @Test
+    @DisplayName("cotizar: reutiliza hasta que cambian precios, ofertas, tarifas o la hora")
+    void invalidacion() {
+        Oferta oferta = evento.crearOferta(20.0, ahora.minusDays(1), ahora.plusDays(1), platea);
+        Cotizacion primera = cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora);
+        assertSame(primera, cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora.plusHours(3)));
+
+        platea.setPrecioBase(200.0);
+        Cotizacion segunda = cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora);
+        assertNotSame(primera, segunda);
+        assertEquals(160.0, segunda.getPrecio(), 1e-9);
+
+        evento.crearOferta(40.0, ahora.minusHours(1), ahora.plusHours(1), platea);
+        assertEquals(120.0, cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora).getPrecio(), 1e-9);
+
+        admin.establecerCargoServicioPorTipo("Concierto", 0.20);
+        assertEquals(12.0, cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora).getCargoServicio(), 1e-9);
+        evento.aplicarTarifas(admin.getTarifas());
+        assertEquals(24.0, cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora).getCargoServicio(), 1e-9);
+
+        assertEquals(160.0, cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora.plusHours(2)).getPrecio(), 1e-9);
+        assertEquals(200.0, cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora.plusDays(2)).getPrecio(), 1e-9);
+
+        oferta.setPorcentajeDescuento(50.0);
+        assertEquals(100.0, cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora.plusHours(2)).getPrecio(), 1e-9);
+    }
+
+    /**
+     * Given: 5.000 cotizaciones de la misma localidad sin cambios.
+     * When:  Se cotizan una tras otra.
+     * Then:  Solo la primera se calcula; el resto se reutiliza.
+     */
+    @Test
+    @DisplayName("cotizar: muchas consultas iguales no recalculan")
+    void reutilizaEnCatalogo() {
+        evento.crearOferta(10.0, ahora.minusDays(1), ahora.plusDays(1), platea);
+        long calculosAntes = cotizador.getCalculos();
+        long aciertosAntes = cotizador.getAciertos();
+        for (int i = 0; i < 5000; i++) {
+            cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora.plusSeconds(i));
+        }
+        assertEquals(1, cotizador.getCalculos() - calculosAntes);
+        assertEquals(4999, cotizador.getAciertos() - aciertosAntes);
+    }
+
+    /**
+     * Given: Una oferta activa del 30 % en la platea.
+     * When:  Un cliente precompra un tiquete y lo compra.
+     * Then:  El tiquete y el total de la compra reflejan el precio con descuento.
+     */
+    @Test
+    @DisplayName("Cliente: la compra usa el precio con descuento")
+    void compraConDescuento() {
+        evento.crearOferta(30.0, ahora.minusDays(1), ahora.plusDays(1), platea);
+        Cliente cliente = new Cliente("login", "pwd", "Cliente", 101);
+
+        Individual tiquete = cliente.precompraIndividualNumerada(1, evento, platea, 5);
+        assertEquals(70.0, tiquete.getPrecio(), 1e-9);
+        assertEquals(7.0, tiquete.getCargoServicio(), 1e-9);
+
+        ArrayList<Tiquete> tiquetes = new ArrayList<Tiquete>();
+        tiquetes.add(tiquete);
+        Compra compra = cliente.hacerCompra(tiquetes, new ArrayList<PaqueteTiquetes>(), false);
+        assertEquals(79.0, compra.getvalorCompra(), 1e-9);
+    }
+
+    /**
+     * Given: Una oferta del 33,33 % que deja un cargo de servicio con fracción de centavo.
+     * When:  Se cotiza la platea y un cliente precompra un tiquete.
+     * Then:  El cargo cotizado es el mismo que se cobra, y cotizar no cambia la localidad.
+     */
+    @Test
+    @DisplayName("cotizar: el cargo se calcula en centavos y la consulta no modifica la localidad")
+    void cargoEnCentavosSinEfectos() {
+        evento.crearOferta(33.33, ahora.minusDays(1), ahora.plusDays(1), platea);
+        long version = platea.getVersion();
+        int puntos = platea.getHistorialPrecios().getCantidad();
+
+        Cotizacion c = cotizador.cotizar(platea, Cotizador.INDIVIDUAL, LocalDateTime.now());
+        assertEquals(6.67, c.getCargoServicio(), 1e-9);
+        assertEquals(version, platea.getVersion());
+        assertEquals(puntos, platea.getHistorialPrecios().getCantidad());
+
+        Individual tiquete = new Cliente("login", "pwd", "Cliente", 101).precompraIndividualNumerada(1, evento, platea, 5);
+        assertEquals(tiquete.getCargoServicio(), c.getCargoServicio(), 1e-9);
+    }
+}
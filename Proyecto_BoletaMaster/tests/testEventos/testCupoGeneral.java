@@ -0,0 +1,244 @@
+package testEventos;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.CupoGeneral;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class testCupoGeneral {
+
+    /**
+     * Given: Un asignador con capacidad 3.
+     * When:  Se toman cupos hasta agotarlos, se devuelve uno y se vuelve a tomar.
+     * Then:  Solo se entregan 3 cupos; tras devolver uno se puede tomar otra vez y
+     *        devolver sin ventas lanza IllegalStateException.
+     */
+    @Test
+    @DisplayName("tomar/devolver: respeta la capacidad en un solo hilo")
+    void tomarYDevolver() {
+        CupoGeneral cupo = new CupoGeneral(3);
+        assertThrows(IllegalStateException.class, cupo::devolver);
+
+        assertTrue(cupo.tomar());
+        assertTrue(cupo.tomar());
+        assertTrue(cupo.tomar());
+        assertFalse(cupo.tomar());
+        assertEquals(3, cupo.getVendidos());
+        assertFalse(cupo.hayDisponibles());
+
+        cupo.devolver();
+        assertEquals(2, cupo.getVendidos());
+        assertTrue(cupo.hayDisponibles());
+        assertTrue(cupo.tomar());
+    }
+
+    /**
+     * Given: Un asignador de 10.000 cupos donde otro hilo ya trajo un lote a su franja.
+     * When:  El hilo principal toma cupos hasta que el asignador dice que no quedan.
+     * Then:  Debe obtener los 9.999 cupos restantes, incluidos los que quedaron
+     *        guardados en la franja del otro hilo (rebalanceo).
+     */
+    @Test
+    @DisplayName("rebalanceo: los cupos guardados en otra franja no se pierden")
+    void rebalanceoEntreFranjas() throws InterruptedException {
+        CupoGeneral cupo = new CupoGeneral(10000);
+        Thread otro = new Thread(() -> assertTrue(cupo.tomar()));
+        otro.start();
+        otro.join();
+
+        int obtenidos = 0;
+        while (cupo.tomar()) {
+            obtenidos++;
+        }
+        assertEquals(9999, obtenidos);
+        assertEquals(10000, cupo.getVendidos());
+        assertEquals(0, cupo.contarDisponibles());
+    }
+
+    /**
+     * Given: Un asignador de 100 cupos con 50 vendidos.
+     * When:  Se reduce la capacidad a 60 y luego se aumenta a 70.
+     * Then:  Tras la reducción solo quedan 10 cupos por vender; tras el aumento, 10 más.
+     */
+    @Test
+    @DisplayName("setCapacidad: recoge cupos de las franjas y ajusta la diferencia")
+    void cambioDeCapacidad() {
+        CupoGeneral cupo = new CupoGeneral(100);
+        for (int i = 0; i < 50; i++) {
+            assertTrue(cupo.tomar());
+        }
+        cupo.setCapacidad(60);
+        assertEquals(10, cupo.contarDisponibles());
+
+        int extra = 0;
+        while (cupo.tomar()) {
+            extra++;
+        }
+        assertEquals(10, extra);
+
+        cupo.setCapacidad(70);
+        assertEquals(10, cupo.contarDisponibles());
+        assertEquals(70, cupo.getCapacidad());
+    }
+
+    /**
+     * Given: Un asignador de 100 cupos con 50 vendidos.
+     * When:  Se reduce la capacidad a 40 y luego se devuelven cupos.
+     * Then:  Los primeros 10 cupos devueltos pagan la reducción; solo el siguiente se puede
+     *        volver a vender.
+     */
+    @Test
+    @DisplayName("setCapacidad: una reducción por debajo de lo vendido se paga con devoluciones")
+    void reduccionPorDebajoDeLoVendido() {
+        CupoGeneral cupo = new CupoGeneral(100);
+        for (int i = 0; i < 50; i++) {
+            assertTrue(cupo.tomar());
+        }
+        cupo.setCapacidad(40);
+        for (int i = 0; i < 10; i++) {
+            cupo.devolver();
+            assertFalse(cupo.hayDisponibles());
+        }
+        assertFalse(cupo.tomar());
+
+        cupo.devolver();
+        assertTrue(cupo.tomar());
+        assertFalse(cupo.tomar());
+        assertEquals(40, cupo.getVendidos());
+    }
+
+    /**
+     * Given: Un asignador con un solo cupo vendido.
+     * When:  16 hilos intentan cancelarlo a la vez.
+     * Then:  Solo una cancelación tiene éxito y queda exactamente un cupo disponible.
+     */
+    @Test
+    @DisplayName("devolver: cancelaciones simultáneas no crean cupos que no se vendieron")
+    void devolucionesSimultaneas() throws InterruptedException {
+        for (int ronda = 0; ronda < 50; ronda++) {
+            CupoGeneral cupo = new CupoGeneral(10);
+            assertTrue(cupo.tomar());
+            AtomicInteger exitos = new AtomicInteger();
+            CountDownLatch salida = new CountDownLatch(1);
+            List<Thread> lista = new ArrayList<Thread>();
+            for (int h = 0; h < 16; h++) {
+                Thread t = new Thread(() -> {
+                    try {
+                        salida.await();
+                        cupo.devolver();
+                        exitos.incrementAndGet();
+                    } catch (InterruptedException | IllegalStateException e) {
+                        // ya no quedaba nada que cancelar
+                    }
+                });
+                lista.add(t);
+                t.start();
+            }
+            salida.countDown();
+            for (Thread t : lista) {
+                t.join();
+            }
+            assertEquals(1, exitos.get());
+            assertEquals(0, cupo.getVendidos());
+            assertEquals(10, cupo.contarDisponibles());
+        }
+    }
+
+    /**
+     * Given: 8 hilos comprando cupos de un asignador grande.
+     * When:  A mitad de las compras la capacidad se reduce a 0.
+     * Then:  Ningún lote en camino sobrevive a la reducción: al terminar no queda ningún cupo
+     *        por vender.
+     */
+    @Test
+    @DisplayName("setCapacidad: una reducción durante compras no deja cupos sueltos")
+    void reduccionDuranteCompras() throws InterruptedException {
+        for (int ronda = 0; ronda < 20; ronda++) {
+            CupoGeneral cupo = new CupoGeneral(1_000_000);
+            CountDownLatch salida = new CountDownLatch(1);
+            List<Thread> lista = new ArrayList<Thread>();
+            for (int h = 0; h < 8; h++) {
+                Thread t = new Thread(() -> {
+                    try {
+                        salida.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 2_000; i++) {
+                        cupo.tomar();
+                    }
+                });
+                lista.add(t);
+                t.start();
+            }
+            salida.countDown();
+            cupo.setCapacidad(0);
+            int despues = 0;
+            while (cupo.tomar()) {
+                despues++;
+            }
+            for (Thread t : lista) {
+                t.join();
+            }
+            assertEquals(0, despues);
+            assertFalse(cupo.tomar());
+            assertEquals(0, cupo.contarDisponibles());
+        }
+    }
+
+    /**
+     * Given: Un asignador de 30.000 cupos (como la General de Rock al Parque) y 64 hilos
+     *        que intentan comprar 1.000 cupos cada uno, devolviendo algunos por el camino.
+     * When:  Todos compran a la vez.
+     * Then:  Nunca se sobrevende: las compras netas son exactamente 30.000 y no queda
+     *        ningún cupo disponible.
+     */
+    @Test
+    @DisplayName("concurrencia: nunca sobrevende y no pierde cupos devueltos")
+    void concurrenciaSinSobreventa() throws InterruptedException {
+        int capacidad = 30000;
+        int hilos = 64;
+        CupoGeneral cupo = new CupoGeneral(capacidad);
+        AtomicInteger netos = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> lista = new ArrayList<Thread>();
+
+        for (int h = 0; h < hilos; h++) {
+            Thread t = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (cupo.tomar()) {
+                        netos.incrementAndGet();
+                        if (i % 10 == 0) {
+                            cupo.devolver();
+                            netos.decrementAndGet();
+                        }
+                    }
+                }
+            });
+            lista.add(t);
+            t.start();
+        }
+        salida.countDown();
+        for (Thread t : lista) {
+            t.join();
+        }
+
+        while (cupo.tomar()) {
+            netos.incrementAndGet();
+        }
+        assertEquals(capacidad, netos.get());
+        assertEquals(capacidad, cupo.getVendidos());
+        assertFalse(cupo.hayDisponibles());
+    }
+}
@@ -0,0 +1,150 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.DisponibilidadEvento;
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Organizador;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class testDisponibilidadEvento {
+
+    private Evento evento;
+    private Localidad platea;
+    private Localidad general;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.10);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(100, "Coliseo", "Calle 1 #2-3", 100000, "No pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock", 500, venue, LocalDateTime.now().plusDays(7), organizador, "Concierto", admin);
+        platea = evento.crearLocalidad("Platea", true, 10, 100.0, 90.0, 80.0, 150.0);
+        general = evento.crearLocalidad("General", false, 200, 50.0, 45.0, 40.0, 75.0);
+    }
+
+    /**
+     * Given: Un evento con una platea de 10 asientos y una general de 200 cupos.
+     * When:  Se piden dos fotografías seguidas sin ventas y luego se venden y retienen lugares.
+     * Then:  Sin cambios se entrega la misma fotografía; tras los cambios hay una nueva versión
+     *        con los conteos correctos y la fotografía vieja no cambia.
+     */
+    @Test
+    @DisplayName("getDisponibilidad: solo publica una versión nueva cuando algo cambia")
+    void publicaSoloConCambios() {
+        DisponibilidadEvento v1 = evento.getDisponibilidad();
+        assertSame(v1, evento.getDisponibilidad());
+        assertFalse(evento.haCambiadoDesde(v1.getVersion()));
+        assertEquals(210, v1.contarDisponibles());
+
+        platea.reservarAsiento(1);
+        platea.reservarAsiento(2);
+        general.reservarAsiento();
+        platea.retenerAsientos(new int[] {3}, Duration.ofMinutes(5));
+
+        assertTrue(evento.haCambiadoDesde(v1.getVersion()));
+        DisponibilidadEvento v2 = evento.getDisponibilidad();
+        assertEquals(v1.getVersion() + 1, v2.getVersion());
+
+        DisponibilidadEvento.ResumenLocalidad p = v2.buscarLocalidad("platea");
+        assertEquals(2, p.getVendidos());
+        assertEquals(1, p.getRetenidos());
+        assertEquals(7, p.getDisponibles());
+        assertEquals(platea.calcularOcupacion(), p.getOcupacion(), 0.0001);
+        assertEquals(1, v2.buscarLocalidad("General").getVendidos());
+
+        assertEquals(10, v1.buscarLocalidad("Platea").getDisponibles());
+        assertThrows(UnsupportedOperationException.class, () -> v2.getLocalidades().clear());
+    }
+
+    /**
+     * Given: Una fotografía publicada.
+     * When:  Se cambia el precio base de una localidad y luego se crea una localidad nueva.
+     * Then:  Cada cambio de configuración produce una versión nueva.
+     */
+    @Test
+    @DisplayName("publicarDisponibilidad: cambios de configuración también cuentan")
+    void cambiosDeConfiguracion() {
+        long v1 = evento.publicarDisponibilidad().getVersion();
+        general.setPrecioBase(60.0);
+        DisponibilidadEvento v2 = evento.publicarDisponibilidad();
+        assertEquals(v1 + 1, v2.getVersion());
+        assertEquals(60.0, v2.buscarLocalidad("General").getPrecioBase(), 0.0001);
+
+        evento.crearLocalidad("VIP", true, 5, 300.0, 280.0, 250.0, 400.0);
+        DisponibilidadEvento v3 = evento.publicarDisponibilidad();
+        assertEquals(v1 + 2, v3.getVersion());
+        assertNotNull(v3.buscarLocalidad("VIP"));
+    }
+
+    /**
+     * Given: 8 compradores vendiendo 25 cupos cada uno y 8 lectores consultando sin pausa.
+     * When:  Terminan los compradores y se lee una vez más.
+     * Then:  Las versiones que ve cada lector nunca retroceden y la última fotografía
+     *        refleja los 200 cupos vendidos.
+     */
+    @Test
+    @DisplayName("lectores concurrentes: versiones monótonas y fotografía final exacta")
+    void lectoresYCompradores() throws InterruptedException {
+        AtomicBoolean fin = new AtomicBoolean(false);
+        AtomicBoolean retrocedio = new AtomicBoolean(false);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> compradores = new ArrayList<Thread>();
+        List<Thread> lectores = new ArrayList<Thread>();
+
+        for (int i = 0; i < 8; i++) {
+            Thread c = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int k = 0; k < 25; k++) {
+                    general.reservarAsiento();
+                }
+            });
+            Thread l = new Thread(() -> {
+                long ultima = 0;
+                while (!fin.get()) {
+                    long v = evento.getDisponibilidad().getVersion();
+                    if (v < ultima) {
+                        retrocedio.set(true);
+                    }
+                    ultima = v;
+                }
+            });
+            compradores.add(c);
+            lectores.add(l);
+            c.start();
+            l.start();
+        }
+        salida.countDown();
+        for (Thread c : compradores) {
+            c.join();
+        }
+        fin.set(true);
+        for (Thread l : lectores) {
+            l.join();
+        }
+
+        assertFalse(retrocedio.get());
+        DisponibilidadEvento ultima = evento.getDisponibilidad();
+        assertEquals(200, ultima.buscarLocalidad("General").getVendidos());
+        assertFalse(ultima.buscarLocalidad("General").hayDisponibilidad());
+    }
+}
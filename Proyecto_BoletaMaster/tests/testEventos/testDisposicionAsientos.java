@@ -0,0 +1,146 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.DisposicionAsientos;
+import Eventos.Evento;
+import Eventos.FilaAsientos;
+import Eventos.Localidad;
+import Eventos.Retencion;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Organizador;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+public class testDisposicionAsientos {
+
+    private Evento evento;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.10);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(100, "Coliseo", "Calle 1 #2-3", 100000, "No pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock", 500, venue, LocalDateTime.now().plusDays(7), organizador, "Concierto", admin);
+    }
+
+    /**
+     * Given: Dos filas de 5 asientos (1-5 y 6-10) y los asientos 2 y 8 ocupados.
+     * When:  Se buscan bloques de 3, 4 y 5 asientos contiguos.
+     * Then:  El bloque de 3 sale de la primera fila (3-5), el de 4 no cruza de fila y no existe
+     *        ninguno de 5.
+     */
+    @Test
+    @DisplayName("buscarContiguos: respeta el orden de filas y nunca cruza de fila")
+    void bloquesPorFila() {
+        Localidad platea = new Localidad("Platea", true, 10, 100.0, evento, 90.0, 80.0, 150.0);
+        platea.setDisposicion(DisposicionAsientos.uniforme("Platea", 2, 5));
+        platea.reservarAsiento(2);
+        platea.reservarAsiento(8);
+
+        assertArrayEquals(new int[] {3, 4, 5}, platea.buscarMejoresAsientos(3));
+        assertArrayEquals(new int[0], platea.buscarMejoresAsientos(4));
+        assertEquals(3, platea.getDisposicion().mayorBloqueLibre());
+
+        platea.liberarAsiento(8);
+        assertArrayEquals(new int[] {6, 7, 8, 9}, platea.buscarMejoresAsientos(4));
+        assertArrayEquals(new int[] {6, 7, 8, 9, 10}, platea.buscarMejoresAsientos(5));
+    }
+
+    /**
+     * Given: Una platea de 20 filas de 50 asientos con reservas y liberaciones aleatorias.
+     * When:  Después de cada cambio se pide el mejor bloque de 1 a 8 asientos.
+     * Then:  El árbol devuelve lo mismo que un recorrido lineal asiento por asiento.
+     */
+    @Test
+    @DisplayName("árbol de segmentos: coincide con un recorrido lineal")
+    void coincideConRecorrido() {
+        Localidad platea = new Localidad("Platea", true, 1000, 100.0, evento, 90.0, 80.0, 150.0);
+        platea.setDisposicion(DisposicionAsientos.uniforme("Platea", 20, 50));
+        Random azar = new Random(7);
+
+        for (int paso = 0; paso < 3000; paso++) {
+            int asiento = 1 + azar.nextInt(1000);
+            if (platea.asientoDisponible(asiento)) {
+                platea.reservarAsiento(asiento);
+            } else {
+                platea.liberarAsiento(asiento);
+            }
+            int cantidad = 1 + azar.nextInt(8);
+            assertArrayEquals(recorrer(platea, 20, 50, cantidad), platea.buscarMejoresAsientos(cantidad));
+        }
+    }
+
+    /**
+     * Given: Una localidad con disposición de una fila de 6 asientos y el asiento 1 ya vendido.
+     * When:  Se retienen los mejores 4 asientos y luego la retención se libera.
+     * Then:  Se retienen los asientos 2-5; mientras la retención existe no hay bloque de 4
+     *        y al liberarla vuelve a haberlo.
+     */
+    @Test
+    @DisplayName("retenerMejoresAsientos: el índice sigue a las retenciones")
+    void retencionActualizaIndice() {
+        Localidad platea = new Localidad("Platea", true, 6, 100.0, evento, 90.0, 80.0, 150.0);
+        platea.reservarAsiento(1);
+        platea.setDisposicion(new DisposicionAsientos(List.of(new FilaAsientos("VIP", 1, 1, 6))));
+
+        Retencion r = platea.retenerMejoresAsientos(4, Duration.ofMinutes(5));
+        assertArrayEquals(new int[] {2, 3, 4, 5}, r.getAsientos());
+        assertArrayEquals(new int[0], platea.buscarMejoresAsientos(4));
+        assertThrows(IllegalStateException.class, () -> platea.retenerMejoresAsientos(2, Duration.ofMinutes(5)));
+
+        platea.liberarRetencion(r);
+        assertArrayEquals(new int[] {2, 3, 4, 5}, platea.buscarMejoresAsientos(4));
+    }
+
+    /**
+     * Given: Filas cuyos números de asiento se traslapan, una localidad no numerada y una
+     *        disposición más grande que la capacidad.
+     * When:  Se construye o asigna la disposición.
+     * Then:  Se lanzan las excepciones correspondientes.
+     */
+    @Test
+    @DisplayName("validaciones de la disposición")
+    void validaciones() {
+        assertThrows(IllegalArgumentException.class, () -> new DisposicionAsientos(List.of(
+                new FilaAsientos("A", 1, 1, 10), new FilaAsientos("A", 2, 10, 10))));
+
+        Localidad general = new Localidad("General", false, 10, 50.0, evento, 45.0, 40.0, 75.0);
+        assertThrows(IllegalStateException.class, () -> general.setDisposicion(DisposicionAsientos.uniforme("G", 1, 10)));
+        assertThrows(IllegalStateException.class, () -> general.buscarMejoresAsientos(2));
+
+        Localidad platea = new Localidad("Platea", true, 10, 100.0, evento, 90.0, 80.0, 150.0);
+        assertThrows(IllegalStateException.class, () -> platea.buscarMejoresAsientos(2));
+        assertThrows(IllegalArgumentException.class, () -> platea.setDisposicion(DisposicionAsientos.uniforme("P", 3, 5)));
+    }
+
+    /**
+     * Recorre las filas en orden y retorna el primer bloque libre de la cantidad pedida.
+     */
+    private static int[] recorrer(Localidad localidad, int filas, int porFila, int cantidad) {
+        for (int f = 0; f < filas; f++) {
+            int seguidos = 0;
+            for (int a = f * porFila + 1; a <= (f + 1) * porFila; a++) {
+                seguidos = localidad.asientoDisponible(a) ? seguidos + 1 : 0;
+                if (seguidos == cantidad) {
+                    int[] bloque = new int[cantidad];
+                    for (int i = 0; i < cantidad; i++) {
+                        bloque[i] = a - cantidad + 1 + i;
+                    }
+                    return bloque;
+                }
+            }
+        }
+        return new int[0];
+    }
+}
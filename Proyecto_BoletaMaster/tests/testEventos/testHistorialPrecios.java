@@ -0,0 +1,192 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.HistorialPrecios;
+import Eventos.Localidad;
+import Eventos.Venue;
+import Persistencia.PersistenciaEventos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Organizador;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class testHistorialPrecios {
+
+    private Evento evento;
+    private Localidad localidad;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Administrador", 1);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Teatro Nacional", "Calle 123", 1000, "Sin pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock Fest", 1001, venue, LocalDateTime.now().plusDays(5), organizador, "Concierto", admin);
+        localidad = evento.crearLocalidad("VIP", true, 100, 100.0, 100.0, 100.0, 100.0);
+    }
+
+    /**
+     * Given: Una serie con varios bloques de puntos, algunos con el mismo instante.
+     * When:  Se consulta el precio en distintos instantes.
+     * Then:  Cada consulta devuelve el último punto en o antes del instante, y nada antes del primero.
+     */
+    @Test
+    @DisplayName("HistorialPrecios: consulta puntual a través de varios bloques")
+    void consultaPuntual() {
+        HistorialPrecios h = new HistorialPrecios();
+        for (int i = 0; i < 500; i++) {
+            assertTrue(h.registrar(1_000 + i * 10L, 10_000 + i, 9_000 + i));
+        }
+        assertTrue(h.registrar(5_990, 1, 1));
+        assertFalse(h.registrar(6_000, 1, 1));
+
+        assertNull(h.precioEn(999));
+        assertEquals(10_000, h.precioEn(1_000).getPrecioBaseCentavos());
+        assertEquals(10_000, h.precioEn(1_009).getPrecioBaseCentavos());
+        assertEquals(10_064, h.precioEn(1_640).getPrecioBaseCentavos());
+        assertEquals(9_063, h.precioEn(1_639).getPrecioOfertaCentavos());
+        assertEquals(1, h.precioEn(5_990).getPrecioBaseCentavos());
+        assertEquals(1, h.precioEn(Long.MAX_VALUE).getPrecioBaseCentavos());
+        assertEquals(501, h.getCantidad());
+        // Deltas pequeños: unos pocos bytes por punto.
+        assertTrue(h.getTamanoBytes() < 501 * 6, "tamaño " + h.getTamanoBytes());
+    }
+
+    /**
+     * Given: Una serie con puntos antes, dentro y después de un rango.
+     * When:  Se exporta el rango.
+     * Then:  Sale el punto vigente al inicio seguido de los cambios del rango, en orden.
+     */
+    @Test
+    @DisplayName("HistorialPrecios: exporta un rango con su precio de apertura")
+    void exportarRango() {
+        HistorialPrecios h = new HistorialPrecios();
+        for (int i = 0; i < 200; i++) {
+            h.registrar(i * 100L, i, i);
+        }
+
+        List<HistorialPrecios.Punto> rango = h.exportar(1_050, 1_300);
+        assertEquals(4, rango.size());
+        assertEquals(1_000, rango.get(0).getInstante());
+        assertEquals(1_100, rango.get(1).getInstante());
+        assertEquals(1_300, rango.get(3).getInstante());
+        assertEquals(200, h.exportar(-5, 1_000_000).size());
+        assertTrue(h.exportar(10, 5).isEmpty());
+    }
+
+    /**
+     * Given: Una serie con un instante que retrocede y precios negativos de prueba.
+     * When:  Se codifica y se restaura en otro historial.
+     * Then:  Los puntos se conservan, el instante que retrocedía quedó en el anterior y un
+     *        texto dañado se rechaza sin cambiar la serie.
+     */
+    @Test
+    @DisplayName("HistorialPrecios: codifica, restaura y nunca retrocede en el tiempo")
+    void codificarYRestaurar() {
+        HistorialPrecios h = new HistorialPrecios();
+        h.registrar(5_000, 100, 90);
+        h.registrar(4_000, 200, 180);
+        h.registrar(7_000, -3, 0);
+
+        HistorialPrecios copia = new HistorialPrecios();
+        copia.restaurar(h.codificar());
+        assertEquals(3, copia.getCantidad());
+        assertEquals(200, copia.precioEn(5_000).getPrecioBaseCentavos());
+        assertEquals(-3, copia.precioEn(7_000).getPrecioBaseCentavos());
+        assertEquals(h.codificar(), copia.codificar());
+
+        assertThrows(IllegalArgumentException.class, () -> copia.restaurar("gA=="));
+        assertThrows(IllegalArgumentException.class, () -> copia.restaurar("no es base64!"));
+        assertEquals(3, copia.getCantidad());
+    }
+
+    /**
+     * Given: Una localidad con precio inicial de $100.
+     * When:  El organizador cambia el precio y se crea una oferta vigente del 20 %.
+     * Then:  El historial registra el cambio de precio y la localidad deriva el precio con oferta.
+     */
+    @Test
+    @DisplayName("Localidad: los cambios de precio quedan en el historial y las ofertas se derivan")
+    void cambiosDeLocalidad() {
+        HistorialPrecios h = localidad.getHistorialPrecios();
+        assertEquals(1, h.getCantidad());
+
+        localidad.setPrecioBase(120.0);
+        evento.crearOferta(20, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusDays(1), localidad);
+
+        assertEquals(2, h.getCantidad());
+        HistorialPrecios.Punto vigente = localidad.precioEn(LocalDateTime.now());
+        assertEquals(12_000, vigente.getPrecioBaseCentavos());
+        assertEquals(9_600, vigente.getPrecioOfertaCentavos());
+        List<HistorialPrecios.Punto> todo = h.exportar(0, Long.MAX_VALUE);
+        assertEquals(10_000, todo.get(0).getPrecioBaseCentavos());
+        assertEquals(12_000, todo.get(1).getPrecioOfertaCentavos());
+    }
+
+    /**
+     * Given: Una localidad de $100 y una oferta del 25 % que empieza en una hora y dura una hora.
+     * When:  Se consulta y exporta el historial sin que nadie cotice.
+     * Then:  El precio con oferta cambia exactamente en el inicio y el fin de la oferta.
+     */
+    @Test
+    @DisplayName("Localidad: el inicio y el fin de una oferta quedan en sus propias fechas")
+    void ofertaEnSusFechas() {
+        LocalDateTime ahora = LocalDateTime.now().plusSeconds(1).withNano(0);
+        LocalDateTime inicio = ahora.plusHours(1);
+        LocalDateTime fin = ahora.plusHours(2);
+        evento.crearOferta(25, inicio, fin, localidad);
+
+        assertEquals(10_000, localidad.precioEn(ahora).getPrecioOfertaCentavos());
+        HistorialPrecios.Punto durante = localidad.precioEn(inicio.plusMinutes(30));
+        assertEquals(7_500, durante.getPrecioOfertaCentavos());
+        assertEquals(inicio, durante.getFecha());
+        assertEquals(10_000, localidad.precioEn(fin.plusSeconds(1)).getPrecioOfertaCentavos());
+
+        List<HistorialPrecios.Punto> rango = localidad.exportarPrecios(ahora, ahora.plusHours(3));
+        assertEquals(3, rango.size());
+        assertEquals(10_000, rango.get(0).getPrecioOfertaCentavos());
+        assertEquals(inicio, rango.get(1).getFecha());
+        assertEquals(7_500, rango.get(1).getPrecioOfertaCentavos());
+        assertEquals(fin, rango.get(2).getFecha());
+        assertEquals(10_000, rango.get(2).getPrecioOfertaCentavos());
+        assertEquals(1, localidad.getHistorialPrecios().getCantidad());
+    }
+
+    /**
+     * Given: Un evento con historial de precios guardado en JSON.
+     * When:  Se restaura sobre un evento recién creado con el mismo id y localidad.
+     * Then:  La localidad recupera exactamente la serie guardada.
+     */
+    @Test
+    @DisplayName("PersistenciaEventos: el historial se guarda y se restaura con el evento")
+    void persistencia() throws Exception {
+        localidad.setPrecioBase(110.0);
+        localidad.setPrecioBase(130.0);
+        File archivo = File.createTempFile("eventos", ".json");
+        try {
+            PersistenciaEventos.guardarEventos(List.of(evento), archivo.getPath());
+
+            Administrador admin = new Administrador("admin", "pwd", "Administrador", 1);
+            Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+            Venue venue = new Venue(10, "Teatro Nacional", "Calle 123", 1000, "Sin pirotecnia");
+            Evento cargado = new Evento("Rock Fest", 1001, venue, LocalDateTime.now().plusDays(5), organizador, "Concierto", admin);
+            Localidad vip = cargado.crearLocalidad("VIP", true, 100, 130.0, 100.0, 100.0, 100.0);
+
+            assertEquals(1, PersistenciaEventos.cargarHistorialesPrecios(List.of(cargado), archivo.getPath()));
+            assertEquals(3, vip.getHistorialPrecios().getCantidad());
+            assertEquals(localidad.getHistorialPrecios().codificar(), vip.getHistorialPrecios().codificar());
+            assertTrue(Files.readString(archivo.toPath()).contains("historialPrecios"));
+        } finally {
+            archivo.delete();
+        }
+    }
+}
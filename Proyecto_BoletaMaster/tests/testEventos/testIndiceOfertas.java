@@ -0,0 +1,122 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.IndiceOfertas;
+import Eventos.Localidad;
+import Eventos.Oferta;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Organizador;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+public class testIndiceOfertas {
+
+    private Evento evento;
+    private Localidad platea;
+    private Localidad general;
+    private LocalDateTime t0;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.10);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(100, "Coliseo", "Calle 1 #2-3", 1000, "No pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock", 500, venue, LocalDateTime.now().plusDays(60), organizador, "Concierto", admin);
+        platea = evento.crearLocalidad("Platea", true, 100, 100.0, 90.0, 80.0, 150.0);
+        general = evento.crearLocalidad("General", false, 100, 50.0, 45.0, 40.0, 75.0);
+        t0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+    }
+
+    /**
+     * Given: Una oferta de platea del día 1 al 3 y una de general del día 2 al 5.
+     * When:  Se consulta por localidad en varios instantes, incluidos los bordes.
+     * Then:  Los bordes son inclusivos, cada localidad ve solo sus ofertas y el próximo
+     *        cambio es el siguiente inicio o el instante posterior a un fin.
+     */
+    @Test
+    @DisplayName("activas/siguienteCambio: por localidad y con bordes inclusivos")
+    void consultasPorLocalidad() {
+        Oferta a = evento.crearOferta(10.0, t0.plusDays(1), t0.plusDays(3), platea);
+        Oferta b = evento.crearOferta(20.0, t0.plusDays(2), t0.plusDays(5), general);
+
+        assertTrue(evento.obtenerOfertasActivas(t0, platea).isEmpty());
+        assertEquals(List.of(a), evento.obtenerOfertasActivas(t0.plusDays(1), platea));
+        assertEquals(List.of(a), evento.obtenerOfertasActivas(t0.plusDays(3), platea));
+        assertTrue(evento.obtenerOfertasActivas(t0.plusDays(3).plusNanos(1), platea).isEmpty());
+        assertEquals(List.of(b), evento.obtenerOfertasActivas(t0.plusDays(2), general));
+        assertEquals(2, evento.obtenerOfertasActivas(t0.plusDays(2)).size());
+
+        assertEquals(t0.plusDays(1), evento.siguienteCambioOfertas(t0, platea));
+        assertEquals(t0.plusDays(3).plusNanos(1), evento.siguienteCambioOfertas(t0.plusDays(2), platea));
+        assertNull(evento.siguienteCambioOfertas(t0.plusDays(4), platea));
+        assertEquals(t0.plusDays(2), evento.getIndiceOfertas().siguienteCambio(t0.plusDays(1)));
+    }
+
+    /**
+     * Given: Un índice ya construido con una oferta.
+     * When:  Se cambia la fecha de fin de la oferta.
+     * Then:  La versión de ofertas aumenta y el índice se reconstruye con la nueva fecha.
+     */
+    @Test
+    @DisplayName("índice: se reconstruye cuando una oferta cambia")
+    void invalidacion() {
+        Oferta a = evento.crearOferta(10.0, t0.plusDays(1), t0.plusDays(3), platea);
+        IndiceOfertas antes = evento.getIndiceOfertas();
+        assertSame(antes, evento.getIndiceOfertas());
+        long version = evento.getVersionOfertas();
+
+        a.setFechaFin(t0.plusDays(10));
+        assertTrue(evento.getVersionOfertas() > version);
+        assertNotSame(antes, evento.getIndiceOfertas());
+        assertEquals(List.of(a), evento.obtenerOfertasActivas(t0.plusDays(8), platea));
+        assertTrue(antes.activas(t0.plusDays(8), platea).isEmpty());
+    }
+
+    /**
+     * Given: 300 ofertas aleatorias repartidas en dos localidades.
+     * When:  Se consulta en 2.000 instantes aleatorios.
+     * Then:  El índice coincide con revisar cada oferta con estaActiva, y no hay cambios
+     *        entre el instante consultado y el próximo cambio informado.
+     */
+    @Test
+    @DisplayName("índice: coincide con el recorrido de todas las ofertas")
+    void coincideConRecorrido() {
+        Random azar = new Random(11);
+        for (int i = 0; i < 300; i++) {
+            LocalDateTime inicio = t0.plusMinutes(azar.nextInt(100_000));
+            LocalDateTime fin = inicio.plusMinutes(azar.nextInt(5_000));
+            evento.crearOferta(azar.nextInt(50), inicio, fin, azar.nextBoolean() ? platea : general);
+        }
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime fecha = t0.plusMinutes(azar.nextInt(110_000)).plusSeconds(azar.nextInt(60));
+            List<Oferta> esperadas = new ArrayList<Oferta>();
+            for (Oferta o : evento.getOfertas()) {
+                if (o.getLocalidad() == platea && o.estaActiva(fecha)) {
+                    esperadas.add(o);
+                }
+            }
+            List<Oferta> obtenidas = evento.obtenerOfertasActivas(fecha, platea);
+            assertEquals(new HashSet<Oferta>(esperadas), new HashSet<Oferta>(obtenidas));
+            assertEquals(esperadas.size(), obtenidas.size());
+
+            LocalDateTime cambio = evento.siguienteCambioOfertas(fecha, platea);
+            if (cambio != null) {
+                assertTrue(cambio.isAfter(fecha));
+                assertEquals(obtenidas, evento.obtenerOfertasActivas(cambio.minusNanos(1), platea));
+            }
+        }
+    }
+}
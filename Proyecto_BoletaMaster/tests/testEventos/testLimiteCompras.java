@@ -0,0 +1,204 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.GestorRetenciones;
+import Eventos.LimiteCompras;
+import Eventos.Localidad;
+import Eventos.Retencion;
+import Eventos.Venue;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class testLimiteCompras {
+
+    private Evento evento;
+    private Localidad platea;
+    private Localidad general;
+    private AtomicLong reloj;
+    private GestorRetenciones gestor;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.10);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(100, "Coliseo", "Calle 1 #2-3", 1000, "No pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock", 500, venue, LocalDateTime.now().plusDays(7), organizador, "Concierto", admin);
+        platea = new Localidad("Platea", true, 200, 100.0, evento, 90.0, 80.0, 150.0);
+        general = new Localidad("General", false, 200, 50.0, evento, 45.0, 40.0, 75.0);
+        evento.setLimitePorCliente(4);
+
+        reloj = new AtomicLong(0);
+        gestor = new GestorRetenciones(reloj::get, 100, 16);
+    }
+
+    /**
+     * Given: Un límite de 4 tiquetes por cliente.
+     * When:  El cliente consume 3, intenta 2 más, devuelve 1 e intenta 2 otra vez.
+     * Then:  El segundo intento se rechaza sin consumir nada; tras devolver, el tercero pasa.
+     */
+    @Test
+    @DisplayName("consumir/devolver: respeta el máximo por cliente")
+    void consumirYDevolver() {
+        LimiteCompras limite = new LimiteCompras(4);
+        assertTrue(limite.consumir(7, 3));
+        assertFalse(limite.consumir(7, 2));
+        assertEquals(3, limite.getConsumidos(7));
+        assertTrue(limite.consumir(8, 4));
+
+        limite.devolver(7, 1);
+        assertTrue(limite.consumir(7, 2));
+        assertEquals(4, limite.getConsumidos(7));
+
+        limite.devolver(7, 10);
+        assertEquals(0, limite.getConsumidos(7));
+        assertThrows(IllegalArgumentException.class, () -> limite.setMaximoPorCliente(-1));
+    }
+
+    /**
+     * Given: Un límite de 4 por cliente y 64 hilos de la misma cuenta.
+     * When:  Todos retienen a la vez un asiento distinto.
+     * Then:  Exactamente 4 retenciones se crean; el resto falla y sus asientos siguen libres.
+     */
+    @Test
+    @DisplayName("retener concurrente: la misma cuenta no supera el límite")
+    void retenerConcurrente() throws InterruptedException {
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger exitos = new AtomicInteger();
+        List<Thread> hilos = new ArrayList<Thread>();
+        for (int h = 1; h <= 64; h++) {
+            int asiento = h;
+            Thread t = new Thread(() -> {
+                try {
+                    salida.await();
+                    gestor.retener(platea, new int[] {asiento}, 0, Duration.ofMinutes(5), 42);
+                    exitos.incrementAndGet();
+                } catch (IllegalStateException | InterruptedException e) {
+                    // Rechazada por el límite.
+                }
+            });
+            hilos.add(t);
+            t.start();
+        }
+        salida.countDown();
+        for (Thread t : hilos) {
+            t.join();
+        }
+
+        assertEquals(4, exitos.get());
+        assertEquals(4, evento.getLimiteCompras().getConsumidos(42));
+        assertEquals(4, platea.getAsientosRetenidos());
+        assertEquals(196, platea.contarAsientosLibres());
+    }
+
+    /**
+     * Given: Un cliente con 4 lugares retenidos (2 asientos y 2 cupos).
+     * When:  Una retención se libera y la otra vence.
+     * Then:  Cada una devuelve su cupo y el cliente puede volver a retener 4.
+     */
+    @Test
+    @DisplayName("liberar/vencer: la retención devuelve el cupo")
+    void liberarYVencerDevuelvenCupo() {
+        Retencion asientos = gestor.retener(platea, new int[] {1, 2}, 0, Duration.ofMinutes(5), 42);
+        gestor.retener(general, null, 2, Duration.ofSeconds(1), 42);
+        assertThrows(IllegalStateException.class, () -> gestor.retener(platea, new int[] {3}, 0, Duration.ofMinutes(5), 42));
+        assertTrue(platea.asientoDisponible(3));
+
+        platea.liberarRetencion(asientos);
+        assertEquals(2, evento.getLimiteCompras().getConsumidos(42));
+
+        reloj.addAndGet(2000);
+        gestor.procesarVencimientos();
+        assertEquals(0, evento.getLimiteCompras().getConsumidos(42));
+        gestor.retener(platea, new int[] {5, 6, 7, 8}, 0, Duration.ofMinutes(5), 42);
+    }
+
+    /**
+     * Given: Un límite de 4 por cliente.
+     * When:  Se retiene en bloque un paquete con 5 lugares del mismo evento.
+     * Then:  Falla sin retener ningún lugar ni consumir cupo.
+     */
+    @Test
+    @DisplayName("retenerEnBloque: el límite se valida para todo el paquete")
+    void bloqueSuperaLimite() {
+        List<Localidad> localidades = List.of(platea, platea, platea, general, general);
+        List<Integer> asientos = List.of(1, 2, 3, -1, -1);
+
+        assertThrows(IllegalStateException.class, () -> gestor.retenerEnBloque(localidades, asientos, Duration.ofMinutes(5), 42));
+        assertEquals(0, evento.getLimiteCompras().getConsumidos(42));
+        assertEquals(0, platea.getAsientosRetenidos());
+        assertEquals(0, gestor.getActivas());
+    }
+
+    /**
+     * Given: Un cliente que ya retuvo 3 asientos del evento.
+     * When:  Retiene uno más; luego intenta comprar otro tiquete sin retención.
+     * Then:  La retención pasa; la compra del quinto se rechaza y la de los retenidos se confirma.
+     */
+    @Test
+    @DisplayName("Cliente: precompra con retención y compra respetan el límite")
+    void clienteRespetaLimite() {
+        Cliente cliente = new Cliente("login", "pwd", "Cliente", 101);
+        ArrayList<Tiquete> retenidos = new ArrayList<Tiquete>();
+        for (int a = 1; a <= 4; a++) {
+            retenidos.add(cliente.precompraIndividualNumerada(a, evento, platea, a, Duration.ofMinutes(5)));
+        }
+        assertThrows(IllegalStateException.class,
+                () -> cliente.precompraIndividualNumerada(5, evento, platea, 5, Duration.ofMinutes(5)));
+        assertEquals(4, evento.getLimiteCompras().getConsumidos(101));
+
+        Individual suelto = cliente.precompraIndividualNumerada(6, evento, platea, 6);
+        ArrayList<Tiquete> conSuelto = new ArrayList<Tiquete>(retenidos);
+        conSuelto.add(suelto);
+        assertThrows(IllegalStateException.class,
+                () -> cliente.hacerCompra(conSuelto, new ArrayList<PaqueteTiquetes>(), false));
+        assertEquals(4, platea.getAsientosRetenidos());
+
+        cliente.hacerCompra(retenidos, new ArrayList<PaqueteTiquetes>(), false);
+        assertEquals(4, platea.getTiquetesVendidos());
+        assertEquals(4, evento.getLimiteCompras().getConsumidos(101));
+    }
+
+    /**
+     * Given: Un cliente que ya compró los 4 tiquetes que permite el límite.
+     * When:  Transfiere uno a otro cliente e intenta comprar otro.
+     * Then:  Transferir no devuelve cupo: sigue con 4 consumidos y la compra se rechaza.
+     */
+    @Test
+    @DisplayName("Cliente: transferir un tiquete comprado no devuelve cupo del límite")
+    void transferirNoDevuelveCupo() {
+        Cliente cliente = new Cliente("login", "pwd", "Cliente", 101);
+        Cliente amigo = new Cliente("amigo", "pwd", "Amigo", 102);
+        ArrayList<Tiquete> comprados = new ArrayList<Tiquete>();
+        for (int a = 1; a <= 4; a++) {
+            comprados.add(cliente.precompraIndividualNumerada(a, evento, platea, a));
+        }
+        cliente.hacerCompra(comprados, new ArrayList<PaqueteTiquetes>(), false);
+
+        assertTrue(cliente.transferirTiquete(comprados.get(0), amigo, true));
+        assertEquals(4, evento.getLimiteCompras().getConsumidos(101));
+        ArrayList<Tiquete> otro = new ArrayList<Tiquete>();
+        otro.add(cliente.precompraIndividualNumerada(5, evento, platea, 5));
+        assertThrows(IllegalStateException.class,
+                () -> cliente.hacerCompra(otro, new ArrayList<PaqueteTiquetes>(), false));
+    }
+}
@@ -281,5 +281,28 @@ public class testLocalidad {
         c.reservarAsiento(12); // 3/5 = 60%
         assertEquals(60.0, c.calcularOcupacion(), 1e-6);
     }
-}
 
+    /**
+     * Given: Una localidad numerada de capacidad 4 con dos asientos reservados.
+     * When:  Se consultan los asientos libres, el siguiente asiento libre y se intenta
+     *        liberar un asiento que no estaba ocupado.
+     * Then:  Deben reportarse 2 asientos libres, el siguiente libre desde 1 debe ser el 3
+     *        y liberar un asiento libre debe lanzar IllegalStateException sin alterar
+     *        el contador de vendidos.
+     */
+    @Test
+    @DisplayName("contarAsientosLibres/siguienteAsientoLibre: consultas sobre el mapa de asientos")
+    void consultasMapaAsientos() {
+        Localidad loc = new Localidad("VIP", true, 4, 100.0, evento, 80.0, 70.0, 150.0);
+        loc.reservarAsiento(1);
+        loc.reservarAsiento(2);
+
+        assertEquals(2, loc.contarAsientosLibres());
+        assertEquals(3, loc.siguienteAsientoLibre(1));
+        assertThrows(IllegalStateException.class, () -> loc.liberarAsiento(4));
+        assertEquals(2, loc.getTiquetesVendidos());
+
+        Localidad noNum = new Localidad("General", false, 2, 50.0, evento, 40.0, 35.0, 90.0);
+        assertThrows(IllegalStateException.class, noNum::contarAsientosLibres);
+    }
+}
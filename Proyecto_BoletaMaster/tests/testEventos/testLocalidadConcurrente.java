@@ -0,0 +1,178 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Organizador;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class testLocalidadConcurrente {
+
+    private static final int HILOS = 400;
+
+    private Evento evento;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.10);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(100, "Coliseo", "Calle 1 #2-3", 100000, "No pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock", 500, venue, LocalDateTime.now().plusDays(7), organizador, "Concierto", admin);
+    }
+
+    /**
+     * Arranca todos los hilos a la vez y espera a que terminen.
+     */
+    private static void ejecutarEnParalelo(int hilos, Runnable[] tareas) throws InterruptedException {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> lista = new ArrayList<Thread>();
+        for (int i = 0; i < hilos; i++) {
+            Runnable tarea = tareas[i];
+            Thread t = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                tarea.run();
+            });
+            lista.add(t);
+            t.start();
+        }
+        salida.countDown();
+        for (Thread t : lista) {
+            t.join();
+        }
+    }
+
+    /**
+     * Given: Una localidad numerada de 2.000 asientos y 400 hilos compradores.
+     * When:  Cada hilo intenta reservar 50 asientos al azar (con muchas colisiones)
+     *        y registra cuáles logró reservar.
+     * Then:  Ningún asiento se vende dos veces y el contador de vendidos es igual al
+     *        número de reservas exitosas y a los asientos ocupados en la localidad.
+     */
+    @Test
+    @DisplayName("reservarAsiento(int) concurrente: sin doble venta ni conteos perdidos")
+    void reservaNumeradaConcurrente() throws InterruptedException {
+        int capacidad = 2000;
+        Localidad loc = new Localidad("VIP", true, capacidad, 100.0, evento, 80.0, 70.0, 150.0);
+        AtomicIntegerArray ventasPorAsiento = new AtomicIntegerArray(capacidad + 1);
+        AtomicInteger exitos = new AtomicInteger();
+
+        Runnable[] tareas = new Runnable[HILOS];
+        for (int h = 0; h < HILOS; h++) {
+            long semilla = h;
+            tareas[h] = () -> {
+                Random r = new Random(semilla);
+                for (int i = 0; i < 50; i++) {
+                    int asiento = 1 + r.nextInt(capacidad);
+                    try {
+                        loc.reservarAsiento(asiento);
+                        ventasPorAsiento.incrementAndGet(asiento);
+                        exitos.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // Otro comprador se quedó con el asiento.
+                    }
+                }
+            };
+        }
+        ejecutarEnParalelo(HILOS, tareas);
+
+        int ocupados = 0;
+        for (int asiento = 1; asiento <= capacidad; asiento++) {
+            assertTrue(ventasPorAsiento.get(asiento) <= 1, "Asiento vendido dos veces: " + asiento);
+            if (!loc.asientoDisponible(asiento)) {
+                ocupados++;
+                assertEquals(1, ventasPorAsiento.get(asiento));
+            }
+        }
+        assertEquals(exitos.get(), loc.getTiquetesVendidos());
+        assertEquals(ocupados, loc.getTiquetesVendidos());
+        assertEquals(capacidad - ocupados, loc.contarAsientosLibres());
+    }
+
+    /**
+     * Given: Una localidad numerada completamente vendida y 400 hilos.
+     * When:  Cada hilo libera y vuelve a reservar su propio bloque de asientos varias veces.
+     * Then:  Al final todos los asientos siguen ocupados y el contador de vendidos
+     *        coincide exactamente con la capacidad.
+     */
+    @Test
+    @DisplayName("liberar y reservar concurrente: el contador queda exacto")
+    void liberarYReservarConcurrente() throws InterruptedException {
+        int porHilo = 5;
+        int capacidad = HILOS * porHilo;
+        Localidad loc = new Localidad("Platea", true, capacidad, 100.0, evento, 80.0, 70.0, 150.0);
+        for (int asiento = 1; asiento <= capacidad; asiento++) {
+            loc.reservarAsiento(asiento);
+        }
+
+        Runnable[] tareas = new Runnable[HILOS];
+        for (int h = 0; h < HILOS; h++) {
+            int primero = h * porHilo + 1;
+            tareas[h] = () -> {
+                for (int vuelta = 0; vuelta < 100; vuelta++) {
+                    for (int asiento = primero; asiento < primero + porHilo; asiento++) {
+                        loc.liberarAsiento(asiento);
+                        loc.reservarAsiento(asiento);
+                    }
+                }
+            };
+        }
+        ejecutarEnParalelo(HILOS, tareas);
+
+        assertEquals(capacidad, loc.getTiquetesVendidos());
+        assertEquals(0, loc.contarAsientosLibres());
+    }
+
+    /**
+     * Given: Una localidad general de 1.000 cupos y 400 hilos que quieren 10 cupos cada uno.
+     * When:  Todos reservan a la vez.
+     * Then:  Se venden exactamente 1.000 cupos y las reservas rechazadas corresponden
+     *        al exceso de demanda.
+     */
+    @Test
+    @DisplayName("reservarAsiento() concurrente en general: nunca supera la capacidad")
+    void reservaGeneralConcurrente() throws InterruptedException {
+        Localidad loc = new Localidad("General", false, 1000, 50.0, evento, 40.0, 35.0, 90.0);
+        AtomicInteger exitos = new AtomicInteger();
+        AtomicInteger rechazos = new AtomicInteger();
+
+        Runnable[] tareas = new Runnable[HILOS];
+        for (int h = 0; h < HILOS; h++) {
+            tareas[h] = () -> {
+                for (int i = 0; i < 10; i++) {
+                    try {
+                        loc.reservarAsiento();
+                        exitos.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        rechazos.incrementAndGet();
+                    }
+                }
+            };
+        }
+        ejecutarEnParalelo(HILOS, tareas);
+
+        assertEquals(1000, exitos.get());
+        assertEquals(HILOS * 10 - 1000, rechazos.get());
+        assertEquals(1000, loc.getTiquetesVendidos());
+        assertFalse(loc.hayDisponibilidad());
+    }
+}
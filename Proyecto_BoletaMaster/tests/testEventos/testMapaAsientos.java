@@ -0,0 +1,106 @@
+package testEventos;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.MapaAsientos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class testMapaAsientos {
+
+    /**
+     * Given: Un mapa de asientos vacío con capacidad 130 (más de dos palabras de 64 bits).
+     * When:  Se ocupan asientos en distintas palabras y se intenta ocupar uno repetido.
+     * Then:  estaOcupado() refleja cada ocupación, la segunda ocupación del mismo
+     *        asiento retorna false y los conteos de libres y ocupados cuadran.
+     */
+    @Test
+    @DisplayName("ocupar/estaOcupado: marca asientos y rechaza duplicados")
+    void ocuparYConsultar() {
+        MapaAsientos mapa = new MapaAsientos(130);
+        assertEquals(130, mapa.contarLibres());
+
+        assertTrue(mapa.ocupar(1));
+        assertTrue(mapa.ocupar(64));
+        assertTrue(mapa.ocupar(130));
+        assertFalse(mapa.ocupar(64));
+
+        assertTrue(mapa.estaOcupado(1));
+        assertTrue(mapa.estaOcupado(64));
+        assertTrue(mapa.estaOcupado(130));
+        assertFalse(mapa.estaOcupado(2));
+        assertEquals(3, mapa.contarOcupados());
+        assertEquals(127, mapa.contarLibres());
+    }
+
+    /**
+     * Given: Un mapa con algunos asientos ocupados.
+     * When:  Se liberan asientos ocupados y se intenta liberar uno que ya estaba libre.
+     * Then:  liberar() retorna true solo cuando el asiento estaba ocupado y el conteo
+     *        de libres se actualiza.
+     */
+    @Test
+    @DisplayName("liberar: solo libera asientos ocupados")
+    void liberar() {
+        MapaAsientos mapa = new MapaAsientos(10);
+        mapa.ocupar(3);
+        mapa.ocupar(4);
+
+        assertTrue(mapa.liberar(3));
+        assertFalse(mapa.liberar(3));
+        assertFalse(mapa.liberar(500));
+        assertFalse(mapa.estaOcupado(3));
+        assertEquals(9, mapa.contarLibres());
+    }
+
+    /**
+     * Given: Un mapa de capacidad 200 con los primeros 70 asientos ocupados.
+     * When:  Se consulta siguienteLibre() desde distintos puntos y luego se llena el mapa.
+     * Then:  Debe retornar el primer asiento libre a partir del número indicado y -1
+     *        cuando no quedan asientos libres dentro de la capacidad.
+     */
+    @Test
+    @DisplayName("siguienteLibre: encuentra el primer asiento libre o -1")
+    void siguienteLibre() {
+        MapaAsientos mapa = new MapaAsientos(200);
+        for (int i = 1; i <= 70; i++) {
+            mapa.ocupar(i);
+        }
+        assertEquals(71, mapa.siguienteLibre(1));
+        assertEquals(71, mapa.siguienteLibre(0));
+        assertEquals(150, mapa.siguienteLibre(150));
+        assertEquals(-1, mapa.siguienteLibre(201));
+
+        for (int i = 71; i <= 200; i++) {
+            mapa.ocupar(i);
+        }
+        assertEquals(-1, mapa.siguienteLibre(1));
+        assertEquals(0, mapa.contarLibres());
+    }
+
+    /**
+     * Given: Un mapa de capacidad 5.
+     * When:  Se ocupan asientos por fuera de la capacidad y luego se amplía la capacidad.
+     * Then:  El mapa crece sin perder ocupaciones; los asientos fuera de rango no cuentan
+     *        hasta que la capacidad los incluye. Números negativos lanzan excepción.
+     */
+    @Test
+    @DisplayName("capacidad: crece con asientos fuera de rango y recalcula conteos")
+    void crecimientoYCapacidad() {
+        MapaAsientos mapa = new MapaAsientos(5);
+        mapa.ocupar(2);
+        assertTrue(mapa.ocupar(300));
+        assertTrue(mapa.estaOcupado(300));
+        assertEquals(4, mapa.contarLibres());
+
+        mapa.setCapacidad(400);
+        assertEquals(2, mapa.contarOcupados());
+        assertEquals(398, mapa.contarLibres());
+
+        mapa.setCapacidad(3);
+        assertEquals(1, mapa.contarOcupados());
+
+        assertThrows(IllegalArgumentException.class, () -> mapa.ocupar(-1));
+        assertThrows(IllegalArgumentException.class, () -> new MapaAsientos(-1));
+    }
+}
@@ -0,0 +1,203 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Cotizador;
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.PrecioDinamico;
+import Eventos.PreciosLocalidad;
+import Eventos.TasaVentas;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Organizador;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class testPrecioDinamico {
+
+    private Organizador organizador;
+    private Evento evento;
+    private Localidad platea;
+    private AtomicLong reloj;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(100, "Coliseo", "Calle 1 #2-3", 1000, "No pirotecnia");
+        venue.setAprobado(true);
+        evento = organizador.crearEvento("Rock", 500, venue, LocalDateTime.now().plusDays(30), "Concierto", admin);
+        platea = evento.crearLocalidad("Platea", true, 100, 100.0, 90.0, 80.0, 150.0);
+        reloj = new AtomicLong(1_000_000);
+    }
+
+    private PrecioDinamico politica(double piso, double techo) {
+        return new PrecioDinamico(piso, techo, 0.10, Duration.ofSeconds(60), Duration.ofSeconds(60),
+                Duration.ofSeconds(10), reloj::get);
+    }
+
+    /**
+     * Given: Una ventana de 60 s dividida en 6 franjas.
+     * When:  Se registran ventas en distintos instantes y avanza el tiempo.
+     * Then:  Solo cuentan las ventas dentro de la ventana y las devoluciones restan.
+     */
+    @Test
+    @DisplayName("TasaVentas: la ventana se desliza y olvida las ventas viejas")
+    void ventanaDeslizante() {
+        TasaVentas tasa = new TasaVentas(60_000, 6);
+        tasa.registrar(5, 0);
+        tasa.registrar(3, 15_000);
+        tasa.registrar(-1, 15_500);
+        assertEquals(7, tasa.contar(20_000));
+        assertEquals(7.0 / 60, tasa.porSegundo(20_000), 1e-9);
+
+        assertEquals(2, tasa.contar(65_000));
+        tasa.registrar(4, 61_000);
+        assertEquals(6, tasa.contar(65_000));
+        assertEquals(0, tasa.contar(200_000));
+    }
+
+    /**
+     * Given: Una ventana de 10 ms dividida en franjas de 1 ms y un instante de hoy en
+     *        milisegundos desde 1970.
+     * When:  Se registran varias ventas en la misma franja y en la siguiente.
+     * Then:  Las ventas se acumulan en vez de reiniciarse y salen de la ventana a su tiempo.
+     */
+    @Test
+    @DisplayName("TasaVentas: franjas de 1 ms con instantes reales no se desbordan")
+    void franjasDeUnMilisegundo() {
+        TasaVentas tasa = new TasaVentas(10, 10);
+        long ahora = 1_790_000_000_000L;
+        tasa.registrar(2, ahora);
+        tasa.registrar(3, ahora);
+        tasa.registrar(1, ahora + 1);
+        assertEquals(6, tasa.contar(ahora + 1));
+        assertEquals(1, tasa.contar(ahora + 10));
+        assertEquals(0, tasa.contar(ahora + 11));
+    }
+
+    /**
+     * Given: Una platea de 100 asientos con precio dinámico entre 100 y 120.
+     * When:  Se venden 60 asientos en pocos segundos y se evalúa cada 10 s.
+     * Then:  El precio sube un paso por evaluación y se detiene en el techo.
+     */
+    @Test
+    @DisplayName("Precio dinámico: la demanda alta sube el precio hasta el techo")
+    void subeHastaTecho() {
+        PrecioDinamico pd = politica(100.0, 120.0);
+        platea.setPrecioDinamico(pd);
+
+        for (int i = 1; i <= 60; i++) {
+            platea.reservarAsiento(i);
+        }
+        assertEquals(100.0, platea.getPrecioBase(), 1e-9);
+
+        reloj.addAndGet(10_000);
+        platea.actualizarPrecioDinamico();
+        assertEquals(110.0, platea.getPrecioBase(), 1e-9);
+        assertEquals(1, pd.getAjustes());
+
+        reloj.addAndGet(10_000);
+        platea.actualizarPrecioDinamico();
+        assertEquals(120.0, platea.getPrecioBase(), 1e-9);
+        reloj.addAndGet(10_000);
+        platea.actualizarPrecioDinamico();
+        assertEquals(120.0, platea.getPrecioBase(), 1e-9);
+        assertEquals(2, pd.getAjustes());
+    }
+
+    /**
+     * Given: Precio dinámico activo y ninguna venta.
+     * When:  Pasan varias evaluaciones.
+     * Then:  El precio baja un paso por evaluación hasta el piso y los demás precios bajan en
+     *        la misma proporción, con una versión nueva por ajuste.
+     */
+    @Test
+    @DisplayName("Precio dinámico: sin demanda baja hasta el piso escalando todos los precios")
+    void bajaHastaPiso() {
+        platea.setPrecioDinamico(politica(85.0, 200.0));
+        long versionInicial = platea.getVersionPrecio();
+
+        reloj.addAndGet(10_000);
+        platea.actualizarPrecioDinamico();
+        PreciosLocalidad p = platea.getPrecios();
+        assertEquals(100.0 / 1.1, p.getPrecioBase(), 1e-9);
+        assertEquals(90.0 / 1.1, p.getPrecioPaquete(), 1e-9);
+        assertEquals(150.0 / 1.1, p.getPrecioDeluxe(), 1e-9);
+        assertEquals(versionInicial + 1, p.getVersion());
+
+        for (int i = 0; i < 5; i++) {
+            reloj.addAndGet(10_000);
+            platea.actualizarPrecioDinamico();
+        }
+        assertEquals(85.0, platea.getPrecioBase(), 1e-9);
+        assertEquals(80.0 * 0.85, platea.getPrecioPaseTemporadaxUnidad(), 1e-9);
+    }
+
+    /**
+     * Given: Una cotización guardada y precio dinámico activo.
+     * When:  Cotizar no evalúa la política; la evaluación del lado de la venta ajusta el precio.
+     * Then:  El cotizador recalcula con el nuevo precio; al desactivar, el precio queda fijo.
+     */
+    @Test
+    @DisplayName("Precio dinámico: el cotizador ve el ajuste y la política se puede desactivar")
+    void cotizadorVeAjuste() {
+        LocalDateTime ahora = LocalDateTime.now();
+        Cotizador cotizador = Cotizador.getInstance();
+        assertEquals(100.0, cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora).getPrecio(), 1e-9);
+
+        platea.setPrecioDinamico(politica(50.0, 200.0));
+        reloj.addAndGet(10_000);
+        assertEquals(100.0, cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora).getPrecio(), 1e-9);
+        platea.actualizarPrecioDinamico();
+        assertEquals(100.0 / 1.1, cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora).getPrecio(), 1e-9);
+
+        platea.setPrecioDinamico(null);
+        reloj.addAndGet(60_000);
+        platea.actualizarPrecioDinamico();
+        assertEquals(100.0 / 1.1, cotizador.cotizar(platea, Cotizador.INDIVIDUAL, ahora).getPrecio(), 1e-9);
+
+        assertThrows(IllegalArgumentException.class, () -> organizador.activarPrecioDinamico(evento, platea, 10.0, 5.0));
+        Localidad ajena = new Evento("Otro", 10, evento.getVenue(), LocalDateTime.now().plusDays(40), organizador,
+                "Concierto", evento.getAdmin()).crearLocalidad("General", false, 10, 10.0, 10.0, 10.0, 10.0);
+        assertThrows(IllegalArgumentException.class, () -> organizador.activarPrecioDinamico(evento, ajena, 5.0, 15.0));
+        assertNotNull(organizador.activarPrecioDinamico(evento, platea, 50.0, 150.0));
+    }
+
+    /**
+     * Given: Un hilo que ajusta el precio continuamente mientras otro lee los precios.
+     * When:  Ambos corren a la vez.
+     * Then:  Cada lectura ve los precios de un mismo ajuste: la proporción entre el precio del
+     *        paquete y el precio base nunca cambia.
+     */
+    @Test
+    @DisplayName("Precio dinámico: los lectores nunca ven precios mezclados")
+    void lecturasConsistentes() throws InterruptedException {
+        platea.setPrecioDinamico(new PrecioDinamico(1.0, 1000.0, 0.10, Duration.ofSeconds(60), Duration.ofSeconds(60),
+                Duration.ZERO, reloj::get));
+        AtomicBoolean mezcla = new AtomicBoolean(false);
+        Thread lector = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                PreciosLocalidad p = platea.getPrecios();
+                if (Math.abs(p.getPrecioPaquete() / p.getPrecioBase() - 0.9) > 1e-9) {
+                    mezcla.set(true);
+                }
+            }
+        });
+        lector.start();
+        for (int i = 0; i < 20_000; i++) {
+            platea.actualizarPrecioDinamico();
+        }
+        lector.join();
+        assertFalse(mezcla.get());
+        assertTrue(platea.getPrecioDinamico().getAjustes() > 0);
+    }
+}
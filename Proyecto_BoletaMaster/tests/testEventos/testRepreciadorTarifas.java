@@ -0,0 +1,210 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Cotizacion;
+import Eventos.Cotizador;
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.RepreciadorTarifas;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import Tiquetes.Individual;
+import Tiquetes.Multiple;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+public class testRepreciadorTarifas {
+
+    private Administrador admin;
+    private Evento evento;
+    private Localidad localidad;
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        admin = new Administrador("admin", "pwd", "Administrador", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.1);
+        admin.setCuotaEmisionGlobal(1.0);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Teatro Nacional", "Calle 123", 1000, "Sin pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock Fest", 1001, venue, LocalDateTime.now().plusDays(5), organizador, "Concierto", admin);
+        localidad = evento.crearLocalidad("VIP", true, 100, 100.0, 100.0, 100.0, 100.0);
+        cliente = new Cliente("user1", "pass", "Cliente Uno", 100);
+    }
+
+    /**
+     * Given: Un administrador que cambia la cuota y el cargo dos veces.
+     * When:  Se consultan las versiones publicadas.
+     * Then:  Cada cambio es una versión nueva e inmutable y las anteriores siguen disponibles.
+     */
+    @Test
+    @DisplayName("Administrador: cada cambio de tarifas publica una versión consultable")
+    void historialDeVersiones() {
+        long antes = admin.getVersionTarifas();
+        admin.setCuotaEmisionGlobal(2.0);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.2);
+
+        assertEquals(antes + 2, admin.getVersionTarifas());
+        assertEquals(1.0, admin.getTarifas(antes).getCuotaEmision(), 0.0);
+        assertEquals(0.1, admin.getTarifas(antes).getCargoServicio("Concierto"), 0.0);
+        assertEquals(2.0, admin.getTarifas(antes + 1).getCuotaEmision(), 0.0);
+        assertEquals(0.1, admin.getTarifas(antes + 1).getCargoServicio("Concierto"), 0.0);
+        assertEquals(0.2, admin.getTarifas().getCargoServicio("Concierto"), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> admin.getTarifas(antes + 3));
+    }
+
+    /**
+     * Given: Un evento cotizado con una versión de tarifas.
+     * When:  El administrador sube el cargo y luego corre el repreciado.
+     * Then:  El evento conserva su versión hasta el repreciado y después ya no retrocede.
+     */
+    @Test
+    @DisplayName("Repreciado: lleva el evento a la versión vigente")
+    void repreciaEvento() {
+        admin.establecerCargoServicioPorTipo("Concierto", 0.2);
+        assertEquals(0.1, evento.getCuotaEvento(), 0.0);
+
+        RepreciadorTarifas.Resumen r = new RepreciadorTarifas(2).repreciar(admin, List.of(evento),
+                List.<Tiquete>of(), List.<PaqueteTiquetes>of());
+
+        assertEquals(admin.getVersionTarifas(), r.getVersion());
+        assertEquals(1, r.getEventos());
+        assertEquals(1, r.getLocalidades());
+        assertEquals(0.2, evento.getCuotaEvento(), 0.0);
+        assertFalse(evento.aplicarTarifas(admin.getTarifas(r.getVersion() - 1)));
+        assertEquals(0.2, evento.getCuotaEvento(), 0.0);
+    }
+
+    /**
+     * Given: Un administrador que publica un cargo nuevo sin correr el repreciado.
+     * When:  Se cotiza y se crea un tiquete antes y después del repreciado.
+     * Then:  La cotización y el cobro usan siempre la versión del evento.
+     */
+    @Test
+    @DisplayName("Repreciado: cotización y cobro usan la versión de tarifas del evento")
+    void cotizacionYCobroConVersionDelEvento() {
+        admin.establecerCargoServicioPorTipo("Concierto", 0.2);
+        LocalDateTime ahora = LocalDateTime.now();
+        Cotizacion antes = Cotizador.getInstance().cotizar(localidad, Cotizador.INDIVIDUAL, ahora);
+        Individual tiquete = new Individual(1, 100.0, evento, localidad, cliente, true, 1);
+        assertEquals(10.0, antes.getCargoServicio(), 1e-9);
+        assertEquals(antes.getCargoServicio(), tiquete.getCargoServicio(), 1e-9);
+        assertEquals(evento.getTarifas().getVersion(), tiquete.getVersionTarifas());
+
+        new RepreciadorTarifas(2).repreciar(admin, List.of(evento), List.of(tiquete), List.<PaqueteTiquetes>of());
+
+        Cotizacion despues = Cotizador.getInstance().cotizar(localidad, Cotizador.INDIVIDUAL, ahora);
+        assertEquals(20.0, despues.getCargoServicio(), 1e-9);
+        assertEquals(despues.getCargoServicio(), tiquete.getCargoServicio(), 1e-9);
+        assertEquals(evento.getTarifas().getVersion(), tiquete.getVersionTarifas());
+    }
+
+    /**
+     * Given: Un tiquete en un carrito abierto, otro ya comprado y un paquete de dos tiquetes.
+     * When:  El administrador cambia la cuota y el cargo y se corre el repreciado.
+     * Then:  El tiquete abierto y el paquete toman los nuevos cargos; el comprado no cambia.
+     */
+    @Test
+    @DisplayName("Repreciado: cambia carritos abiertos y respeta lo comprado")
+    void repreciaCarritosAbiertos() {
+        Individual abierto = new Individual(1, 100.0, evento, localidad, cliente, true, 1);
+        Individual comprado = new Individual(2, 100.0, evento, localidad, cliente, true, 2);
+        cliente.setSaldo(1000.0);
+        ArrayList<Tiquete> compra = new ArrayList<Tiquete>();
+        compra.add(comprado);
+        cliente.hacerCompra(compra, new ArrayList<PaqueteTiquetes>(), true);
+        ArrayList<Tiquete> incluidos = new ArrayList<Tiquete>();
+        incluidos.add(new Individual(3, 100.0, evento, localidad, cliente, true, 3));
+        incluidos.add(new Individual(4, 100.0, evento, localidad, cliente, true, 4));
+        Multiple paquete = new Multiple(1, cliente, 200.0, incluidos);
+        assertEquals(10000 + 1000 + 100, comprado.calcularCostoTotalCentavos());
+
+        admin.setCuotaEmisionGlobal(2.0);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.2);
+        RepreciadorTarifas.Resumen r = new RepreciadorTarifas(4).repreciar(admin, List.of(evento),
+                List.of(abierto, comprado), List.of(paquete));
+
+        assertEquals(1, r.getTiquetes());
+        assertEquals(1, r.getPaquetes());
+        assertEquals(10000 + 2000 + 200, abierto.calcularCostoTotalCentavos());
+        assertEquals(10000 + 1000 + 100, comprado.calcularCostoTotalCentavos());
+        assertEquals(20000 + 4000 + 2 * 200, paquete.calcularCostoTotalCentavos());
+        assertEquals(r.getVersion(), paquete.getVersionTarifas());
+        assertEquals(r.getVersion(), abierto.getVersionTarifas());
+    }
+
+    /**
+     * Given: Clientes comprando mientras el administrador cambia la cuota y corre el repreciado.
+     * When:  Terminan las compras.
+     * Then:  Cada compra descontó del saldo exactamente el total de sus tiquetes, con la
+     *        versión que tenían al cerrarse.
+     */
+    @Test
+    @DisplayName("Repreciado: convive con compras simultáneas sin descuadrar saldos")
+    void repreciaDuranteCompras() throws Exception {
+        int clientes = 4;
+        int porCliente = 10;
+        List<Cliente> compradores = new ArrayList<Cliente>();
+        List<List<Tiquete>> carritos = new ArrayList<List<Tiquete>>();
+        List<Tiquete> todos = new ArrayList<Tiquete>();
+        int id = 1;
+        for (int c = 0; c < clientes; c++) {
+            Cliente comprador = new Cliente("c" + c, "pass", "Cliente " + c, 200 + c);
+            comprador.setSaldo(10000.0);
+            List<Tiquete> carrito = new ArrayList<Tiquete>();
+            for (int i = 0; i < porCliente; i++) {
+                Individual t = new Individual(id, 100.0, evento, localidad, comprador, true, id);
+                id++;
+                carrito.add(t);
+                todos.add(t);
+            }
+            compradores.add(comprador);
+            carritos.add(carrito);
+        }
+
+        List<Thread> hilos = new ArrayList<Thread>();
+        for (int c = 0; c < clientes; c++) {
+            Cliente comprador = compradores.get(c);
+            List<Tiquete> carrito = carritos.get(c);
+            hilos.add(new Thread(() -> {
+                for (Tiquete t : carrito) {
+                    ArrayList<Tiquete> uno = new ArrayList<Tiquete>();
+                    uno.add(t);
+                    comprador.hacerCompra(uno, new ArrayList<PaqueteTiquetes>(), true);
+                }
+            }));
+        }
+        for (Thread h : hilos) {
+            h.start();
+        }
+        RepreciadorTarifas repreciador = new RepreciadorTarifas(2);
+        for (int i = 0; i < 5; i++) {
+            admin.setCuotaEmisionGlobal(2.0 + i);
+            repreciador.repreciar(admin, List.of(evento), todos, List.<PaqueteTiquetes>of());
+        }
+        for (Thread h : hilos) {
+            h.join();
+        }
+
+        for (int c = 0; c < clientes; c++) {
+            long cobrado = 0;
+            for (Tiquete t : carritos.get(c)) {
+                cobrado += t.calcularCostoTotalCentavos();
+            }
+            assertEquals(1_000_000 - cobrado, compradores.get(c).getSaldoCentavos());
+        }
+    }
+}
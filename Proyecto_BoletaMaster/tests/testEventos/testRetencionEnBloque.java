@@ -0,0 +1,152 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.GestorRetenciones;
+import Eventos.Localidad;
+import Eventos.Retencion;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Organizador;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class testRetencionEnBloque {
+
+    private GestorRetenciones gestor;
+    private Localidad plateaA;
+    private Localidad plateaB;
+    private Localidad generalB;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.10);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(100, "Coliseo", "Calle 1 #2-3", 1000, "No pirotecnia");
+        venue.setAprobado(true);
+        Evento fecha1 = new Evento("Fecha 1", 1, venue, LocalDateTime.now().plusDays(7), organizador, "Concierto", admin);
+        Evento fecha2 = new Evento("Fecha 2", 2, venue, LocalDateTime.now().plusDays(14), organizador, "Concierto", admin);
+        plateaA = new Localidad("Platea", true, 20, 100.0, fecha1, 90.0, 80.0, 150.0);
+        plateaB = new Localidad("Platea", true, 20, 100.0, fecha2, 90.0, 80.0, 150.0);
+        generalB = new Localidad("General", false, 3, 50.0, fecha2, 45.0, 40.0, 75.0);
+
+        AtomicLong reloj = new AtomicLong(0);
+        gestor = new GestorRetenciones(reloj::get, 100, 16);
+    }
+
+    /**
+     * Given: Un pase con dos asientos en la platea de la fecha 1, uno en la de la fecha 2
+     *        y dos cupos en la general de la fecha 2.
+     * When:  Se retiene en bloque.
+     * Then:  Se crea una retención por localidad con sus lugares y todos quedan apartados.
+     */
+    @Test
+    @DisplayName("retenerEnBloque: una retención por localidad, en varios eventos")
+    void retieneVariasLocalidades() {
+        Map<Localidad, Retencion> r = gestor.retenerEnBloque(
+                List.of(plateaA, plateaB, plateaA, generalB, generalB),
+                List.of(5, 5, 4, -1, -1), Duration.ofMinutes(5));
+
+        assertEquals(3, r.size());
+        assertArrayEquals(new int[] {4, 5}, r.get(plateaA).getAsientos());
+        assertArrayEquals(new int[] {5}, r.get(plateaB).getAsientos());
+        assertEquals(2, r.get(generalB).getCupos());
+        assertEquals(r.get(plateaA).getVencimiento(), r.get(generalB).getVencimiento());
+        assertFalse(plateaA.asientoDisponible(4));
+        assertFalse(plateaB.asientoDisponible(5));
+        assertEquals(3, gestor.getActivas());
+    }
+
+    /**
+     * Given: El asiento 7 de la platea de la fecha 2 ya está vendido.
+     * When:  Se intenta retener un pase que incluye ese asiento, otros dos de la fecha 1
+     *        y un cupo general.
+     * Then:  Se lanza IllegalStateException y ningún otro lugar queda retenido.
+     */
+    @Test
+    @DisplayName("retenerEnBloque: todo o nada entre localidades")
+    void todoONada() {
+        plateaB.reservarAsiento(7);
+        assertThrows(IllegalStateException.class, () -> gestor.retenerEnBloque(
+                List.of(plateaA, plateaA, generalB, plateaB),
+                List.of(1, 2, -1, 7), Duration.ofMinutes(5)));
+
+        assertTrue(plateaA.asientoDisponible(1));
+        assertTrue(plateaA.asientoDisponible(2));
+        assertEquals(0, plateaA.getAsientosRetenidos());
+        assertEquals(0, generalB.getTiquetesVendidos());
+        assertTrue(generalB.hayDisponibilidad());
+        assertEquals(0, gestor.getCreadas());
+
+        assertThrows(IllegalStateException.class, () -> gestor.retenerEnBloque(
+                List.of(plateaA, plateaA), List.of(3, 3), Duration.ofMinutes(5)));
+        assertTrue(plateaA.asientoDisponible(3));
+    }
+
+    /**
+     * Given: 64 compradores que piden pases de 3 asientos en dos localidades, listados en
+     *        distinto orden y con asientos que se traslapan.
+     * When:  Todos retienen a la vez.
+     * Then:  Ningún asiento queda retenido por dos compradores y los asientos retenidos son
+     *        exactamente los de los pases que tuvieron éxito.
+     */
+    @Test
+    @DisplayName("retenerEnBloque: compradores concurrentes nunca quedan con pases parciales")
+    void concurrenciaSinParciales() throws InterruptedException {
+        int hilos = 64;
+        AtomicInteger exitos = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> lista = new ArrayList<Thread>();
+        List<Retencion> ganadoras = Collections.synchronizedList(new ArrayList<Retencion>());
+
+        for (int h = 0; h < hilos; h++) {
+            int base = 1 + (h % 10);
+            boolean invertido = h % 2 == 0;
+            Thread t = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                List<Localidad> ls = invertido ? List.of(plateaB, plateaA, plateaA) : List.of(plateaA, plateaA, plateaB);
+                List<Integer> as = invertido ? List.of(base, base, base + 1) : List.of(base, base + 1, base);
+                try {
+                    ganadoras.addAll(gestor.retenerEnBloque(ls, as, Duration.ofMinutes(5)).values());
+                    exitos.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    // Otro comprador ganó alguno de los asientos.
+                }
+            });
+            lista.add(t);
+            t.start();
+        }
+        salida.countDown();
+        for (Thread t : lista) {
+            t.join();
+        }
+
+        assertTrue(exitos.get() >= 1);
+        assertEquals(2 * exitos.get(), plateaA.getAsientosRetenidos());
+        assertEquals(exitos.get(), plateaB.getAsientosRetenidos());
+        assertEquals(20 - 2 * exitos.get(), plateaA.contarAsientosLibres());
+        assertEquals(20 - exitos.get(), plateaB.contarAsientosLibres());
+        assertEquals(2L * exitos.get(), gestor.getActivas());
+        for (Retencion r : ganadoras) {
+            assertTrue(r.estaActiva());
+        }
+    }
+}
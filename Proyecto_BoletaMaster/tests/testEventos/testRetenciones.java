@@ -0,0 +1,224 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.GestorRetenciones;
+import Eventos.Localidad;
+import Eventos.Retencion;
+import Eventos.RuedaTemporizadora;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Organizador;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class testRetenciones {
+
+    private AtomicLong reloj;
+    private GestorRetenciones gestor;
+    private Localidad numerada;
+    private Localidad general;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.10);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(100, "Coliseo", "Calle 1 #2-3", 1000, "No pirotecnia");
+        venue.setAprobado(true);
+        Evento evento = new Evento("Rock", 500, venue, LocalDateTime.now().plusDays(7), organizador, "Concierto", admin);
+        numerada = new Localidad("Platea", true, 10, 100.0, evento, 90.0, 80.0, 150.0);
+        general = new Localidad("General", false, 10, 50.0, evento, 45.0, 40.0, 75.0);
+
+        reloj = new AtomicLong(0);
+        gestor = new GestorRetenciones(reloj::get, 100, 16);
+    }
+
+    /**
+     * Given: Una localidad numerada de 10 asientos.
+     * When:  Se retienen los asientos 1 y 2 y luego se confirma la retención.
+     * Then:  Mientras está activa, los asientos no se pueden reservar ni cuentan como vendidos;
+     *        al confirmar pasan a vendidos y ya no se pueden confirmar otra vez.
+     */
+    @Test
+    @DisplayName("retener/confirmar: asientos apartados pasan a vendidos")
+    void retenerYConfirmar() {
+        Retencion r = gestor.retener(numerada, new int[] {1, 2}, 0, Duration.ofMinutes(5));
+
+        assertTrue(r.estaActiva());
+        assertFalse(numerada.asientoDisponible(1));
+        assertThrows(IllegalStateException.class, () -> numerada.reservarAsiento(2));
+        assertEquals(0, numerada.getTiquetesVendidos());
+        assertEquals(2, numerada.getAsientosRetenidos());
+
+        numerada.confirmarRetencion(r);
+        assertEquals(Retencion.CONFIRMADA, r.getEstado());
+        assertEquals(2, numerada.getTiquetesVendidos());
+        assertEquals(0, numerada.getAsientosRetenidos());
+        assertThrows(IllegalStateException.class, () -> numerada.confirmarRetencion(r));
+        assertEquals(1, gestor.getConfirmadas());
+        assertEquals(0, gestor.getActivas());
+    }
+
+    /**
+     * Given: El asiento 3 ya está reservado.
+     * When:  Se intenta retener los asientos 1, 2 y 3.
+     * Then:  Se lanza IllegalStateException y los asientos 1 y 2 siguen libres.
+     */
+    @Test
+    @DisplayName("retener: todo o nada cuando un asiento está ocupado")
+    void retenerTodoONada() {
+        numerada.reservarAsiento(3);
+        assertThrows(IllegalStateException.class,
+                () -> gestor.retener(numerada, new int[] {1, 2, 3}, 0, Duration.ofMinutes(5)));
+        assertTrue(numerada.asientoDisponible(1));
+        assertTrue(numerada.asientoDisponible(2));
+        assertEquals(0, numerada.getAsientosRetenidos());
+        assertEquals(0, gestor.getCreadas());
+    }
+
+    /**
+     * Given: Una retención de 4 cupos generales que dura 1 segundo.
+     * When:  El reloj avanza 999 ms y luego 1 ms más.
+     * Then:  En el primer avance no vence nada; en el segundo vence, los cupos vuelven a
+     *        estar disponibles y ya no se puede confirmar.
+     */
+    @Test
+    @DisplayName("vencimiento: la rueda libera los cupos al cumplirse el plazo")
+    void vencimientoDeCupos() {
+        Retencion r = gestor.retener(general, null, 4, Duration.ofSeconds(1));
+        assertEquals(4, r.getCantidad());
+        assertEquals(0, general.getTiquetesVendidos());
+
+        reloj.set(999);
+        assertEquals(0, gestor.procesarVencimientos());
+        assertTrue(r.estaActiva());
+
+        reloj.set(1000);
+        assertEquals(1, gestor.procesarVencimientos());
+        assertEquals(Retencion.EXPIRADA, r.getEstado());
+        assertEquals(0, general.getTiquetesVendidos());
+        assertThrows(IllegalStateException.class, () -> general.confirmarRetencion(r));
+
+        int vendidos = 0;
+        while (general.hayDisponibilidad()) {
+            general.reservarAsiento();
+            vendidos++;
+        }
+        assertEquals(10, vendidos);
+        assertEquals(1, gestor.getExpiradas());
+    }
+
+    /**
+     * Given: Una retención activa.
+     * When:  Se libera antes de vencer y luego el reloj pasa su vencimiento.
+     * Then:  El asiento queda libre, la segunda liberación retorna false y el vencimiento
+     *        posterior no la cuenta como expirada.
+     */
+    @Test
+    @DisplayName("liberar: devuelve los asientos y cancela el vencimiento")
+    void liberarAntesDeVencer() {
+        Retencion r = gestor.retener(numerada, new int[] {5}, 0, Duration.ofSeconds(2));
+        assertTrue(numerada.liberarRetencion(r));
+        assertFalse(numerada.liberarRetencion(r));
+        assertTrue(numerada.asientoDisponible(5));
+
+        reloj.set(10_000);
+        assertEquals(0, gestor.procesarVencimientos());
+        assertEquals(Retencion.LIBERADA, r.getEstado());
+        assertEquals(1, gestor.getLiberadas());
+        assertEquals(0, gestor.getExpiradas());
+    }
+
+    /**
+     * Given: El asiento 3 está retenido.
+     * When:  Se intenta liberar el asiento 3 como si fuera una venta.
+     * Then:  Se lanza IllegalStateException, el asiento sigue retenido, los vendidos no bajan
+     *        de cero y al confirmar la retención el asiento queda vendido una sola vez.
+     */
+    @Test
+    @DisplayName("liberarAsiento: no suelta un asiento retenido")
+    void liberarAsientoRetenido() {
+        Retencion r = gestor.retener(numerada, new int[] {3}, 0, Duration.ofMinutes(5));
+
+        assertThrows(IllegalStateException.class, () -> numerada.liberarAsiento(3));
+        assertFalse(numerada.asientoDisponible(3));
+        assertTrue(r.estaActiva());
+        assertEquals(1, numerada.getAsientosRetenidos());
+        assertEquals(0, numerada.getTiquetesVendidos());
+        assertThrows(IllegalStateException.class, () -> numerada.reservarAsiento(3));
+
+        numerada.confirmarRetencion(r);
+        assertEquals(1, numerada.getTiquetesVendidos());
+        numerada.liberarAsiento(3);
+        assertEquals(0, numerada.getTiquetesVendidos());
+        assertTrue(numerada.asientoDisponible(3));
+    }
+
+    /**
+     * Given: Un cupo general retenido y ninguno vendido.
+     * When:  Se intenta cancelar una reserva general.
+     * Then:  Se lanza IllegalStateException, los vendidos siguen en cero y la retención se
+     *        confirma sin vender de más; después sí se puede cancelar ese cupo vendido.
+     */
+    @Test
+    @DisplayName("cancelarReservaGeneral: solo devuelve cupos vendidos, no retenidos")
+    void cancelarNoDevuelveCuposRetenidos() {
+        Retencion r = gestor.retener(general, null, 1, Duration.ofMinutes(5));
+
+        assertThrows(IllegalStateException.class, () -> general.cancelarReservaGeneral());
+        assertEquals(0, general.getTiquetesVendidos());
+        assertEquals(1, general.getAsientosRetenidos());
+
+        general.confirmarRetencion(r);
+        assertEquals(1, general.getTiquetesVendidos());
+        general.cancelarReservaGeneral();
+        assertEquals(0, general.getTiquetesVendidos());
+
+        int vendidos = 0;
+        while (general.hayDisponibilidad()) {
+            general.reservarAsiento();
+            vendidos++;
+        }
+        assertEquals(10, vendidos);
+    }
+
+    /**
+     * Given: Una rueda de 8 ranuras con ticks de 10 ms.
+     * When:  Se programan vencimientos más allá de una vuelta completa y se cancela uno.
+     * Then:  Cada elemento vence en el primer avance que alcanza su instante y el cancelado nunca vence.
+     */
+    @Test
+    @DisplayName("RuedaTemporizadora: respeta vueltas completas y cancelaciones")
+    void ruedaConVariasVueltas() {
+        RuedaTemporizadora<String> rueda = new RuedaTemporizadora<String>(0, 10, 8);
+        rueda.programar("a", 25);
+        rueda.programar("b", 95);
+        RuedaTemporizadora.Entrada<String> c = rueda.programar("c", 95);
+        rueda.programar("d", 250);
+        rueda.cancelar(c);
+
+        List<String> vencidos = new ArrayList<String>();
+        rueda.avanzar(20, vencidos::add);
+        assertTrue(vencidos.isEmpty());
+        rueda.avanzar(30, vencidos::add);
+        assertEquals(List.of("a"), vencidos);
+        rueda.avanzar(90, vencidos::add);
+        assertEquals(List.of("a"), vencidos);
+        rueda.avanzar(100, vencidos::add);
+        assertEquals(List.of("a", "b"), vencidos);
+        rueda.avanzar(249, vencidos::add);
+        assertEquals(List.of("a", "b"), vencidos);
+        rueda.avanzar(250, vencidos::add);
+        assertEquals(List.of("a", "b", "d"), vencidos);
+    }
+}
@@ -0,0 +1,227 @@
+package testEventos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.SalaEspera;
+import Eventos.Venue;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class testSalaEspera {
+
+    private AtomicLong reloj;
+    private SalaEspera sala;
+
+    @BeforeEach
+    void setUp() {
+        reloj = new AtomicLong(0);
+        // 2 admisiones por segundo, 3 activos como máximo, cola de 10, 60 s para comprar.
+        sala = new SalaEspera(reloj::get, 2, 3, 10, Duration.ofSeconds(60), false);
+    }
+
+    /**
+     * Given: Una sala cerrada con 5 clientes en cola.
+     * When:  Se abre y pasa el tiempo.
+     * Then:  Se admite a 2 por segundo en orden de llegada, sin superar 3 activos;
+     *        posición y espera estimada bajan a medida que se admite, y quien sale cede su cupo.
+     */
+    @Test
+    @DisplayName("admisión: respeta la tasa, el máximo de activos y el orden")
+    void admiteATasaFija() {
+        for (int c = 1; c <= 5; c++) {
+            sala.entrar(c);
+        }
+        reloj.set(5000);
+        assertFalse(sala.estaAdmitido(1));
+        assertEquals(5, sala.getPosicion(5));
+
+        sala.abrir();
+        reloj.addAndGet(500);
+        assertTrue(sala.estaAdmitido(1));
+        assertFalse(sala.estaAdmitido(2));
+        assertEquals(3, sala.getPosicion(4));
+        assertEquals(Duration.ofMillis(1500), sala.estimarEspera(4));
+
+        reloj.addAndGet(10_000);
+        assertEquals(3, sala.getActivos());
+        assertTrue(sala.estaAdmitido(3));
+        assertFalse(sala.estaAdmitido(4));
+        assertEquals(1, sala.getPosicion(4));
+        assertEquals(0, sala.getPosicion(2));
+
+        sala.salir(1);
+        reloj.addAndGet(500);
+        assertTrue(sala.estaAdmitido(4));
+        assertEquals(3, sala.getActivos());
+    }
+
+    /**
+     * Given: Una sala abierta con 3 admitidos y clientes en cola.
+     * When:  Vence la ventana de compra de los admitidos; uno de la cola abandona.
+     * Then:  Los vencidos pierden su turno, el que abandonó se salta y entran los siguientes.
+     */
+    @Test
+    @DisplayName("vencimiento y abandono: liberan cupo para los siguientes")
+    void vencimientoYAbandono() {
+        sala.abrir();
+        for (int c = 1; c <= 6; c++) {
+            sala.entrar(c);
+        }
+        reloj.set(1000);
+        sala.actualizar();
+        reloj.set(2000);
+        assertEquals(3, sala.getActivos());
+        String token = sala.getTurno(1).getToken();
+        assertTrue(sala.validarToken(1, token));
+        assertFalse(sala.validarToken(1, "otro"));
+
+        assertTrue(sala.salir(4));
+        reloj.set(62_000);
+        assertEquals(2, sala.getActivos());
+        assertEquals(3, sala.getTotalExpirados());
+        assertNull(sala.getTurno(1));
+        assertFalse(sala.validarToken(1, token));
+        assertTrue(sala.estaAdmitido(5));
+        assertTrue(sala.estaAdmitido(6));
+        assertEquals(0, sala.getEnCola());
+    }
+
+    /**
+     * Given: Una cola de capacidad 10 llena.
+     * When:  Entra un cliente nuevo y vuelve a entrar uno que ya tiene turno.
+     * Then:  El nuevo es rechazado; el que ya estaba recibe su mismo turno.
+     */
+    @Test
+    @DisplayName("contrapresión: la cola llena rechaza sin duplicar turnos")
+    void colaLlena() {
+        for (int c = 1; c <= 10; c++) {
+            sala.entrar(c);
+        }
+        SalaEspera.Turno turno = sala.getTurno(3);
+        assertThrows(IllegalStateException.class, () -> sala.entrar(11));
+        assertSame(turno, sala.entrar(3));
+        assertEquals(1, sala.getTotalRechazados());
+        assertEquals(10, sala.getEnCola());
+    }
+
+    /**
+     * Given: Una sala aleatoria con 200 clientes que llegaron antes de abrir.
+     * When:  Se abre.
+     * Then:  Los turnos siguen siendo 1..200 pero ya no en orden de llegada.
+     */
+    @Test
+    @DisplayName("abrir aleatoria: reordena los turnos previos a la apertura")
+    void aperturaAleatoria() {
+        SalaEspera aleatoria = new SalaEspera(reloj::get, 2, 3, 500, Duration.ofSeconds(60), true);
+        for (int c = 1; c <= 200; c++) {
+            aleatoria.entrar(c);
+        }
+        aleatoria.abrir();
+
+        Set<Long> numeros = new HashSet<Long>();
+        int enSuLugar = 0;
+        for (int c = 1; c <= 200; c++) {
+            long n = aleatoria.getTurno(c).getNumero();
+            numeros.add(n);
+            enSuLugar += (n == c) ? 1 : 0;
+        }
+        assertEquals(200, numeros.size());
+        assertTrue(numeros.contains(1L) && numeros.contains(200L));
+        assertTrue(enSuLugar < 20);
+        assertThrows(IllegalStateException.class, aleatoria::abrir);
+    }
+
+    /**
+     * Given: Una sala cerrada con 5 clientes en cola.
+     * When:  El tercero abandona y otro cliente entra y sale de la cola 1.000 veces.
+     * Then:  Los que estaban detrás avanzan un puesto, las entradas y salidas repetidas no
+     *        ocupan la cola y al abrir se admite en orden sin saltos.
+     */
+    @Test
+    @DisplayName("abandono: sale de la cola y la posición no cuenta turnos abandonados")
+    void abandonoSaleDeLaCola() {
+        for (int c = 1; c <= 5; c++) {
+            sala.entrar(c);
+        }
+        assertTrue(sala.salir(3));
+        assertEquals(2, sala.getPosicion(2));
+        assertEquals(3, sala.getPosicion(4));
+        assertEquals(4, sala.getPosicion(5));
+
+        for (int i = 0; i < 1000; i++) {
+            sala.entrar(99);
+            assertEquals(5, sala.getPosicion(99));
+            assertTrue(sala.salir(99));
+        }
+        assertEquals(4, sala.getEnCola());
+        for (int c = 6; c <= 11; c++) {
+            sala.entrar(c);
+        }
+        assertEquals(10, sala.getPosicion(11));
+
+        sala.abrir();
+        reloj.set(1000);
+        sala.actualizar();
+        reloj.set(1500);
+        assertTrue(sala.estaAdmitido(1));
+        assertTrue(sala.estaAdmitido(2));
+        assertTrue(sala.estaAdmitido(4));
+        assertEquals(1, sala.getPosicion(5));
+    }
+
+    /**
+     * Given: Un evento con sala de espera y un cliente en cola.
+     * When:  Intenta precomprar antes y después de ser admitido, sin token, con un token
+     *        falso y con el suyo, y luego compra.
+     * Then:  Solo pasa admitido y con su token; al comprar sale de la sala y libera su cupo.
+     */
+    @Test
+    @DisplayName("Cliente: solo los admitidos pueden precomprar")
+    void clienteRequiereAdmision() {
+        Administrador admin = new Administrador("admin", "pwd", "Admin", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.10);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(100, "Coliseo", "Calle 1 #2-3", 1000, "No pirotecnia");
+        venue.setAprobado(true);
+        Evento evento = new Evento("Rock", 500, venue, LocalDateTime.now().plusDays(7), organizador, "Concierto", admin);
+        Localidad platea = new Localidad("Platea", true, 100, 100.0, evento, 90.0, 80.0, 150.0);
+        evento.setSalaEspera(sala);
+        Cliente cliente = new Cliente("login", "pwd", "Cliente", 101);
+
+        assertThrows(IllegalStateException.class, () -> cliente.precompraIndividualNumerada(1, evento, platea, 1));
+        sala.entrar(cliente.getId());
+        assertThrows(IllegalStateException.class, () -> cliente.precompraIndividualNumerada(1, evento, platea, 1));
+
+        sala.abrir();
+        reloj.set(1000);
+        assertThrows(IllegalStateException.class, () -> cliente.precompraIndividualNumerada(1, evento, platea, 1));
+        cliente.presentarTokenSalaEspera(evento, "falso");
+        assertThrows(IllegalStateException.class, () -> cliente.precompraIndividualNumerada(1, evento, platea, 1));
+        cliente.presentarTokenSalaEspera(evento, sala.getTurno(cliente.getId()).getToken());
+        Individual tiquete = cliente.precompraIndividualNumerada(1, evento, platea, 1, Duration.ofMinutes(5));
+        ArrayList<Tiquete> tiquetes = new ArrayList<Tiquete>();
+        tiquetes.add(tiquete);
+        cliente.hacerCompra(tiquetes, new ArrayList<PaqueteTiquetes>(), false);
+
+        assertEquals(1, platea.getTiquetesVendidos());
+        assertEquals(0, sala.getActivos());
+        assertNull(sala.getTurno(cliente.getId()));
+    }
+}
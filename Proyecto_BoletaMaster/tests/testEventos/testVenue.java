@@ -14,6 +14,9 @@ import Usuarios.Organizador;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 
 public class testVenue {
@@ -231,4 +234,89 @@ public class testVenue {
         venue.agregarLocalidad(new Localidad("SoloUna", false, 10, 10,eventoFuturoActivo, 8, 7, 20));
         assertTrue(venue.tieneLocalidades());
     }
+
+    /**
+     * Given: Un venue de capacidad 1000 con dos localidades de 300 y 200.
+     * When:  Se sube la capacidad de la primera a 600 después de agregarla, se intenta agregar
+     *        otra de 250 y luego se elimina la primera.
+     * Then:  El total refleja el cambio (800), la de 250 ya no cabe y al eliminar la primera
+     *        se descuenta su capacidad actual (600), no la original.
+     */
+    @Test
+    @DisplayName("totales acumulados: siguen los cambios de capacidad de las localidades")
+    void totalesSiguenSetCapacidad() {
+        Localidad l1 = new Localidad("L1", false, 300, 10, eventoFuturoActivo, 8, 7, 20);
+        Localidad l2 = new Localidad("L2", true, 200, 10, eventoFuturoActivo, 8, 7, 20);
+        venue.agregarLocalidad(l1);
+        venue.agregarLocalidad(l2);
+        assertEquals(500, venue.getCapacidadDisponible());
+
+        l1.setCapacidad(600);
+        assertEquals(800, venue.calcularCapacidadTotal());
+        assertThrows(IllegalArgumentException.class,
+                () -> venue.agregarLocalidad(new Localidad("L3", false, 250, 10, eventoFuturoActivo, 8, 7, 20)));
+
+        venue.eliminarLocalidad(l1);
+        assertEquals(200, venue.calcularCapacidadTotal());
+        assertFalse(venue.contieneLocalidad(l1));
+        l1.setCapacidad(50);
+        assertEquals(200, venue.calcularCapacidadTotal());
+    }
+
+    /**
+     * Given: Un venue con cinco localidades.
+     * When:  Se eliminan una del medio, la última y la primera.
+     * Then:  Después de cada eliminación quedan exactamente las demás, cada una se encuentra en
+     *        el índice y se puede volver a eliminar.
+     */
+    @Test
+    @DisplayName("eliminarLocalidad: reemplaza por la última y mantiene el índice")
+    void eliminarMantieneIndice() {
+        List<Localidad> todas = new ArrayList<Localidad>();
+        for (int i = 0; i < 5; i++) {
+            Localidad l = new Localidad("L" + i, false, 10, 10, eventoFuturoActivo, 8, 7, 20);
+            todas.add(l);
+            venue.agregarLocalidad(l);
+        }
+
+        Set<Localidad> esperadas = new HashSet<Localidad>(todas);
+        for (int i : new int[] {2, 4, 0}) {
+            venue.eliminarLocalidad(todas.get(i));
+            esperadas.remove(todas.get(i));
+            assertEquals(esperadas, new HashSet<Localidad>(venue.getLocalidades()));
+            assertEquals(esperadas.size(), venue.getLocalidades().size());
+            assertEquals(10 * esperadas.size(), venue.calcularCapacidadTotal());
+        }
+        for (Localidad l : esperadas) {
+            venue.eliminarLocalidad(l);
+        }
+        assertFalse(venue.tieneLocalidades());
+    }
+
+    /**
+     * Given: Un venue de capacidad 100.000.
+     * When:  Se agregan 20.000 localidades de 5 cupos y se reemplaza la lista con setLocalidades().
+     * Then:  El total es exacto en ambos casos y cada localidad se encuentra en el índice.
+     */
+    @Test
+    @DisplayName("índice de localidades: muchas secciones y reemplazo de la lista")
+    void muchasLocalidades() {
+        Venue grande = new Venue(2, "Estadio", "Calle 1", 100000, "");
+        ArrayList<Localidad> creadas = new ArrayList<Localidad>();
+        for (int i = 0; i < 20000; i++) {
+            Localidad l = new Localidad("S" + i, false, 5, 10, eventoFuturoActivo, 8, 7, 20);
+            grande.agregarLocalidad(l);
+            creadas.add(l);
+        }
+        assertEquals(100000, grande.calcularCapacidadTotal());
+        assertTrue(grande.contieneLocalidad(creadas.get(12345)));
+
+        ArrayList<Localidad> mitad = new ArrayList<Localidad>(creadas.subList(0, 10000));
+        grande.setLocalidades(mitad);
+        assertEquals(50000, grande.calcularCapacidadTotal());
+        assertFalse(grande.contieneLocalidad(creadas.get(15000)));
+        creadas.get(15000).setCapacidad(10);
+        creadas.get(0).setCapacidad(10);
+        assertEquals(50005, grande.calcularCapacidadTotal());
+    }
 }
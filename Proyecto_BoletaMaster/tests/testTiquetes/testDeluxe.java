@@ -68,7 +68,7 @@ public class testDeluxe {
 
         Deluxe deluxe = new Deluxe(1, cliente, 500.0, "Acceso VIP y cena exclusiva", tiquetes);
 
-        assertEquals(0, deluxe.getCodigo());
+        assertEquals(1, deluxe.getCodigo());
         assertEquals(500.0, deluxe.getPrecio(), 1e-6);
         assertEquals("Acceso VIP y cena exclusiva", deluxe.getBeneficios());
         assertEquals(2, deluxe.getTiquetesIncluidos().size());
@@ -0,0 +1,141 @@
+package testTiquetes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import Tiquetes.Compra;
+import Tiquetes.Dinero;
+import Tiquetes.Individual;
+import Tiquetes.Multiple;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+public class testDinero {
+
+    private Administrador admin;
+    private Evento evento;
+    private Localidad localidad;
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        admin = new Administrador("admin", "pwd", "Administrador", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.1);
+        admin.setCuotaEmisionGlobal(0.35);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Teatro Nacional", "Calle 123", 1000, "Sin pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock Fest", 1001, venue, LocalDateTime.now().plusDays(5), organizador, "Concierto", admin);
+        localidad = evento.crearLocalidad("VIP", true, 100, 0.10, 0.10, 0.10, 0.10);
+        cliente = new Cliente("user1", "pass", "Cliente Uno", 100);
+    }
+
+    /**
+     * Given: Montos con fracciones de centavo, positivos y negativos.
+     * When:  Se convierten, dividen, aplican tasas y formatean.
+     * Then:  Se redondea al centavo alejando las mitades de cero y el texto tiene dos decimales.
+     */
+    @Test
+    @DisplayName("Dinero: conversión, redondeo y formato")
+    void conversionYRedondeo() {
+        assertEquals(1999, Dinero.deValor(19.99));
+        assertEquals(-1999, Dinero.deValor(-19.99));
+        assertEquals(13, Dinero.deValor(0.125));
+        assertEquals(-13, Dinero.deValor(-0.125));
+        assertEquals(19.99, Dinero.aValor(1999), 0.0);
+
+        assertEquals(33, Dinero.dividir(100, 3));
+        assertEquals(3, Dinero.dividir(5, 2));
+        assertEquals(-3, Dinero.dividir(-5, 2));
+        assertEquals(67, Dinero.dividir(200, 3));
+        assertEquals(-67, Dinero.dividir(-200, 3));
+        assertEquals(1999, Dinero.aplicarTasa(19990, 0.1));
+
+        assertEquals("1234.50", Dinero.formatear(123450));
+        assertEquals("-0.05", Dinero.formatear(-5));
+        assertEquals("0.00", Dinero.formatear(0));
+    }
+
+    /**
+     * Given: Montos cerca del límite de un long y valores no finitos.
+     * When:  Se suman, multiplican o convierten.
+     * Then:  Se lanza ArithmeticException en lugar de dar un total equivocado.
+     */
+    @Test
+    @DisplayName("Dinero: los desbordes fallan en lugar de redondear")
+    void desbordes() {
+        assertThrows(ArithmeticException.class, () -> Dinero.sumar(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Dinero.multiplicar(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Dinero.deValor(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> Dinero.deValor(1e300));
+        assertThrows(ArithmeticException.class, () -> Dinero.dividir(100, 0));
+    }
+
+    /**
+     * Given: Diez tiquetes de $0.10 con cargo del 10 % y cuota de $0.35.
+     * When:  El cliente los compra con saldo.
+     * Then:  El total y el saldo restante cuadran exactamente al centavo, sin el error que
+     *        deja sumar diez veces 0.1 en double.
+     */
+    @Test
+    @DisplayName("Compra: el total se suma exacto en centavos")
+    void totalExacto() {
+        ArrayList<Tiquete> tiquetes = new ArrayList<Tiquete>();
+        for (int i = 1; i <= 10; i++) {
+            tiquetes.add(new Individual(i, 0.10, evento, localidad, cliente, true, i));
+        }
+        cliente.setSaldo(10.0);
+
+        Compra compra = cliente.hacerCompra(tiquetes, new ArrayList<PaqueteTiquetes>(), true);
+
+        // 10 × (0.10 + 0.01 + 0.35)
+        assertEquals(460, compra.getValorCompraCentavos());
+        assertEquals(540, cliente.getSaldoCentavos());
+        assertEquals(5.40, cliente.getSaldo(), 0.0);
+    }
+
+    /**
+     * Given: Un paquete con tiquetes de $10.25 y $10.50.
+     * When:  Se calcula el valor promedio.
+     * Then:  El promedio conserva los centavos (antes se sumaba en un int y se truncaban).
+     */
+    @Test
+    @DisplayName("PaqueteTiquetes: el promedio conserva los centavos")
+    void promedioConCentavos() {
+        ArrayList<Tiquete> tiquetes = new ArrayList<Tiquete>();
+        tiquetes.add(new Individual(1, 10.25, evento, localidad, cliente, true, 1));
+        tiquetes.add(new Individual(2, 10.50, evento, localidad, cliente, true, 2));
+        Multiple paquete = new Multiple(1, cliente, 20.80, tiquetes);
+
+        assertEquals(10.38, paquete.calcularValorPromedio(), 0.0);
+        assertEquals(2080 + 208 + 70, paquete.calcularCostoTotalCentavos());
+    }
+
+    /**
+     * Given: Un tiquete de $33.33 reembolsado por calamidad.
+     * When:  El administrador aprueba el reembolso.
+     * Then:  El saldo del cliente sube exactamente el costo total del tiquete.
+     */
+    @Test
+    @DisplayName("Reembolso: abona el costo total exacto al saldo")
+    void reembolsoExacto() {
+        Individual t = new Individual(1, 33.33, evento, localidad, cliente, true, 1);
+        admin.aprobarReembolsoPorCalamidadTiquete(cliente, t);
+
+        assertEquals(3333 + 333 + 35, cliente.getSaldoCentavos());
+        assertThrows(IllegalArgumentException.class, () -> cliente.abonarSaldo(-1));
+    }
+}
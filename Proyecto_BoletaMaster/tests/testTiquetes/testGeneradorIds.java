@@ -0,0 +1,163 @@
+package testTiquetes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Persistencia.PersistenciaIds;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Cliente;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Tiquetes.Compra;
+import Tiquetes.GeneradorIds;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+public class testGeneradorIds {
+
+    /**
+     * Given: Un generador nuevo.
+     * When:  Un hilo pide ids de dos secuencias.
+     * Then:  Cada secuencia empieza en INICIO y entrega ids crecientes sin repetir.
+     */
+    @Test
+    @DisplayName("GeneradorIds: cada secuencia entrega ids crecientes desde INICIO")
+    void idsCrecientes() {
+        GeneradorIds gen = new GeneradorIds(8);
+
+        int anterior = gen.siguiente(GeneradorIds.COMPRAS);
+        assertEquals(GeneradorIds.INICIO, anterior);
+        for (int i = 0; i < 100; i++) {
+            int id = gen.siguiente(GeneradorIds.COMPRAS);
+            assertTrue(id > anterior);
+            anterior = id;
+        }
+        assertEquals(GeneradorIds.INICIO, gen.siguiente(GeneradorIds.PUJAS));
+
+        assertThrows(IllegalArgumentException.class, () -> gen.siguiente(" "));
+        assertThrows(IllegalArgumentException.class, () -> new GeneradorIds(0));
+    }
+
+    /**
+     * Given: Un generador con bloques pequeños.
+     * When:  Ocho hilos piden ids de la misma secuencia a la vez.
+     * Then:  No se repite ningún id y cada bloque tomado se avisó una vez.
+     */
+    @Test
+    @DisplayName("GeneradorIds: hilos simultáneos nunca reciben el mismo id")
+    void concurrencia() throws Exception {
+        GeneradorIds gen = new GeneradorIds(16);
+        AtomicInteger avisos = new AtomicInteger();
+        gen.setAlReservar(g -> avisos.incrementAndGet());
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        int hilos = 8;
+        int porHilo = 5_000;
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Thread> ts = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            Thread t = new Thread(() -> {
+                try {
+                    inicio.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < porHilo; i++) {
+                    ids.add(gen.siguiente(GeneradorIds.TIQUETES));
+                }
+            });
+            t.start();
+            ts.add(t);
+        }
+        inicio.countDown();
+        for (Thread t : ts) {
+            t.join();
+        }
+
+        assertEquals(hilos * porHilo, ids.size());
+        long marca = gen.getMarcas().get(GeneradorIds.TIQUETES);
+        assertEquals(GeneradorIds.INICIO + avisos.get() * 16L, marca);
+        for (int id : ids) {
+            assertTrue(id >= GeneradorIds.INICIO && id < marca);
+        }
+    }
+
+    /**
+     * Given: Un generador que guarda sus marcas en JSON cada vez que toma un bloque.
+     * When:  Se carga el archivo en un generador nuevo, como al reiniciar.
+     * Then:  El generador nuevo no repite ningún id entregado por el anterior.
+     */
+    @Test
+    @DisplayName("PersistenciaIds: después de reiniciar no se repiten ids")
+    void persistencia() throws Exception {
+        File archivo = File.createTempFile("ids", ".json");
+        try {
+            GeneradorIds antes = new GeneradorIds(32);
+            antes.setAlReservar(g -> PersistenciaIds.guardarMarcas(g, archivo.getPath()));
+            Set<Integer> entregados = new HashSet<>();
+            for (int i = 0; i < 100; i++) {
+                entregados.add(antes.siguiente(GeneradorIds.OFERTAS_MP));
+            }
+            int puja = antes.siguiente(GeneradorIds.PUJAS);
+
+            GeneradorIds despues = new GeneradorIds(32);
+            assertEquals(2, PersistenciaIds.cargarMarcas(despues, archivo.getPath()));
+            assertEquals(antes.getMarcas(), despues.getMarcas());
+            for (int i = 0; i < 100; i++) {
+                assertFalse(entregados.contains(despues.siguiente(GeneradorIds.OFERTAS_MP)));
+            }
+            assertTrue(despues.siguiente(GeneradorIds.PUJAS) > puja);
+
+            // Una marca menor a la actual no hace retroceder la secuencia.
+            long marca = despues.getMarcas().get(GeneradorIds.PUJAS);
+            despues.restaurarMarca(GeneradorIds.PUJAS, GeneradorIds.INICIO);
+            assertEquals(marca, despues.getMarcas().get(GeneradorIds.PUJAS));
+            assertEquals(0, PersistenciaIds.cargarMarcas(despues, archivo.getPath() + ".no-existe"));
+        } finally {
+            archivo.delete();
+        }
+    }
+
+    /**
+     * Given: Un generador con un bloque tomado.
+     * When:  Se restaura una marca mayor a los ids del bloque.
+     * Then:  El bloque se descarta y el siguiente id es al menos la marca.
+     */
+    @Test
+    @DisplayName("GeneradorIds: restaurar una marca descarta los bloques ya tomados")
+    void restaurarDescartaBloques() {
+        GeneradorIds gen = new GeneradorIds(1_000);
+        gen.siguiente(GeneradorIds.PAQUETES);
+
+        gen.restaurarMarca(GeneradorIds.PAQUETES, 5_000_000L);
+        assertTrue(gen.siguiente(GeneradorIds.PAQUETES) >= 5_000_000);
+        assertThrows(IllegalArgumentException.class,
+                () -> gen.restaurarMarca(GeneradorIds.PAQUETES, Long.MAX_VALUE));
+    }
+
+    /**
+     * Given: Un cliente.
+     * When:  Se crean dos compras.
+     * Then:  Cada compra tiene su propio id, asignado por el generador de la aplicación.
+     */
+    @Test
+    @DisplayName("Compra: cada compra recibe un id distinto del generador")
+    void idsDeCompras() {
+        Cliente cliente = new Cliente("user1", "pass", "Cliente Uno", 100);
+        Compra a = new Compra(cliente, new ArrayList<Tiquete>(), new ArrayList<PaqueteTiquetes>(), 10.0, LocalDateTime.now());
+        Compra b = new Compra(cliente, new ArrayList<Tiquete>(), new ArrayList<PaqueteTiquetes>(), 20.0, LocalDateTime.now());
+
+        assertNotEquals(a.getIdCompra(), b.getIdCompra());
+        assertTrue(a.getIdCompra() >= GeneradorIds.INICIO);
+        assertTrue(b.getIdCompra() >= GeneradorIds.INICIO);
+    }
+}
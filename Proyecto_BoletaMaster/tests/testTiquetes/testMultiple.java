@@ -73,7 +73,7 @@ public class testMultiple {
 
         Multiple paquete = new Multiple(1, cliente, 300.0, tiquetes);
 
-        assertEquals(0, paquete.getCodigo());
+        assertEquals(1, paquete.getCodigo());
         assertEquals(300.0, paquete.getPrecio(), 1e-6);
         assertEquals(3, paquete.getCantidad());
         assertEquals(3, paquete.getTiquetesIncluidos().size());
@@ -73,7 +73,7 @@ public class testPaseTemporada {
 
         PaseTemporada pase = new PaseTemporada(7, cliente, 999.0, eventosValidos, tiqs);
 
-        assertEquals(0, pase.getCodigo());
+        assertEquals(7, pase.getCodigo());
         assertEquals(999.0, pase.getPrecio());
         assertSame(cliente, pase.getDueno());
         assertEquals("Activo", pase.getEstado());
@@ -13,6 +13,7 @@ import Usuarios.Administrador;
 import Usuarios.Cliente;
 import Usuarios.Organizador;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -394,5 +395,38 @@ public class testCliente{
         assertEquals(1, a.getSolicitudesReembolsoTiquete().size());
     }
 
-}
+    /**
+     * Given: Dos eventos futuros con una platea cada uno y el asiento 3 de la segunda fecha
+     *        ya retenido por otro cliente.
+     * When:  Un cliente pide un pase de temporada con el asiento 3 en ambas fechas y luego
+     *        otro pase con el asiento 4, que sí compra.
+     * Then:  El primer pase falla sin dejar retenido el asiento de la primera fecha; el segundo
+     *        retiene ambos asientos y al comprar quedan como vendidos.
+     */
+    @Test
+    @DisplayName("precompraPaseTemporada con retención: todo o nada y se confirma al comprar")
+    void precompraPaseTemporadaConRetencion() {
+        Evento fecha1 = new Evento("f1", 1, v, LocalDateTime.now().plusDays(10), o, "Religioso", a);
+        Evento fecha2 = new Evento("f2", 2, v, LocalDateTime.now().plusDays(20), o, "Religioso", a);
+        Localidad l1 = new Localidad("A", true, 10, 5, fecha1, 5, 5, 5);
+        Localidad l2 = new Localidad("A", true, 10, 5, fecha2, 5, 5, 5);
+        ArrayList<Evento> eventos = new ArrayList<>(Arrays.asList(fecha1, fecha2));
+        ArrayList<Localidad> localidades = new ArrayList<>(Arrays.asList(l1, l2));
+
+        l2.retenerAsientos(new int[] {3}, Duration.ofMinutes(5));
+        assertThrows(IllegalStateException.class, () -> cliente.precompraPaseTemporada(
+                1, eventos, localidades, new ArrayList<>(Arrays.asList(3, 3)), Duration.ofMinutes(5)));
+        assertTrue(l1.asientoDisponible(3));
 
+        PaseTemporada pase = cliente.precompraPaseTemporada(
+                2, eventos, localidades, new ArrayList<>(Arrays.asList(4, 4)), Duration.ofMinutes(5));
+        assertFalse(l1.asientoDisponible(4));
+        assertEquals(0, l1.getTiquetesVendidos());
+
+        cliente.hacerCompra(new ArrayList<Tiquete>(), new ArrayList<>(Arrays.asList(pase)), false);
+        assertEquals(1, l1.getTiquetesVendidos());
+        assertEquals(1, l2.getTiquetesVendidos());
+        assertEquals(1, l2.getAsientosRetenidos());
+    }
+
+}
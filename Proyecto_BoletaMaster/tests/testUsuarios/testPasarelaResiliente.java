@@ -0,0 +1,257 @@
+package testUsuarios;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+import Usuarios.PasarelaPago;
+import Usuarios.PasarelaResiliente;
+import Usuarios.PasarelaSimulada;
+import Usuarios.ProcesadorLotesCompra;
+import Usuarios.TransaccionCompra;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Tiquetes.Compra;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+public class testPasarelaResiliente {
+
+    private Evento evento;
+    private Localidad numerada;
+    private Cliente cliente;
+    private AtomicLong reloj;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Administrador", 1);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Teatro Nacional", "Calle 123", 1000, "Sin pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock Fest", 1001, venue, LocalDateTime.now().plusDays(5), organizador, "Concierto", admin);
+        numerada = evento.crearLocalidad("VIP", true, 100, 100.0, 100.0, 100.0, 100.0);
+        cliente = new Cliente("user1", "pass", "Cliente Uno", 100);
+        reloj = new AtomicLong(1_000_000);
+    }
+
+    private ArrayList<Tiquete> carrito(int asiento) {
+        ArrayList<Tiquete> lista = new ArrayList<Tiquete>();
+        lista.add(new Individual(asiento, 100.0, evento, numerada, cliente, true, asiento));
+        return lista;
+    }
+
+    /**
+     * Given: Una pasarela que falla mientras está caída, con 2 reintentos y umbral de 3 fallas.
+     * When:  Se cobra con la pasarela caída, se vuelve a cobrar, pasa el tiempo abierto y se
+     *        cobra con la pasarela recuperada.
+     * Then:  El primer cobro hace 3 intentos y abre el interruptor; el segundo falla sin llamar
+     *        a la pasarela; la prueba posterior cierra el interruptor.
+     */
+    @Test
+    @DisplayName("PasarelaResiliente: reintenta las fallas y abre el interruptor")
+    void interruptor() {
+        AtomicBoolean caida = new AtomicBoolean(true);
+        AtomicInteger llamadas = new AtomicInteger();
+        PasarelaPago externa = new PasarelaPago() {
+            public boolean cobrar(Cliente c, long centavos, String referencia) {
+                llamadas.incrementAndGet();
+                if (caida.get()) {
+                    throw new IllegalStateException("caída");
+                }
+                return true;
+            }
+            public void reembolsar(Cliente c, long centavos, String referencia) {
+            }
+        };
+        PasarelaResiliente pasarela = new PasarelaResiliente(externa, Duration.ofSeconds(1), 2, Duration.ZERO, 3,
+                Duration.ofSeconds(30), reloj::get);
+
+        assertThrows(IllegalStateException.class, () -> pasarela.cobrar(cliente, 100, "pago-1"));
+        assertEquals(3, llamadas.get());
+        assertEquals(PasarelaResiliente.ABIERTO, pasarela.getEstado());
+
+        assertThrows(IllegalStateException.class, () -> pasarela.cobrar(cliente, 100, "pago-1"));
+        assertEquals(3, llamadas.get());
+
+        reloj.addAndGet(30_000);
+        assertEquals(PasarelaResiliente.SEMI_ABIERTO, pasarela.getEstado());
+        caida.set(false);
+        assertTrue(pasarela.cobrar(cliente, 100, "pago-1"));
+        assertEquals(4, llamadas.get());
+        assertEquals(PasarelaResiliente.CERRADO, pasarela.getEstado());
+    }
+
+    /**
+     * Given: Una pasarela simulada que tarda 5 segundos y otra que rechaza todo.
+     * When:  Se cobra con un tiempo máximo de 50 ms y con la que rechaza.
+     * Then:  La lenta se corta al tiempo máximo sin cobrar; el rechazo no se reintenta.
+     */
+    @Test
+    @DisplayName("PasarelaResiliente: corta las llamadas lentas y no reintenta rechazos")
+    void tiempoMaximoYRechazo() {
+        PasarelaSimulada lenta = new PasarelaSimulada(Duration.ofSeconds(5), 0.0);
+        PasarelaResiliente conTiempo = new PasarelaResiliente(lenta, Duration.ofMillis(50), 0, Duration.ZERO, 5,
+                Duration.ofSeconds(30));
+        long inicio = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> conTiempo.cobrar(cliente, 100, "pago-1"));
+        assertTrue(System.nanoTime() - inicio < 2_000_000_000L);
+        assertEquals(0, lenta.getCobradoCentavos());
+
+        PasarelaSimulada rechaza = new PasarelaSimulada(Duration.ZERO, 0.0, 1.0, 7);
+        PasarelaResiliente conReintentos = new PasarelaResiliente(rechaza, Duration.ofSeconds(1), 3, Duration.ZERO, 5,
+                Duration.ofSeconds(30));
+        assertFalse(conReintentos.cobrar(cliente, 100, "pago-1"));
+        assertEquals(1, rechaza.getLlamadas());
+        assertEquals(PasarelaResiliente.CERRADO, conReintentos.getEstado());
+    }
+
+    /**
+     * Given: Una pasarela que cobra pero responde después del tiempo máximo en el primer intento.
+     * When:  Se cobra con 2 reintentos.
+     * Then:  Cada intento lleva la misma referencia, la pasarela la reconoce y el cliente
+     *        queda cobrado una sola vez.
+     */
+    @Test
+    @DisplayName("PasarelaResiliente: los reintentos repiten la referencia y no cobran dos veces")
+    void reintentoConReferencia() {
+        List<String> referencias = Collections.synchronizedList(new ArrayList<String>());
+        Map<String, Boolean> cobros = new ConcurrentHashMap<String, Boolean>();
+        AtomicLong cobrado = new AtomicLong();
+        PasarelaPago lentaLaPrimeraVez = new PasarelaPago() {
+            public boolean cobrar(Cliente c, long centavos, String referencia) {
+                referencias.add(referencia);
+                if (cobros.putIfAbsent(referencia, true) == null) {
+                    cobrado.addAndGet(centavos);
+                    try {
+                        Thread.sleep(5_000);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException("interrumpida", e);
+                    }
+                }
+                return cobros.get(referencia);
+            }
+            public void reembolsar(Cliente c, long centavos, String referencia) {
+            }
+        };
+        PasarelaResiliente pasarela = new PasarelaResiliente(lentaLaPrimeraVez, Duration.ofMillis(50), 2,
+                Duration.ZERO, 5, Duration.ofSeconds(30), reloj::get);
+
+        assertTrue(pasarela.cobrar(cliente, 100, "pago-7"));
+        assertEquals(List.of("pago-7", "pago-7"), referencias);
+        assertEquals(100, cobrado.get());
+    }
+
+    /**
+     * Given: Una compra pagada con la pasarela cuyo interruptor se abre antes de que la compra
+     *        se revierta (la escritura del lote falla).
+     * When:  Se revierte la compra.
+     * Then:  El reembolso llega a la pasarela aunque el interruptor siga abierto: el neto
+     *        cobrado vuelve a cero y el asiento queda libre.
+     */
+    @Test
+    @DisplayName("PasarelaResiliente: los reembolsos no se cortan con el interruptor abierto")
+    void reembolsoConInterruptorAbierto() throws Exception {
+        AtomicBoolean caida = new AtomicBoolean(false);
+        AtomicLong cobrado = new AtomicLong();
+        PasarelaPago externa = new PasarelaPago() {
+            public boolean cobrar(Cliente c, long centavos, String referencia) {
+                if (caida.get()) {
+                    throw new IllegalStateException("caída");
+                }
+                cobrado.addAndGet(centavos);
+                return true;
+            }
+            public void reembolsar(Cliente c, long centavos, String referencia) {
+                cobrado.addAndGet(-centavos);
+            }
+        };
+        PasarelaResiliente pasarela = new PasarelaResiliente(externa, Duration.ofSeconds(1), 0, Duration.ZERO, 1,
+                Duration.ofSeconds(30), reloj::get);
+        ProcesadorLotesCompra procesador = new ProcesadorLotesCompra(1, Duration.ofSeconds(30), lote -> {
+            caida.set(true);
+            assertThrows(IllegalStateException.class, () -> pasarela.cobrar(cliente, 1, "sonda"));
+            caida.set(false);
+            throw new RuntimeException("disco lleno");
+        });
+        try {
+            CompletableFuture<Compra> futuro = procesador.enviar(
+                    new TransaccionCompra(cliente, carrito(8), new ArrayList<PaqueteTiquetes>(), false, null, pasarela));
+            ExecutionException e = assertThrows(ExecutionException.class, () -> futuro.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RuntimeException.class, e.getCause());
+        } finally {
+            procesador.cerrar();
+        }
+        assertEquals(PasarelaResiliente.ABIERTO, pasarela.getEstado());
+        assertEquals(0, cobrado.get());
+        assertEquals(0, pasarela.getReembolsosPendientes());
+        assertTrue(numerada.asientoDisponible(8));
+    }
+
+    /**
+     * Given: Una compra con una pasarela que siempre falla.
+     * When:  Se ejecuta la compra en un hilo virtual.
+     * Then:  El futuro termina con la falla y el asiento queda libre.
+     */
+    @Test
+    @DisplayName("TransaccionCompra: si la pasarela falla, la compra asíncrona se deshace")
+    void compraAsincronaFallida() {
+        PasarelaResiliente caida = new PasarelaResiliente(new PasarelaSimulada(Duration.ZERO, 1.0), Duration.ofSeconds(1),
+                1, Duration.ZERO, 10, Duration.ofSeconds(30));
+        CompletableFuture<Compra> futuro = new TransaccionCompra(cliente, carrito(5), new ArrayList<PaqueteTiquetes>(),
+                false, null, caida).ejecutarAsync();
+
+        CompletionException e = assertThrows(CompletionException.class, futuro::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertTrue(numerada.asientoDisponible(5));
+        assertTrue(cliente.getCompras().isEmpty());
+    }
+
+    /**
+     * Given: 50 compras asíncronas con una pasarela simulada de 100 ms.
+     * When:  Todas se lanzan a la vez.
+     * Then:  Terminan en mucho menos que 50 × 100 ms y la pasarela cobró el total de las compras.
+     */
+    @Test
+    @DisplayName("TransaccionCompra: las compras asíncronas esperan la pasarela en paralelo")
+    void comprasAsincronasEnParalelo() {
+        PasarelaSimulada simulada = new PasarelaSimulada(Duration.ofMillis(100), 0.0);
+        PasarelaResiliente pasarela = new PasarelaResiliente(simulada, Duration.ofSeconds(2), 1, Duration.ZERO, 10,
+                Duration.ofSeconds(30));
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Compra>> futuros = new ArrayList<CompletableFuture<Compra>>();
+        for (int asiento = 1; asiento <= 50; asiento++) {
+            futuros.add(new TransaccionCompra(cliente, carrito(asiento), new ArrayList<PaqueteTiquetes>(), false, null,
+                    pasarela).ejecutarAsync());
+        }
+        long total = 0;
+        for (CompletableFuture<Compra> f : futuros) {
+            total += f.join().getValorCompraCentavos();
+        }
+        assertTrue(System.nanoTime() - inicio < 2_500_000_000L);
+        assertEquals(total, simulada.getCobradoCentavos());
+        assertEquals(50, numerada.getTiquetesVendidos());
+    }
+}
@@ -0,0 +1,266 @@
+package testUsuarios;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+import Persistencia.PersistenciaCompras;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+import Usuarios.PasarelaPago;
+import Usuarios.ProcesadorLotesCompra;
+import Usuarios.TransaccionCompra;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import Tiquetes.Compra;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+public class testProcesadorLotesCompra {
+
+    private Evento evento;
+    private Localidad numerada;
+    private Cliente cliente;
+    private List<List<Compra>> escrituras;
+    private ProcesadorLotesCompra procesador;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Administrador", 1);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Teatro Nacional", "Calle 123", 1000, "Sin pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock Fest", 1001, venue, LocalDateTime.now().plusDays(5), organizador, "Concierto", admin);
+        numerada = evento.crearLocalidad("VIP", true, 100, 100.0, 100.0, 100.0, 100.0);
+        cliente = new Cliente("user1", "pass", "Cliente Uno", 100);
+        cliente.setSaldo(10_000.0);
+        escrituras = Collections.synchronizedList(new ArrayList<List<Compra>>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (procesador != null) {
+            procesador.cerrar();
+        }
+    }
+
+    private TransaccionCompra compra(int asiento) {
+        ArrayList<Tiquete> carrito = new ArrayList<Tiquete>();
+        carrito.add(new Individual(asiento, 100.0, evento, numerada, cliente, true, asiento));
+        return new TransaccionCompra(cliente, carrito, new ArrayList<PaqueteTiquetes>(), true, null);
+    }
+
+    /**
+     * Given: Un procesador con lotes de 10 y una espera larga.
+     * When:  Se envían 10 compras.
+     * Then:  Se confirman en un solo lote con una sola escritura y cada una recibe su compra.
+     */
+    @Test
+    @DisplayName("ProcesadorLotesCompra: un lote lleno se procesa con una sola escritura")
+    void loteLleno() {
+        procesador = new ProcesadorLotesCompra(10, Duration.ofSeconds(30), escrituras::add);
+        List<CompletableFuture<Compra>> futuros = new ArrayList<CompletableFuture<Compra>>();
+        for (int asiento = 1; asiento <= 10; asiento++) {
+            futuros.add(procesador.enviar(compra(asiento)));
+        }
+        for (CompletableFuture<Compra> f : futuros) {
+            assertSame(cliente, f.join().getDueno());
+        }
+        assertEquals(1, escrituras.size());
+        assertEquals(10, escrituras.get(0).size());
+        assertEquals(10, cliente.getCompras().size());
+        assertEquals(1, procesador.getLotes());
+        assertEquals(1.0, procesador.getLlenadoPromedio(), 1e-9);
+    }
+
+    /**
+     * Given: Un procesador con lotes de 100 y espera de 50 ms.
+     * When:  Se envían 3 compras.
+     * Then:  Se procesan juntas al pasar la espera; el lote quedó al 3 % y la espera agregada
+     *        ronda los 50 ms.
+     */
+    @Test
+    @DisplayName("ProcesadorLotesCompra: un lote incompleto se procesa al pasar la espera")
+    void loteIncompleto() {
+        procesador = new ProcesadorLotesCompra(100, Duration.ofMillis(50), escrituras::add);
+        List<CompletableFuture<Compra>> futuros = new ArrayList<CompletableFuture<Compra>>();
+        for (int asiento = 1; asiento <= 3; asiento++) {
+            futuros.add(procesador.enviar(compra(asiento)));
+        }
+        CompletableFuture.allOf(futuros.toArray(CompletableFuture<?>[]::new)).join();
+        assertEquals(1, escrituras.size());
+        assertEquals(0.03, procesador.getLlenadoPromedio(), 1e-9);
+        assertTrue(procesador.getEsperaMaximaNanos() >= 40_000_000L);
+    }
+
+    /**
+     * Given: Un lote en el que una compra pide un asiento ya vendido.
+     * When:  Se procesa el lote.
+     * Then:  Solo esa compra falla; las demás se guardan y se confirman.
+     */
+    @Test
+    @DisplayName("ProcesadorLotesCompra: una compra fallida no afecta al resto del lote")
+    void fallaIndividual() {
+        procesador = new ProcesadorLotesCompra(3, Duration.ofSeconds(30), escrituras::add);
+        CompletableFuture<Compra> a = procesador.enviar(compra(1));
+        CompletableFuture<Compra> b = procesador.enviar(compra(1));
+        CompletableFuture<Compra> c = procesador.enviar(compra(2));
+
+        assertNotNull(a.join());
+        CompletionException e = assertThrows(CompletionException.class, b::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertNotNull(c.join());
+        assertEquals(2, escrituras.get(0).size());
+        assertEquals(2, numerada.getTiquetesVendidos());
+    }
+
+    /**
+     * Given: Un procesador cuya escritura falla.
+     * When:  Se procesa un lote de 2 compras.
+     * Then:  Ambas fallan y se revierten: asientos libres, saldo intacto y sin compras.
+     */
+    @Test
+    @DisplayName("ProcesadorLotesCompra: si la escritura falla, el lote completo se revierte")
+    void fallaEscritura() {
+        procesador = new ProcesadorLotesCompra(2, Duration.ofSeconds(30), lote -> {
+            throw new RuntimeException("disco lleno");
+        });
+        long saldo = cliente.getSaldoCentavos();
+        CompletableFuture<Compra> a = procesador.enviar(compra(1));
+        CompletableFuture<Compra> b = procesador.enviar(compra(2));
+
+        assertThrows(CompletionException.class, a::join);
+        assertThrows(CompletionException.class, b::join);
+        assertTrue(numerada.asientoDisponible(1));
+        assertTrue(numerada.asientoDisponible(2));
+        assertEquals(saldo, cliente.getSaldoCentavos());
+        assertTrue(cliente.getCompras().isEmpty());
+    }
+
+    /**
+     * Given: Un procesador que escribe en el diario de compras.
+     * When:  Se procesan dos lotes de 5 compras.
+     * Then:  El diario tiene una línea por compra.
+     */
+    @Test
+    @DisplayName("PersistenciaCompras: cada lote se agrega al diario")
+    void diario() throws Exception {
+        File archivo = File.createTempFile("compras", ".jsonl");
+        try {
+            procesador = new ProcesadorLotesCompra(5, Duration.ofSeconds(30),
+                    lote -> PersistenciaCompras.agregarCompras(lote, archivo.getPath()));
+            List<CompletableFuture<Compra>> futuros = new ArrayList<CompletableFuture<Compra>>();
+            for (int asiento = 1; asiento <= 10; asiento++) {
+                futuros.add(procesador.enviar(compra(asiento)));
+            }
+            CompletableFuture.allOf(futuros.toArray(CompletableFuture<?>[]::new)).join();
+            List<String> lineas = Files.readAllLines(archivo.toPath());
+            assertEquals(10, lineas.size());
+            assertTrue(lineas.get(0).contains("\"cliente\": 100"));
+        } finally {
+            archivo.delete();
+        }
+    }
+
+    /**
+     * Given: Un procesador cuya escritura falla y compras pagadas con una pasarela que no
+     *        puede reembolsar.
+     * When:  Se procesa un lote de 2 compras.
+     * Then:  Aunque el reembolso falle, los dos futuros terminan con la falla del lote y el
+     *        resto de la reversión se hace: los asientos quedan libres.
+     */
+    @Test
+    @DisplayName("ProcesadorLotesCompra: cada futuro termina aunque falle la reversión")
+    void fallaReversion() throws Exception {
+        PasarelaPago sinReembolso = new PasarelaPago() {
+            public boolean cobrar(Cliente c, long centavos, String referencia) {
+                return true;
+            }
+            public void reembolsar(Cliente c, long centavos, String referencia) {
+                throw new IllegalStateException("pasarela caída");
+            }
+        };
+        procesador = new ProcesadorLotesCompra(2, Duration.ofSeconds(30), lote -> {
+            throw new RuntimeException("disco lleno");
+        });
+        List<CompletableFuture<Compra>> futuros = new ArrayList<CompletableFuture<Compra>>();
+        for (int asiento = 1; asiento <= 2; asiento++) {
+            ArrayList<Tiquete> carrito = new ArrayList<Tiquete>();
+            carrito.add(new Individual(asiento, 100.0, evento, numerada, cliente, true, asiento));
+            futuros.add(procesador.enviar(
+                    new TransaccionCompra(cliente, carrito, new ArrayList<PaqueteTiquetes>(), false, null, sinReembolso)));
+        }
+        for (CompletableFuture<Compra> f : futuros) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertTrue(numerada.asientoDisponible(1));
+        assertTrue(numerada.asientoDisponible(2));
+        assertEquals(0, numerada.getTiquetesVendidos());
+    }
+
+    /**
+     * Given: Varios hilos enviando compras mientras otro cierra el procesador.
+     * When:  Termina el cierre.
+     * Then:  Cada envío se rechaza o recibe un futuro que termina; ninguno queda pendiente.
+     */
+    @Test
+    @DisplayName("ProcesadorLotesCompra: cerrar mientras se envían compras no deja futuros pendientes")
+    void cierreConcurrente() throws Exception {
+        procesador = new ProcesadorLotesCompra(50, Duration.ofMillis(1), escrituras::add);
+        List<CompletableFuture<Compra>> futuros = Collections.synchronizedList(new ArrayList<CompletableFuture<Compra>>());
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Thread> hilos = new ArrayList<Thread>();
+        for (int h = 0; h < 4; h++) {
+            int base = h * 25;
+            hilos.add(new Thread(() -> {
+                try {
+                    inicio.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int asiento = base + 1; asiento <= base + 25; asiento++) {
+                    try {
+                        futuros.add(procesador.enviar(compra(asiento)));
+                    } catch (IllegalStateException e) {
+                        return;
+                    }
+                }
+            }));
+        }
+        for (Thread h : hilos) {
+            h.start();
+        }
+        inicio.countDown();
+        procesador.cerrar();
+        for (Thread h : hilos) {
+            h.join();
+        }
+        assertThrows(IllegalStateException.class, () -> procesador.enviar(compra(1)));
+        synchronized (futuros) {
+            for (CompletableFuture<Compra> f : futuros) {
+                assertTrue(f.isDone());
+            }
+        }
+    }
+}
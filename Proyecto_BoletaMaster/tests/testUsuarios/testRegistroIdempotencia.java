@@ -0,0 +1,238 @@
+package testUsuarios;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+import Persistencia.PersistenciaIdempotencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+import Usuarios.RegistroIdempotencia;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Tiquetes.Compra;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+public class testRegistroIdempotencia {
+
+    private Evento evento;
+    private Localidad general;
+    private Cliente cliente;
+    private AtomicLong reloj;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Administrador", 1);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Teatro Nacional", "Calle 123", 1000, "Sin pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock Fest", 1001, venue, LocalDateTime.now().plusDays(5), organizador, "Concierto", admin);
+        general = evento.crearLocalidad("General", false, 100, 50.0, 50.0, 50.0, 50.0);
+        cliente = new Cliente("user1", "pass", "Cliente Uno", 100);
+        cliente.setSaldo(1000.0);
+        reloj = new AtomicLong(1_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RegistroIdempotencia.getInstance().limpiar();
+    }
+
+    private ArrayList<Tiquete> carrito(Cliente dueno) {
+        ArrayList<Tiquete> lista = new ArrayList<Tiquete>();
+        lista.add(new Individual(1, 50.0, evento, general, dueno, true, -1));
+        return lista;
+    }
+
+    private Compra comprar(Cliente c, String clave) {
+        return c.hacerCompra(carrito(c), new ArrayList<PaqueteTiquetes>(), true, null, clave);
+    }
+
+    /**
+     * Given: Una compra hecha con una clave de idempotencia.
+     * When:  El cliente reintenta con la misma clave, con otra clave, y otro cliente usa la misma.
+     * Then:  El reintento devuelve la compra original sin cobrar; las otras son compras nuevas.
+     */
+    @Test
+    @DisplayName("RegistroIdempotencia: un reintento con la misma clave devuelve la compra original")
+    void reintentoDevuelveOriginal() {
+        Compra original = comprar(cliente, "pedido-1");
+        long saldo = cliente.getSaldoCentavos();
+
+        assertSame(original, comprar(cliente, "pedido-1"));
+        assertEquals(saldo, cliente.getSaldoCentavos());
+        assertEquals(1, cliente.getCompras().size());
+        assertEquals(1, general.getTiquetesVendidos());
+
+        assertNotSame(original, comprar(cliente, "pedido-2"));
+        Cliente otro = new Cliente("user2", "pass", "Cliente Dos", 101);
+        otro.setSaldo(1000.0);
+        assertNotSame(original, comprar(otro, "pedido-1"));
+        assertEquals(3, general.getTiquetesVendidos());
+
+        assertThrows(IllegalArgumentException.class, () -> comprar(cliente, "clave con espacios"));
+    }
+
+    /**
+     * Given: Una primera solicitud que falla por saldo insuficiente.
+     * When:  El cliente recarga saldo y reintenta con la misma clave.
+     * Then:  El fallo no quedó registrado y el reintento hace la compra.
+     */
+    @Test
+    @DisplayName("RegistroIdempotencia: una compra fallida no bloquea la clave")
+    void falloNoSeRegistra() {
+        cliente.setSaldo(1.0);
+        assertThrows(IllegalStateException.class, () -> comprar(cliente, "pedido-1"));
+        assertNull(RegistroIdempotencia.getInstance().buscar(cliente, "pedido-1"));
+
+        cliente.abonarSaldo(100_000);
+        Compra compra = comprar(cliente, "pedido-1");
+        assertSame(compra, RegistroIdempotencia.getInstance().buscar(cliente, "pedido-1"));
+    }
+
+    /**
+     * Given: Un registro de 2 entradas con vigencia de 1 segundo.
+     * When:  Se agregan 3 claves y luego pasa el tiempo.
+     * Then:  La más antigua sale al llenarse y las demás vencen al pasar la vigencia.
+     */
+    @Test
+    @DisplayName("RegistroIdempotencia: respeta el máximo de entradas y la vigencia")
+    void limiteYVencimiento() {
+        RegistroIdempotencia registro = new RegistroIdempotencia(2, 1000, reloj::get);
+        AtomicInteger ejecuciones = new AtomicInteger();
+        for (String clave : new String[] { "a", "b", "c" }) {
+            registro.ejecutar(cliente, clave, () -> {
+                ejecuciones.incrementAndGet();
+                return comprar(cliente, null);
+            });
+            reloj.addAndGet(100);
+        }
+        assertEquals(2, registro.getCantidad());
+        assertNull(registro.buscar(cliente, "a"));
+        assertNotNull(registro.buscar(cliente, "b"));
+
+        reloj.addAndGet(800);
+        assertNull(registro.buscar(cliente, "b"));
+        assertNotNull(registro.buscar(cliente, "c"));
+        reloj.addAndGet(100);
+        assertEquals(0, registro.getCantidad());
+        assertEquals(3, ejecuciones.get());
+    }
+
+    /**
+     * Given: 8 hilos que envían la misma solicitud con la misma clave a la vez.
+     * When:  Todos terminan.
+     * Then:  La compra se ejecutó una sola vez y todos recibieron la misma.
+     */
+    @Test
+    @DisplayName("RegistroIdempotencia: reintentos simultáneos ejecutan la compra una sola vez")
+    void reintentosConcurrentes() throws Exception {
+        RegistroIdempotencia registro = new RegistroIdempotencia(100, 60_000);
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Compra> resultados = java.util.Collections.synchronizedList(new ArrayList<Compra>());
+        List<Thread> hilos = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            hilos.add(new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                resultados.add(registro.ejecutar(cliente, "pedido-9", () -> {
+                    ejecuciones.incrementAndGet();
+                    return comprar(cliente, null);
+                }));
+            }));
+        }
+        for (Thread t : hilos) {
+            t.start();
+        }
+        salida.countDown();
+        for (Thread t : hilos) {
+            t.join();
+        }
+        assertEquals(1, ejecuciones.get());
+        assertEquals(8, resultados.size());
+        for (Compra c : resultados) {
+            assertSame(resultados.get(0), c);
+        }
+        assertEquals(100_000 - resultados.get(0).getValorCompraCentavos(), cliente.getSaldoCentavos());
+    }
+
+    /**
+     * Given: Un registro con una compra, guardado en JSON.
+     * When:  Se carga en un registro nuevo con los clientes y sus compras.
+     * Then:  El reintento devuelve la compra original; las entradas vencidas no se cargan.
+     */
+    @Test
+    @DisplayName("PersistenciaIdempotencia: el registro se guarda y se restaura")
+    void persistencia() throws Exception {
+        RegistroIdempotencia registro = new RegistroIdempotencia(100, 1000, reloj::get);
+        Compra compra = registro.ejecutar(cliente, "pedido-1", () -> comprar(cliente, null));
+        File archivo = File.createTempFile("idempotencia", ".json");
+        try {
+            PersistenciaIdempotencia.guardarRegistro(registro, archivo.getPath());
+
+            RegistroIdempotencia cargado = new RegistroIdempotencia(100, 1000, reloj::get);
+            assertEquals(1, PersistenciaIdempotencia.cargarRegistro(cargado, List.of(cliente), archivo.getPath()));
+            assertSame(compra, cargado.ejecutar(cliente, "pedido-1", () -> comprar(cliente, null)));
+            assertEquals(1, cliente.getCompras().size());
+
+            reloj.addAndGet(1000);
+            RegistroIdempotencia vencido = new RegistroIdempotencia(100, 1000, reloj::get);
+            assertEquals(0, PersistenciaIdempotencia.cargarRegistro(vencido, List.of(cliente), archivo.getPath()));
+        } finally {
+            archivo.delete();
+        }
+    }
+
+    /**
+     * Given: Un registro con una compra, guardado en JSON.
+     * When:  Se carga después de un reinicio, con un cliente nuevo que no tiene compras.
+     * Then:  El reintento recibe la compra original reconstruida (id, fecha, valor y códigos)
+     *        sin cobrar de nuevo.
+     */
+    @Test
+    @DisplayName("PersistenciaIdempotencia: el reintento sobrevive a un reinicio sin las compras")
+    void persistenciaTrasReinicio() throws Exception {
+        RegistroIdempotencia registro = new RegistroIdempotencia(100, 1000, reloj::get);
+        Compra compra = registro.ejecutar(cliente, "pedido-1", () -> comprar(cliente, null));
+        File archivo = File.createTempFile("idempotencia", ".json");
+        try {
+            PersistenciaIdempotencia.guardarRegistro(registro, archivo.getPath());
+
+            Cliente reiniciado = new Cliente("user1", "pass", "Cliente Uno", 100);
+            reiniciado.setSaldo(1000.0);
+            RegistroIdempotencia cargado = new RegistroIdempotencia(100, 1000, reloj::get);
+            assertEquals(1, PersistenciaIdempotencia.cargarRegistro(cargado, List.of(reiniciado), archivo.getPath()));
+
+            Compra respuesta = cargado.ejecutar(reiniciado, "pedido-1", () -> comprar(reiniciado, null));
+            assertEquals(compra.getIdCompra(), respuesta.getIdCompra());
+            assertEquals(compra.getFechaCompra(), respuesta.getFechaCompra());
+            assertEquals(compra.getValorCompraCentavos(), respuesta.getValorCompraCentavos());
+            assertArrayEquals(compra.getCodigosTiquetes(), respuesta.getCodigosTiquetes());
+            assertSame(reiniciado, respuesta.getDueno());
+            assertTrue(reiniciado.getCompras().isEmpty());
+            assertEquals(100_000, reiniciado.getSaldoCentavos());
+        } finally {
+            archivo.delete();
+        }
+    }
+}
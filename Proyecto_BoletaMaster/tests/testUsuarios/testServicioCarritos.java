@@ -0,0 +1,248 @@
+package testUsuarios;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.GestorRetenciones;
+import Eventos.Localidad;
+import Eventos.Retencion;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Carrito;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+import Usuarios.ServicioCarritos;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Tiquetes.Compra;
+import Tiquetes.Individual;
+import Tiquetes.Multiple;
+
+public class testServicioCarritos {
+
+    private static final Duration RETENCION = Duration.ofMinutes(10);
+
+    private Evento evento;
+    private Localidad platea;
+    private Cliente cliente;
+    private AtomicLong reloj;
+    private ServicioCarritos servicio;
+
+    @BeforeEach
+    void setUp() {
+        Administrador admin = new Administrador("admin", "pwd", "Administrador", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.1);
+        admin.setCuotaEmisionGlobal(1.0);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Teatro", "Calle 1", 1000, "Ninguna");
+        venue.setAprobado(true);
+        evento = new Evento("Rock Fest", 1, venue, LocalDateTime.now().plusDays(10), organizador, "Concierto", admin);
+        platea = evento.crearLocalidad("Platea", true, 100, 80.0, 80.0, 80.0, 80.0);
+
+        cliente = new Cliente("user1", "pass", "Cliente Uno", 100);
+        cliente.setSaldo(10_000.0);
+        reloj = new AtomicLong(1_000_000);
+        servicio = new ServicioCarritos(reloj::get, Duration.ofMinutes(15), 1000, 1000, 64);
+    }
+
+    private Individual retener(Cliente c, int asiento) {
+        return c.precompraIndividualNumerada(0, evento, platea, asiento, RETENCION);
+    }
+
+    /**
+     * Given: Un cliente sin carrito.
+     * When:  Agrega dos tiquetes retenidos, repite uno y luego los quita.
+     * Then:  El total sigue cada cambio, quitar libera la retención y el carrito vacío se
+     *        descarta.
+     */
+    @Test
+    @DisplayName("ServicioCarritos: el total sigue los cambios y quitar libera la retención")
+    void agregarYQuitar() {
+        Individual a = retener(cliente, 1);
+        Individual b = retener(cliente, 2);
+
+        Carrito carrito = servicio.agregarTiquete(cliente, a);
+        assertSame(carrito, servicio.agregarTiquete(cliente, b));
+        servicio.agregarTiquete(cliente, a);
+        assertEquals(2, carrito.getCantidadElementos());
+        assertEquals(a.calcularCostoTotalCentavos() + b.calcularCostoTotalCentavos(), carrito.getTotalCentavos());
+        assertEquals(1, servicio.getAbiertos());
+
+        assertTrue(servicio.quitarTiquete(cliente, a));
+        assertEquals(Retencion.LIBERADA, a.getRetencion().getEstado());
+        assertEquals(b.calcularCostoTotalCentavos(), carrito.getTotalCentavos());
+        assertEquals(List.of(b), carrito.getTiquetes());
+
+        assertTrue(servicio.quitarTiquete(cliente, b));
+        assertEquals(Carrito.VACIADO, carrito.getEstado());
+        assertNull(servicio.obtener(cliente));
+        assertEquals(0, servicio.getAbiertos());
+
+        Cliente otro = new Cliente("user2", "pass", "Cliente Dos", 101);
+        assertThrows(IllegalArgumentException.class, () -> servicio.agregarTiquete(otro, retener(cliente, 3)));
+    }
+
+    /**
+     * Given: Un carrito con dos tiquetes, uno de ellos repreciado después de agregarlo.
+     * When:  Se consulta el total y luego se quita el tiquete repreciado.
+     * Then:  El total usa el costo nuevo, el mismo que cobraría la compra; al quitarlo queda
+     *        igual al costo del otro.
+     */
+    @Test
+    @DisplayName("ServicioCarritos: quitar un tiquete repreciado no descuadra el total")
+    void quitarRepreciado() {
+        Individual a = retener(cliente, 1);
+        Individual b = retener(cliente, 2);
+        Carrito carrito = servicio.agregarTiquete(cliente, a);
+        servicio.agregarTiquete(cliente, b);
+        long costoAntes = a.calcularCostoTotalCentavos();
+
+        evento.getAdmin().setCuotaEmisionGlobal(5.0);
+        evento.aplicarTarifas(evento.getAdmin().getTarifas());
+        assertTrue(a.aplicarTarifas(evento.getTarifas()));
+        assertNotEquals(costoAntes, a.calcularCostoTotalCentavos());
+        assertEquals(a.calcularCostoTotalCentavos() + b.calcularCostoTotalCentavos(), carrito.getTotalCentavos());
+
+        assertTrue(servicio.quitarTiquete(cliente, a));
+        assertEquals(b.calcularCostoTotalCentavos(), carrito.getTotalCentavos());
+    }
+
+    /**
+     * Given: Un carrito con dos tiquetes; las tarifas del evento cambian y un tiquete se
+     *        reprecia después de agregarlo.
+     * When:  Se consulta el total y se paga el carrito.
+     * Then:  La compra cobra exactamente el total que mostraba el carrito.
+     */
+    @Test
+    @DisplayName("ServicioCarritos: tras un repreciado, pagar cobra el total mostrado")
+    void pagarRepreciado() {
+        Individual a = retener(cliente, 1);
+        Individual b = retener(cliente, 2);
+        servicio.agregarTiquete(cliente, a);
+        Carrito carrito = servicio.agregarTiquete(cliente, b);
+
+        evento.getAdmin().setCuotaEmisionGlobal(5.0);
+        evento.aplicarTarifas(evento.getAdmin().getTarifas());
+        assertTrue(a.aplicarTarifas(evento.getTarifas()));
+        long mostrado = carrito.getTotalCentavos();
+
+        cliente.setSaldo(10_000.0);
+        Compra compra = servicio.pagar(cliente, true, null);
+        assertEquals(mostrado, compra.getValorCompraCentavos());
+    }
+
+    /**
+     * Given: Un carrito con un tiquete y un paquete retenidos.
+     * When:  El cliente sigue cambiándolo dentro de la vigencia y luego lo abandona.
+     * Then:  Un carrito en uso no vence; el abandonado vence en el barrido y sus retenciones
+     *        se liberan.
+     */
+    @Test
+    @DisplayName("ServicioCarritos: un carrito abandonado vence y libera sus retenciones")
+    void vencimiento() {
+        Individual t = retener(cliente, 1);
+        Multiple paquete = cliente.precompraPaqueteMultipleMismoEvento(0, evento, platea, 2,
+                new ArrayList<>(Arrays.asList(5, 6)), RETENCION);
+        servicio.agregarTiquete(cliente, t);
+
+        reloj.addAndGet(Duration.ofMinutes(10).toMillis());
+        Carrito carrito = servicio.agregarPaquete(cliente, paquete);
+        reloj.addAndGet(Duration.ofMinutes(10).toMillis());
+        assertEquals(0, servicio.procesarVencimientos());
+        assertEquals(Carrito.ABIERTO, carrito.getEstado());
+
+        reloj.addAndGet(Duration.ofMinutes(6).toMillis());
+        assertEquals(1, servicio.procesarVencimientos());
+        assertEquals(Carrito.EXPIRADO, carrito.getEstado());
+        assertEquals(Retencion.LIBERADA, t.getRetencion().getEstado());
+        assertEquals(Retencion.LIBERADA, paquete.getTiquetesIncluidos().getFirst().getRetencion().getEstado());
+        assertNull(servicio.obtener(cliente));
+        assertEquals(0, servicio.getAbiertos());
+        assertEquals(1, servicio.getExpirados());
+    }
+
+    /**
+     * Given: Un carrito con dos tiquetes retenidos.
+     * When:  El pago falla por saldo insuficiente y luego sale bien.
+     * Then:  El fallo deja el carrito abierto como estaba; el pago registra la compra con
+     *        los tiquetes del carrito y lo descarta.
+     */
+    @Test
+    @DisplayName("ServicioCarritos: pagar compra el carrito y un fallo lo deja abierto")
+    void pagar() {
+        Individual a = retener(cliente, 1);
+        Individual b = retener(cliente, 2);
+        servicio.agregarTiquete(cliente, a);
+        Carrito carrito = servicio.agregarTiquete(cliente, b);
+
+        cliente.setSaldo(1.0);
+        assertThrows(RuntimeException.class, () -> servicio.pagar(cliente, true, null));
+        assertEquals(Carrito.ABIERTO, carrito.getEstado());
+        assertEquals(2, carrito.getCantidadElementos());
+        assertEquals(Retencion.ACTIVA, a.getRetencion().getEstado());
+
+        cliente.setSaldo(10_000.0);
+        Compra compra = servicio.pagar(cliente, true, null);
+        assertEquals(List.of(a, b), compra.getTiquetesComprados());
+        assertEquals(Carrito.PAGADO, carrito.getEstado());
+        assertEquals(Retencion.CONFIRMADA, a.getRetencion().getEstado());
+        assertNull(servicio.obtener(cliente));
+        assertEquals(1, servicio.getPagados());
+        assertThrows(IllegalArgumentException.class, () -> servicio.pagar(cliente, true, null));
+    }
+
+    /**
+     * Given: Un carrito cuyo tiquete perdió la retención por fuera del carrito.
+     * When:  Se consulta el carrito.
+     * Then:  El tiquete sale del carrito y del total.
+     */
+    @Test
+    @DisplayName("ServicioCarritos: los tiquetes sin retención activa salen del carrito")
+    void retencionTerminada() {
+        Individual a = retener(cliente, 1);
+        Individual b = retener(cliente, 2);
+        servicio.agregarTiquete(cliente, a);
+        Carrito carrito = servicio.agregarTiquete(cliente, b);
+
+        GestorRetenciones.getInstance().liberar(a.getRetencion());
+
+        assertSame(carrito, servicio.obtener(cliente));
+        assertEquals(List.of(b), carrito.getTiquetes());
+        assertEquals(b.calcularCostoTotalCentavos(), carrito.getTotalCentavos());
+        assertThrows(IllegalArgumentException.class, () -> servicio.agregarTiquete(cliente, a));
+    }
+
+    /**
+     * Given: Un servicio con espacio para dos carritos.
+     * When:  Un tercer cliente intenta abrir un carrito y luego otro carrito se vacía.
+     * Then:  El tercero se rechaza mientras no haya espacio y entra cuando se libera uno.
+     */
+    @Test
+    @DisplayName("ServicioCarritos: respeta el máximo de carritos abiertos")
+    void maximoCarritos() {
+        ServicioCarritos pequeno = new ServicioCarritos(reloj::get, Duration.ofMinutes(15), 2, 1000, 64);
+        Cliente dos = new Cliente("user2", "pass", "Cliente Dos", 101);
+        Cliente tres = new Cliente("user3", "pass", "Cliente Tres", 102);
+        pequeno.agregarTiquete(cliente, retener(cliente, 1));
+        pequeno.agregarTiquete(dos, retener(dos, 2));
+
+        Individual t = retener(tres, 3);
+        assertThrows(IllegalStateException.class, () -> pequeno.agregarTiquete(tres, t));
+        assertEquals(2, pequeno.getAbiertos());
+
+        assertTrue(pequeno.vaciar(dos));
+        assertNotNull(pequeno.agregarTiquete(tres, t));
+        assertEquals(2, pequeno.getAbiertos());
+        assertEquals(3, pequeno.getCreados());
+    }
+}
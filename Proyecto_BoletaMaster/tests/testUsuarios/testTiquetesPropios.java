@@ -0,0 +1,207 @@
+package testUsuarios;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Venue;
+import MarketPlace.OfertaMP;
+import MarketPlace.marketPlace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.IndicePropietario;
+import Usuarios.Organizador;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import Tiquetes.Individual;
+import Tiquetes.Multiple;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+public class testTiquetesPropios {
+
+    private Administrador admin;
+    private Evento evento;
+    private Localidad general;
+    private Localidad platea;
+    private Cliente cliente;
+    private Cliente otro;
+
+    @BeforeEach
+    void setUp() {
+        admin = new Administrador("admin", "pwd", "Administrador", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.1);
+        admin.setCuotaEmisionGlobal(1.0);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Teatro", "Calle 1", 1000, "Ninguna");
+        venue.setAprobado(true);
+        evento = new Evento("Rock Fest", 1, venue, LocalDateTime.now().plusDays(10), organizador, "Concierto", admin);
+        general = evento.crearLocalidad("General", false, 500, 50.0, 50.0, 50.0, 50.0);
+        platea = evento.crearLocalidad("Platea", true, 100, 80.0, 80.0, 80.0, 80.0);
+
+        cliente = new Cliente("user1", "pass", "Cliente Uno", 100);
+        cliente.setSaldo(100_000.0);
+        otro = new Cliente("user2", "pass", "Cliente Dos", 101);
+        otro.setSaldo(100_000.0);
+    }
+
+    private Individual comprar(Cliente c) {
+        Individual t = c.precompraIndividualNoNumerada(0, evento, general, true);
+        c.hacerCompra(new ArrayList<Tiquete>(List.of(t)), new ArrayList<PaqueteTiquetes>(), true);
+        return t;
+    }
+
+    /**
+     * Given: Un cliente que hace 25 compras de un tiquete y una de un paquete.
+     * When:  Consulta sus tiquetes completos y por páginas de 10.
+     * Then:  Recibe los tiquetes en orden de compra; las páginas siguen al último de la
+     *        anterior y la última trae el resto.
+     */
+    @Test
+    @DisplayName("Tiquetes propios: las compras se listan en orden y por páginas")
+    void comprasYPaginas() {
+        List<Tiquete> comprados = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            comprados.add(comprar(cliente));
+        }
+        Multiple paquete = cliente.precompraPaqueteMultipleMismoEvento(0, evento, platea, 2, true,
+                new ArrayList<>(Arrays.asList(1, 2)));
+        cliente.hacerCompra(new ArrayList<Tiquete>(), new ArrayList<PaqueteTiquetes>(List.of(paquete)), true);
+
+        assertEquals(comprados, cliente.obtenerTiquetesComprados());
+        assertEquals(List.of(paquete), cliente.obtenerPaquetesComprados());
+
+        ArrayList<Tiquete> primera = cliente.obtenerTiquetesComprados(null, 10);
+        ArrayList<Tiquete> segunda = cliente.obtenerTiquetesComprados(primera.getLast(), 10);
+        ArrayList<Tiquete> tercera = cliente.obtenerTiquetesComprados(segunda.getLast(), 10);
+        assertEquals(comprados.subList(0, 10), primera);
+        assertEquals(comprados.subList(10, 20), segunda);
+        assertEquals(comprados.subList(20, 25), tercera);
+        assertTrue(cliente.obtenerTiquetesComprados(tercera.getLast(), 10).isEmpty());
+    }
+
+    /**
+     * Given: Un cliente con dos tiquetes comprados y un paquete.
+     * When:  Transfiere un tiquete, parte del paquete y luego el paquete completo.
+     * Then:  Cada tiquete o paquete aparece solo entre los del cliente que lo tiene ahora.
+     */
+    @Test
+    @DisplayName("Tiquetes propios: las transferencias mueven el tiquete al nuevo dueño")
+    void transferencias() {
+        Individual a = comprar(cliente);
+        Individual b = comprar(cliente);
+        Multiple paquete = cliente.precompraPaqueteMultipleMismoEvento(0, evento, platea, 2, true,
+                new ArrayList<>(Arrays.asList(3, 4)));
+        cliente.hacerCompra(new ArrayList<Tiquete>(), new ArrayList<PaqueteTiquetes>(List.of(paquete)), true);
+
+        assertTrue(cliente.transferirTiquete(a, otro, true));
+        assertEquals(List.of(b), cliente.obtenerTiquetesComprados());
+        assertEquals(List.of(a), otro.obtenerTiquetesComprados());
+
+        Tiquete parte = paquete.getTiquetesIncluidos().getFirst();
+        assertTrue(cliente.transferirParteDePaquete(paquete, new ArrayList<>(List.of(parte)), otro, true));
+        assertEquals(List.of(a, parte), otro.obtenerTiquetesComprados());
+
+        assertTrue(cliente.transferirPaqueteCompleto(paquete, otro, true));
+        assertTrue(cliente.obtenerPaquetesComprados().isEmpty());
+        assertEquals(List.of(paquete), otro.obtenerPaquetesComprados());
+
+        // Un tiquete que ya no es del cliente no sirve como cursor de sus páginas.
+        assertThrows(IllegalArgumentException.class, () -> cliente.obtenerTiquetesComprados(a, 10));
+    }
+
+    /**
+     * Given: Un tiquete publicado en el marketplace.
+     * When:  El vendedor acepta la puja de otro cliente.
+     * Then:  El tiquete pasa de los tiquetes del vendedor a los del comprador.
+     */
+    @Test
+    @DisplayName("Tiquetes propios: una venta en el marketplace cambia de lista el tiquete")
+    void ventaMarketplace() {
+        Individual t = comprar(cliente);
+        cliente.crearOfertaMP(new ArrayList<Tiquete>(List.of(t)), 60.0, LocalDateTime.now().plusDays(1));
+        OfertaMP oferta = marketPlace.getInstance().getActivas().getLast();
+        otro.crearPuja(oferta, 70.0);
+
+        cliente.aceptarPuja(oferta.getPujas().getFirst(), oferta);
+
+        assertTrue(cliente.obtenerTiquetesComprados().isEmpty());
+        assertEquals(List.of(t), otro.obtenerTiquetesComprados());
+    }
+
+    /**
+     * Given: Un tiquete de un paquete comprado, publicado en el marketplace.
+     * When:  El vendedor acepta la puja de otro cliente.
+     * Then:  El tiquete aparece entre los del comprador una sola vez.
+     */
+    @Test
+    @DisplayName("Tiquetes propios: un tiquete de paquete vendido en el marketplace llega al comprador")
+    void ventaMarketplaceDesdePaquete() {
+        Multiple paquete = cliente.precompraPaqueteMultipleMismoEvento(0, evento, platea, 2, true,
+                new ArrayList<>(Arrays.asList(5, 6)));
+        cliente.hacerCompra(new ArrayList<Tiquete>(), new ArrayList<PaqueteTiquetes>(List.of(paquete)), true);
+        Tiquete parte = paquete.getTiquetesIncluidos().getFirst();
+        cliente.crearOfertaMP(new ArrayList<Tiquete>(List.of(parte)), 60.0, LocalDateTime.now().plusDays(1));
+        OfertaMP oferta = marketPlace.getInstance().getActivas().getLast();
+        otro.crearPuja(oferta, 70.0);
+
+        cliente.aceptarPuja(oferta.getPujas().getFirst(), oferta);
+
+        assertSame(otro, parte.getDueno());
+        assertEquals(List.of(parte), otro.obtenerTiquetesComprados());
+        assertTrue(cliente.obtenerTiquetesComprados().isEmpty());
+    }
+
+    /**
+     * Given: Un cliente con un tiquete y un paquete comprados.
+     * When:  El administrador aprueba el reembolso de ambos.
+     * Then:  Ya no aparecen entre los tiquetes y paquetes del cliente.
+     */
+    @Test
+    @DisplayName("Tiquetes propios: un reembolso saca el tiquete o el paquete de la lista")
+    void reembolsos() {
+        Individual t = comprar(cliente);
+        Individual queda = comprar(cliente);
+        Multiple paquete = cliente.precompraPaqueteMultipleMismoEvento(0, evento, platea, 2, true,
+                new ArrayList<>(Arrays.asList(5, 6)));
+        cliente.hacerCompra(new ArrayList<Tiquete>(), new ArrayList<PaqueteTiquetes>(List.of(paquete)), true);
+
+        admin.aprobarReembolsoPorCalamidadTiquete(cliente, t);
+        admin.aprobarReembolsoPorCalamidadPaquete(cliente, paquete);
+
+        assertEquals(List.of(queda), cliente.obtenerTiquetesComprados());
+        assertTrue(cliente.obtenerPaquetesComprados().isEmpty());
+    }
+
+    /**
+     * Given: Un índice con elementos agregados y quitados.
+     * When:  Se agregan repetidos y se piden páginas inválidas.
+     * Then:  Los repetidos no se duplican y las páginas inválidas se rechazan.
+     */
+    @Test
+    @DisplayName("IndicePropietario: ignora repetidos y valida las páginas")
+    void indice() {
+        IndicePropietario<String> indice = new IndicePropietario<>();
+        assertTrue(indice.agregar("a"));
+        assertTrue(indice.agregar("b"));
+        assertFalse(indice.agregar("a"));
+        assertTrue(indice.quitar("a"));
+        assertFalse(indice.quitar("a"));
+        assertTrue(indice.agregar("a"));
+
+        assertEquals(List.of("b", "a"), indice.listar());
+        assertEquals(2, indice.getCantidad());
+        assertEquals(List.of("a"), indice.pagina("b", 5));
+        assertThrows(IllegalArgumentException.class, () -> indice.pagina(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> indice.pagina("c", 5));
+        assertThrows(IllegalArgumentException.class, () -> indice.agregar(null));
+    }
+}
@@ -0,0 +1,272 @@
+package testUsuarios;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import Eventos.Evento;
+import Eventos.Localidad;
+import Eventos.Retencion;
+import Eventos.Venue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Usuarios.Administrador;
+import Usuarios.Cliente;
+import Usuarios.Organizador;
+import Usuarios.PasarelaPago;
+import Usuarios.TransaccionCompra;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Tiquetes.Compra;
+import Tiquetes.Individual;
+import Tiquetes.PaqueteTiquetes;
+import Tiquetes.Tiquete;
+
+public class testTransaccionCompra {
+
+    private Administrador admin;
+    private Evento evento;
+    private Localidad numerada;
+    private Localidad general;
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        admin = new Administrador("admin", "pwd", "Administrador", 1);
+        admin.establecerCargoServicioPorTipo("Concierto", 0.1);
+        admin.setCuotaEmisionGlobal(1.0);
+        Organizador organizador = new Organizador("org", "pwd", "Organizador", 10, 0.0, "Org S.A.");
+        Venue venue = new Venue(10, "Teatro Nacional", "Calle 123", 1000, "Sin pirotecnia");
+        venue.setAprobado(true);
+        evento = new Evento("Rock Fest", 1001, venue, LocalDateTime.now().plusDays(5), organizador, "Concierto", admin);
+        numerada = evento.crearLocalidad("VIP", true, 50, 100.0, 100.0, 100.0, 100.0);
+        general = evento.crearLocalidad("General", false, 50, 50.0, 50.0, 50.0, 50.0);
+        cliente = new Cliente("user1", "pass", "Cliente Uno", 100);
+        cliente.setSaldo(1000.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransaccionCompra.setPasarelaPorDefecto(PasarelaPago.APROBAR_TODO);
+    }
+
+    private static ArrayList<Tiquete> carrito(Tiquete... tiquetes) {
+        ArrayList<Tiquete> lista = new ArrayList<Tiquete>();
+        for (Tiquete t : tiquetes) {
+            lista.add(t);
+        }
+        return lista;
+    }
+
+    /**
+     * Given: Un tiquete numerado y uno general, sin retención.
+     * When:  El cliente los compra con saldo.
+     * Then:  El asiento y el cupo quedan vendidos, el saldo baja el total y la compra queda registrada.
+     */
+    @Test
+    @DisplayName("TransaccionCompra: aparta el inventario, cobra y registra")
+    void compraCompleta() {
+        Individual asiento = new Individual(1, 100.0, evento, numerada, cliente, true, 7);
+        Individual cupo = new Individual(2, 50.0, evento, general, cliente, true, -1);
+
+        Compra compra = cliente.hacerCompra(carrito(asiento, cupo), new ArrayList<PaqueteTiquetes>(), true);
+
+        assertFalse(numerada.asientoDisponible(7));
+        assertEquals(1, numerada.getTiquetesVendidos());
+        assertEquals(1, general.getTiquetesVendidos());
+        long total = (10000 + 1000 + 100) + (5000 + 500 + 100);
+        assertEquals(total, compra.getValorCompraCentavos());
+        assertEquals(100_000 - total, cliente.getSaldoCentavos());
+        assertEquals(1, cliente.getCompras().size());
+    }
+
+    /**
+     * Given: Un asiento ya vendido y un límite de 1 tiquete por cliente en el evento.
+     * When:  Otro carrito intenta comprar ese asiento junto con un cupo general.
+     * Then:  La compra falla y se deshace todo: el cupo, el límite, el saldo y el precio vuelven
+     *        a como estaban.
+     */
+    @Test
+    @DisplayName("TransaccionCompra: si un asiento ya no está libre, deshace los pasos anteriores")
+    void deshaceSiElAsientoEstaOcupado() {
+        cliente.hacerCompra(carrito(new Individual(1, 100.0, evento, numerada, cliente, true, 7)),
+                new ArrayList<PaqueteTiquetes>(), true);
+        Cliente otro = new Cliente("user2", "pass", "Cliente Dos", 101);
+        otro.setSaldo(1000.0);
+        evento.setLimitePorCliente(2);
+        Individual cupo = new Individual(2, 50.0, evento, general, otro, true, -1);
+        Individual repetido = new Individual(3, 100.0, evento, numerada, otro, true, 7);
+
+        assertThrows(IllegalStateException.class,
+                () -> otro.hacerCompra(carrito(cupo, repetido), new ArrayList<PaqueteTiquetes>(), true));
+
+        assertEquals(0, general.getTiquetesVendidos());
+        assertEquals(0, evento.getLimiteCompras().getConsumidos(101));
+        assertEquals(100_000, otro.getSaldoCentavos());
+        assertTrue(otro.getCompras().isEmpty());
+        admin.setCuotaEmisionGlobal(2.0);
+        assertTrue(cupo.aplicarTarifas(admin.getTarifas()));
+    }
+
+    /**
+     * Given: Un cliente sin saldo suficiente y otro que paga con una pasarela que rechaza.
+     * When:  Ambos intentan comprar.
+     * Then:  Las dos compras fallan sin vender el asiento ni cobrar.
+     */
+    @Test
+    @DisplayName("TransaccionCompra: saldo insuficiente o pago rechazado no venden nada")
+    void pagoFallido() {
+        cliente.setSaldo(10.0);
+        Individual t = new Individual(1, 100.0, evento, numerada, cliente, true, 3);
+        assertThrows(IllegalStateException.class,
+                () -> cliente.hacerCompra(carrito(t), new ArrayList<PaqueteTiquetes>(), true));
+        assertTrue(numerada.asientoDisponible(3));
+        assertEquals(1_000, cliente.getSaldoCentavos());
+
+        AtomicLong cobrado = new AtomicLong();
+        PasarelaPago rechaza = new PasarelaPago() {
+            public boolean cobrar(Cliente c, long centavos, String referencia) {
+                return false;
+            }
+            public void reembolsar(Cliente c, long centavos, String referencia) {
+                cobrado.addAndGet(-centavos);
+            }
+        };
+        TransaccionCompra.setPasarelaPorDefecto(rechaza);
+        assertThrows(IllegalStateException.class,
+                () -> cliente.hacerCompra(carrito(t), new ArrayList<PaqueteTiquetes>(), false));
+        assertTrue(numerada.asientoDisponible(3));
+        assertEquals(0, cobrado.get());
+
+        PasarelaPago aprueba = new PasarelaPago() {
+            public boolean cobrar(Cliente c, long centavos, String referencia) {
+                cobrado.addAndGet(centavos);
+                return true;
+            }
+            public void reembolsar(Cliente c, long centavos, String referencia) {
+                cobrado.addAndGet(-centavos);
+            }
+        };
+        Compra compra = new TransaccionCompra(cliente, carrito(t), new ArrayList<PaqueteTiquetes>(), false, null, aprueba).ejecutar();
+        assertEquals(compra.getValorCompraCentavos(), cobrado.get());
+        assertEquals(1_000, cliente.getSaldoCentavos());
+    }
+
+    /**
+     * Given: Un carrito vacío, uno con el mismo tiquete dos veces y un tiquete ya comprado.
+     * When:  Se intenta comprar cada uno.
+     * Then:  Los dos primeros son inválidos y el tercero se rechaza por estar ya comprado.
+     */
+    @Test
+    @DisplayName("TransaccionCompra: valida el carrito y no compra dos veces el mismo tiquete")
+    void validaCarrito() {
+        Individual t = new Individual(1, 100.0, evento, numerada, cliente, true, 4);
+        assertThrows(IllegalArgumentException.class,
+                () -> cliente.hacerCompra(new ArrayList<Tiquete>(), new ArrayList<PaqueteTiquetes>(), true));
+        assertThrows(IllegalArgumentException.class,
+                () -> cliente.hacerCompra(carrito(t, t), new ArrayList<PaqueteTiquetes>(), true));
+
+        cliente.hacerCompra(carrito(t), new ArrayList<PaqueteTiquetes>(), true);
+        long saldo = cliente.getSaldoCentavos();
+        assertThrows(IllegalStateException.class,
+                () -> cliente.hacerCompra(carrito(t), new ArrayList<PaqueteTiquetes>(), true));
+        assertEquals(saldo, cliente.getSaldoCentavos());
+        assertEquals(1, cliente.getCompras().size());
+    }
+
+    /**
+     * Given: Un asiento retenido por el cliente, que no tiene saldo suficiente.
+     * When:  La compra falla al cobrar, después de confirmar la retención, y luego se repite con saldo.
+     * Then:  El fallo reabre la retención sin vender ni soltar el asiento; el segundo intento lo compra.
+     */
+    @Test
+    @DisplayName("TransaccionCompra: si el cobro falla, la retención vuelve a quedar activa")
+    void reabreRetencionSiFalla() {
+        Individual t = cliente.precompraIndividualNumerada(1, evento, numerada, 9, Duration.ofMinutes(10));
+        cliente.setSaldo(1.0);
+
+        assertThrows(IllegalStateException.class,
+                () -> cliente.hacerCompra(carrito(t), new ArrayList<PaqueteTiquetes>(), true));
+
+        assertEquals(Retencion.ACTIVA, t.getRetencion().getEstado());
+        assertFalse(numerada.asientoDisponible(9));
+        assertEquals(0, numerada.getTiquetesVendidos());
+
+        cliente.setSaldo(1000.0);
+        cliente.hacerCompra(carrito(t), new ArrayList<PaqueteTiquetes>(), true);
+        assertEquals(Retencion.CONFIRMADA, t.getRetencion().getEstado());
+        assertEquals(1, numerada.getTiquetesVendidos());
+    }
+
+    /**
+     * Given: 8 hilos con 20 clientes cada uno que compiten por los mismos 50 asientos.
+     * When:  Todos compran a la vez.
+     * Then:  Cada asiento se vende exactamente una vez y cada cliente pagó solo lo que compró.
+     */
+    @Test
+    @DisplayName("TransaccionCompra: compras simultáneas no venden un asiento dos veces ni pierden saldo")
+    void comprasConcurrentes() throws Exception {
+        int hilos = 8;
+        int clientesPorHilo = 20;
+        AtomicInteger exitos = new AtomicInteger();
+        List<Cliente> clientes = new ArrayList<Cliente>();
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> trabajadores = new ArrayList<Thread>();
+        for (int h = 0; h < hilos; h++) {
+            List<Cliente> propios = new ArrayList<Cliente>();
+            for (int c = 0; c < clientesPorHilo; c++) {
+                Cliente cl = new Cliente("c" + h + "_" + c, "pass", "Cliente", 1000 + h * clientesPorHilo + c);
+                cl.setSaldo(500.0);
+                propios.add(cl);
+                clientes.add(cl);
+            }
+            int desplazamiento = h * 7;
+            trabajadores.add(new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int c = 0; c < propios.size(); c++) {
+                    Cliente cl = propios.get(c);
+                    int asiento = 1 + (desplazamiento + c * 3) % 50;
+                    Individual t = new Individual(asiento, 100.0, evento, numerada, cl, true, asiento);
+                    try {
+                        cl.hacerCompra(carrito(t), new ArrayList<PaqueteTiquetes>(), true);
+                        exitos.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // asiento tomado por otro hilo
+                    }
+                }
+            }));
+        }
+        for (Thread t : trabajadores) {
+            t.start();
+        }
+        salida.countDown();
+        for (Thread t : trabajadores) {
+            t.join();
+        }
+
+        assertEquals(numerada.getTiquetesVendidos(), exitos.get());
+        long pagado = 0;
+        int compras = 0;
+        for (Cliente cl : clientes) {
+            for (Compra c : cl.getCompras()) {
+                pagado += c.getValorCompraCentavos();
+                compras++;
+            }
+            assertEquals(50_000 - cl.getCompras().size() * 11_100L, cl.getSaldoCentavos());
+        }
+        assertEquals(exitos.get(), compras);
+        assertEquals(exitos.get() * 11_100L, pagado);
+    }
+}